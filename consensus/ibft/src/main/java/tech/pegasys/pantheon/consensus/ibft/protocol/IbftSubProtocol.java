@@ -14,6 +14,7 @@ package tech.pegasys.pantheon.consensus.ibft.protocol;
 
 import tech.pegasys.pantheon.consensus.ibft.ibftmessage.IbftV2;
 import tech.pegasys.pantheon.ethereum.p2p.wire.Capability;
+import tech.pegasys.pantheon.ethereum.p2p.wire.MessagePriority;
 import tech.pegasys.pantheon.ethereum.p2p.wire.SubProtocol;
 
 public class IbftSubProtocol implements SubProtocol {
@@ -69,4 +70,10 @@ public class IbftSubProtocol implements SubProtocol {
         return INVALID_MESSAGE_NAME;
     }
   }
+
+  @Override
+  public MessagePriority messagePriority(final int protocolVersion, final int code) {
+    // Consensus rounds time out, so their messages must never wait behind other traffic.
+    return MessagePriority.HIGH;
+  }
 }
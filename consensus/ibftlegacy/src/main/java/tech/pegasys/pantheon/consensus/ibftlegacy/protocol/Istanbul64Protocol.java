@@ -12,9 +12,11 @@
  */
 package tech.pegasys.pantheon.consensus.ibftlegacy.protocol;
 
+import tech.pegasys.pantheon.ethereum.eth.EthProtocol;
 import tech.pegasys.pantheon.ethereum.eth.messages.EthPV62;
 import tech.pegasys.pantheon.ethereum.eth.messages.EthPV63;
 import tech.pegasys.pantheon.ethereum.p2p.wire.Capability;
+import tech.pegasys.pantheon.ethereum.p2p.wire.MessagePriority;
 import tech.pegasys.pantheon.ethereum.p2p.wire.SubProtocol;
 
 import java.util.Arrays;
@@ -103,6 +105,14 @@ public class Istanbul64Protocol implements SubProtocol {
     }
   }
 
+  @Override
+  public MessagePriority messagePriority(final int protocolVersion, final int code) {
+    if (code == INSTANBUL_MSG) {
+      return MessagePriority.HIGH;
+    }
+    return EthProtocol.get().messagePriority(EthProtocol.EthVersion.V63, code);
+  }
+
   public static Istanbul64Protocol get() {
     return INSTANCE;
   }
@@ -17,6 +17,7 @@ import tech.pegasys.pantheon.ethereum.eth.EthProtocol;
 import tech.pegasys.pantheon.ethereum.eth.manager.EthProtocolManager;
 import tech.pegasys.pantheon.ethereum.p2p.api.Message;
 import tech.pegasys.pantheon.ethereum.p2p.wire.Capability;
+import tech.pegasys.pantheon.metrics.MetricsSystem;
 
 import java.util.List;
 
@@ -30,8 +31,9 @@ public class Istanbul64ProtocolManager extends EthProtocolManager {
       final int networkId,
       final boolean fastSyncEnabled,
       final int syncWorkers,
-      final int txWorkers) {
-    super(blockchain, networkId, fastSyncEnabled, syncWorkers, txWorkers);
+      final int txWorkers,
+      final MetricsSystem metricsSystem) {
+    super(blockchain, networkId, fastSyncEnabled, syncWorkers, txWorkers, metricsSystem);
   }
 
   @Override
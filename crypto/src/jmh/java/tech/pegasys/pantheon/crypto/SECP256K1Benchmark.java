@@ -0,0 +1,101 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.crypto;
+
+import tech.pegasys.pantheon.util.bytes.Bytes32;
+import tech.pegasys.pantheon.util.bytes.BytesValue;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.bouncycastle.crypto.params.ECDomainParameters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/** Compares public key recovery on the reference curve, the specialised curve and in batches. */
+@State(Scope.Benchmark)
+public class SECP256K1Benchmark {
+
+  private static final int SIGNATURES = 100;
+
+  @Param({"1", "10", "100"})
+  public int batchSize;
+
+  private final List<Bytes32> dataHashes = new ArrayList<>(SIGNATURES);
+  private final List<SECP256K1.Signature> signatures = new ArrayList<>(SIGNATURES);
+  private final List<SECP256K1.PublicKey> publicKeys = new ArrayList<>(SIGNATURES);
+
+  @Setup(Level.Trial)
+  public void prepare() {
+    for (int i = 0; i < SIGNATURES; ++i) {
+      final SECP256K1.KeyPair keyPair = SECP256K1.KeyPair.generate();
+      final Bytes32 dataHash = Hash.keccak256(BytesValue.of((byte) i));
+      dataHashes.add(dataHash);
+      signatures.add(SECP256K1.sign(dataHash, keyPair));
+      publicKeys.add(keyPair.getPublicKey());
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(SIGNATURES)
+  public BigInteger recoverReference() {
+    return recoverEach(SECP256K1.CURVE);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(SIGNATURES)
+  public BigInteger recoverSpecialised() {
+    return recoverEach(SECP256K1.SPECIALISED_CURVE);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(SIGNATURES)
+  public List<Optional<SECP256K1.PublicKey>> recoverBatched() {
+    List<Optional<SECP256K1.PublicKey>> recovered = null;
+    for (int from = 0; from < SIGNATURES; from += batchSize) {
+      final int to = Math.min(SIGNATURES, from + batchSize);
+      recovered =
+          SECP256K1.PublicKey.recoverFromSignatures(
+              dataHashes.subList(from, to), signatures.subList(from, to));
+    }
+    return recovered;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(SIGNATURES)
+  public boolean verify() {
+    boolean verified = true;
+    for (int i = 0; i < SIGNATURES; ++i) {
+      verified &= SECP256K1.verify(dataHashes.get(i), signatures.get(i), publicKeys.get(i));
+    }
+    return verified;
+  }
+
+  private BigInteger recoverEach(final ECDomainParameters curve) {
+    BigInteger publicKey = null;
+    for (int i = 0; i < SIGNATURES; ++i) {
+      final SECP256K1.Signature signature = signatures.get(i);
+      publicKey =
+          SECP256K1.recoverFromSignature(
+              curve, signature.getRecId(), signature.getR(), signature.getS(), dataHashes.get(i));
+    }
+    return publicKey;
+  }
+}
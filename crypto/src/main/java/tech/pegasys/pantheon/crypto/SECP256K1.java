@@ -35,17 +35,20 @@ import java.security.InvalidAlgorithmParameterException;
 import java.security.KeyPairGenerator;
 import java.security.Security;
 import java.security.spec.ECGenParameterSpec;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 import java.util.function.UnaryOperator;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Objects;
 import org.bouncycastle.asn1.sec.SECNamedCurves;
 import org.bouncycastle.asn1.x9.X9ECParameters;
 import org.bouncycastle.asn1.x9.X9IntegerConverter;
 import org.bouncycastle.crypto.agreement.ECDHBasicAgreement;
 import org.bouncycastle.crypto.digests.SHA256Digest;
+import org.bouncycastle.crypto.ec.CustomNamedCurves;
 import org.bouncycastle.crypto.params.ECDomainParameters;
 import org.bouncycastle.crypto.params.ECPrivateKeyParameters;
 import org.bouncycastle.crypto.params.ECPublicKeyParameters;
@@ -79,6 +82,15 @@ public class SECP256K1 {
   private static final KeyPairGenerator KEY_PAIR_GENERATOR;
   private static final BigInteger CURVE_ORDER;
 
+  /**
+   * The same curve as {@link #CURVE}, backed by Bouncy Castle's implementation specialised for
+   * secp256k1: field arithmetic on fixed-size integer limbs rather than {@link BigInteger}, and
+   * scalar multiplication using the GLV endomorphism. Points on it can't be mixed with points on
+   * {@link #CURVE}, so it is only used internally, for signature verification and public key
+   * recovery.
+   */
+  @VisibleForTesting static final ECDomainParameters SPECIALISED_CURVE;
+
   static {
     Security.addProvider(new BouncyCastleProvider());
 
@@ -86,6 +98,15 @@ public class SECP256K1 {
     CURVE = new ECDomainParameters(params.getCurve(), params.getG(), params.getN(), params.getH());
     CURVE_ORDER = CURVE.getN();
     HALF_CURVE_ORDER = CURVE_ORDER.shiftRight(1);
+    final X9ECParameters specialisedParams = CustomNamedCurves.getByName(CURVE_NAME);
+    SPECIALISED_CURVE =
+        specialisedParams == null
+            ? CURVE
+            : new ECDomainParameters(
+                specialisedParams.getCurve(),
+                specialisedParams.getG(),
+                specialisedParams.getN(),
+                specialisedParams.getH());
     try {
       KEY_PAIR_GENERATOR = KeyPairGenerator.getInstance(ALGORITHM, PROVIDER);
     } catch (final Exception e) {
@@ -100,13 +121,14 @@ public class SECP256K1 {
   }
 
   /** Decompress a compressed public key (x co-ord and low-bit of y-coord). */
-  private static ECPoint decompressKey(final BigInteger xBN, final boolean yBit) {
+  private static ECPoint decompressKey(
+      final ECDomainParameters domain, final BigInteger xBN, final boolean yBit) {
     final X9IntegerConverter x9 = new X9IntegerConverter();
-    final byte[] compEnc = x9.integerToBytes(xBN, 1 + x9.getByteLength(CURVE.getCurve()));
+    final byte[] compEnc = x9.integerToBytes(xBN, 1 + x9.getByteLength(domain.getCurve()));
     compEnc[0] = (byte) (yBit ? 0x03 : 0x02);
     // TODO: Find a better way to handle an invalid point compression here.
     // Currently ECCurve#decodePoint throws an IllegalArgumentException.
-    return CURVE.getCurve().decodePoint(compEnc);
+    return domain.getCurve().decodePoint(compEnc);
   }
 
   /**
@@ -119,22 +141,112 @@ public class SECP256K1 {
    * and if the output is null OR a key that is not the one you expect, you try again with the next
    * recId.
    *
+   * @param domain The curve to compute on, either {@link #CURVE} or its specialised equivalent.
    * @param recId Which possible key to recover.
    * @param r The R component of the signature.
    * @param s The S component of the signature.
    * @param dataHash Hash of the data that was signed.
    * @return An ECKey containing only the public part, or null if recovery wasn't possible.
    */
-  private static BigInteger recoverFromSignature(
-      final int recId, final BigInteger r, final BigInteger s, final Bytes32 dataHash) {
+  @VisibleForTesting
+  static BigInteger recoverFromSignature(
+      final ECDomainParameters domain,
+      final int recId,
+      final BigInteger r,
+      final BigInteger s,
+      final Bytes32 dataHash) {
     assert (recId >= 0);
     assert (r.signum() >= 0);
     assert (s.signum() >= 0);
     assert (dataHash != null);
 
+    final ECPoint R = recoverR(domain, recId, r);
+    if (R == null) {
+      return null;
+    }
+    final ECPoint q = recoverQ(domain, r.modInverse(domain.getN()), s, dataHash, R);
+    if (q.isInfinity()) {
+      return null;
+    }
+
+    final byte[] qBytes = q.getEncoded(false);
+    // We remove the prefix
+    return new BigInteger(1, Arrays.copyOfRange(qBytes, 1, qBytes.length));
+  }
+
+  /**
+   * Recovers the public keys of several signatures at once.
+   *
+   * <p>The modular inverses of the r components and the final conversions of the recovered points
+   * to affine coordinates are each batched using Montgomery's trick, so a single field inversion
+   * of each kind is needed for the whole batch.
+   *
+   * @param domain The curve to compute on, either {@link #CURVE} or its specialised equivalent.
+   * @param dataHashes The hashes of the signed data.
+   * @param signatures The signatures, in the same order as {@code dataHashes}.
+   * @return the encoded public keys, in order, or null where recovery wasn't possible.
+   */
+  @VisibleForTesting
+  static BytesValue[] recoverFromSignatures(
+      final ECDomainParameters domain,
+      final List<Bytes32> dataHashes,
+      final List<Signature> signatures) {
+    checkArgument(
+        dataHashes.size() == signatures.size(),
+        "Expected as many hashes as signatures, got %s and %s",
+        dataHashes.size(),
+        signatures.size());
+    final BigInteger n = domain.getN();
+    final int count = signatures.size();
+
+    final ECPoint[] rPoints = new ECPoint[count];
+    final BigInteger[] prefixProducts = new BigInteger[count];
+    BigInteger product = BigInteger.ONE;
+    for (int i = 0; i < count; ++i) {
+      final Signature signature = signatures.get(i);
+      try {
+        rPoints[i] = recoverR(domain, signature.recId, signature.r);
+      } catch (final IllegalArgumentException e) {
+        // r is not the x co-ordinate of a point on the curve.
+        continue;
+      }
+      if (rPoints[i] != null) {
+        prefixProducts[i] = product;
+        product = product.multiply(signature.r).mod(n);
+      }
+    }
+
+    BigInteger inverse = product.modInverse(n);
+    final ECPoint[] qPoints = new ECPoint[count];
+    for (int i = count - 1; i >= 0; --i) {
+      if (rPoints[i] == null) {
+        continue;
+      }
+      final Signature signature = signatures.get(i);
+      final BigInteger rInv = inverse.multiply(prefixProducts[i]).mod(n);
+      inverse = inverse.multiply(signature.r).mod(n);
+      qPoints[i] = recoverQ(domain, rInv, signature.s, dataHashes.get(i), rPoints[i]);
+    }
+    domain.getCurve().normalizeAll(qPoints);
+
+    final BytesValue[] publicKeys = new BytesValue[count];
+    for (int i = 0; i < count; ++i) {
+      final ECPoint q = qPoints[i];
+      if (q != null && !q.isInfinity()) {
+        final byte[] qBytes = q.getEncoded(false);
+        // We remove the prefix
+        publicKeys[i] = BytesValue.wrap(qBytes, 1, qBytes.length - 1);
+      }
+    }
+    return publicKeys;
+  }
+
+  /** Steps 1.1 to 1.4 of the public key recovery: the point R whose x co-ordinate is r. */
+  private static ECPoint recoverR(
+      final ECDomainParameters domain, final int recId, final BigInteger r) {
     // 1.0 For j from 0 to h (h == recId here and the loop is outside this function)
     // 1.1 Let x = r + jn
-    final BigInteger n = CURVE.getN(); // Curve order.
+    final BigInteger n = domain.getN(); // Curve order.
     final BigInteger i = BigInteger.valueOf((long) recId / 2);
     final BigInteger x = r.add(i.multiply(n));
     // 1.2. Convert the integer x to an octet string X of length mlen using the conversion
@@ -151,12 +263,20 @@ public class SECP256K1 {
     }
     // Compressed keys require you to know an extra bit of data about the y-coord as there are
     // two possibilities. So it's encoded in the recId.
-    final ECPoint R = decompressKey(x, (recId & 1) == 1);
-    // 1.4. If nR != point at infinity, then do another iteration of Step 1 (callers
-    // responsibility).
-    if (!R.multiply(n).isInfinity()) {
-      return null;
-    }
+    //
+    // 1.4. If nR != point at infinity, then do another iteration of Step 1. The cofactor of
+    // secp256k1 is 1, so every point on the curve has order n and this always holds.
+    return decompressKey(domain, x, (recId & 1) == 1);
+  }
+
+  /** Steps 1.5 and 1.6 of the public key recovery, given the inverse of r. */
+  private static ECPoint recoverQ(
+      final ECDomainParameters domain,
+      final BigInteger rInv,
+      final BigInteger s,
+      final Bytes32 dataHash,
+      final ECPoint R) {
+    final BigInteger n = domain.getN();
     // 1.5. Compute e from M using Steps 2 and 3 of ECDSA signature verification.
     final BigInteger e = asUnsignedBigInteger(dataHash);
     // 1.6. For k from 1 to 2 do the following. (loop is outside this function via
@@ -174,18 +294,9 @@ public class SECP256K1 {
     // example the additive inverse of 3 modulo 11 is 8 because 3 + 8 mod 11 = 0, and
     // -3 mod 11 = 8.
     final BigInteger eInv = BigInteger.ZERO.subtract(e).mod(n);
-    final BigInteger rInv = r.modInverse(n);
     final BigInteger srInv = rInv.multiply(s).mod(n);
     final BigInteger eInvrInv = rInv.multiply(eInv).mod(n);
-    final ECPoint q = ECAlgorithms.sumOfTwoMultiplies(CURVE.getG(), eInvrInv, R, srInv);
-
-    if (q.isInfinity()) {
-      return null;
-    }
-
-    final byte[] qBytes = q.getEncoded(false);
-    // We remove the prefix
-    return new BigInteger(1, Arrays.copyOfRange(qBytes, 1, qBytes.length));
+    return ECAlgorithms.sumOfTwoMultiplies(domain.getG(), eInvrInv, R, srInv);
   }
 
   public static Signature sign(final Bytes32 dataHash, final KeyPair keyPair) {
@@ -220,7 +331,7 @@ public class SECP256K1 {
     int recId = -1;
     final BigInteger publicKeyBI = asUnsignedBigInteger(keyPair.getPublicKey().getEncodedBytes());
     for (int i = 0; i < 4; i++) {
-      final BigInteger k = recoverFromSignature(i, r, s, dataHash);
+      final BigInteger k = recoverFromSignature(SPECIALISED_CURVE, i, r, s, dataHash);
       if (k != null && k.equals(publicKeyBI)) {
         recId = i;
         break;
@@ -250,7 +361,8 @@ public class SECP256K1 {
     final ECDSASigner signer = new ECDSASigner();
     final BytesValue toDecode = BytesValue.wrap(BytesValue.of((byte) 4), pub.getEncodedBytes());
     final ECPublicKeyParameters params =
-        new ECPublicKeyParameters(CURVE.getCurve().decodePoint(toDecode.extractArray()), CURVE);
+        new ECPublicKeyParameters(
+            SPECIALISED_CURVE.getCurve().decodePoint(toDecode.extractArray()), SPECIALISED_CURVE);
     signer.init(false, params);
     try {
       return signer.verifySignature(data.extractArray(), signature.r, signature.s);
@@ -446,10 +558,35 @@ public class SECP256K1 {
         final Bytes32 dataHash, final Signature signature) {
       final BigInteger publicKeyBI =
           SECP256K1.recoverFromSignature(
-              signature.getRecId(), signature.getR(), signature.getS(), dataHash);
+              SPECIALISED_CURVE,
+              signature.getRecId(),
+              signature.getR(),
+              signature.getS(),
+              dataHash);
       return Optional.ofNullable(publicKeyBI).map(PublicKey::create);
     }
 
+    /**
+     * Recovers the public keys of several signatures.
+     *
+     * <p>This is equivalent to, but cheaper than, calling {@link #recoverFromSignature(Bytes32,
+     * Signature)} on each signature in turn.
+     *
+     * @param dataHashes the hashes of the signed data
+     * @param signatures the signatures, in the same order as {@code dataHashes}
+     * @return the recovered public keys, in order, empty where recovery wasn't possible
+     */
+    public static List<Optional<PublicKey>> recoverFromSignatures(
+        final List<Bytes32> dataHashes, final List<Signature> signatures) {
+      final BytesValue[] encoded =
+          SECP256K1.recoverFromSignatures(SPECIALISED_CURVE, dataHashes, signatures);
+      final List<Optional<PublicKey>> publicKeys = new ArrayList<>(encoded.length);
+      for (final BytesValue publicKey : encoded) {
+        publicKeys.add(Optional.ofNullable(publicKey).map(PublicKey::create));
+      }
+      return publicKeys;
+    }
+
     private PublicKey(final BytesValue encoded) {
       checkNotNull(encoded);
       checkArgument(
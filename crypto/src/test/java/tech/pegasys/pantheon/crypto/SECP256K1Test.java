@@ -28,7 +28,10 @@ import java.math.BigInteger;
 import java.net.URL;
 import java.nio.file.Files;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
+import java.util.Optional;
 
 import com.google.common.io.Resources;
 import org.junit.BeforeClass;
@@ -210,6 +213,59 @@ public class SECP256K1Test {
     assertEquals(keyPair.getPublicKey().toString(), recoveredPublicKey.toString());
   }
 
+  @Test
+  public void specialisedCurveRecoversSameKeyAsReferenceCurve() {
+    for (int i = 0; i < 20; ++i) {
+      final SECP256K1.KeyPair keyPair = SECP256K1.KeyPair.generate();
+      final Bytes32 dataHash = keccak256(BytesValue.of((byte) i));
+      final SECP256K1.Signature signature = SECP256K1.sign(dataHash, keyPair);
+
+      final BigInteger reference =
+          SECP256K1.recoverFromSignature(
+              SECP256K1.CURVE,
+              signature.getRecId(),
+              signature.getR(),
+              signature.getS(),
+              dataHash);
+      final BigInteger specialised =
+          SECP256K1.recoverFromSignature(
+              SECP256K1.SPECIALISED_CURVE,
+              signature.getRecId(),
+              signature.getR(),
+              signature.getS(),
+              dataHash);
+      assertEquals(reference, specialised);
+      assertEquals(keyPair.getPublicKey(), SECP256K1.PublicKey.create(specialised));
+    }
+  }
+
+  @Test
+  public void recoverPublicKeysFromSignatures() {
+    final List<Bytes32> dataHashes = new ArrayList<>();
+    final List<SECP256K1.Signature> signatures = new ArrayList<>();
+    final List<SECP256K1.PublicKey> expectedPublicKeys = new ArrayList<>();
+    for (int i = 0; i < 10; ++i) {
+      final SECP256K1.KeyPair keyPair = SECP256K1.KeyPair.generate();
+      final Bytes32 dataHash = keccak256(BytesValue.of((byte) i));
+      dataHashes.add(dataHash);
+      signatures.add(SECP256K1.sign(dataHash, keyPair));
+      expectedPublicKeys.add(keyPair.getPublicKey());
+    }
+    // 5 is not the x co-ordinate of any point on the curve.
+    dataHashes.add(5, Bytes32.ZERO);
+    signatures.add(5, SECP256K1.Signature.create(BigInteger.valueOf(5), BigInteger.ONE, (byte) 0));
+
+    final List<Optional<SECP256K1.PublicKey>> publicKeys =
+        SECP256K1.PublicKey.recoverFromSignatures(dataHashes, signatures);
+
+    assertEquals(11, publicKeys.size());
+    assertEquals(Optional.empty(), publicKeys.get(5));
+    publicKeys.remove(5);
+    for (int i = 0; i < expectedPublicKeys.size(); ++i) {
+      assertEquals(Optional.of(expectedPublicKeys.get(i)), publicKeys.get(i));
+    }
+  }
+
   @Test
   public void signatureGeneration() {
     final SECP256K1.PrivateKey privateKey =
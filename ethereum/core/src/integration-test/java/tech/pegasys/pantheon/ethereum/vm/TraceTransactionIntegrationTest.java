@@ -130,19 +130,18 @@ public class TraceTransactionIntegrationTest {
     // No storage changes before the SSTORE call.
     TraceFrame frame = tracer.getTraceFrames().get(170);
     assertThat(frame.getOpcode()).isEqualTo("DUP6");
-    assertStorageContainsExactly(frame);
+    assertStorageChangesContainExactly(frame);
 
     // Storage changes show up in the SSTORE frame.
     frame = tracer.getTraceFrames().get(171);
     assertThat(frame.getOpcode()).isEqualTo("SSTORE");
-    assertStorageContainsExactly(
+    assertStorageChangesContainExactly(
         frame, entry("0x01", "0x6261720000000000000000000000000000000000000000000000000000000006"));
 
-    // And storage changes are still present in future frames.
+    // And are only recorded once.
     frame = tracer.getTraceFrames().get(172);
     assertThat(frame.getOpcode()).isEqualTo("PUSH2");
-    assertStorageContainsExactly(
-        frame, entry("0x01", "0x6261720000000000000000000000000000000000000000000000000000000006"));
+    assertStorageChangesContainExactly(frame);
   }
 
   @Test
@@ -174,7 +173,7 @@ public class TraceTransactionIntegrationTest {
     assertThat(frame.getPc()).isEqualTo(0);
     assertStackContainsExactly(frame);
     assertMemoryContainsExactly(frame);
-    assertStorageContainsExactly(frame);
+    assertStorageChangesContainExactly(frame);
 
     frame = traceFrames.get(1);
     assertThat(frame.getDepth()).isEqualTo(expectedDepth);
@@ -185,7 +184,7 @@ public class TraceTransactionIntegrationTest {
     assertStackContainsExactly(
         frame, "0000000000000000000000000000000000000000000000000000000000000080");
     assertMemoryContainsExactly(frame);
-    assertStorageContainsExactly(frame);
+    assertStorageChangesContainExactly(frame);
 
     frame = traceFrames.get(2);
     assertThat(frame.getDepth()).isEqualTo(expectedDepth);
@@ -198,7 +197,7 @@ public class TraceTransactionIntegrationTest {
         "0000000000000000000000000000000000000000000000000000000000000080",
         "0000000000000000000000000000000000000000000000000000000000000040");
     assertMemoryContainsExactly(frame);
-    assertStorageContainsExactly(frame);
+    assertStorageChangesContainExactly(frame);
     // Reference implementation actually records the memory after expansion but before the store.
     //    assertMemoryContainsExactly(frame,
     //        "0000000000000000000000000000000000000000000000000000000000000000",
@@ -217,7 +216,7 @@ public class TraceTransactionIntegrationTest {
         "0000000000000000000000000000000000000000000000000000000000000000",
         "0000000000000000000000000000000000000000000000000000000000000000",
         "0000000000000000000000000000000000000000000000000000000000000080");
-    assertStorageContainsExactly(frame);
+    assertStorageChangesContainExactly(frame);
   }
 
   private void assertStackContainsExactly(
@@ -238,7 +237,7 @@ public class TraceTransactionIntegrationTest {
 
   @SuppressWarnings("unchecked")
   @SafeVarargs
-  private final void assertStorageContainsExactly(
+  private final void assertStorageChangesContainExactly(
       final TraceFrame frame, final Entry<String, String>... memoryEntriesAsHex) {
     assertThat(frame.getMemory()).isPresent();
     final Entry<UInt256, UInt256>[] memoryEntries =
@@ -249,6 +248,6 @@ public class TraceTransactionIntegrationTest {
                         UInt256.fromHexString(entry.getKey()),
                         UInt256.fromHexString(entry.getValue())))
             .toArray(Entry[]::new);
-    assertThat(frame.getStorage().get()).containsExactly(memoryEntries);
+    assertThat(frame.getStorageChanges().get()).containsExactly(memoryEntries);
   }
 }
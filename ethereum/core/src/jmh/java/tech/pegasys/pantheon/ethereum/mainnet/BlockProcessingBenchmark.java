@@ -0,0 +1,154 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.mainnet;
+
+import tech.pegasys.pantheon.config.StubGenesisConfigOptions;
+import tech.pegasys.pantheon.crypto.SECP256K1.KeyPair;
+import tech.pegasys.pantheon.ethereum.chain.Blockchain;
+import tech.pegasys.pantheon.ethereum.core.Address;
+import tech.pegasys.pantheon.ethereum.core.AddressHelpers;
+import tech.pegasys.pantheon.ethereum.core.BlockHeader;
+import tech.pegasys.pantheon.ethereum.core.BlockHeaderTestFixture;
+import tech.pegasys.pantheon.ethereum.core.ExecutionContextTestFixture;
+import tech.pegasys.pantheon.ethereum.core.Hash;
+import tech.pegasys.pantheon.ethereum.core.MutableWorldState;
+import tech.pegasys.pantheon.ethereum.core.Transaction;
+import tech.pegasys.pantheon.ethereum.core.TransactionTestFixture;
+import tech.pegasys.pantheon.ethereum.core.Util;
+import tech.pegasys.pantheon.ethereum.core.Wei;
+import tech.pegasys.pantheon.ethereum.core.WorldUpdater;
+import tech.pegasys.pantheon.ethereum.db.WorldStateArchive;
+import tech.pegasys.pantheon.ethereum.storage.keyvalue.KeyValueStorageWorldStateStorage;
+import tech.pegasys.pantheon.services.kvstore.InMemoryKeyValueStorage;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Imports a block of value transfers, comparing the serial block processor with the speculative
+ * parallel one.
+ *
+ * <p>The share of transactions that depend on an earlier transaction of the same block is
+ * controlled by {@code dependentPercentage}, so the cost of conflicts can be measured as well.
+ */
+@State(Scope.Thread)
+public class BlockProcessingBenchmark {
+
+  private static final int CHAIN_ID = 1;
+  private static final Address COINBASE = AddressHelpers.ofValue(0xc0ffee);
+
+  @Param({"false", "true"})
+  public boolean parallel;
+
+  @Param({"200"})
+  public int transactionCount;
+
+  @Param({"0", "20"})
+  public int dependentPercentage;
+
+  private ExecutorService executor;
+  private Blockchain blockchain;
+  private BlockProcessor blockProcessor;
+  private WorldStateArchive worldStateArchive;
+  private Hash initialStateRoot;
+  private BlockHeader header;
+  private List<Transaction> transactions;
+
+  @Setup
+  public void prepare() {
+    final ProtocolSpec<Void> protocolSpec =
+        new ProtocolScheduleBuilder<>(
+                new StubGenesisConfigOptions().eip158Block(0), CHAIN_ID, Function.identity())
+            .createProtocolSchedule()
+            .getByBlockNumber(1);
+    blockchain = ExecutionContextTestFixture.create().getBlockchain();
+    executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+    blockProcessor =
+        parallel
+            ? ParallelMainnetBlockProcessor.builder(executor)
+                .apply(
+                    protocolSpec.getTransactionProcessor(),
+                    protocolSpec.getTransactionReceiptFactory(),
+                    protocolSpec.getBlockReward(),
+                    protocolSpec.getMiningBeneficiaryCalculator())
+            : protocolSpec.getBlockProcessor();
+
+    worldStateArchive =
+        new WorldStateArchive(new KeyValueStorageWorldStateStorage(new InMemoryKeyValueStorage()));
+    final MutableWorldState worldState = worldStateArchive.getMutable();
+    final WorldUpdater updater = worldState.updater();
+    final List<KeyPair> senders = new ArrayList<>(transactionCount);
+    for (int i = 0; i < transactionCount; ++i) {
+      final KeyPair keyPair = KeyPair.generate();
+      senders.add(keyPair);
+      updater.createAccount(Util.publicKeyToAddress(keyPair.getPublicKey()), 0, Wei.fromEth(100));
+    }
+    updater.commit();
+    worldState.persist();
+    initialStateRoot = worldState.rootHash();
+
+    final Random random = new Random(42);
+    transactions = new ArrayList<>(transactionCount);
+    for (int i = 0; i < transactionCount; ++i) {
+      final KeyPair sender = senders.get(i);
+      // Dependent transactions send to a sender that comes later in the block.
+      final Address recipient =
+          random.nextInt(100) < dependentPercentage && i + 1 < transactionCount
+              ? Util.publicKeyToAddress(
+                  senders.get(i + 1 + random.nextInt(transactionCount - i - 1)).getPublicKey())
+              : AddressHelpers.ofValue(0x100000 + i);
+      transactions.add(
+          new TransactionTestFixture()
+              .sender(Util.publicKeyToAddress(sender.getPublicKey()))
+              .to(Optional.of(recipient))
+              .gasLimit(21_000)
+              .value(Wei.fromEth(1))
+              .chainId(CHAIN_ID)
+              .createTransaction(sender));
+    }
+    header =
+        new BlockHeaderTestFixture()
+            .number(1)
+            .gasLimit(21_000L * transactionCount)
+            .coinbase(COINBASE)
+            .buildHeader();
+  }
+
+  @TearDown
+  public void cleanUp() {
+    executor.shutdownNow();
+  }
+
+  @Benchmark
+  public BlockProcessor.Result processBlock() {
+    return blockProcessor.processBlock(
+        blockchain,
+        worldStateArchive.getMutable(initialStateRoot),
+        header,
+        transactions,
+        Collections.emptyList());
+  }
+}
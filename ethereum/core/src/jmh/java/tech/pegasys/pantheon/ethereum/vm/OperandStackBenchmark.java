@@ -0,0 +1,81 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.vm;
+
+import tech.pegasys.pantheon.util.bytes.Bytes32;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Compares {@link SlotOperandStack} against {@link PreAllocatedOperandStack}, both for operations
+ * that read and write whole {@link Bytes32} values and for those computed in place.
+ */
+@State(Scope.Thread)
+public class OperandStackBenchmark {
+
+  private static final int MAX_STACK_SIZE = 1024;
+  private static final int DEPTH = 32;
+
+  @Param({"PreAllocated", "Slot"})
+  public String stackType;
+
+  private OperandStack stack;
+  private Bytes32 a;
+  private Bytes32 b;
+
+  @Setup
+  public void prepare() {
+    stack =
+        stackType.equals("Slot")
+            ? new SlotOperandStack(MAX_STACK_SIZE)
+            : new PreAllocatedOperandStack(MAX_STACK_SIZE);
+    a = Bytes32.fromHexString("0x0102030405060708090a0b0c0d0e0f101112131415161718191a1b1c1d1e1f20");
+    b = Bytes32.fromHexString("0xff");
+    for (int i = 0; i < DEPTH; ++i) {
+      stack.push(a);
+    }
+  }
+
+  /** Pushes, duplicates and pops values the way operations working on {@link Bytes32} do. */
+  @Benchmark
+  public Bytes32 bytes32Operations() {
+    stack.push(b);
+    stack.dup(2);
+    final Bytes32 first = stack.pop();
+    final Bytes32 second = stack.get(0);
+    stack.set(0, first);
+    stack.swap(1);
+    stack.pop();
+    return second;
+  }
+
+  /** Arithmetic and bitwise operations followed by a read of the result. */
+  @Benchmark
+  public Bytes32 inPlaceOperations() {
+    stack.push(b);
+    stack.dup(2);
+    stack.add();
+    stack.xor();
+    stack.push(a);
+    stack.and();
+    stack.not();
+    stack.dup(1);
+    stack.isZero();
+    stack.pop();
+    return stack.get(0);
+  }
+}
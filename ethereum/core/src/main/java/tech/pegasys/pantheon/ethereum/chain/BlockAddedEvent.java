@@ -14,13 +14,16 @@ package tech.pegasys.pantheon.ethereum.chain;
 
 import tech.pegasys.pantheon.ethereum.core.Block;
 import tech.pegasys.pantheon.ethereum.core.Transaction;
+import tech.pegasys.pantheon.ethereum.core.TransactionReceipt;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 
 public class BlockAddedEvent {
 
   private final Block block;
+  private final Optional<List<TransactionReceipt>> transactionReceipts;
   private final List<Transaction> addedTransactions;
   private final List<Transaction> removedTransactions;
   private final EventType eventType;
@@ -34,17 +37,33 @@ public class BlockAddedEvent {
   private BlockAddedEvent(
       final EventType eventType,
       final Block block,
+      final Optional<List<TransactionReceipt>> transactionReceipts,
       final List<Transaction> addedTransactions,
       final List<Transaction> removedTransactions) {
     this.eventType = eventType;
     this.block = block;
+    this.transactionReceipts = transactionReceipts;
     this.addedTransactions = addedTransactions;
     this.removedTransactions = removedTransactions;
   }
 
   public static BlockAddedEvent createForHeadAdvancement(final Block block) {
+    return createForHeadAdvancement(block, Optional.empty());
+  }
+
+  public static BlockAddedEvent createForHeadAdvancement(
+      final Block block, final List<TransactionReceipt> transactionReceipts) {
+    return createForHeadAdvancement(block, Optional.of(transactionReceipts));
+  }
+
+  private static BlockAddedEvent createForHeadAdvancement(
+      final Block block, final Optional<List<TransactionReceipt>> transactionReceipts) {
     return new BlockAddedEvent(
-        EventType.HEAD_ADVANCED, block, block.getBody().getTransactions(), Collections.emptyList());
+        EventType.HEAD_ADVANCED,
+        block,
+        transactionReceipts,
+        block.getBody().getTransactions(),
+        Collections.emptyList());
   }
 
   public static BlockAddedEvent createForChainReorg(
@@ -52,12 +71,25 @@ public class BlockAddedEvent {
       final List<Transaction> addedTransactions,
       final List<Transaction> removedTransactions) {
     return new BlockAddedEvent(
-        EventType.CHAIN_REORG, block, addedTransactions, removedTransactions);
+        EventType.CHAIN_REORG, block, Optional.empty(), addedTransactions, removedTransactions);
+  }
+
+  public static BlockAddedEvent createForChainReorg(
+      final Block block,
+      final List<TransactionReceipt> transactionReceipts,
+      final List<Transaction> addedTransactions,
+      final List<Transaction> removedTransactions) {
+    return new BlockAddedEvent(
+        EventType.CHAIN_REORG,
+        block,
+        Optional.of(transactionReceipts),
+        addedTransactions,
+        removedTransactions);
   }
 
   public static BlockAddedEvent createForFork(final Block block) {
     return new BlockAddedEvent(
-        EventType.FORK, block, Collections.emptyList(), Collections.emptyList());
+        EventType.FORK, block, Optional.empty(), Collections.emptyList(), Collections.emptyList());
   }
 
   public Block getBlock() {
@@ -68,6 +100,15 @@ public class BlockAddedEvent {
     return eventType != EventType.FORK;
   }
 
+  /**
+   * Returns the receipts of the transactions of the added block, if the block was added with them.
+   *
+   * @return the receipts of the block's transactions
+   */
+  public Optional<List<TransactionReceipt>> getTransactionReceipts() {
+    return transactionReceipts;
+  }
+
   public EventType getEventType() {
     return eventType;
   }
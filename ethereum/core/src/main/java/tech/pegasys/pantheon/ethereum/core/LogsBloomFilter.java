@@ -96,12 +96,54 @@ public class LogsBloomFilter {
    * @param hashValue The hash of the log item.
    */
   private void setBits(final BytesValue hashValue) {
+    for (final int bit : bloomBits(hashValue)) {
+      setBit(bit);
+    }
+  }
+
+  private static int[] bloomBits(final BytesValue hashValue) {
+    final int[] bits = new int[3];
     for (int counter = 0; counter < 6; counter += 2) {
-      final int setBloomBit =
+      bits[counter / 2] =
           ((hashValue.get(counter) & LEAST_SIGNIFICANT_THREE_BITS) << BITS_IN_BYTE)
               + (hashValue.get(counter + 1) & LEAST_SIGNIFICANT_BYTE);
-      setBit(setBloomBit);
     }
+    return bits;
+  }
+
+  /**
+   * Returns the indices of the bits a log address or topic sets in a bloom filter.
+   *
+   * @param value The log address or topic.
+   * @return The indices of the bits set by {@code value}, between 0 and 2047.
+   */
+  public static int[] bitsOf(final BytesValue value) {
+    return bloomBits(keccak256(value));
+  }
+
+  /**
+   * Whether a log address or topic could have been inserted in this bloom filter.
+   *
+   * @param value The log address or topic.
+   * @return {@code false} if {@code value} is definitely not in the filter.
+   */
+  public boolean couldContain(final BytesValue value) {
+    for (final int bit : bitsOf(value)) {
+      if (!isSet(bit)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Whether a given bit of this bloom filter is set.
+   *
+   * @param index The index of the bit, between 0 and 2047.
+   * @return {@code true} if the bit is set.
+   */
+  public boolean isSet(final int index) {
+    return (data.get(BYTE_SIZE - 1 - index / 8) & (1 << (index % 8))) != 0;
   }
 
   @Override
@@ -0,0 +1,307 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.core;
+
+import tech.pegasys.pantheon.util.bytes.Bytes32;
+import tech.pegasys.pantheon.util.bytes.BytesValue;
+import tech.pegasys.pantheon.util.uint.UInt256;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * A {@link WorldUpdater} that buffers updates over a {@link WorldView} it never modifies, while
+ * recording every account and storage slot read through it.
+ *
+ * <p>The buffered updates are not committed to the wrapped view. Instead they are replayed on
+ * another updater with {@link #applyTo(WorldUpdater)}, which lets a transaction be executed against
+ * one state and its effects applied to another, provided none of the recorded reads were modified
+ * in between (see {@link #readsAnyOf(Set, Map)}).
+ *
+ * <p>If a fee recipient is provided, the top-level {@link #getMutable(Address)} of that account
+ * returns a detached accumulator rather than the account itself. This is how the transaction
+ * processor pays the mining fee, so fees can be collected without reading the beneficiary's
+ * balance. Any other access to the fee recipient is recorded as a read as usual.
+ */
+public class ReadTrackingWorldUpdater extends AbstractWorldUpdater<WorldView, Account> {
+
+  private final Optional<Address> feeRecipient;
+
+  private UpdateTrackingAccount<Account> feeAccumulator;
+  private boolean feeRecipientCleared = false;
+
+  public ReadTrackingWorldUpdater(final WorldView world, final Optional<Address> feeRecipient) {
+    super(new RecordingWorldView(world));
+    this.feeRecipient = feeRecipient;
+  }
+
+  private RecordingWorldView recorder() {
+    return (RecordingWorldView) wrappedWorldView();
+  }
+
+  @Override
+  protected Account getForMutation(final Address address) {
+    return wrappedWorldView().get(address);
+  }
+
+  @Override
+  public MutableAccount createAccount(final Address address, final long nonce, final Wei balance) {
+    // Creating an account resets it, which must not be applied over an account created or
+    // modified since this updater's view was taken.
+    recorder().accountReads.add(address);
+    return super.createAccount(address, nonce, balance);
+  }
+
+  @Override
+  public MutableAccount getMutable(final Address address) {
+    if (feeRecipient.isPresent() && feeRecipient.get().equals(address)) {
+      if (feeAccumulator == null) {
+        feeAccumulator = new UpdateTrackingAccount<>(address);
+      }
+      return feeAccumulator;
+    }
+    return super.getMutable(address);
+  }
+
+  @Override
+  public void deleteAccount(final Address address) {
+    if (feeAccumulator != null && feeAccumulator.getAddress().equals(address)) {
+      feeRecipientCleared = true;
+      return;
+    }
+    super.deleteAccount(address);
+  }
+
+  @Override
+  public Collection<Account> getTouchedAccounts() {
+    final Collection<Account> touched = new ArrayList<>(updatedAccounts());
+    if (feeAccumulator != null) {
+      touched.add(feeAccumulator);
+    }
+    return touched;
+  }
+
+  @Override
+  public void revert() {
+    deletedAccounts().clear();
+    updatedAccounts().clear();
+    feeAccumulator = null;
+    feeRecipientCleared = false;
+  }
+
+  @Override
+  public void commit() {
+    throw new UnsupportedOperationException(
+        "A read tracking updater does not modify its world view, use applyTo instead");
+  }
+
+  /**
+   * Whether the account of the fee recipient was accessed through any path other than the fee
+   * payment.
+   *
+   * @return {@code true} if the fee recipient was read
+   */
+  public boolean readFeeRecipient() {
+    return feeRecipient.map(recorder().accountReads::contains).orElse(false);
+  }
+
+  /**
+   * Whether any of the given accounts or storage slots were read through this updater.
+   *
+   * @param accounts accounts whose nonce, balance, code or existence was modified
+   * @param storage storage slots that were modified, by account
+   * @return {@code true} if a recorded read depends on one of the given modifications
+   */
+  public boolean readsAnyOf(final Set<Address> accounts, final Map<Address, Set<UInt256>> storage) {
+    final RecordingWorldView reads = recorder();
+    for (final Address address : reads.accountReads) {
+      if (accounts.contains(address)) {
+        return true;
+      }
+    }
+    for (final Address address : reads.storageScans) {
+      if (storage.containsKey(address)) {
+        return true;
+      }
+    }
+    for (final Map.Entry<Address, Set<UInt256>> entry : reads.storageReads.entrySet()) {
+      final Set<UInt256> modified = storage.get(entry.getKey());
+      if (modified != null && !Collections.disjoint(modified, entry.getValue())) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Adds the modifications buffered in this updater to the given sets.
+   *
+   * @param accounts receives the accounts whose nonce, balance, code or existence was modified
+   * @param storage receives the storage slots that were modified, by account
+   */
+  public void collectWrites(
+      final Set<Address> accounts, final Map<Address, Set<UInt256>> storage) {
+    accounts.addAll(deletedAccounts());
+    for (final UpdateTrackingAccount<Account> updated : updatedAccounts()) {
+      final Account origin = updated.getWrappedAccount();
+      if (origin == null
+          || origin.getNonce() != updated.getNonce()
+          || !origin.getBalance().equals(updated.getBalance())
+          || updated.codeWasUpdated()
+          || updated.getStorageWasCleared()) {
+        accounts.add(updated.getAddress());
+      }
+      if (!updated.getUpdatedStorage().isEmpty()) {
+        storage
+            .computeIfAbsent(updated.getAddress(), a -> new HashSet<>())
+            .addAll(updated.getUpdatedStorage().keySet());
+      }
+    }
+    if (feeAccumulator != null) {
+      accounts.add(feeAccumulator.getAddress());
+    }
+  }
+
+  /**
+   * Replays the updates buffered in this updater on another updater.
+   *
+   * <p>The result is the same as having executed the same operations on {@code target} directly,
+   * provided {@code target} agrees with this updater's view on every recorded read.
+   *
+   * @param target the updater to apply the buffered updates to
+   */
+  public void applyTo(final WorldUpdater target) {
+    deletedAccounts().forEach(target::deleteAccount);
+
+    for (final UpdateTrackingAccount<Account> updated : updatedAccounts()) {
+      final MutableAccount account;
+      if (updated.getWrappedAccount() == null) {
+        account =
+            target.createAccount(updated.getAddress(), updated.getNonce(), updated.getBalance());
+      } else {
+        account = target.getOrCreate(updated.getAddress());
+        account.setNonce(updated.getNonce());
+        account.setBalance(updated.getBalance());
+      }
+      if (updated.codeWasUpdated()) {
+        account.setCode(updated.getCode());
+      }
+      if (updated.getStorageWasCleared()) {
+        account.clearStorage();
+      }
+      updated.getUpdatedStorage().forEach(account::setStorageValue);
+    }
+
+    if (feeAccumulator != null) {
+      final MutableAccount recipient = target.getOrCreate(feeAccumulator.getAddress());
+      recipient.incrementBalance(feeAccumulator.getBalance());
+      if (feeRecipientCleared && recipient.isEmpty()) {
+        target.deleteAccount(feeAccumulator.getAddress());
+      }
+    }
+  }
+
+  private static class RecordingWorldView implements WorldView {
+
+    private final WorldView world;
+
+    private final Set<Address> accountReads = new HashSet<>();
+    private final Map<Address, Set<UInt256>> storageReads = new HashMap<>();
+    private final Set<Address> storageScans = new HashSet<>();
+
+    RecordingWorldView(final WorldView world) {
+      this.world = world;
+    }
+
+    @Override
+    public Account get(final Address address) {
+      accountReads.add(address);
+      final Account account = world.get(address);
+      return account == null ? null : new RecordingAccount(account);
+    }
+
+    private class RecordingAccount implements Account {
+
+      private final Account account;
+
+      RecordingAccount(final Account account) {
+        this.account = account;
+      }
+
+      private void recordStorageRead(final UInt256 key) {
+        storageReads.computeIfAbsent(account.getAddress(), a -> new HashSet<>()).add(key);
+      }
+
+      @Override
+      public Address getAddress() {
+        return account.getAddress();
+      }
+
+      @Override
+      public Hash getAddressHash() {
+        return account.getAddressHash();
+      }
+
+      @Override
+      public long getNonce() {
+        return account.getNonce();
+      }
+
+      @Override
+      public Wei getBalance() {
+        return account.getBalance();
+      }
+
+      @Override
+      public BytesValue getCode() {
+        return account.getCode();
+      }
+
+      @Override
+      public boolean hasCode() {
+        return account.hasCode();
+      }
+
+      @Override
+      public Hash getCodeHash() {
+        return account.getCodeHash();
+      }
+
+      @Override
+      public UInt256 getStorageValue(final UInt256 key) {
+        recordStorageRead(key);
+        return account.getStorageValue(key);
+      }
+
+      @Override
+      public UInt256 getOriginalStorageValue(final UInt256 key) {
+        recordStorageRead(key);
+        return account.getOriginalStorageValue(key);
+      }
+
+      @Override
+      public NavigableMap<Bytes32, UInt256> storageEntriesFrom(
+          final Bytes32 startKeyHash, final int limit) {
+        storageScans.add(account.getAddress());
+        return account.storageEntriesFrom(startKeyHash, limit);
+      }
+    }
+  }
+}
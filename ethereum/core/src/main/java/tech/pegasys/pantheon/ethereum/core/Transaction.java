@@ -26,6 +26,8 @@ import tech.pegasys.pantheon.util.bytes.BytesValues;
 import tech.pegasys.pantheon.util.uint.UInt256;
 
 import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.OptionalInt;
@@ -242,6 +244,40 @@ public class Transaction {
     return sender;
   }
 
+  /**
+   * Recovers and caches the senders of several transactions at once.
+   *
+   * <p>This is cheaper than recovering the sender of each transaction with {@link #getSender()}.
+   * Transactions whose sender can't be recovered are left untouched, so the failure is reported
+   * when {@link #getSender()} is called on them.
+   *
+   * @param transactions the transactions whose senders to recover
+   */
+  public static void recoverSenders(final List<Transaction> transactions) {
+    final List<Transaction> pending = new ArrayList<>(transactions.size());
+    final List<Bytes32> hashes = new ArrayList<>(transactions.size());
+    final List<SECP256K1.Signature> signatures = new ArrayList<>(transactions.size());
+    for (final Transaction transaction : transactions) {
+      if (transaction.sender == null) {
+        pending.add(transaction);
+        hashes.add(transaction.getOrComputeSenderRecoveryHash());
+        signatures.add(transaction.signature);
+      }
+    }
+    if (pending.isEmpty()) {
+      return;
+    }
+
+    final List<Optional<SECP256K1.PublicKey>> publicKeys =
+        SECP256K1.PublicKey.recoverFromSignatures(hashes, signatures);
+    for (int i = 0; i < pending.size(); ++i) {
+      final Optional<SECP256K1.PublicKey> publicKey = publicKeys.get(i);
+      if (publicKey.isPresent()) {
+        pending.get(i).sender = Address.extract(Hash.hash(publicKey.get().getEncodedBytes()));
+      }
+    }
+  }
+
   private Bytes32 getOrComputeSenderRecoveryHash() {
     if (hashNoSignature == null) {
       hashNoSignature =
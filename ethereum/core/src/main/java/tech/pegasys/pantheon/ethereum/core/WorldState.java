@@ -38,4 +38,15 @@ public interface WorldState extends WorldView {
    *     represented by the root hash of this object at the time of the call.
    */
   Stream<Account> accounts();
+
+  /**
+   * Hints that an account is about to be read, so that an implementation backed by storage can load
+   * it ahead of time.
+   *
+   * <p>Unlike the other methods of this interface, this may be called from any thread, including
+   * while this world state is being read or updated. The default implementation does nothing.
+   *
+   * @param address the address of the account that will be read.
+   */
+  default void prefetch(final Address address) {}
 }
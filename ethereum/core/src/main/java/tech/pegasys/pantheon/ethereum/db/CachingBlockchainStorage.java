@@ -0,0 +1,273 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.db;
+
+import tech.pegasys.pantheon.ethereum.chain.TransactionLocation;
+import tech.pegasys.pantheon.ethereum.core.BlockBody;
+import tech.pegasys.pantheon.ethereum.core.BlockHeader;
+import tech.pegasys.pantheon.ethereum.core.Hash;
+import tech.pegasys.pantheon.ethereum.core.TransactionReceipt;
+import tech.pegasys.pantheon.metrics.Counter;
+import tech.pegasys.pantheon.metrics.LabelledMetric;
+import tech.pegasys.pantheon.metrics.MetricCategory;
+import tech.pegasys.pantheon.metrics.MetricsSystem;
+import tech.pegasys.pantheon.util.uint.UInt256;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * A {@link BlockchainStorage} that keeps the most recently used decoded headers, bodies, receipts,
+ * total difficulties, canonical block hashes and transaction locations in memory.
+ *
+ * <p>The caches are filled with the data of every block committed through an {@link #updater()},
+ * so the blocks at the head of the chain are served without decoding them again, and on reads that
+ * miss. Canonical block hashes and transaction locations change on reorgs: committing an updater
+ * replaces or invalidates the cached entries it modifies. A read that overlaps with a commit does
+ * not fill the caches, as it may have read data the commit is replacing.
+ *
+ * <p>All writes to the wrapped storage must go through this storage, and updaters must not be
+ * committed concurrently.
+ */
+public class CachingBlockchainStorage implements BlockchainStorage {
+
+  private final BlockchainStorage storage;
+
+  private final DataCache<Hash, BlockHeader> headers;
+  private final DataCache<Hash, BlockBody> bodies;
+  private final DataCache<Hash, List<TransactionReceipt>> receipts;
+  private final DataCache<Hash, UInt256> totalDifficulties;
+  private final DataCache<Long, Hash> blockHashes;
+  private final DataCache<Hash, TransactionLocation> transactionLocations;
+
+  // Odd while an updater is being committed.
+  private final AtomicLong commits = new AtomicLong();
+  private final Object cacheUpdateLock = new Object();
+
+  private volatile Optional<Hash> chainHead;
+
+  public CachingBlockchainStorage(
+      final BlockchainStorage storage,
+      final MetricsSystem metricsSystem,
+      final int cachedBlocks,
+      final int cachedTransactionLocations) {
+    this.storage = storage;
+    final LabelledMetric<Counter> hits =
+        metricsSystem.createLabelledCounter(
+            MetricCategory.BLOCKCHAIN,
+            "storage_cache_hits_total",
+            "Number of blockchain storage reads served from the cache",
+            "type");
+    final LabelledMetric<Counter> misses =
+        metricsSystem.createLabelledCounter(
+            MetricCategory.BLOCKCHAIN,
+            "storage_cache_misses_total",
+            "Number of blockchain storage reads not served from the cache",
+            "type");
+    headers = new DataCache<>("header", cachedBlocks, hits, misses);
+    bodies = new DataCache<>("body", cachedBlocks, hits, misses);
+    receipts = new DataCache<>("receipts", cachedBlocks, hits, misses);
+    totalDifficulties = new DataCache<>("total_difficulty", cachedBlocks, hits, misses);
+    blockHashes = new DataCache<>("block_hash", cachedBlocks, hits, misses);
+    transactionLocations =
+        new DataCache<>("transaction_location", cachedTransactionLocations, hits, misses);
+    chainHead = storage.getChainHead();
+  }
+
+  @Override
+  public Optional<Hash> getChainHead() {
+    return chainHead;
+  }
+
+  @Override
+  public Collection<Hash> getForkHeads() {
+    return storage.getForkHeads();
+  }
+
+  @Override
+  public Optional<BlockHeader> getBlockHeader(final Hash blockHash) {
+    return headers.get(blockHash, storage::getBlockHeader);
+  }
+
+  @Override
+  public Optional<BlockBody> getBlockBody(final Hash blockHash) {
+    return bodies.get(blockHash, storage::getBlockBody);
+  }
+
+  @Override
+  public Optional<List<TransactionReceipt>> getTransactionReceipts(final Hash blockHash) {
+    return receipts.get(blockHash, storage::getTransactionReceipts);
+  }
+
+  @Override
+  public Optional<Hash> getBlockHash(final long blockNumber) {
+    return blockHashes.get(blockNumber, storage::getBlockHash);
+  }
+
+  @Override
+  public Optional<UInt256> getTotalDifficulty(final Hash blockHash) {
+    return totalDifficulties.get(blockHash, storage::getTotalDifficulty);
+  }
+
+  @Override
+  public Optional<TransactionLocation> getTransactionLocation(final Hash transactionHash) {
+    return transactionLocations.get(transactionHash, storage::getTransactionLocation);
+  }
+
+  @Override
+  public Updater updater() {
+    return new CachingUpdater(storage.updater());
+  }
+
+  private class DataCache<K, V> {
+
+    private final Cache<K, V> cache;
+    private final Counter hits;
+    private final Counter misses;
+
+    DataCache(
+        final String type,
+        final int maximumSize,
+        final LabelledMetric<Counter> hits,
+        final LabelledMetric<Counter> misses) {
+      this.cache = CacheBuilder.newBuilder().maximumSize(maximumSize).build();
+      this.hits = hits.labels(type);
+      this.misses = misses.labels(type);
+    }
+
+    Optional<V> get(final K key, final Function<K, Optional<V>> loader) {
+      final V cached = cache.getIfPresent(key);
+      if (cached != null) {
+        hits.inc();
+        return Optional.of(cached);
+      }
+      misses.inc();
+      final long commitsBeforeRead = commits.get();
+      final Optional<V> value = loader.apply(key);
+      if (value.isPresent() && commitsBeforeRead % 2 == 0) {
+        synchronized (cacheUpdateLock) {
+          if (commits.get() == commitsBeforeRead) {
+            cache.put(key, value.get());
+          }
+        }
+      }
+      return value;
+    }
+
+    void put(final K key, final V value) {
+      cache.put(key, value);
+    }
+
+    void invalidate(final K key) {
+      cache.invalidate(key);
+    }
+  }
+
+  private class CachingUpdater implements Updater {
+
+    private final Updater updater;
+    private final List<Runnable> cacheUpdates = new ArrayList<>();
+
+    CachingUpdater(final Updater updater) {
+      this.updater = updater;
+    }
+
+    @Override
+    public void putBlockHeader(final Hash blockHash, final BlockHeader blockHeader) {
+      updater.putBlockHeader(blockHash, blockHeader);
+      cacheUpdates.add(() -> headers.put(blockHash, blockHeader));
+    }
+
+    @Override
+    public void putBlockBody(final Hash blockHash, final BlockBody blockBody) {
+      updater.putBlockBody(blockHash, blockBody);
+      cacheUpdates.add(() -> bodies.put(blockHash, blockBody));
+    }
+
+    @Override
+    public void putTransactionLocation(
+        final Hash transactionHash, final TransactionLocation transactionLocation) {
+      updater.putTransactionLocation(transactionHash, transactionLocation);
+      cacheUpdates.add(() -> transactionLocations.put(transactionHash, transactionLocation));
+    }
+
+    @Override
+    public void putTransactionReceipts(
+        final Hash blockHash, final List<TransactionReceipt> transactionReceipts) {
+      updater.putTransactionReceipts(blockHash, transactionReceipts);
+      cacheUpdates.add(() -> receipts.put(blockHash, transactionReceipts));
+    }
+
+    @Override
+    public void putBlockHash(final long blockNumber, final Hash blockHash) {
+      updater.putBlockHash(blockNumber, blockHash);
+      cacheUpdates.add(() -> blockHashes.put(blockNumber, blockHash));
+    }
+
+    @Override
+    public void putTotalDifficulty(final Hash blockHash, final UInt256 totalDifficulty) {
+      updater.putTotalDifficulty(blockHash, totalDifficulty);
+      cacheUpdates.add(() -> totalDifficulties.put(blockHash, totalDifficulty));
+    }
+
+    @Override
+    public void setChainHead(final Hash blockHash) {
+      updater.setChainHead(blockHash);
+      cacheUpdates.add(() -> chainHead = Optional.of(blockHash));
+    }
+
+    @Override
+    public void setForkHeads(final Collection<Hash> forkHeadHashes) {
+      updater.setForkHeads(forkHeadHashes);
+    }
+
+    @Override
+    public void removeBlockHash(final long blockNumber) {
+      updater.removeBlockHash(blockNumber);
+      cacheUpdates.add(() -> blockHashes.invalidate(blockNumber));
+    }
+
+    @Override
+    public void removeTransactionLocation(final Hash transactionHash) {
+      updater.removeTransactionLocation(transactionHash);
+      cacheUpdates.add(() -> transactionLocations.invalidate(transactionHash));
+    }
+
+    @Override
+    public void commit() {
+      commits.incrementAndGet();
+      try {
+        updater.commit();
+        synchronized (cacheUpdateLock) {
+          cacheUpdates.forEach(Runnable::run);
+        }
+      } finally {
+        commits.incrementAndGet();
+        cacheUpdates.clear();
+      }
+    }
+
+    @Override
+    public void rollback() {
+      cacheUpdates.clear();
+      updater.rollback();
+    }
+  }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.db;
+
+import tech.pegasys.pantheon.ethereum.core.Hash;
+import tech.pegasys.pantheon.ethereum.worldstate.WorldStateStorage;
+import tech.pegasys.pantheon.util.bytes.Bytes32;
+import tech.pegasys.pantheon.util.bytes.BytesValue;
+
+import java.util.Optional;
+import java.util.function.Function;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * A {@link WorldStateStorage} that keeps the most recently read trie nodes in memory, up to a total
+ * number of bytes.
+ *
+ * <p>Trie nodes are stored by their hash, so a cached node never goes stale and writes pass
+ * straight through to the wrapped storage.
+ */
+class CachingWorldStateStorage implements WorldStateStorage {
+
+  private final WorldStateStorage storage;
+  private final Cache<Bytes32, BytesValue> accountStateTrieNodes;
+  private final Cache<Bytes32, BytesValue> accountStorageTrieNodes;
+
+  CachingWorldStateStorage(final WorldStateStorage storage, final long maximumNodeBytes) {
+    this.storage = storage;
+    this.accountStateTrieNodes = createCache(maximumNodeBytes / 2);
+    this.accountStorageTrieNodes = createCache(maximumNodeBytes / 2);
+  }
+
+  private static Cache<Bytes32, BytesValue> createCache(final long maximumBytes) {
+    return CacheBuilder.newBuilder()
+        .maximumWeight(maximumBytes)
+        .<Bytes32, BytesValue>weigher((hash, node) -> node.size())
+        .build();
+  }
+
+  @Override
+  public Optional<BytesValue> getCode(final Hash codeHash) {
+    return storage.getCode(codeHash);
+  }
+
+  @Override
+  public Optional<BytesValue> getAccountStateTrieNode(final Bytes32 nodeHash) {
+    return get(accountStateTrieNodes, nodeHash, storage::getAccountStateTrieNode);
+  }
+
+  @Override
+  public Optional<BytesValue> getAccountStorageTrieNode(final Bytes32 nodeHash) {
+    return get(accountStorageTrieNodes, nodeHash, storage::getAccountStorageTrieNode);
+  }
+
+  private static Optional<BytesValue> get(
+      final Cache<Bytes32, BytesValue> cache,
+      final Bytes32 nodeHash,
+      final Function<Bytes32, Optional<BytesValue>> loader) {
+    final BytesValue cached = cache.getIfPresent(nodeHash);
+    if (cached != null) {
+      return Optional.of(cached);
+    }
+    final Optional<BytesValue> node = loader.apply(nodeHash);
+    node.ifPresent(value -> cache.put(nodeHash, value));
+    return node;
+  }
+
+  @Override
+  public Updater updater() {
+    return storage.updater();
+  }
+}
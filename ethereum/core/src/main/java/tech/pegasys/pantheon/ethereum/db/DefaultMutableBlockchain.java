@@ -48,6 +48,9 @@ import com.google.common.annotations.VisibleForTesting;
 
 public class DefaultMutableBlockchain implements MutableBlockchain {
 
+  public static final int DEFAULT_CACHED_BLOCKS = 256;
+  public static final int DEFAULT_CACHED_TRANSACTION_LOCATIONS = 65_536;
+
   private final BlockchainStorage blockchainStorage;
 
   private final Subscribers<BlockAddedObserver> blockAddedObservers = new Subscribers<>();
@@ -56,8 +59,36 @@ public class DefaultMutableBlockchain implements MutableBlockchain {
       final Block genesisBlock,
       final BlockchainStorage blockchainStorage,
       final MetricsSystem metricsSystem) {
+    this(
+        genesisBlock,
+        blockchainStorage,
+        metricsSystem,
+        DEFAULT_CACHED_BLOCKS,
+        DEFAULT_CACHED_TRANSACTION_LOCATIONS);
+  }
+
+  /**
+   * Creates a blockchain which caches the data of recent blocks in memory.
+   *
+   * @param genesisBlock the genesis block
+   * @param blockchainStorage the storage of the blockchain
+   * @param metricsSystem the metrics system
+   * @param cachedBlocks how many blocks' headers, bodies and receipts to cache, or 0 to disable
+   *     caching
+   * @param cachedTransactionLocations how many transaction locations to cache
+   */
+  public DefaultMutableBlockchain(
+      final Block genesisBlock,
+      final BlockchainStorage blockchainStorage,
+      final MetricsSystem metricsSystem,
+      final int cachedBlocks,
+      final int cachedTransactionLocations) {
     checkNotNull(genesisBlock);
-    this.blockchainStorage = blockchainStorage;
+    this.blockchainStorage =
+        cachedBlocks > 0
+            ? new CachingBlockchainStorage(
+                blockchainStorage, metricsSystem, cachedBlocks, cachedTransactionLocations)
+            : blockchainStorage;
     this.setGenesis(genesisBlock);
 
     metricsSystem.createGauge(
@@ -170,7 +201,8 @@ public class DefaultMutableBlockchain implements MutableBlockchain {
     updater.putTotalDifficulty(hash, td);
 
     // Update canonical chain data
-    final BlockAddedEvent blockAddedEvent = updateCanonicalChainData(updater, block, td);
+    final BlockAddedEvent blockAddedEvent =
+        updateCanonicalChainData(updater, block, receipts, td);
 
     updater.commit();
 
@@ -194,6 +226,7 @@ public class DefaultMutableBlockchain implements MutableBlockchain {
   private BlockAddedEvent updateCanonicalChainData(
       final BlockchainStorage.Updater updater,
       final Block newBlock,
+      final List<TransactionReceipt> receipts,
       final UInt256 totalDifficulty) {
     final Hash chainHead = blockchainStorage.getChainHead().orElse(null);
     if (newBlock.getHeader().getNumber() != BlockHeader.GENESIS_BLOCK_NUMBER && chainHead == null) {
@@ -207,11 +240,11 @@ public class DefaultMutableBlockchain implements MutableBlockchain {
         updater.putBlockHash(newBlock.getHeader().getNumber(), newBlockHash);
         updater.setChainHead(newBlockHash);
         indexTransactionForBlock(updater, newBlockHash, newBlock.getBody().getTransactions());
-        return BlockAddedEvent.createForHeadAdvancement(newBlock);
+        return BlockAddedEvent.createForHeadAdvancement(newBlock, receipts);
       } else if (totalDifficulty.compareTo(blockchainStorage.getTotalDifficulty(chainHead).get())
           > 0) {
         // New block represents a chain reorganization
-        return handleChainReorg(updater, newBlock);
+        return handleChainReorg(updater, newBlock, receipts);
       } else {
         // New block represents a fork
         return handleFork(updater, newBlock);
@@ -241,7 +274,9 @@ public class DefaultMutableBlockchain implements MutableBlockchain {
   }
 
   private BlockAddedEvent handleChainReorg(
-      final BlockchainStorage.Updater updater, final Block newChainHead) {
+      final BlockchainStorage.Updater updater,
+      final Block newChainHead,
+      final List<TransactionReceipt> newChainHeadReceipts) {
     final Hash oldChainHead = blockchainStorage.getChainHead().get();
     BlockHeader oldChain = blockchainStorage.getBlockHeader(oldChainHead).get();
     BlockHeader newChain = newChainHead.getHeader();
@@ -315,6 +350,7 @@ public class DefaultMutableBlockchain implements MutableBlockchain {
     updater.setForkHeads(forks);
     return BlockAddedEvent.createForChainReorg(
         newChainHead,
+        newChainHeadReceipts,
         newTransactions.values().stream().flatMap(Collection::stream).collect(toList()),
         removedTransactions);
   }
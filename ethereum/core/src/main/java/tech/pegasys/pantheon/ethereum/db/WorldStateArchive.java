@@ -20,15 +20,35 @@ import tech.pegasys.pantheon.ethereum.worldstate.DefaultMutableWorldState;
 import tech.pegasys.pantheon.ethereum.worldstate.WorldStateStorage;
 
 public class WorldStateArchive {
+  public static final long DEFAULT_CACHED_TRIE_NODE_BYTES = 32 * 1024 * 1024;
+
   private final WorldStateStorage storage;
   private static final Hash EMPTY_ROOT_HASH = Hash.wrap(MerklePatriciaTrie.EMPTY_TRIE_ROOT_HASH);
 
+  // Read-only views read their trie nodes through a bounded cache shared by all views, so later
+  // reads of recent states don't have to load the same nodes from storage again.
+  private final WorldStateStorage cachingStorage;
+
   public WorldStateArchive(final WorldStateStorage storage) {
+    this(storage, DEFAULT_CACHED_TRIE_NODE_BYTES);
+  }
+
+  public WorldStateArchive(final WorldStateStorage storage, final long cachedTrieNodeBytes) {
     this.storage = storage;
+    this.cachingStorage = new CachingWorldStateStorage(storage, cachedTrieNodeBytes);
   }
 
+  /**
+   * Returns a read-only view of the world state with the given root hash.
+   *
+   * <p>Each call returns a new view, so a view is never shared between callers. Views must not be
+   * modified: use {@link #getMutable(Hash)} for a world state that is to be updated.
+   *
+   * @param rootHash the root hash of the world state
+   * @return a view of the world state
+   */
   public WorldState get(final Hash rootHash) {
-    return getMutable(rootHash);
+    return new DefaultMutableWorldState(rootHash, cachingStorage);
   }
 
   public MutableWorldState getMutable(final Hash rootHash) {
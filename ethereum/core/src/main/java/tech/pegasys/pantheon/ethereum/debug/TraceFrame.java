@@ -33,7 +33,7 @@ public class TraceFrame {
   private final EnumSet<ExceptionalHaltReason> exceptionalHaltReasons;
   private final Optional<Bytes32[]> stack;
   private final Optional<Bytes32[]> memory;
-  private final Optional<Map<UInt256, UInt256>> storage;
+  private final Optional<Map<UInt256, UInt256>> storageChanges;
 
   public TraceFrame(
       final int pc,
@@ -44,7 +44,7 @@ public class TraceFrame {
       final EnumSet<ExceptionalHaltReason> exceptionalHaltReasons,
       final Optional<Bytes32[]> stack,
       final Optional<Bytes32[]> memory,
-      final Optional<Map<UInt256, UInt256>> storage) {
+      final Optional<Map<UInt256, UInt256>> storageChanges) {
     this.pc = pc;
     this.opcode = opcode;
     this.gasRemaining = gasRemaining;
@@ -53,7 +53,7 @@ public class TraceFrame {
     this.exceptionalHaltReasons = exceptionalHaltReasons;
     this.stack = stack;
     this.memory = memory;
-    this.storage = storage;
+    this.storageChanges = storageChanges;
   }
 
   public int getPc() {
@@ -88,8 +88,16 @@ public class TraceFrame {
     return memory;
   }
 
-  public Optional<Map<UInt256, UInt256>> getStorage() {
-    return storage;
+  /**
+   * The storage slots of the executing account updated by the call since its previous frame.
+   *
+   * <p>Only the changes are recorded so the frames of a long trace don't each hold a copy of the
+   * storage. The storage updated by the call so far is the union of the changes of its frames.
+   *
+   * @return the updated storage slots and their new values, or empty if storage isn't traced
+   */
+  public Optional<Map<UInt256, UInt256>> getStorageChanges() {
+    return storageChanges;
   }
 
   @Override
@@ -103,7 +111,7 @@ public class TraceFrame {
         .add("exceptionalHaltReasons", exceptionalHaltReasons)
         .add("stack", stack)
         .add("memory", memory)
-        .add("storage", storage)
+        .add("storageChanges", storageChanges)
         .toString();
   }
 }
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.mainnet;
+
+import tech.pegasys.pantheon.ethereum.core.Address;
+import tech.pegasys.pantheon.ethereum.core.MutableWorldState;
+import tech.pegasys.pantheon.ethereum.core.Transaction;
+import tech.pegasys.pantheon.ethereum.core.WorldState;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Loads the state a block's transactions are going to touch on a background pool, while the block
+ * is being processed.
+ *
+ * <p>The coinbase, and the sender and recipient of every transaction, are prefetched into the world
+ * state the block is processed against using {@link WorldState#prefetch(Address)}, so the trie
+ * nodes they load are reused when the transactions are executed.
+ */
+public class BlockStatePrefetcher {
+
+  private static final Logger LOG = LogManager.getLogger();
+
+  private final ExecutorService executor;
+
+  public BlockStatePrefetcher(final ExecutorService executor) {
+    this.executor = executor;
+  }
+
+  /**
+   * Starts prefetching the state used by a block.
+   *
+   * <p>Must be called before {@code worldState} is modified for this block.
+   *
+   * @param worldState the world state the block is going to be processed against
+   * @param transactions the transactions of the block
+   * @param miningBeneficiary the address which receives transaction fees
+   * @return the prefetch in progress, which should be cancelled once the block is processed
+   */
+  public Prefetch prefetch(
+      final MutableWorldState worldState,
+      final List<Transaction> transactions,
+      final Address miningBeneficiary) {
+    final Prefetch prefetch = new Prefetch();
+    try {
+      prefetch.add(executor.submit(() -> worldState.prefetch(miningBeneficiary)));
+      for (final Transaction transaction : transactions) {
+        prefetch.add(
+            executor.submit(
+                () -> {
+                  worldState.prefetch(transaction.getSender());
+                  transaction.getTo().ifPresent(worldState::prefetch);
+                }));
+      }
+    } catch (final RejectedExecutionException e) {
+      LOG.debug("Prefetch pool is saturated, not prefetching the rest of the block", e);
+    }
+    return prefetch;
+  }
+
+  /** The prefetch tasks of one block. */
+  public static class Prefetch {
+
+    private final List<Future<?>> tasks = new ArrayList<>();
+
+    private void add(final Future<?> task) {
+      tasks.add(task);
+    }
+
+    /** Cancels the prefetch tasks that haven't completed yet. */
+    public void cancel() {
+      tasks.forEach(task -> task.cancel(true));
+    }
+  }
+}
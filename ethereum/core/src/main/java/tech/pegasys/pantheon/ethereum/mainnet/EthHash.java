@@ -18,6 +18,7 @@ import tech.pegasys.pantheon.ethereum.rlp.BytesValueRLPOutput;
 import java.math.BigInteger;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.nio.IntBuffer;
 import java.security.DigestException;
 import java.security.MessageDigest;
 import java.util.function.BiConsumer;
@@ -70,6 +71,23 @@ public final class EthHash {
    */
   public static byte[] hashimotoLight(
       final long size, final int[] cache, final byte[] header, final long nonce) {
+    return hashimotoLight(size, IntBuffer.wrap(cache), header, nonce);
+  }
+
+  /**
+   * Hashimoto Light Implementation over a cache held in a buffer, such as a memory-mapped file.
+   *
+   * <p>The cache is only read with absolute gets, so a buffer can be shared between threads.
+   *
+   * @param size Dataset size for the given header hash
+   * @param cache EthHash Cache
+   * @param header Truncated BlockHeader hash
+   * @param nonce Nonce to use for hashing
+   * @return A byte array holding MixHash in its first 32 bytes and the EthHash result in the in
+   *     bytes 32 to 63
+   */
+  public static byte[] hashimotoLight(
+      final long size, final IntBuffer cache, final byte[] header, final long nonce) {
     return hashimoto(header, size, nonce, (target, ind) -> calcDatasetItem(target, cache, ind));
   }
 
@@ -129,11 +147,24 @@ public final class EthHash {
    * @param index Index of the dataset item to calculate
    */
   public static void calcDatasetItem(final byte[] buffer, final int[] cache, final int index) {
-    final int rows = cache.length / HASH_WORDS;
+    calcDatasetItem(buffer, IntBuffer.wrap(cache), index);
+  }
+
+  /**
+   * Calculates a dataset item from a cache held in a buffer and writes it to a given buffer.
+   *
+   * @param buffer Buffer to store dataset item in
+   * @param cache EthHash Cache
+   * @param index Index of the dataset item to calculate
+   */
+  public static void calcDatasetItem(final byte[] buffer, final IntBuffer cache, final int index) {
+    final int rows = cache.limit() / HASH_WORDS;
     final int[] mixInts = new int[HASH_BYTES / 4];
     final int offset = index % rows * HASH_WORDS;
-    mixInts[0] = cache[offset] ^ index;
-    System.arraycopy(cache, offset + 1, mixInts, 1, HASH_WORDS - 1);
+    mixInts[0] = cache.get(offset) ^ index;
+    for (int i = 1; i < HASH_WORDS; ++i) {
+      mixInts[i] = cache.get(offset + i);
+    }
     intToByte(buffer, mixInts);
     final MessageDigest keccak512 = KECCAK_512.get();
     keccak512.update(buffer);
@@ -300,9 +331,9 @@ public final class EthHash {
     }
   }
 
-  private static void fnvHash(final int[] mix, final int[] cache, final int offset) {
+  private static void fnvHash(final int[] mix, final IntBuffer cache, final int offset) {
     for (int i = 0; i < mix.length; i++) {
-      mix[i] = fnv(mix[i], cache[offset + i]);
+      mix[i] = fnv(mix[i], cache.get(offset + i));
     }
   }
 
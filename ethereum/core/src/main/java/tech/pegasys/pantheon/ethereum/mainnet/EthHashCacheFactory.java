@@ -12,23 +12,62 @@
  */
 package tech.pegasys.pantheon.ethereum.mainnet;
 
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.primitives.Ints;
+import com.google.common.primitives.Longs;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+/**
+ * Provides the EthHash verification cache of each epoch.
+ *
+ * <p>Whenever the cache of an epoch is requested, the cache of the following epoch is generated in
+ * the background so it is ready by the time the chain crosses the epoch boundary.
+ *
+ * <p>If a cache directory is configured with {@link #persistCachesIn(Path)}, generated caches are
+ * written there and memory-mapped, so they are neither held on heap nor regenerated after a
+ * restart.
+ */
 public class EthHashCacheFactory {
 
   private static final Logger LOG = LogManager.getLogger();
 
+  private static final String CACHE_FILE_PREFIX = "cache-";
+
+  // Persisted caches of epochs older than this, relative to the newest cache, are deleted.
+  private static final long PERSISTED_EPOCHS_BEHIND = 2;
+
+  private static final EthHashCacheFactory DEFAULT = new EthHashCacheFactory();
+
   public static class EthHashDescriptor {
     private final long datasetSize;
-    private final int[] cache;
+    private final IntBuffer cache;
 
-    public EthHashDescriptor(final long datasetSize, final int[] cache) {
+    public EthHashDescriptor(final long datasetSize, final IntBuffer cache) {
       this.datasetSize = datasetSize;
       this.cache = cache;
     }
@@ -37,25 +76,169 @@ public class EthHashCacheFactory {
       return datasetSize;
     }
 
-    public int[] getCache() {
+    public IntBuffer getCache() {
       return cache;
     }
   }
 
   Cache<Long, EthHashDescriptor> descriptorCache = CacheBuilder.newBuilder().maximumSize(5).build();
 
+  private final Executor lookAheadExecutor;
+  // Epochs whose look-ahead has been submitted but hasn't completed yet.
+  private final Set<Long> lookAheadEpochs = ConcurrentHashMap.newKeySet();
+
+  private volatile Optional<Path> cacheDirectory = Optional.empty();
+
+  public EthHashCacheFactory() {
+    this(
+        Executors.newSingleThreadExecutor(
+            new ThreadFactoryBuilder()
+                .setDaemon(true)
+                .setNameFormat(EthHashCacheFactory.class.getSimpleName() + "-%d")
+                .build()));
+  }
+
+  @VisibleForTesting
+  EthHashCacheFactory(final Executor lookAheadExecutor) {
+    this.lookAheadExecutor = lookAheadExecutor;
+  }
+
+  /**
+   * The factory shared by the EthHash hashers of this process.
+   *
+   * @return the shared factory
+   */
+  public static EthHashCacheFactory getDefault() {
+    return DEFAULT;
+  }
+
+  /**
+   * Persists the caches generated from now on in the given directory, and uses the caches already
+   * persisted there.
+   *
+   * @param directory the directory to store caches in
+   */
+  public void persistCachesIn(final Path directory) {
+    cacheDirectory = Optional.of(directory);
+  }
+
   public EthHashDescriptor ethHashCacheFor(final long blockNumber) {
     final long epochIndex = EthHash.epoch(blockNumber);
+    final EthHashDescriptor descriptor = descriptorFor(epochIndex);
+    lookAhead(epochIndex + 1);
+    return descriptor;
+  }
+
+  private EthHashDescriptor descriptorFor(final long epochIndex) {
     try {
-      return descriptorCache.get(epochIndex, () -> createHashCache(epochIndex, blockNumber));
+      return descriptorCache.get(epochIndex, () -> createHashCache(epochIndex));
     } catch (final ExecutionException ex) {
       throw new RuntimeException("Failed to create a suitable cache for EthHash calculations.", ex);
     }
   }
 
-  private EthHashDescriptor createHashCache(final long epochIndex, final long blockNumber) {
-    final int[] cache =
-        EthHash.mkCache(Ints.checkedCast(EthHash.cacheSize(epochIndex)), blockNumber);
-    return new EthHashDescriptor(EthHash.datasetSize(epochIndex), cache);
+  private void lookAhead(final long epochIndex) {
+    if (descriptorCache.getIfPresent(epochIndex) != null || !lookAheadEpochs.add(epochIndex)) {
+      return;
+    }
+    try {
+      // Concurrent loads of the same epoch are coalesced by the descriptor cache, so a request
+      // for this epoch made while it is generated waits for it rather than generating it again.
+      lookAheadExecutor.execute(
+          () -> {
+            try {
+              descriptorFor(epochIndex);
+            } catch (final RuntimeException ex) {
+              LOG.debug("Failed to generate the EthHash cache of epoch {} ahead", epochIndex, ex);
+            } finally {
+              lookAheadEpochs.remove(epochIndex);
+            }
+          });
+    } catch (final RejectedExecutionException ex) {
+      lookAheadEpochs.remove(epochIndex);
+      LOG.debug("Not generating the EthHash cache of epoch {} ahead", epochIndex, ex);
+    }
+  }
+
+  private EthHashDescriptor createHashCache(final long epochIndex) {
+    final int cacheSize = Ints.checkedCast(EthHash.cacheSize(epochIndex));
+    final long datasetSize = EthHash.datasetSize(epochIndex);
+    final Optional<Path> cacheFile =
+        cacheDirectory.map(directory -> directory.resolve(CACHE_FILE_PREFIX + epochIndex));
+
+    if (cacheFile.isPresent()) {
+      try {
+        if (Files.exists(cacheFile.get()) && Files.size(cacheFile.get()) == cacheSize) {
+          return new EthHashDescriptor(datasetSize, map(cacheFile.get(), cacheSize));
+        }
+      } catch (final IOException ex) {
+        LOG.debug("Failed to load the persisted EthHash cache of epoch {}", epochIndex, ex);
+      }
+    }
+
+    LOG.info("Generating the EthHash cache of epoch {}", epochIndex);
+    final int[] cache = EthHash.mkCache(cacheSize, epochIndex * EthHash.EPOCH_LENGTH);
+    if (cacheFile.isPresent()) {
+      try {
+        persist(cacheFile.get(), cache);
+        deleteStaleCaches(cacheFile.get().getParent(), epochIndex);
+        return new EthHashDescriptor(datasetSize, map(cacheFile.get(), cacheSize));
+      } catch (final IOException ex) {
+        LOG.warn(
+            "Failed to persist the EthHash cache of epoch {}, keeping it in memory",
+            epochIndex,
+            ex);
+      }
+    }
+    return new EthHashDescriptor(datasetSize, IntBuffer.wrap(cache));
+  }
+
+  private static IntBuffer map(final Path cacheFile, final int cacheSize) throws IOException {
+    try (final FileChannel channel = FileChannel.open(cacheFile, StandardOpenOption.READ)) {
+      return channel
+          .map(MapMode.READ_ONLY, 0, cacheSize)
+          .order(ByteOrder.LITTLE_ENDIAN)
+          .asIntBuffer();
+    }
+  }
+
+  private static void persist(final Path cacheFile, final int[] cache) throws IOException {
+    final Path directory = cacheFile.getParent();
+    Files.createDirectories(directory);
+    final Path tempFile = Files.createTempFile(directory, CACHE_FILE_PREFIX, ".tmp");
+    try {
+      write(tempFile, cache);
+      Files.move(tempFile, cacheFile, REPLACE_EXISTING, ATOMIC_MOVE);
+    } finally {
+      Files.deleteIfExists(tempFile);
+    }
+  }
+
+  private static void write(final Path file, final int[] cache) throws IOException {
+    final ByteBuffer buffer =
+        ByteBuffer.allocate(cache.length * Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+    buffer.asIntBuffer().put(cache);
+    try (final FileChannel channel =
+        FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+      while (buffer.hasRemaining()) {
+        channel.write(buffer);
+      }
+      channel.force(false);
+    }
+  }
+
+  private static void deleteStaleCaches(final Path directory, final long newestEpoch) {
+    try (final DirectoryStream<Path> files =
+        Files.newDirectoryStream(directory, CACHE_FILE_PREFIX + "*")) {
+      for (final Path file : files) {
+        final Long epoch =
+            Longs.tryParse(file.getFileName().toString().substring(CACHE_FILE_PREFIX.length()));
+        if (epoch != null && epoch < newestEpoch - PERSISTED_EPOCHS_BEHIND) {
+          Files.deleteIfExists(file);
+        }
+      }
+    } catch (final IOException ex) {
+      LOG.debug("Failed to delete stale EthHash caches", ex);
+    }
   }
 }
@@ -15,6 +15,7 @@ package tech.pegasys.pantheon.ethereum.mainnet;
 import java.io.Closeable;
 import java.io.IOException;
 import java.io.RandomAccessFile;
+import java.nio.IntBuffer;
 import java.nio.file.Path;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
@@ -34,7 +35,15 @@ public interface EthHasher {
 
   final class Light implements EthHasher {
 
-    private static final EthHashCacheFactory cacheFactory = new EthHashCacheFactory();
+    private final EthHashCacheFactory cacheFactory;
+
+    public Light() {
+      this(EthHashCacheFactory.getDefault());
+    }
+
+    public Light(final EthHashCacheFactory cacheFactory) {
+      this.cacheFactory = cacheFactory;
+    }
 
     @Override
     public void hash(
@@ -87,7 +96,7 @@ public interface EthHasher {
     }
 
     private void updateCache(final long number, final long newEpoch) {
-      final int[] cache = EthHash.mkCache(Ints.checkedCast(EthHash.cacheSize(newEpoch)), number);
+      final IntBuffer cache = EthHashCacheFactory.getDefault().ethHashCacheFor(number).getCache();
       epoch = newEpoch;
       final long newDatasetSize = EthHash.datasetSize(epoch);
       if (newDatasetSize != datasetSize) {
@@ -124,14 +133,14 @@ public interface EthHasher {
 
       private final int start;
       private final int end;
-      private final int[] cache;
+      private final IntBuffer cache;
       private final CountDownLatch doneLatch;
       private final RandomAccessFile cacheFile;
 
       HasherTask(
           final int start,
           final int upperBound,
-          final int[] cache,
+          final IntBuffer cache,
           final CountDownLatch doneLatch,
           final RandomAccessFile cacheFile) {
         this.end = upperBound;
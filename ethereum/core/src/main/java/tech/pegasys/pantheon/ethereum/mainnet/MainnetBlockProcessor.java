@@ -23,10 +23,12 @@ import tech.pegasys.pantheon.ethereum.core.TransactionReceipt;
 import tech.pegasys.pantheon.ethereum.core.Wei;
 import tech.pegasys.pantheon.ethereum.core.WorldState;
 import tech.pegasys.pantheon.ethereum.core.WorldUpdater;
+import tech.pegasys.pantheon.ethereum.mainnet.ProtocolSpecBuilder.BlockProcessorBuilder;
 import tech.pegasys.pantheon.ethereum.vm.BlockHashLookup;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 
 import com.google.common.collect.ImmutableList;
 import org.apache.logging.log4j.LogManager;
@@ -77,23 +79,50 @@ public class MainnetBlockProcessor implements BlockProcessor {
     }
   }
 
-  private final TransactionProcessor transactionProcessor;
+  protected final TransactionProcessor transactionProcessor;
 
-  private final TransactionReceiptFactory transactionReceiptFactory;
+  protected final TransactionReceiptFactory transactionReceiptFactory;
 
   private final Wei blockReward;
 
-  private final MiningBeneficiaryCalculator miningBeneficiaryCalculator;
+  protected final MiningBeneficiaryCalculator miningBeneficiaryCalculator;
+
+  private final Optional<BlockStatePrefetcher> prefetcher;
 
   public MainnetBlockProcessor(
       final TransactionProcessor transactionProcessor,
       final TransactionReceiptFactory transactionReceiptFactory,
       final Wei blockReward,
       final MiningBeneficiaryCalculator miningBeneficiaryCalculator) {
+    this(
+        transactionProcessor,
+        transactionReceiptFactory,
+        blockReward,
+        miningBeneficiaryCalculator,
+        Optional.empty());
+  }
+
+  public MainnetBlockProcessor(
+      final TransactionProcessor transactionProcessor,
+      final TransactionReceiptFactory transactionReceiptFactory,
+      final Wei blockReward,
+      final MiningBeneficiaryCalculator miningBeneficiaryCalculator,
+      final Optional<BlockStatePrefetcher> prefetcher) {
     this.transactionProcessor = transactionProcessor;
     this.transactionReceiptFactory = transactionReceiptFactory;
     this.blockReward = blockReward;
     this.miningBeneficiaryCalculator = miningBeneficiaryCalculator;
+    this.prefetcher = prefetcher;
+  }
+
+  public static BlockProcessorBuilder builder(final BlockStatePrefetcher prefetcher) {
+    return (transactionProcessor, transactionReceiptFactory, blockReward, beneficiaryCalculator) ->
+        new MainnetBlockProcessor(
+            transactionProcessor,
+            transactionReceiptFactory,
+            blockReward,
+            beneficiaryCalculator,
+            Optional.of(prefetcher));
   }
 
   @Override
@@ -103,7 +132,28 @@ public class MainnetBlockProcessor implements BlockProcessor {
       final BlockHeader blockHeader,
       final List<Transaction> transactions,
       final List<BlockHeader> ommers) {
+    // Recovering the senders of the whole block in one batch is cheaper than one by one.
+    Transaction.recoverSenders(transactions);
+    final Optional<BlockStatePrefetcher.Prefetch> prefetch =
+        prefetcher.map(
+            p ->
+                p.prefetch(
+                    worldState,
+                    transactions,
+                    miningBeneficiaryCalculator.calculateBeneficiary(blockHeader)));
+    try {
+      return processTransactions(blockchain, worldState, blockHeader, transactions, ommers);
+    } finally {
+      prefetch.ifPresent(BlockStatePrefetcher.Prefetch::cancel);
+    }
+  }
 
+  private Result processTransactions(
+      final Blockchain blockchain,
+      final MutableWorldState worldState,
+      final BlockHeader blockHeader,
+      final List<Transaction> transactions,
+      final List<BlockHeader> ommers) {
     long gasUsed = 0;
     final List<TransactionReceipt> receipts = new ArrayList<>();
 
@@ -148,7 +198,7 @@ public class MainnetBlockProcessor implements BlockProcessor {
     return Result.successful(receipts);
   }
 
-  private boolean rewardCoinbase(
+  protected boolean rewardCoinbase(
       final MutableWorldState worldState,
       final ProcessableBlockHeader header,
       final List<BlockHeader> ommers) {
@@ -14,6 +14,7 @@ package tech.pegasys.pantheon.ethereum.mainnet;
 
 import tech.pegasys.pantheon.config.GenesisConfigFile;
 import tech.pegasys.pantheon.config.GenesisConfigOptions;
+import tech.pegasys.pantheon.ethereum.mainnet.ProtocolSpecBuilder.BlockProcessorBuilder;
 
 import java.util.function.Function;
 
@@ -34,7 +35,22 @@ public class MainnetProtocolSchedule {
    * @return A configured mainnet protocol schedule
    */
   public static ProtocolSchedule<Void> fromConfig(final GenesisConfigOptions config) {
-    return new ProtocolScheduleBuilder<>(config, DEFAULT_CHAIN_ID, Function.identity())
+    return fromConfig(config, MainnetBlockProcessor::new);
+  }
+
+  /**
+   * Create a Mainnet protocol schedule from a config object, processing blocks with a custom block
+   * processor
+   *
+   * @param config {@link GenesisConfigOptions} containing the config options for the milestone
+   *     starting points
+   * @param blockProcessorBuilder creates the block processor used by every milestone
+   * @return A configured mainnet protocol schedule
+   */
+  public static ProtocolSchedule<Void> fromConfig(
+      final GenesisConfigOptions config, final BlockProcessorBuilder blockProcessorBuilder) {
+    return new ProtocolScheduleBuilder<>(
+            config, DEFAULT_CHAIN_ID, blockProcessorBuilder, Function.identity())
         .createProtocolSchedule();
   }
 }
@@ -22,6 +22,7 @@ import tech.pegasys.pantheon.ethereum.core.TransactionReceipt;
 import tech.pegasys.pantheon.ethereum.core.Wei;
 import tech.pegasys.pantheon.ethereum.core.WorldState;
 import tech.pegasys.pantheon.ethereum.core.WorldUpdater;
+import tech.pegasys.pantheon.ethereum.mainnet.ProtocolSpecBuilder.BlockProcessorBuilder;
 
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
@@ -111,18 +112,26 @@ public abstract class MainnetProtocolSpecs {
   public static ProtocolSpecBuilder<Void> daoRecoveryInitDefinition() {
     return homesteadDefinition()
         .blockHeaderValidatorBuilder(MainnetBlockHeaderValidator::createDaoValidator)
-        .blockProcessorBuilder(
-            (transactionProcessor,
+        .blockProcessorBuilder(daoRecoveryBlockProcessorBuilder(MainnetBlockProcessor::new))
+        .name("DaoRecoveryInit");
+  }
+
+  /**
+   * Wraps the block processors created by {@code blockProcessorBuilder} so that they apply the DAO
+   * refund before processing the block.
+   *
+   * @param blockProcessorBuilder creates the block processor that executes the block
+   * @return a builder for block processors that perform the DAO recovery
+   */
+  static BlockProcessorBuilder daoRecoveryBlockProcessorBuilder(
+      final BlockProcessorBuilder blockProcessorBuilder) {
+    return (transactionProcessor, transactionReceiptFactory, blockReward, beneficiaryCalculator) ->
+        new DaoBlockProcessor(
+            blockProcessorBuilder.apply(
+                transactionProcessor,
                 transactionReceiptFactory,
                 blockReward,
-                miningBeneficiaryCalculator) ->
-                new DaoBlockProcessor(
-                    new MainnetBlockProcessor(
-                        transactionProcessor,
-                        transactionReceiptFactory,
-                        blockReward,
-                        miningBeneficiaryCalculator)))
-        .name("DaoRecoveryInit");
+                beneficiaryCalculator));
   }
 
   public static ProtocolSpecBuilder<Void> daoRecoveryTransitionDefinition() {
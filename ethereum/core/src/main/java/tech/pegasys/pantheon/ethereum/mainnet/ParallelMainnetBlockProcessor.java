@@ -0,0 +1,224 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.mainnet;
+
+import tech.pegasys.pantheon.ethereum.chain.Blockchain;
+import tech.pegasys.pantheon.ethereum.core.Address;
+import tech.pegasys.pantheon.ethereum.core.BlockHeader;
+import tech.pegasys.pantheon.ethereum.core.MutableWorldState;
+import tech.pegasys.pantheon.ethereum.core.ReadTrackingWorldUpdater;
+import tech.pegasys.pantheon.ethereum.core.Transaction;
+import tech.pegasys.pantheon.ethereum.core.TransactionReceipt;
+import tech.pegasys.pantheon.ethereum.core.Wei;
+import tech.pegasys.pantheon.ethereum.core.WorldUpdater;
+import tech.pegasys.pantheon.ethereum.core.WorldView;
+import tech.pegasys.pantheon.ethereum.mainnet.ProtocolSpecBuilder.BlockProcessorBuilder;
+import tech.pegasys.pantheon.ethereum.vm.BlockHashLookup;
+import tech.pegasys.pantheon.util.uint.UInt256;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import com.google.common.util.concurrent.Uninterruptibles;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * A {@link MainnetBlockProcessor} that executes a block's transactions speculatively in parallel.
+ *
+ * <p>Every transaction is first executed on the supplied executor against the state at the start
+ * of the block, recording the accounts and storage slots it reads. The results are then committed
+ * in block order. A transaction whose reads were modified by an earlier transaction of the block is
+ * re-executed serially against the up-to-date state before being committed, so the outcome is the
+ * same as with {@link MainnetBlockProcessor}.
+ *
+ * <p>Mining fees are accumulated separately during speculation; only transactions that otherwise
+ * access the mining beneficiary conflict on it.
+ */
+public class ParallelMainnetBlockProcessor extends MainnetBlockProcessor {
+
+  private static final Logger LOG = LogManager.getLogger();
+
+  private final ExecutorService executor;
+
+  public ParallelMainnetBlockProcessor(
+      final TransactionProcessor transactionProcessor,
+      final TransactionReceiptFactory transactionReceiptFactory,
+      final Wei blockReward,
+      final MiningBeneficiaryCalculator miningBeneficiaryCalculator,
+      final ExecutorService executor) {
+    super(transactionProcessor, transactionReceiptFactory, blockReward, miningBeneficiaryCalculator);
+    this.executor = executor;
+  }
+
+  public static BlockProcessorBuilder builder(final ExecutorService executor) {
+    return (transactionProcessor, transactionReceiptFactory, blockReward, beneficiaryCalculator) ->
+        new ParallelMainnetBlockProcessor(
+            transactionProcessor,
+            transactionReceiptFactory,
+            blockReward,
+            beneficiaryCalculator,
+            executor);
+  }
+
+  @Override
+  public Result processBlock(
+      final Blockchain blockchain,
+      final MutableWorldState worldState,
+      final BlockHeader blockHeader,
+      final List<Transaction> transactions,
+      final List<BlockHeader> ommers) {
+    if (transactions.size() < 2) {
+      return super.processBlock(blockchain, worldState, blockHeader, transactions, ommers);
+    }
+
+    final Address miningBeneficiary = miningBeneficiaryCalculator.calculateBeneficiary(blockHeader);
+    final List<TransactionExecution> speculations =
+        speculate(blockchain, worldState, blockHeader, transactions, miningBeneficiary);
+
+    long gasUsed = 0;
+    final List<TransactionReceipt> receipts = new ArrayList<>();
+    final Set<Address> modifiedAccounts = new HashSet<>();
+    final Map<Address, Set<UInt256>> modifiedStorage = new HashMap<>();
+    int reexecuted = 0;
+
+    for (int i = 0; i < transactions.size(); ++i) {
+      final Transaction transaction = transactions.get(i);
+      final long remainingGasBudget = blockHeader.getGasLimit() - gasUsed;
+      if (Long.compareUnsigned(transaction.getGasLimit(), remainingGasBudget) > 0) {
+        LOG.warn(
+            "Transaction processing error: transaction gas limit {} exceeds available block budget remaining {}",
+            transaction.getGasLimit(),
+            remainingGasBudget);
+        return Result.failed();
+      }
+
+      TransactionExecution execution = speculations.get(i);
+      if (execution == null || execution.dependsOn(modifiedAccounts, modifiedStorage)) {
+        execution =
+            execute(
+                blockchain,
+                worldState,
+                blockHeader,
+                transaction,
+                miningBeneficiary,
+                Optional.empty());
+        reexecuted++;
+      }
+      if (execution.result.isInvalid()) {
+        return Result.failed();
+      }
+
+      final WorldUpdater worldStateUpdater = worldState.updater();
+      execution.updater.applyTo(worldStateUpdater);
+      worldStateUpdater.commit();
+      execution.updater.collectWrites(modifiedAccounts, modifiedStorage);
+
+      gasUsed = transaction.getGasLimit() - execution.result.getGasRemaining() + gasUsed;
+      final TransactionReceipt transactionReceipt =
+          transactionReceiptFactory.create(execution.result, worldState, gasUsed);
+      receipts.add(transactionReceipt);
+    }
+    LOG.trace(
+        "Re-executed {} of {} transactions in block {}",
+        reexecuted,
+        transactions.size(),
+        blockHeader.getNumber());
+
+    if (!rewardCoinbase(worldState, blockHeader, ommers)) {
+      return Result.failed();
+    }
+
+    worldState.persist();
+    return Result.successful(receipts);
+  }
+
+  private List<TransactionExecution> speculate(
+      final Blockchain blockchain,
+      final MutableWorldState worldState,
+      final BlockHeader blockHeader,
+      final List<Transaction> transactions,
+      final Address miningBeneficiary) {
+    final List<Future<TransactionExecution>> futures = new ArrayList<>(transactions.size());
+    for (final Transaction transaction : transactions) {
+      futures.add(
+          executor.submit(
+              () -> {
+                if (transaction.getSender().equals(miningBeneficiary)) {
+                  return null;
+                }
+                return execute(
+                    blockchain,
+                    worldState,
+                    blockHeader,
+                    transaction,
+                    miningBeneficiary,
+                    Optional.of(miningBeneficiary));
+              }));
+    }
+
+    // Every speculation reads the world state, so all of them must have completed before any
+    // result is committed to it.
+    final List<TransactionExecution> speculations = new ArrayList<>(futures.size());
+    for (final Future<TransactionExecution> future : futures) {
+      try {
+        speculations.add(Uninterruptibles.getUninterruptibly(future));
+      } catch (final ExecutionException e) {
+        LOG.debug("Speculative transaction execution failed, will execute serially", e);
+        speculations.add(null);
+      }
+    }
+    return speculations;
+  }
+
+  private TransactionExecution execute(
+      final Blockchain blockchain,
+      final WorldView worldView,
+      final BlockHeader blockHeader,
+      final Transaction transaction,
+      final Address miningBeneficiary,
+      final Optional<Address> accumulatedFeeRecipient) {
+    final ReadTrackingWorldUpdater updater =
+        new ReadTrackingWorldUpdater(worldView, accumulatedFeeRecipient);
+    final BlockHashLookup blockHashLookup = new BlockHashLookup(blockHeader, blockchain);
+    final TransactionProcessor.Result result =
+        transactionProcessor.processTransaction(
+            blockchain, updater, blockHeader, transaction, miningBeneficiary, blockHashLookup);
+    return new TransactionExecution(updater, result);
+  }
+
+  private static class TransactionExecution {
+
+    private final ReadTrackingWorldUpdater updater;
+    private final TransactionProcessor.Result result;
+
+    TransactionExecution(
+        final ReadTrackingWorldUpdater updater, final TransactionProcessor.Result result) {
+      this.updater = updater;
+      this.result = result;
+    }
+
+    boolean dependsOn(
+        final Set<Address> modifiedAccounts, final Map<Address, Set<UInt256>> modifiedStorage) {
+      return updater.readFeeRecipient() || updater.readsAnyOf(modifiedAccounts, modifiedStorage);
+    }
+  }
+}
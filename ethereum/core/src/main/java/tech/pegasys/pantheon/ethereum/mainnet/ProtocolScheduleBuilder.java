@@ -13,6 +13,7 @@
 package tech.pegasys.pantheon.ethereum.mainnet;
 
 import tech.pegasys.pantheon.config.GenesisConfigOptions;
+import tech.pegasys.pantheon.ethereum.mainnet.ProtocolSpecBuilder.BlockProcessorBuilder;
 
 import java.util.OptionalLong;
 import java.util.function.Function;
@@ -22,14 +23,33 @@ public class ProtocolScheduleBuilder<C> {
   private final GenesisConfigOptions config;
   private final Function<ProtocolSpecBuilder<Void>, ProtocolSpecBuilder<C>> protocolSpecAdapter;
   private final int defaultChainId;
+  private final BlockProcessorBuilder blockProcessorBuilder;
 
   public ProtocolScheduleBuilder(
       final GenesisConfigOptions config,
       final int defaultChainId,
       final Function<ProtocolSpecBuilder<Void>, ProtocolSpecBuilder<C>> protocolSpecAdapter) {
+    this(config, defaultChainId, MainnetBlockProcessor::new, protocolSpecAdapter);
+  }
+
+  /**
+   * Creates a builder whose milestones process blocks with the block processors created by {@code
+   * blockProcessorBuilder}. Milestones that perform the DAO recovery wrap them accordingly.
+   *
+   * @param config the genesis config defining the milestone block numbers
+   * @param defaultChainId the chain id to use when the config does not specify one
+   * @param blockProcessorBuilder creates the block processor of every milestone
+   * @param protocolSpecAdapter adapts the mainnet milestone definitions to the consensus mechanism
+   */
+  public ProtocolScheduleBuilder(
+      final GenesisConfigOptions config,
+      final int defaultChainId,
+      final BlockProcessorBuilder blockProcessorBuilder,
+      final Function<ProtocolSpecBuilder<Void>, ProtocolSpecBuilder<C>> protocolSpecAdapter) {
     this.config = config;
     this.protocolSpecAdapter = protocolSpecAdapter;
     this.defaultChainId = defaultChainId;
+    this.blockProcessorBuilder = blockProcessorBuilder;
   }
 
   public ProtocolSchedule<C> createProtocolSchedule() {
@@ -53,7 +73,8 @@ public class ProtocolScheduleBuilder<C> {
                 addProtocolSpec(
                     protocolSchedule,
                     OptionalLong.of(daoBlockNumber),
-                    MainnetProtocolSpecs.daoRecoveryInitDefinition());
+                    MainnetProtocolSpecs.daoRecoveryInitDefinition(),
+                    MainnetProtocolSpecs.daoRecoveryBlockProcessorBuilder(blockProcessorBuilder));
                 addProtocolSpec(
                     protocolSchedule,
                     OptionalLong.of(daoBlockNumber + 1),
@@ -88,9 +109,20 @@ public class ProtocolScheduleBuilder<C> {
       final MutableProtocolSchedule<C> protocolSchedule,
       final OptionalLong blockNumber,
       final ProtocolSpecBuilder<Void> definition) {
+    addProtocolSpec(protocolSchedule, blockNumber, definition, blockProcessorBuilder);
+  }
+
+  private void addProtocolSpec(
+      final MutableProtocolSchedule<C> protocolSchedule,
+      final OptionalLong blockNumber,
+      final ProtocolSpecBuilder<Void> definition,
+      final BlockProcessorBuilder blockProcessorBuilder) {
     blockNumber.ifPresent(
         number ->
             protocolSchedule.putMilestone(
-                number, protocolSpecAdapter.apply(definition).build(protocolSchedule)));
+                number,
+                protocolSpecAdapter
+                    .apply(definition.blockProcessorBuilder(blockProcessorBuilder))
+                    .build(protocolSchedule)));
   }
 }
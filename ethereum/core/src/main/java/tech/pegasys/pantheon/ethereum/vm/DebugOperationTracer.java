@@ -22,19 +22,49 @@ import tech.pegasys.pantheon.util.bytes.Bytes32;
 import tech.pegasys.pantheon.util.uint.UInt256;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.EnumSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.TreeMap;
+import java.util.function.Consumer;
 
+/**
+ * Records a {@link TraceFrame} for every operation executed.
+ *
+ * <p>Frames are either collected, see {@link #getTraceFrames()}, or handed to a consumer as they
+ * are produced so a trace can be written out while the transaction executes. The stack, memory and
+ * storage are only read if enabled in the {@link TraceOptions}. For storage, each frame records the
+ * slots changed since the previous frame of the same call rather than all the updated slots.
+ */
 public class DebugOperationTracer implements OperationTracer {
 
+  private static final int SSTORE_OPCODE = 0x55;
+
   private final TraceOptions options;
   private final List<TraceFrame> traceFrames = new ArrayList<>();
+  private final Consumer<TraceFrame> frameConsumer;
+
+  // The updated storage already reported for each call on the message stack, by depth.
+  private final List<Map<UInt256, UInt256>> reportedStorage = new ArrayList<>();
+  private int previousDepth = -1;
 
   public DebugOperationTracer(final TraceOptions options) {
     this.options = options;
+    this.frameConsumer = traceFrames::add;
+  }
+
+  /**
+   * Creates a tracer which passes frames to a consumer instead of collecting them.
+   *
+   * @param options what to trace
+   * @param frameConsumer receives each frame once its operation has executed
+   */
+  public DebugOperationTracer(
+      final TraceOptions options, final Consumer<TraceFrame> frameConsumer) {
+    this.options = options;
+    this.frameConsumer = frameConsumer;
   }
 
   @Override
@@ -51,13 +81,22 @@ public class DebugOperationTracer implements OperationTracer {
         EnumSet.copyOf(frame.getExceptionalHaltReasons());
     final Optional<Bytes32[]> stack = captureStack(frame);
     final Optional<Bytes32[]> memory = captureMemory(frame);
+    // A frame deeper than the previous one is the first of a new call. A shallower one follows the
+    // return of a call, whose storage updates may have been merged into this call's.
+    final boolean storageMayHaveChanged =
+        depth != previousDepth || frame.getCurrentOperation().getOpcode() == SSTORE_OPCODE;
+    if (depth > previousDepth) {
+      startCall(depth);
+    }
+    previousDepth = depth;
 
     try {
       executeOperation.execute();
     } finally {
-      final Optional<Map<UInt256, UInt256>> storage = captureStorage(frame);
+      final Optional<Map<UInt256, UInt256>> storage =
+          captureStorageChanges(frame, depth, storageMayHaveChanged);
 
-      traceFrames.add(
+      frameConsumer.accept(
           new TraceFrame(
               pc,
               opcode,
@@ -71,14 +110,35 @@ public class DebugOperationTracer implements OperationTracer {
     }
   }
 
-  private Optional<Map<UInt256, UInt256>> captureStorage(final MessageFrame frame) {
+  private void startCall(final int depth) {
+    while (reportedStorage.size() <= depth) {
+      reportedStorage.add(null);
+    }
+    reportedStorage.set(depth, new TreeMap<>());
+  }
+
+  private Optional<Map<UInt256, UInt256>> captureStorageChanges(
+      final MessageFrame frame, final int depth, final boolean storageMayHaveChanged) {
     if (!options.isStorageEnabled()) {
       return Optional.empty();
     }
-    final Map<UInt256, UInt256> storageContents =
-        new TreeMap<>(
-            frame.getWorldState().getMutable(frame.getRecipientAddress()).getUpdatedStorage());
-    return Optional.of(storageContents);
+    if (!storageMayHaveChanged) {
+      return Optional.of(Collections.emptyMap());
+    }
+    final Map<UInt256, UInt256> reported = reportedStorage.get(depth);
+    final Map<UInt256, UInt256> changes = new TreeMap<>();
+    frame
+        .getWorldState()
+        .getMutable(frame.getRecipientAddress())
+        .getUpdatedStorage()
+        .forEach(
+            (key, value) -> {
+              if (!value.equals(reported.get(key))) {
+                changes.put(key, value);
+              }
+            });
+    reported.putAll(changes);
+    return Optional.of(changes);
   }
 
   private Optional<Bytes32[]> captureMemory(final MessageFrame frame) {
@@ -104,6 +164,11 @@ public class DebugOperationTracer implements OperationTracer {
     return Optional.of(stackContents);
   }
 
+  /**
+   * The frames collected so far.
+   *
+   * @return the frames, which are always empty if the tracer was created with a frame consumer
+   */
   public List<TraceFrame> getTraceFrames() {
     return traceFrames;
   }
@@ -254,7 +254,7 @@ public class MessageFrame {
     this.blockHashLookup = blockHashLookup;
     this.pc = 0;
     this.memory = new Memory();
-    this.stack = new PreAllocatedOperandStack(MAX_STACK_SIZE);
+    this.stack = new SlotOperandStack(MAX_STACK_SIZE);
     this.output = BytesValue.EMPTY;
     this.returnData = BytesValue.EMPTY;
     this.logs = LogSeries.empty();
@@ -434,6 +434,18 @@ public class MessageFrame {
     stack.set(offset, value);
   }
 
+  /**
+   * Returns the operand stack.
+   *
+   * <p>Operations on the interpreter's hot path use this to manipulate operands in place rather
+   * than popping and pushing {@link Bytes32} values.
+   *
+   * @return the operand stack
+   */
+  public OperandStack getOperandStack() {
+    return stack;
+  }
+
   /**
    * Return the current stack size.
    *
@@ -15,6 +15,7 @@ package tech.pegasys.pantheon.ethereum.vm;
 import static com.google.common.base.Preconditions.checkArgument;
 
 import tech.pegasys.pantheon.util.bytes.Bytes32;
+import tech.pegasys.pantheon.util.uint.UInt256;
 
 /**
  * An operand stack for the Ethereum Virtual machine (EVM).
@@ -89,4 +90,102 @@ public interface OperandStack {
    * @return the current number of operands in the stack
    */
   int size();
+
+  /**
+   * Pushes a copy of the operand located at {@code index - 1} from the top of the stack.
+   *
+   * @param index the 1-based position of the operand to duplicate (as in {@code DUP1..DUP16})
+   * @throws IndexOutOfBoundsException if the index is out of range
+   * @throws IllegalStateException when the stack is at capacity
+   */
+  default void dup(final int index) {
+    push(get(index - 1));
+  }
+
+  /**
+   * Exchanges the operand at the top of the stack with the operand at {@code index}.
+   *
+   * @param index the position relative to the top of the stack to swap with (as in {@code
+   *     SWAP1..SWAP16})
+   * @throws IndexOutOfBoundsException if the index is out of range
+   */
+  default void swap(final int index) {
+    final Bytes32 tmp = get(0);
+    set(0, get(index));
+    set(index, tmp);
+  }
+
+  /**
+   * Replaces the two operands at the top of the stack with their sum modulo 2^256.
+   *
+   * @throws IllegalStateException if the stack holds fewer than two operands
+   */
+  default void add() {
+    final UInt256 value0 = pop().asUInt256();
+    final UInt256 value1 = pop().asUInt256();
+    push(value0.plus(value1).getBytes());
+  }
+
+  /**
+   * Replaces the two operands at the top of the stack with the top operand minus the second,
+   * modulo 2^256.
+   *
+   * @throws IllegalStateException if the stack holds fewer than two operands
+   */
+  default void sub() {
+    final UInt256 value0 = pop().asUInt256();
+    final UInt256 value1 = pop().asUInt256();
+    push(value0.minus(value1).getBytes());
+  }
+
+  /**
+   * Replaces the two operands at the top of the stack with their bitwise and.
+   *
+   * @throws IllegalStateException if the stack holds fewer than two operands
+   */
+  default void and() {
+    final UInt256 value0 = pop().asUInt256();
+    final UInt256 value1 = pop().asUInt256();
+    push(value0.and(value1).getBytes());
+  }
+
+  /**
+   * Replaces the two operands at the top of the stack with their bitwise or.
+   *
+   * @throws IllegalStateException if the stack holds fewer than two operands
+   */
+  default void or() {
+    final UInt256 value0 = pop().asUInt256();
+    final UInt256 value1 = pop().asUInt256();
+    push(value0.or(value1).getBytes());
+  }
+
+  /**
+   * Replaces the two operands at the top of the stack with their bitwise exclusive or.
+   *
+   * @throws IllegalStateException if the stack holds fewer than two operands
+   */
+  default void xor() {
+    final UInt256 value0 = pop().asUInt256();
+    final UInt256 value1 = pop().asUInt256();
+    push(value0.xor(value1).getBytes());
+  }
+
+  /**
+   * Replaces the operand at the top of the stack with its bitwise complement.
+   *
+   * @throws IllegalStateException if the stack is empty
+   */
+  default void not() {
+    push(pop().asUInt256().not().getBytes());
+  }
+
+  /**
+   * Replaces the operand at the top of the stack with 1 if it is zero and 0 otherwise.
+   *
+   * @throws IllegalStateException if the stack is empty
+   */
+  default void isZero() {
+    push(pop().isZero() ? Bytes32.TRUE : Bytes32.FALSE);
+  }
 }
@@ -0,0 +1,350 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.vm;
+
+import tech.pegasys.pantheon.util.bytes.Bytes32;
+
+import java.util.Arrays;
+
+/**
+ * An {@link OperandStack} that stores its operands in reusable 256-bit slots.
+ *
+ * <p>Each operand occupies four consecutive {@code long} limbs of a flat array, least significant
+ * limb first. Stack manipulation and the simple arithmetic and bitwise operations are computed in
+ * place on those limbs, so they do not allocate.
+ *
+ * <p>Operations that work on whole {@link Bytes32} values use the stack the same way as {@link
+ * PreAllocatedOperandStack}: a pushed value is kept as is and handed back by {@link #get(int)} and
+ * {@link #pop()}, and is only copied into limbs when an in-place operation needs them. A value
+ * computed in place is converted to a {@link Bytes32} the first time it is read, and that view is
+ * kept until the slot changes, so each value is converted at most once.
+ *
+ * <p>The backing arrays grow on demand up to the maximum size, so shallow frames don't pay for a
+ * fully sized stack.
+ */
+public class SlotOperandStack implements OperandStack {
+
+  private static final int LIMBS = 4;
+  private static final int INITIAL_CAPACITY = 16;
+
+  private final int maxSize;
+
+  private long[] slots;
+
+  // The Bytes32 value of each slot, or null if it hasn't been read since it was computed in place.
+  private Bytes32[] views;
+
+  // Whether the limbs of a slot are out of date, in which case its view holds the value.
+  private boolean[] stale;
+
+  private int top;
+
+  public SlotOperandStack(final int maxSize) {
+    if (maxSize < 0) {
+      throw new IllegalArgumentException(
+          String.format("max size (%d) must be non-negative", maxSize));
+    }
+    this.maxSize = maxSize;
+    final int capacity = Math.min(maxSize, INITIAL_CAPACITY);
+    this.slots = new long[capacity * LIMBS];
+    this.views = new Bytes32[capacity];
+    this.stale = new boolean[capacity];
+    this.top = -1;
+  }
+
+  @Override
+  public Bytes32 get(final int offset) {
+    checkOffset(offset);
+    return view(top - offset);
+  }
+
+  @Override
+  public Bytes32 pop() {
+    checkUnderflow(1);
+    return view(top--);
+  }
+
+  @Override
+  public void bulkPop(final int items) {
+    if (items < 0) {
+      throw new IllegalArgumentException(
+          String.format("requested number of items to bulk pop (%d) is negative", items));
+    }
+    if (items == 0) {
+      throw new IllegalArgumentException("number of items to pop must be greater than 0");
+    }
+    if (items > size()) {
+      throw new IllegalStateException(
+          String.format("requested to bulk pop %d items off a stack of size %d", items, size()));
+    }
+    top -= items;
+  }
+
+  @Override
+  public void push(final Bytes32 operand) {
+    final int nextTop = reserveTop();
+    views[nextTop] = operand;
+    stale[nextTop] = true;
+    top = nextTop;
+  }
+
+  @Override
+  public void set(final int offset, final Bytes32 operand) {
+    checkOffset(offset);
+    final int index = top - offset;
+    views[index] = operand;
+    stale[index] = true;
+  }
+
+  @Override
+  public int size() {
+    return top + 1;
+  }
+
+  @Override
+  public void dup(final int index) {
+    checkOffset(index - 1);
+    final int nextTop = reserveTop();
+    final int source = top - index + 1;
+    if (!stale[source]) {
+      System.arraycopy(slots, source * LIMBS, slots, nextTop * LIMBS, LIMBS);
+    }
+    views[nextTop] = views[source];
+    stale[nextTop] = stale[source];
+    top = nextTop;
+  }
+
+  @Override
+  public void swap(final int index) {
+    checkOffset(index);
+    final int other = top - index;
+    if (!stale[top] || !stale[other]) {
+      final int a = top * LIMBS;
+      final int b = other * LIMBS;
+      for (int limb = 0; limb < LIMBS; ++limb) {
+        final long tmp = slots[a + limb];
+        slots[a + limb] = slots[b + limb];
+        slots[b + limb] = tmp;
+      }
+    }
+    final Bytes32 view = views[top];
+    views[top] = views[other];
+    views[other] = view;
+    final boolean isStale = stale[top];
+    stale[top] = stale[other];
+    stale[other] = isStale;
+  }
+
+  @Override
+  public void add() {
+    checkUnderflow(2);
+    final int a = limbs(top);
+    final int r = mutableLimbs(top - 1);
+    long carry = 0;
+    for (int limb = 0; limb < LIMBS; ++limb) {
+      final long x = slots[a + limb];
+      final long sum = x + slots[r + limb];
+      final long carried = sum + carry;
+      carry = (Long.compareUnsigned(sum, x) < 0 || (carry != 0 && carried == 0)) ? 1 : 0;
+      slots[r + limb] = carried;
+    }
+    top--;
+  }
+
+  @Override
+  public void sub() {
+    checkUnderflow(2);
+    final int a = limbs(top);
+    final int r = mutableLimbs(top - 1);
+    long borrow = 0;
+    for (int limb = 0; limb < LIMBS; ++limb) {
+      final long x = slots[a + limb];
+      final long y = slots[r + limb];
+      final long diff = x - y;
+      final long borrowed = diff - borrow;
+      borrow = (Long.compareUnsigned(x, y) < 0 || (borrow != 0 && diff == 0)) ? 1 : 0;
+      slots[r + limb] = borrowed;
+    }
+    top--;
+  }
+
+  @Override
+  public void and() {
+    checkUnderflow(2);
+    final int a = limbs(top);
+    final int r = mutableLimbs(top - 1);
+    for (int limb = 0; limb < LIMBS; ++limb) {
+      slots[r + limb] &= slots[a + limb];
+    }
+    top--;
+  }
+
+  @Override
+  public void or() {
+    checkUnderflow(2);
+    final int a = limbs(top);
+    final int r = mutableLimbs(top - 1);
+    for (int limb = 0; limb < LIMBS; ++limb) {
+      slots[r + limb] |= slots[a + limb];
+    }
+    top--;
+  }
+
+  @Override
+  public void xor() {
+    checkUnderflow(2);
+    final int a = limbs(top);
+    final int r = mutableLimbs(top - 1);
+    for (int limb = 0; limb < LIMBS; ++limb) {
+      slots[r + limb] ^= slots[a + limb];
+    }
+    top--;
+  }
+
+  @Override
+  public void not() {
+    checkUnderflow(1);
+    final int r = mutableLimbs(top);
+    for (int limb = 0; limb < LIMBS; ++limb) {
+      slots[r + limb] = ~slots[r + limb];
+    }
+  }
+
+  @Override
+  public void isZero() {
+    checkUnderflow(1);
+    final int r = mutableLimbs(top);
+    final boolean zero = (slots[r] | slots[r + 1] | slots[r + 2] | slots[r + 3]) == 0;
+    slots[r] = zero ? 1 : 0;
+    slots[r + 1] = 0;
+    slots[r + 2] = 0;
+    slots[r + 3] = 0;
+  }
+
+  private void checkOffset(final int offset) {
+    if (offset < 0 || offset >= size()) {
+      throw new IndexOutOfBoundsException();
+    }
+  }
+
+  private void checkUnderflow(final int items) {
+    if (top + 1 < items) {
+      throw new IllegalStateException("operand stack underflow");
+    }
+  }
+
+  private int reserveTop() {
+    final int nextTop = top + 1;
+    if (nextTop == maxSize) {
+      throw new IllegalStateException("operand stack overflow");
+    }
+    if (nextTop + 1 > views.length) {
+      final int capacity = Math.min(maxSize, Math.max(INITIAL_CAPACITY, (nextTop + 1) * 2));
+      slots = Arrays.copyOf(slots, capacity * LIMBS);
+      views = Arrays.copyOf(views, capacity);
+      stale = Arrays.copyOf(stale, capacity);
+    }
+    return nextTop;
+  }
+
+  /** Brings the limbs of a slot up to date and returns the position of its first limb. */
+  private int limbs(final int index) {
+    final int base = index * LIMBS;
+    if (stale[index]) {
+      // Reading the backing array directly is much cheaper than getLong on the value.
+      final byte[] bytes = views[index].getArrayUnsafe();
+      for (int limb = 0; limb < LIMBS; ++limb) {
+        final int end = Bytes32.SIZE - limb * Long.BYTES;
+        long value = 0;
+        for (int i = end - Long.BYTES; i < end; ++i) {
+          value = (value << 8) | (bytes[i] & 0xFF);
+        }
+        slots[base + limb] = value;
+      }
+      stale[index] = false;
+    }
+    return base;
+  }
+
+  /** Like {@link #limbs(int)}, for a slot whose limbs are about to be modified in place. */
+  private int mutableLimbs(final int index) {
+    final int base = limbs(index);
+    views[index] = null;
+    return base;
+  }
+
+  private Bytes32 view(final int index) {
+    Bytes32 view = views[index];
+    if (view == null) {
+      view = toBytes32(index);
+      views[index] = view;
+    }
+    return view;
+  }
+
+  private Bytes32 toBytes32(final int index) {
+    final byte[] bytes = new byte[Bytes32.SIZE];
+    final int base = index * LIMBS;
+    for (int limb = 0; limb < LIMBS; ++limb) {
+      final long value = slots[base + limb];
+      final int end = Bytes32.SIZE - limb * Long.BYTES;
+      for (int i = 1; i <= Long.BYTES; ++i) {
+        bytes[end - i] = (byte) (value >>> ((i - 1) * 8));
+      }
+    }
+    return Bytes32.wrap(bytes);
+  }
+
+  @Override
+  public String toString() {
+    final StringBuilder builder = new StringBuilder();
+    for (int i = 0; i < size(); ++i) {
+      builder.append(String.format("\n0x%04X ", i)).append(get(i));
+    }
+    return builder.toString();
+  }
+
+  @Override
+  public int hashCode() {
+    int result = 1;
+    for (int i = 0; i < size(); ++i) {
+      limbs(i);
+    }
+    for (int i = 0; i < size() * LIMBS; ++i) {
+      result = 31 * result + Long.hashCode(slots[i]);
+    }
+    return result;
+  }
+
+  @Override
+  public boolean equals(final Object other) {
+    if (!(other instanceof SlotOperandStack)) {
+      return false;
+    }
+
+    final SlotOperandStack that = (SlotOperandStack) other;
+    if (this.size() != that.size()) {
+      return false;
+    }
+    for (int i = 0; i < size(); ++i) {
+      this.limbs(i);
+      that.limbs(i);
+    }
+    for (int i = 0; i < size() * LIMBS; ++i) {
+      if (this.slots[i] != that.slots[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
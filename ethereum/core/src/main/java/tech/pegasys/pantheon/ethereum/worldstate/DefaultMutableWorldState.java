@@ -100,6 +100,14 @@ public class DefaultMutableWorldState implements MutableWorldState {
         .orElse(null);
   }
 
+  @Override
+  public void prefetch(final Address address) {
+    // Walking the path loads the stored trie nodes along it, which then stay attached to the
+    // account trie for later reads. Stored nodes are immutable once loaded, so concurrent walks are
+    // safe.
+    accountStateTrie.get(Hash.hash(address));
+  }
+
   private AccountState deserializeAccount(
       final Address address, final Hash addressHash, final BytesValue encoded) throws RLPException {
     final RLPInput in = RLP.input(encoded);
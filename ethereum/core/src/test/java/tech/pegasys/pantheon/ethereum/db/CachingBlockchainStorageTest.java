@@ -0,0 +1,143 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.db;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import tech.pegasys.pantheon.ethereum.chain.TransactionLocation;
+import tech.pegasys.pantheon.ethereum.core.Block;
+import tech.pegasys.pantheon.ethereum.core.BlockDataGenerator;
+import tech.pegasys.pantheon.ethereum.core.Hash;
+import tech.pegasys.pantheon.ethereum.core.TransactionReceipt;
+import tech.pegasys.pantheon.ethereum.mainnet.MainnetBlockHashFunction;
+import tech.pegasys.pantheon.ethereum.storage.keyvalue.KeyValueStoragePrefixedKeyBlockchainStorage;
+import tech.pegasys.pantheon.metrics.noop.NoOpMetricsSystem;
+import tech.pegasys.pantheon.services.kvstore.InMemoryKeyValueStorage;
+
+import java.util.List;
+
+import org.junit.Test;
+
+public class CachingBlockchainStorageTest {
+
+  private final BlockDataGenerator gen = new BlockDataGenerator();
+  private final BlockchainStorage storage =
+      spy(
+          new KeyValueStoragePrefixedKeyBlockchainStorage(
+              new InMemoryKeyValueStorage(), MainnetBlockHashFunction::createHash));
+  private final CachingBlockchainStorage cachingStorage =
+      new CachingBlockchainStorage(storage, new NoOpMetricsSystem(), 16, 16);
+
+  @Test
+  public void committedBlockDataIsServedFromCache() {
+    final Block block = gen.block();
+    final List<TransactionReceipt> receipts = gen.receipts(block);
+    final Hash hash = block.getHash();
+
+    final BlockchainStorage.Updater updater = cachingStorage.updater();
+    updater.putBlockHeader(hash, block.getHeader());
+    updater.putBlockBody(hash, block.getBody());
+    updater.putTransactionReceipts(hash, receipts);
+    updater.putBlockHash(block.getHeader().getNumber(), hash);
+    updater.setChainHead(hash);
+    updater.commit();
+
+    assertThat(cachingStorage.getBlockHeader(hash)).contains(block.getHeader());
+    assertThat(cachingStorage.getBlockBody(hash)).contains(block.getBody());
+    assertThat(cachingStorage.getTransactionReceipts(hash)).contains(receipts);
+    assertThat(cachingStorage.getBlockHash(block.getHeader().getNumber())).contains(hash);
+    assertThat(cachingStorage.getChainHead()).contains(hash);
+
+    verify(storage, never()).getBlockHeader(hash);
+    verify(storage, never()).getBlockBody(hash);
+    verify(storage, never()).getTransactionReceipts(hash);
+    verify(storage, never()).getBlockHash(block.getHeader().getNumber());
+  }
+
+  @Test
+  public void readsThatMissFillTheCache() {
+    final Block block = gen.block();
+    final BlockchainStorage.Updater updater = storage.updater();
+    updater.putBlockHeader(block.getHash(), block.getHeader());
+    updater.commit();
+
+    assertThat(cachingStorage.getBlockHeader(block.getHash())).contains(block.getHeader());
+    assertThat(cachingStorage.getBlockHeader(block.getHash())).contains(block.getHeader());
+
+    verify(storage, times(1)).getBlockHeader(block.getHash());
+  }
+
+  @Test
+  public void missingDataIsNotCached() {
+    final Hash hash = gen.hash();
+
+    assertThat(cachingStorage.getBlockHeader(hash)).isEmpty();
+    assertThat(cachingStorage.getBlockHeader(hash)).isEmpty();
+
+    verify(storage, times(2)).getBlockHeader(hash);
+  }
+
+  @Test
+  public void removedBlockHashesAndTransactionLocationsAreInvalidated() {
+    final Hash blockHash = gen.hash();
+    final Hash transactionHash = gen.hash();
+    final BlockchainStorage.Updater updater = cachingStorage.updater();
+    updater.putBlockHash(5L, blockHash);
+    updater.putTransactionLocation(transactionHash, new TransactionLocation(blockHash, 0));
+    updater.commit();
+    assertThat(cachingStorage.getBlockHash(5L)).contains(blockHash);
+
+    final BlockchainStorage.Updater reorg = cachingStorage.updater();
+    reorg.removeBlockHash(5L);
+    reorg.removeTransactionLocation(transactionHash);
+    reorg.commit();
+
+    assertThat(cachingStorage.getBlockHash(5L)).isEmpty();
+    assertThat(cachingStorage.getTransactionLocation(transactionHash)).isEmpty();
+  }
+
+  @Test
+  public void replacedBlockHashesAreUpdated() {
+    final Hash oldHash = gen.hash();
+    final Hash newHash = gen.hash();
+    final BlockchainStorage.Updater updater = cachingStorage.updater();
+    updater.putBlockHash(5L, oldHash);
+    updater.setChainHead(oldHash);
+    updater.commit();
+
+    final BlockchainStorage.Updater reorg = cachingStorage.updater();
+    reorg.putBlockHash(5L, newHash);
+    reorg.setChainHead(newHash);
+    reorg.commit();
+
+    assertThat(cachingStorage.getBlockHash(5L)).contains(newHash);
+    assertThat(cachingStorage.getChainHead()).contains(newHash);
+    assertThat(storage.getBlockHash(5L)).contains(newHash);
+  }
+
+  @Test
+  public void rolledBackUpdatesAreNotCached() {
+    final Block block = gen.block();
+    final BlockchainStorage.Updater updater = cachingStorage.updater();
+    updater.putBlockHeader(block.getHash(), block.getHeader());
+    updater.setChainHead(block.getHash());
+    updater.rollback();
+
+    assertThat(cachingStorage.getBlockHeader(block.getHash())).isEmpty();
+    assertThat(cachingStorage.getChainHead()).isEmpty();
+  }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.db;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import tech.pegasys.pantheon.ethereum.core.Address;
+import tech.pegasys.pantheon.ethereum.core.Hash;
+import tech.pegasys.pantheon.ethereum.core.MutableWorldState;
+import tech.pegasys.pantheon.ethereum.core.Wei;
+import tech.pegasys.pantheon.ethereum.core.WorldState;
+import tech.pegasys.pantheon.ethereum.core.WorldUpdater;
+import tech.pegasys.pantheon.ethereum.storage.keyvalue.KeyValueStorageWorldStateStorage;
+import tech.pegasys.pantheon.services.kvstore.InMemoryKeyValueStorage;
+import tech.pegasys.pantheon.util.bytes.Bytes32;
+import tech.pegasys.pantheon.util.bytes.BytesValue;
+
+import java.util.Optional;
+
+import org.junit.Test;
+
+public class WorldStateArchiveTest {
+
+  private static final Address ADDRESS =
+      Address.fromHexString("0xb94f5374fce5edbc8e2a8697c15331677e6ebf0b");
+
+  private final CountingWorldStateStorage storage = new CountingWorldStateStorage();
+  private final WorldStateArchive archive = new WorldStateArchive(storage);
+
+  @Test
+  public void readOnlyViewsAreNotShared() {
+    final Hash root = persistBalance(Wei.of(100));
+
+    final WorldState view = archive.get(root);
+
+    assertThat(archive.get(root)).isNotSameAs(view);
+    assertThat(view.get(ADDRESS).getBalance()).isEqualTo(Wei.of(100));
+  }
+
+  @Test
+  public void trieNodesAreReadFromStorageOnce() {
+    final Hash root = persistBalance(Wei.of(100));
+
+    assertThat(archive.get(root).get(ADDRESS).getBalance()).isEqualTo(Wei.of(100));
+    final int nodeReads = storage.accountStateTrieNodeReads;
+    assertThat(archive.get(root).get(ADDRESS).getBalance()).isEqualTo(Wei.of(100));
+
+    assertThat(nodeReads).isGreaterThan(0);
+    assertThat(storage.accountStateTrieNodeReads).isEqualTo(nodeReads);
+  }
+
+  @Test
+  public void cachedTrieNodesAreBoundedBySize() {
+    final WorldStateArchive archive = new WorldStateArchive(storage, 0);
+    final Hash root = persistBalance(Wei.of(100));
+
+    assertThat(archive.get(root).get(ADDRESS).getBalance()).isEqualTo(Wei.of(100));
+    final int nodeReads = storage.accountStateTrieNodeReads;
+    assertThat(archive.get(root).get(ADDRESS).getBalance()).isEqualTo(Wei.of(100));
+
+    assertThat(storage.accountStateTrieNodeReads).isEqualTo(2 * nodeReads);
+  }
+
+  @Test
+  public void viewsOfDifferentStatesAreSeparate() {
+    final Hash first = persistBalance(Wei.of(100));
+    final Hash second = persistBalance(Wei.of(200));
+
+    assertThat(archive.get(first).get(ADDRESS).getBalance()).isEqualTo(Wei.of(100));
+    assertThat(archive.get(second).get(ADDRESS).getBalance()).isEqualTo(Wei.of(200));
+  }
+
+  @Test
+  public void mutableWorldStatesAreNotShared() {
+    final Hash root = persistBalance(Wei.of(100));
+
+    final MutableWorldState worldState = archive.getMutable(root);
+    final WorldUpdater updater = worldState.updater();
+    updater.getMutable(ADDRESS).setBalance(Wei.of(300));
+    updater.commit();
+
+    assertThat(archive.getMutable(root)).isNotSameAs(worldState);
+    assertThat(archive.get(root).get(ADDRESS).getBalance()).isEqualTo(Wei.of(100));
+  }
+
+  private Hash persistBalance(final Wei balance) {
+    final MutableWorldState worldState = archive.getMutable();
+    final WorldUpdater updater = worldState.updater();
+    updater.createAccount(ADDRESS).setBalance(balance);
+    updater.commit();
+    worldState.persist();
+    return worldState.rootHash();
+  }
+
+  private static class CountingWorldStateStorage extends KeyValueStorageWorldStateStorage {
+
+    private int accountStateTrieNodeReads;
+
+    CountingWorldStateStorage() {
+      super(new InMemoryKeyValueStorage());
+    }
+
+    @Override
+    public Optional<BytesValue> getAccountStateTrieNode(final Bytes32 nodeHash) {
+      accountStateTrieNodeReads++;
+      return super.getAccountStateTrieNode(nodeHash);
+    }
+  }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.mainnet;
+
+import static java.util.Collections.singletonList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+import tech.pegasys.pantheon.crypto.SECP256K1.KeyPair;
+import tech.pegasys.pantheon.ethereum.core.Address;
+import tech.pegasys.pantheon.ethereum.core.AddressHelpers;
+import tech.pegasys.pantheon.ethereum.core.MutableWorldState;
+import tech.pegasys.pantheon.ethereum.core.Transaction;
+import tech.pegasys.pantheon.ethereum.core.TransactionTestFixture;
+
+import java.util.Optional;
+
+import com.google.common.util.concurrent.MoreExecutors;
+import org.junit.Test;
+
+public class BlockStatePrefetcherTest {
+
+  private static final Address COINBASE = AddressHelpers.ofValue(1);
+  private static final Address SENDER = AddressHelpers.ofValue(2);
+  private static final Address RECIPIENT = AddressHelpers.ofValue(3);
+
+  private final MutableWorldState worldState = mock(MutableWorldState.class);
+  private final Transaction transaction =
+      new TransactionTestFixture()
+          .sender(SENDER)
+          .to(Optional.of(RECIPIENT))
+          .createTransaction(KeyPair.generate());
+
+  @Test
+  public void prefetchesCoinbaseSenderAndRecipient() {
+    final BlockStatePrefetcher prefetcher =
+        new BlockStatePrefetcher(MoreExecutors.newDirectExecutorService());
+
+    prefetcher.prefetch(worldState, singletonList(transaction), COINBASE);
+
+    verify(worldState).prefetch(COINBASE);
+    verify(worldState).prefetch(SENDER);
+    verify(worldState).prefetch(RECIPIENT);
+    // State is only loaded into the world state the block is processed against.
+    verifyNoMoreInteractions(worldState);
+  }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.mainnet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.IntBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class EthHashCacheFactoryTest {
+
+  @Rule public final TemporaryFolder tmp = new TemporaryFolder();
+
+  private final List<Runnable> lookAheads = new ArrayList<>();
+
+  @Test
+  public void generatesNextEpochAhead() {
+    final EthHashCacheFactory factory = new EthHashCacheFactory(lookAheads::add);
+
+    factory.ethHashCacheFor(EthHash.EPOCH_LENGTH - 1);
+
+    assertThat(lookAheads).hasSize(1);
+    assertThat(factory.descriptorCache.getIfPresent(1L)).isNull();
+  }
+
+  @Test
+  public void nextEpochIsOnlyGeneratedAheadOnceWhileInFlight() {
+    final EthHashCacheFactory factory = new EthHashCacheFactory(lookAheads::add);
+
+    factory.ethHashCacheFor(1);
+    factory.ethHashCacheFor(2);
+    factory.ethHashCacheFor(3);
+
+    assertThat(lookAheads).hasSize(1);
+  }
+
+  @Test
+  public void rejectedLookAheadIsRetried() {
+    final EthHashCacheFactory factory =
+        new EthHashCacheFactory(
+            lookAhead -> {
+              lookAheads.add(lookAhead);
+              throw new RejectedExecutionException();
+            });
+
+    factory.ethHashCacheFor(1);
+    factory.ethHashCacheFor(2);
+
+    assertThat(lookAheads).hasSize(2);
+  }
+
+  @Test
+  public void persistedCacheIsReusedAfterRestart() throws Exception {
+    final Path directory = tmp.newFolder().toPath();
+    final EthHashCacheFactory factory = new EthHashCacheFactory(lookAheads::add);
+    factory.persistCachesIn(directory);
+
+    factory.ethHashCacheFor(1);
+    assertThat(Files.size(directory.resolve("cache-0"))).isEqualTo(EthHash.cacheSize(0));
+
+    final EthHashCacheFactory restarted = new EthHashCacheFactory(lookAheads::add);
+    restarted.persistCachesIn(directory);
+    final EthHashCacheFactory.EthHashDescriptor loaded = restarted.ethHashCacheFor(2);
+
+    assertThat(loaded.getDatasetSize()).isEqualTo(EthHash.datasetSize(0));
+    assertThat(loaded.getCache().isDirect()).isTrue();
+    assertThat(loaded.getCache())
+        .isEqualTo(IntBuffer.wrap(EthHash.mkCache((int) EthHash.cacheSize(0), 0)));
+  }
+}
@@ -15,7 +15,11 @@ package tech.pegasys.pantheon.ethereum.mainnet;
 import static java.util.Collections.emptyList;
 import static java.util.Collections.emptyMap;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 import tech.pegasys.pantheon.ethereum.chain.Blockchain;
 import tech.pegasys.pantheon.ethereum.core.BlockHeader;
@@ -38,6 +42,28 @@ public class MainnetBlockProcessorTest {
       new MainnetBlockProcessor(
           transactionProcessor, transactionReceiptFactory, Wei.ZERO, BlockHeader::getCoinbase);
 
+  @Test
+  public void prefetchIsCancelledOnceBlockIsProcessed() {
+    final BlockStatePrefetcher prefetcher = mock(BlockStatePrefetcher.class);
+    final BlockStatePrefetcher.Prefetch prefetch = mock(BlockStatePrefetcher.Prefetch.class);
+    when(prefetcher.prefetch(any(), any(), any())).thenReturn(prefetch);
+    final BlockProcessor prefetchingBlockProcessor =
+        MainnetBlockProcessor.builder(prefetcher)
+            .apply(
+                transactionProcessor,
+                transactionReceiptFactory,
+                Wei.ZERO,
+                BlockHeader::getCoinbase);
+
+    final MutableWorldState worldState = WorldStateMock.create(emptyMap());
+    final BlockHeader blockHeader = new BlockHeaderTestFixture().buildHeader();
+    prefetchingBlockProcessor.processBlock(
+        new TestBlockchain(), worldState, blockHeader, emptyList(), emptyList());
+
+    verify(prefetcher).prefetch(eq(worldState), eq(emptyList()), eq(blockHeader.getCoinbase()));
+    verify(prefetch).cancel();
+  }
+
   @Test
   public void noAccountCreatedWhenBlockRewardIsZero() {
     final Blockchain blockchain = new TestBlockchain();
@@ -12,7 +12,20 @@
  */
 package tech.pegasys.pantheon.ethereum.mainnet;
 
+import static java.util.Collections.emptyList;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
 import tech.pegasys.pantheon.config.GenesisConfigFile;
+import tech.pegasys.pantheon.config.StubGenesisConfigOptions;
+import tech.pegasys.pantheon.ethereum.core.BlockHeader;
+import tech.pegasys.pantheon.ethereum.core.BlockHeaderTestFixture;
+import tech.pegasys.pantheon.ethereum.core.MutableWorldState;
+import tech.pegasys.pantheon.ethereum.db.WorldStateArchive;
+import tech.pegasys.pantheon.ethereum.storage.keyvalue.KeyValueStorageWorldStateStorage;
+import tech.pegasys.pantheon.services.kvstore.InMemoryKeyValueStorage;
 
 import java.nio.charset.StandardCharsets;
 
@@ -69,6 +82,29 @@ public class MainnetProtocolScheduleTest {
     Assertions.assertThat(sched.getByBlockNumber(18).getName()).isEqualTo("Constantinople");
   }
 
+  @Test
+  public void customBlockProcessorIsUsedByEveryMilestone() {
+    final BlockProcessor blockProcessor = mock(BlockProcessor.class);
+    final ProtocolSchedule<Void> sched =
+        MainnetProtocolSchedule.fromConfig(
+            new StubGenesisConfigOptions().homesteadBlock(2).daoForkBlock(3).byzantiumBlock(16),
+            (transactionProcessor, receiptFactory, blockReward, beneficiaryCalculator) ->
+                blockProcessor);
+    Assertions.assertThat(sched.getByBlockNumber(1).getBlockProcessor()).isSameAs(blockProcessor);
+    Assertions.assertThat(sched.getByBlockNumber(4).getBlockProcessor()).isSameAs(blockProcessor);
+    Assertions.assertThat(sched.getByBlockNumber(16).getBlockProcessor()).isSameAs(blockProcessor);
+
+    // The DAO recovery block still performs the refund before delegating to the custom processor.
+    final BlockProcessor daoBlockProcessor = sched.getByBlockNumber(3).getBlockProcessor();
+    Assertions.assertThat(daoBlockProcessor).isNotSameAs(blockProcessor);
+    final MutableWorldState worldState =
+        new WorldStateArchive(new KeyValueStorageWorldStateStorage(new InMemoryKeyValueStorage()))
+            .getMutable();
+    final BlockHeader header = new BlockHeaderTestFixture().number(3).buildHeader();
+    daoBlockProcessor.processBlock(null, worldState, header, emptyList(), emptyList());
+    verify(blockProcessor).processBlock(any(), eq(worldState), eq(header), any(), any());
+  }
+
   @Test
   public void shouldCreateRopstenConfig() throws Exception {
     final ProtocolSchedule<Void> sched =
@@ -0,0 +1,232 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.mainnet;
+
+import static java.util.Collections.emptyList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import tech.pegasys.pantheon.config.StubGenesisConfigOptions;
+import tech.pegasys.pantheon.crypto.SECP256K1.KeyPair;
+import tech.pegasys.pantheon.ethereum.core.Address;
+import tech.pegasys.pantheon.ethereum.core.AddressHelpers;
+import tech.pegasys.pantheon.ethereum.core.BlockHeader;
+import tech.pegasys.pantheon.ethereum.core.BlockHeaderTestFixture;
+import tech.pegasys.pantheon.ethereum.core.Hash;
+import tech.pegasys.pantheon.ethereum.core.MutableWorldState;
+import tech.pegasys.pantheon.ethereum.core.Transaction;
+import tech.pegasys.pantheon.ethereum.core.TransactionTestFixture;
+import tech.pegasys.pantheon.ethereum.core.Util;
+import tech.pegasys.pantheon.ethereum.core.Wei;
+import tech.pegasys.pantheon.ethereum.core.WorldUpdater;
+import tech.pegasys.pantheon.ethereum.db.WorldStateArchive;
+import tech.pegasys.pantheon.ethereum.storage.keyvalue.KeyValueStorageWorldStateStorage;
+import tech.pegasys.pantheon.ethereum.vm.TestBlockchain;
+import tech.pegasys.pantheon.services.kvstore.InMemoryKeyValueStorage;
+import tech.pegasys.pantheon.util.bytes.BytesValue;
+import tech.pegasys.pantheon.util.uint.UInt256;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ParallelMainnetBlockProcessorTest {
+
+  private static final int CHAIN_ID = 42;
+  private static final Address COINBASE = AddressHelpers.ofValue(0xc0ffee);
+  private static final Address COUNTER = AddressHelpers.ofValue(0xc0de);
+  // PUSH1 0 SLOAD PUSH1 1 ADD PUSH1 0 SSTORE STOP: increments storage slot 0.
+  private static final BytesValue COUNTER_CODE = BytesValue.fromHexString("0x60005460010160005500");
+
+  private final ProtocolSpec<Void> protocolSpec =
+      new ProtocolScheduleBuilder<>(
+              new StubGenesisConfigOptions().eip158Block(0), CHAIN_ID, Function.identity())
+          .createProtocolSchedule()
+          .getByBlockNumber(1);
+  private final WorldStateArchive worldStateArchive =
+      new WorldStateArchive(new KeyValueStorageWorldStateStorage(new InMemoryKeyValueStorage()));
+  private final List<KeyPair> keys = new ArrayList<>();
+
+  private ExecutorService executor;
+  private Hash initialStateRoot;
+
+  @Before
+  public void setUp() {
+    executor = Executors.newFixedThreadPool(4);
+
+    final MutableWorldState worldState = worldStateArchive.getMutable();
+    final WorldUpdater updater = worldState.updater();
+    for (int i = 0; i < 4; ++i) {
+      final KeyPair keyPair = KeyPair.generate();
+      keys.add(keyPair);
+      updater.createAccount(address(keyPair), 0, Wei.fromEth(10));
+    }
+    updater.createAccount(COUNTER).setCode(COUNTER_CODE);
+    updater.commit();
+    worldState.persist();
+    initialStateRoot = worldState.rootHash();
+  }
+
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void independentTransfersMatchSerialExecution() {
+    final List<Transaction> transactions = new ArrayList<>();
+    for (int i = 0; i < keys.size(); ++i) {
+      transactions.add(transfer(keys.get(i), 0, AddressHelpers.ofValue(1000 + i)));
+    }
+
+    assertSameOutcome(transactions);
+  }
+
+  @Test
+  public void dependentTransfersMatchSerialExecution() {
+    final List<Transaction> transactions = new ArrayList<>();
+    // Same sender twice, a recipient that spends what it receives and a transfer to the coinbase.
+    transactions.add(transfer(keys.get(0), 0, address(keys.get(1))));
+    transactions.add(transfer(keys.get(0), 1, address(keys.get(2))));
+    transactions.add(transfer(keys.get(1), 0, address(keys.get(3))));
+    transactions.add(transfer(keys.get(2), 0, COINBASE));
+    transactions.add(transfer(keys.get(3), 0, address(keys.get(0))));
+
+    assertSameOutcome(transactions);
+  }
+
+  @Test
+  public void storageConflictsMatchSerialExecution() {
+    final List<Transaction> transactions = new ArrayList<>();
+    // Every transaction reads the slot written by the previous one.
+    for (final KeyPair key : keys) {
+      transactions.add(call(key, 0, COUNTER));
+    }
+
+    final MutableWorldState parallelState = assertSameOutcome(transactions);
+    assertThat(parallelState.get(COUNTER).getStorageValue(UInt256.ZERO))
+        .isEqualTo(UInt256.of(keys.size()));
+  }
+
+  @Test
+  public void storageConflictsInterleavedWithIndependentTransactionsMatchSerialExecution() {
+    final List<Transaction> transactions = new ArrayList<>();
+    transactions.add(call(keys.get(0), 0, COUNTER));
+    transactions.add(transfer(keys.get(1), 0, AddressHelpers.ofValue(1000)));
+    transactions.add(call(keys.get(2), 0, COUNTER));
+    transactions.add(transfer(keys.get(3), 0, AddressHelpers.ofValue(1001)));
+    transactions.add(call(keys.get(3), 1, COUNTER));
+
+    final MutableWorldState parallelState = assertSameOutcome(transactions);
+    assertThat(parallelState.get(COUNTER).getStorageValue(UInt256.ZERO)).isEqualTo(UInt256.of(3));
+  }
+
+  @Test
+  public void sameSenderTransactionsMatchSerialExecution() {
+    final List<Transaction> transactions = new ArrayList<>();
+    // Each transaction depends on the nonce and balance left by the previous one.
+    final KeyPair sender = keys.get(0);
+    transactions.add(transfer(sender, 0, AddressHelpers.ofValue(1000)));
+    transactions.add(call(sender, 1, COUNTER));
+    transactions.add(transfer(sender, 2, address(keys.get(1))));
+    transactions.add(call(sender, 3, COUNTER));
+
+    final MutableWorldState parallelState = assertSameOutcome(transactions);
+    assertThat(parallelState.get(address(sender)).getNonce()).isEqualTo(4);
+  }
+
+  @Test
+  public void invalidTransactionFailsBlock() {
+    final List<Transaction> transactions = new ArrayList<>();
+    transactions.add(transfer(keys.get(0), 0, address(keys.get(1))));
+    transactions.add(transfer(keys.get(1), 5, address(keys.get(2))));
+
+    final BlockProcessor.Result result =
+        parallelProcessor()
+            .processBlock(
+                new TestBlockchain(),
+                worldStateArchive.getMutable(initialStateRoot),
+                header(),
+                transactions,
+                emptyList());
+
+    assertThat(result.isSuccessful()).isFalse();
+  }
+
+  private MutableWorldState assertSameOutcome(final List<Transaction> transactions) {
+    final MutableWorldState serialState = worldStateArchive.getMutable(initialStateRoot);
+    final BlockProcessor.Result serialResult =
+        protocolSpec
+            .getBlockProcessor()
+            .processBlock(new TestBlockchain(), serialState, header(), transactions, emptyList());
+
+    final MutableWorldState parallelState = worldStateArchive.getMutable(initialStateRoot);
+    final BlockProcessor.Result parallelResult =
+        parallelProcessor()
+            .processBlock(new TestBlockchain(), parallelState, header(), transactions, emptyList());
+
+    assertThat(serialResult.isSuccessful()).isTrue();
+    assertThat(parallelResult.isSuccessful()).isTrue();
+    assertThat(parallelResult.getReceipts()).isEqualTo(serialResult.getReceipts());
+    assertThat(parallelState.rootHash()).isEqualTo(serialState.rootHash());
+    return parallelState;
+  }
+
+  private BlockProcessor parallelProcessor() {
+    return ParallelMainnetBlockProcessor.builder(executor)
+        .apply(
+            protocolSpec.getTransactionProcessor(),
+            protocolSpec.getTransactionReceiptFactory(),
+            protocolSpec.getBlockReward(),
+            protocolSpec.getMiningBeneficiaryCalculator());
+  }
+
+  private BlockHeader header() {
+    return new BlockHeaderTestFixture()
+        .number(1)
+        .gasLimit(8_000_000)
+        .coinbase(COINBASE)
+        .buildHeader();
+  }
+
+  private Transaction transfer(final KeyPair keyPair, final long nonce, final Address to) {
+    return new TransactionTestFixture()
+        .sender(address(keyPair))
+        .to(Optional.of(to))
+        .nonce(nonce)
+        .gasLimit(21_000)
+        .value(Wei.fromEth(1))
+        .chainId(CHAIN_ID)
+        .createTransaction(keyPair);
+  }
+
+  private Transaction call(final KeyPair keyPair, final long nonce, final Address contract) {
+    return new TransactionTestFixture()
+        .sender(address(keyPair))
+        .to(Optional.of(contract))
+        .nonce(nonce)
+        .gasLimit(100_000)
+        .chainId(CHAIN_ID)
+        .createTransaction(keyPair);
+  }
+
+  private static Address address(final KeyPair keyPair) {
+    return Util.publicKeyToAddress(keyPair.getPublicKey());
+  }
+}
@@ -33,7 +33,9 @@ import tech.pegasys.pantheon.ethereum.vm.ehalt.ExceptionalHaltException;
 import tech.pegasys.pantheon.util.bytes.Bytes32;
 import tech.pegasys.pantheon.util.uint.UInt256;
 
+import java.util.ArrayList;
 import java.util.EnumSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.TreeMap;
@@ -64,6 +66,17 @@ public class DebugOperationTracerTest {
         public void execute(final MessageFrame frame) {}
       };
 
+  private final Operation sstoreOperation =
+      new AbstractOperation(0x55, "SSTORE", 2, 0, false, 1, null) {
+        @Override
+        public Gas cost(final MessageFrame frame) {
+          return Gas.of(20);
+        }
+
+        @Override
+        public void execute(final MessageFrame frame) {}
+      };
+
   @Test
   public void shouldRecordProgramCounter() throws Exception {
     final MessageFrame frame = validMessageFrame();
@@ -142,15 +155,53 @@ public class DebugOperationTracerTest {
     final MessageFrame frame = validMessageFrame();
     final Map<UInt256, UInt256> updatedStorage = setupStorageForCapture(frame);
     final TraceFrame traceFrame = traceFrame(frame, Gas.ZERO, new TraceOptions(true, false, false));
-    assertThat(traceFrame.getStorage()).isPresent();
-    assertThat(traceFrame.getStorage().get()).isEqualTo(updatedStorage);
+    assertThat(traceFrame.getStorageChanges()).isPresent();
+    assertThat(traceFrame.getStorageChanges().get()).isEqualTo(updatedStorage);
   }
 
   @Test
   public void shouldNotRecordStorageWhenDisabled() throws Exception {
     final TraceFrame traceFrame =
         traceFrame(validMessageFrame(), Gas.ZERO, new TraceOptions(false, false, false));
-    assertThat(traceFrame.getStorage()).isEmpty();
+    assertThat(traceFrame.getStorageChanges()).isEmpty();
+  }
+
+  @Test
+  public void shouldOnlyRecordStorageChangedSincePreviousFrameOfCall() throws Exception {
+    final MessageFrame frame = validMessageFrame();
+    final Map<UInt256, UInt256> updatedStorage = setupStorageForCapture(frame);
+    final DebugOperationTracer tracer =
+        new DebugOperationTracer(new TraceOptions(true, false, false));
+
+    tracer.traceExecution(frame, Optional.of(Gas.of(50)), executeOperationAction);
+    tracer.traceExecution(frame, Optional.of(Gas.of(50)), executeOperationAction);
+    updatedStorage.put(UInt256.ONE, UInt256.of(5));
+    updatedStorage.put(UInt256.of(2), UInt256.of(6));
+    frame.setCurrentOperation(sstoreOperation);
+    tracer.traceExecution(frame, Optional.of(Gas.of(50)), executeOperationAction);
+
+    final List<TraceFrame> traceFrames = tracer.getTraceFrames();
+    assertThat(traceFrames).hasSize(3);
+    assertThat(traceFrames.get(0).getStorageChanges().get())
+        .containsOnlyKeys(UInt256.ZERO, UInt256.ONE);
+    assertThat(traceFrames.get(1).getStorageChanges().get()).isEmpty();
+    assertThat(traceFrames.get(2).getStorageChanges().get())
+        .containsEntry(UInt256.ONE, UInt256.of(5))
+        .containsEntry(UInt256.of(2), UInt256.of(6))
+        .hasSize(2);
+  }
+
+  @Test
+  public void shouldPassFramesToConsumerInsteadOfCollectingThem() throws Exception {
+    final List<TraceFrame> consumed = new ArrayList<>();
+    final DebugOperationTracer tracer =
+        new DebugOperationTracer(new TraceOptions(false, false, false), consumed::add);
+
+    tracer.traceExecution(validMessageFrame(), Optional.of(Gas.of(50)), executeOperationAction);
+
+    assertThat(consumed).hasSize(1);
+    assertThat(consumed.get(0).getOpcode()).isEqualTo("MUL");
+    assertThat(tracer.getTraceFrames()).isEmpty();
   }
 
   @Test
@@ -169,7 +220,7 @@ public class DebugOperationTracerTest {
         .isSameAs(expectedException);
 
     final TraceFrame traceFrame = getOnlyTraceFrame(tracer);
-    assertThat(traceFrame.getStorage()).contains(updatedStorage);
+    assertThat(traceFrame.getStorageChanges()).contains(updatedStorage);
   }
 
   private TraceFrame traceFrame(final MessageFrame frame, final Gas currentGasCost)
@@ -0,0 +1,254 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.vm;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import tech.pegasys.pantheon.util.bytes.Bytes32;
+
+import org.junit.Test;
+
+public class SlotOperandStackTest {
+
+  private static final Bytes32 MAX =
+      Bytes32.fromHexString("0xffffffffffffffffffffffffffffffffffffffffffffffffffffffffffffffff");
+
+  @Test
+  public void construction() {
+    final OperandStack stack = new SlotOperandStack(1);
+    assertThat(stack.size()).isEqualTo(0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void construction_NegativeMaximumSize() {
+    new SlotOperandStack(-1);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void push_StackOverflow() {
+    final OperandStack stack = new SlotOperandStack(1);
+    stack.push(Bytes32.fromHexString("0x01"));
+    stack.push(Bytes32.fromHexString("0x02"));
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void pop_StackUnderflow() {
+    final OperandStack stack = new SlotOperandStack(1);
+    stack.pop();
+  }
+
+  @Test
+  public void pushPop() {
+    final OperandStack stack = new SlotOperandStack(1);
+    final Bytes32 value =
+        Bytes32.fromHexString("0x0102030405060708090a0b0c0d0e0f101112131415161718191a1b1c1d1e1f20");
+    stack.push(value);
+    assertThat(stack.size()).isEqualTo(1);
+    assertThat(stack.pop()).isEqualTo(value);
+  }
+
+  @Test
+  public void pushBeyondInitialCapacity() {
+    final OperandStack stack = new SlotOperandStack(1024);
+    for (int i = 0; i < 100; ++i) {
+      stack.push(Bytes32.fromHexStringLenient(Integer.toHexString(i)));
+    }
+    assertThat(stack.size()).isEqualTo(100);
+    assertThat(stack.get(0)).isEqualTo(Bytes32.fromHexString("0x63"));
+    assertThat(stack.get(99)).isEqualTo(Bytes32.fromHexString("0x00"));
+  }
+
+  @Test
+  public void bulkPop() {
+    final OperandStack stack = new SlotOperandStack(3);
+    stack.push(Bytes32.fromHexString("0x01"));
+    stack.push(Bytes32.fromHexString("0x02"));
+    stack.push(Bytes32.fromHexString("0x03"));
+    stack.bulkPop(2);
+    assertThat(stack.size()).isEqualTo(1);
+    assertThat(stack.get(0)).isEqualTo(Bytes32.fromHexString("0x01"));
+  }
+
+  @Test(expected = IndexOutOfBoundsException.class)
+  public void get_NegativeOffset() {
+    final OperandStack stack = new SlotOperandStack(1);
+    stack.get(-1);
+  }
+
+  @Test(expected = IndexOutOfBoundsException.class)
+  public void get_IndexGreaterThanSize() {
+    final OperandStack stack = new SlotOperandStack(1);
+    stack.push(Bytes32.fromHexString("0x01"));
+    stack.get(2);
+  }
+
+  @Test
+  public void set() {
+    final OperandStack stack = new SlotOperandStack(3);
+    stack.push(Bytes32.fromHexString("0x01"));
+    stack.push(Bytes32.fromHexString("0x02"));
+    stack.push(Bytes32.fromHexString("0x03"));
+    stack.set(2, Bytes32.fromHexString("0x04"));
+    assertThat(stack.size()).isEqualTo(3);
+    assertThat(stack.get(0)).isEqualTo(Bytes32.fromHexString("0x03"));
+    assertThat(stack.get(1)).isEqualTo(Bytes32.fromHexString("0x02"));
+    assertThat(stack.get(2)).isEqualTo(Bytes32.fromHexString("0x04"));
+  }
+
+  @Test
+  public void dup() {
+    final OperandStack stack = new SlotOperandStack(3);
+    stack.push(Bytes32.fromHexString("0x01"));
+    stack.push(Bytes32.fromHexString("0x02"));
+    stack.dup(2);
+    assertThat(stack.size()).isEqualTo(3);
+    assertThat(stack.get(0)).isEqualTo(Bytes32.fromHexString("0x01"));
+    assertThat(stack.get(1)).isEqualTo(Bytes32.fromHexString("0x02"));
+  }
+
+  @Test
+  public void swap() {
+    final OperandStack stack = new SlotOperandStack(3);
+    stack.push(Bytes32.fromHexString("0x01"));
+    stack.push(Bytes32.fromHexString("0x02"));
+    stack.push(Bytes32.fromHexString("0x03"));
+    stack.swap(2);
+    assertThat(stack.get(0)).isEqualTo(Bytes32.fromHexString("0x01"));
+    assertThat(stack.get(1)).isEqualTo(Bytes32.fromHexString("0x02"));
+    assertThat(stack.get(2)).isEqualTo(Bytes32.fromHexString("0x03"));
+  }
+
+  @Test
+  public void add_CarriesAcrossLimbs() {
+    final OperandStack stack = new SlotOperandStack(2);
+    stack.push(Bytes32.fromHexString("0x01"));
+    stack.push(Bytes32.fromHexString("0xffffffffffffffffffffffffffffffff"));
+    stack.add();
+    assertThat(stack.size()).isEqualTo(1);
+    assertThat(stack.pop())
+        .isEqualTo(Bytes32.fromHexString("0x0100000000000000000000000000000000"));
+  }
+
+  @Test
+  public void add_Overflows() {
+    final OperandStack stack = new SlotOperandStack(2);
+    stack.push(Bytes32.fromHexString("0x02"));
+    stack.push(MAX);
+    stack.add();
+    assertThat(stack.pop()).isEqualTo(Bytes32.fromHexString("0x01"));
+  }
+
+  @Test
+  public void sub_BorrowsAcrossLimbs() {
+    final OperandStack stack = new SlotOperandStack(2);
+    stack.push(Bytes32.fromHexString("0x01"));
+    stack.push(Bytes32.fromHexString("0x010000000000000000"));
+    stack.sub();
+    assertThat(stack.pop()).isEqualTo(Bytes32.fromHexString("0xffffffffffffffff"));
+  }
+
+  @Test
+  public void sub_Underflows() {
+    final OperandStack stack = new SlotOperandStack(2);
+    stack.push(Bytes32.fromHexString("0x01"));
+    stack.push(Bytes32.fromHexString("0x00"));
+    stack.sub();
+    assertThat(stack.pop()).isEqualTo(MAX);
+  }
+
+  @Test
+  public void bitwise() {
+    final OperandStack stack = new SlotOperandStack(2);
+    stack.push(Bytes32.fromHexString("0x0c"));
+    stack.push(Bytes32.fromHexString("0x0a"));
+    stack.and();
+    assertThat(stack.get(0)).isEqualTo(Bytes32.fromHexString("0x08"));
+    stack.push(Bytes32.fromHexString("0x03"));
+    stack.or();
+    assertThat(stack.get(0)).isEqualTo(Bytes32.fromHexString("0x0b"));
+    stack.push(Bytes32.fromHexString("0x01"));
+    stack.xor();
+    assertThat(stack.get(0)).isEqualTo(Bytes32.fromHexString("0x0a"));
+    stack.not();
+    assertThat(stack.get(0))
+        .isEqualTo(
+            Bytes32.fromHexString(
+                "0xfffffffffffffffffffffffffffffffffffffffffffffffffffffffffffffff5"));
+  }
+
+  @Test
+  public void isZero() {
+    final OperandStack stack = new SlotOperandStack(1);
+    stack.push(Bytes32.fromHexString("0x0100000000000000000000000000000000"));
+    stack.isZero();
+    assertThat(stack.get(0)).isEqualTo(Bytes32.FALSE);
+    stack.isZero();
+    assertThat(stack.get(0)).isEqualTo(Bytes32.TRUE);
+  }
+
+  @Test
+  public void pushedValuesAreReturnedWithoutCopying() {
+    final OperandStack stack = new SlotOperandStack(2);
+    final Bytes32 value = Bytes32.fromHexString("0x01");
+    stack.push(value);
+    stack.dup(1);
+    assertThat(stack.pop()).isSameAs(value);
+    assertThat(stack.get(0)).isSameAs(value);
+  }
+
+  @Test
+  public void computedValueIsConvertedOnce() {
+    final OperandStack stack = new SlotOperandStack(2);
+    stack.push(Bytes32.fromHexString("0x01"));
+    stack.push(Bytes32.fromHexString("0x02"));
+    stack.add();
+    final Bytes32 sum = stack.get(0);
+    assertThat(sum).isEqualTo(Bytes32.fromHexString("0x03"));
+    assertThat(stack.pop()).isSameAs(sum);
+  }
+
+  @Test
+  public void swapMovesPushedAndComputedValues() {
+    final OperandStack stack = new SlotOperandStack(3);
+    stack.push(Bytes32.fromHexString("0x01"));
+    stack.not();
+    stack.push(Bytes32.fromHexString("0x02"));
+    stack.swap(1);
+    stack.push(Bytes32.fromHexString("0x02"));
+    stack.xor();
+    assertThat(stack.pop())
+        .isEqualTo(
+            Bytes32.fromHexString(
+                "0xfffffffffffffffffffffffffffffffffffffffffffffffffffffffffffffffc"));
+    assertThat(stack.pop()).isEqualTo(Bytes32.fromHexString("0x02"));
+  }
+
+  @Test
+  public void equalityDoesNotDependOnHowValuesWereProduced() {
+    final SlotOperandStack pushed = new SlotOperandStack(2);
+    pushed.push(Bytes32.fromHexString("0x03"));
+    final SlotOperandStack computed = new SlotOperandStack(2);
+    computed.push(Bytes32.fromHexString("0x01"));
+    computed.push(Bytes32.fromHexString("0x02"));
+    computed.add();
+    assertThat(pushed).isEqualTo(computed);
+    assertThat(pushed.hashCode()).isEqualTo(computed.hashCode());
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void add_StackUnderflow() {
+    final OperandStack stack = new SlotOperandStack(2);
+    stack.push(Bytes32.fromHexString("0x01"));
+    stack.add();
+  }
+}
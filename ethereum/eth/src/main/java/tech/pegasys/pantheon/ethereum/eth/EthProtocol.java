@@ -15,6 +15,7 @@ package tech.pegasys.pantheon.ethereum.eth;
 import tech.pegasys.pantheon.ethereum.eth.messages.EthPV62;
 import tech.pegasys.pantheon.ethereum.eth.messages.EthPV63;
 import tech.pegasys.pantheon.ethereum.p2p.wire.Capability;
+import tech.pegasys.pantheon.ethereum.p2p.wire.MessagePriority;
 import tech.pegasys.pantheon.ethereum.p2p.wire.SubProtocol;
 
 import java.util.ArrayList;
@@ -103,6 +104,20 @@ public class EthProtocol implements SubProtocol {
     }
   }
 
+  @Override
+  public MessagePriority messagePriority(final int protocolVersion, final int code) {
+    switch (code) {
+      case EthPV62.STATUS:
+      case EthPV62.NEW_BLOCK_HASHES:
+      case EthPV62.NEW_BLOCK:
+        return MessagePriority.HIGH;
+      case EthPV62.TRANSACTIONS:
+        return MessagePriority.LOW;
+      default:
+        return MessagePriority.NORMAL;
+    }
+  }
+
   public static EthProtocol get() {
     return INSTANCE;
   }
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.eth.manager;
+
+import tech.pegasys.pantheon.ethereum.core.Block;
+import tech.pegasys.pantheon.ethereum.core.Hash;
+import tech.pegasys.pantheon.ethereum.eth.messages.NewBlockHashesMessage;
+import tech.pegasys.pantheon.ethereum.eth.messages.NewBlockHashesMessage.NewBlockHash;
+import tech.pegasys.pantheon.ethereum.eth.messages.NewBlockMessage;
+import tech.pegasys.pantheon.ethereum.p2p.api.MessageData;
+import tech.pegasys.pantheon.ethereum.p2p.api.PeerConnection.PeerNotConnected;
+import tech.pegasys.pantheon.util.uint.UInt256;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import com.google.common.annotations.VisibleForTesting;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Propagates new blocks to the peers that haven't seen them yet.
+ *
+ * <p>The full block is sent to a random subset of the square root of those peers, and only its
+ * hash is announced to the others, which can fetch it from any peer which has it. This keeps the
+ * outbound traffic of a new block from growing with the number of peers, while it still reaches
+ * the whole network in a few hops.
+ */
+public class BlockBroadcaster {
+  private static final Logger LOG = LogManager.getLogger();
+
+  private final EthPeers ethPeers;
+
+  public BlockBroadcaster(final EthPeers ethPeers) {
+    this.ethPeers = ethPeers;
+  }
+
+  /**
+   * Sends a block, or its hash, to every available peer that hasn't seen it.
+   *
+   * @param block the block to propagate
+   * @param totalDifficulty the total difficulty of the chain ending with the block
+   */
+  public void propagate(final Block block, final UInt256 totalDifficulty) {
+    final Hash hash = block.getHash();
+    final List<EthPeer> peers =
+        ethPeers.availablePeers().filter(p -> !p.hasSeenBlock(hash)).collect(Collectors.toList());
+    if (peers.isEmpty()) {
+      return;
+    }
+    Collections.shuffle(peers);
+
+    final int fullBlockPeers = fullBlockPeerCount(peers.size());
+    final NewBlockMessage newBlockMessage = NewBlockMessage.create(block, totalDifficulty);
+    final NewBlockHashesMessage newBlockHashesMessage =
+        NewBlockHashesMessage.create(
+            Collections.singletonList(new NewBlockHash(hash, block.getHeader().getNumber())));
+    for (int i = 0; i < peers.size(); ++i) {
+      send(peers.get(i), hash, i < fullBlockPeers ? newBlockMessage : newBlockHashesMessage);
+    }
+    LOG.trace(
+        "Propagated block {} ({}) to {} peers, {} of them with the full block",
+        block.getHeader().getNumber(),
+        hash,
+        peers.size(),
+        fullBlockPeers);
+  }
+
+  private void send(final EthPeer peer, final Hash hash, final MessageData message) {
+    // Whether or not the send succeeds, there's no point in sending this block to the peer again.
+    peer.registerKnownBlock(hash);
+    try {
+      peer.send(message);
+    } catch (final PeerNotConnected e) {
+      // Peers may disconnect while traversing the list, this is a normal occurrence.
+    }
+  }
+
+  @VisibleForTesting
+  static int fullBlockPeerCount(final int peerCount) {
+    return (int) Math.sqrt(peerCount);
+  }
+}
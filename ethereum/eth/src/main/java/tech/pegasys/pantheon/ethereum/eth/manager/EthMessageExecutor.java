@@ -0,0 +1,198 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.eth.manager;
+
+import tech.pegasys.pantheon.metrics.Counter;
+import tech.pegasys.pantheon.metrics.LabelledMetric;
+import tech.pegasys.pantheon.metrics.OperationTimer;
+import tech.pegasys.pantheon.metrics.OperationTimer.TimingContext;
+
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Handles inbound eth messages on an executor rather than on the thread they were received on.
+ *
+ * <p>Each peer has its own queue, so the messages of a peer are handled one at a time and in the
+ * order they were received. Peers take turns on the executor: a peer with more messages queued goes
+ * to the back of the line after each message, so a busy peer can't hold up the others. The number
+ * of messages queued per peer is bounded, messages received from a peer whose queue is full are
+ * dropped or handled by a cheaper fallback handler.
+ */
+class EthMessageExecutor {
+  private static final Logger LOG = LogManager.getLogger();
+
+  private final Executor executor;
+  private final int maxQueuedPerPeer;
+  private final LabelledMetric<OperationTimer> queueTimer;
+  private final LabelledMetric<OperationTimer> handlingTimer;
+  private final LabelledMetric<Counter> droppedCounter;
+
+  private final Map<EthPeer, PeerQueue> queues = new ConcurrentHashMap<>();
+  private final AtomicInteger queued = new AtomicInteger();
+
+  EthMessageExecutor(
+      final Executor executor,
+      final int maxQueuedPerPeer,
+      final LabelledMetric<OperationTimer> queueTimer,
+      final LabelledMetric<OperationTimer> handlingTimer,
+      final LabelledMetric<Counter> droppedCounter) {
+    this.executor = executor;
+    this.maxQueuedPerPeer = maxQueuedPerPeer;
+    this.queueTimer = queueTimer;
+    this.handlingTimer = handlingTimer;
+    this.droppedCounter = droppedCounter;
+  }
+
+  /**
+   * Queues the handling of a message received from a peer.
+   *
+   * @param peer the peer the message was received from
+   * @param code the code of the message
+   * @param handler handles the message
+   * @return {@code false} if the message was dropped because the queue of the peer is full
+   */
+  boolean execute(final EthPeer peer, final int code, final Runnable handler) {
+    return enqueue(peer, code, handler, Optional.empty());
+  }
+
+  /**
+   * Queues the handling of a message received from a peer, falling back to a cheaper handler if
+   * the queue of the peer is full.
+   *
+   * <p>The fallback handler is queued in place of the handler, so it still runs in turn with the
+   * other messages of the peer. Up to as many fallback handlers as messages are queued per peer.
+   *
+   * @param peer the peer the message was received from
+   * @param code the code of the message
+   * @param handler handles the message
+   * @param fallbackHandler handles the message instead of {@code handler} if the queue is full
+   * @return {@code false} if the message was dropped because the queue of the peer is full even of
+   *     fallback handlers
+   */
+  boolean execute(
+      final EthPeer peer, final int code, final Runnable handler, final Runnable fallbackHandler) {
+    return enqueue(peer, code, handler, Optional.of(fallbackHandler));
+  }
+
+  private boolean enqueue(
+      final EthPeer peer,
+      final int code,
+      final Runnable handler,
+      final Optional<Runnable> fallbackHandler) {
+    final String label = Integer.toString(code);
+    final PeerQueue queue = queues.computeIfAbsent(peer, p -> new PeerQueue());
+    synchronized (queue) {
+      final Runnable queuedHandler;
+      if (queue.tasks.size() < maxQueuedPerPeer) {
+        queuedHandler = handler;
+      } else {
+        droppedCounter.labels(label).inc();
+        if (!fallbackHandler.isPresent() || queue.tasks.size() >= 2 * maxQueuedPerPeer) {
+          LOG.debug("Too many messages queued for {}, dropping message with code {}", peer, code);
+          return false;
+        }
+        LOG.debug(
+            "Too many messages queued for {}, falling back for message with code {}", peer, code);
+        queuedHandler = fallbackHandler.get();
+      }
+      queue.tasks.add(new Task(label, queuedHandler, queueTimer.labels(label).startTimer()));
+      queued.incrementAndGet();
+      if (queue.scheduled) {
+        return true;
+      }
+      queue.scheduled = true;
+    }
+    queue.schedule();
+    return true;
+  }
+
+  /**
+   * Forgets a disconnected peer. Messages of the peer which are already queued are still handled.
+   *
+   * @param peer the peer which disconnected
+   */
+  void remove(final EthPeer peer) {
+    queues.remove(peer);
+  }
+
+  /** @return the number of messages waiting to be handled, over all peers */
+  int queuedMessages() {
+    return queued.get();
+  }
+
+  private class PeerQueue {
+    private final Queue<Task> tasks = new ArrayDeque<>();
+    private boolean scheduled = false;
+
+    private void schedule() {
+      try {
+        executor.execute(this::runNext);
+      } catch (final RejectedExecutionException e) {
+        LOG.debug("Eth message executor is shut down, dropping queued messages");
+        synchronized (this) {
+          queued.addAndGet(-tasks.size());
+          tasks.clear();
+          scheduled = false;
+        }
+      }
+    }
+
+    private void runNext() {
+      final Task task;
+      synchronized (this) {
+        task = tasks.poll();
+      }
+      queued.decrementAndGet();
+      task.run();
+
+      synchronized (this) {
+        if (tasks.isEmpty()) {
+          scheduled = false;
+          return;
+        }
+      }
+      schedule();
+    }
+  }
+
+  private class Task {
+    private final String label;
+    private final Runnable handler;
+    private final TimingContext queueTiming;
+
+    private Task(final String label, final Runnable handler, final TimingContext queueTiming) {
+      this.label = label;
+      this.handler = handler;
+      this.queueTiming = queueTiming;
+    }
+
+    private void run() {
+      queueTiming.stopTimer();
+      try (final TimingContext ignored = handlingTimer.labels(label).startTimer()) {
+        handler.run();
+      } catch (final RuntimeException e) {
+        LOG.error("Error while handling eth message with code {}", label, e);
+      }
+    }
+  }
+}
@@ -20,7 +20,7 @@ import tech.pegasys.pantheon.ethereum.core.Block;
 import tech.pegasys.pantheon.ethereum.core.Hash;
 import tech.pegasys.pantheon.ethereum.eth.EthProtocol;
 import tech.pegasys.pantheon.ethereum.eth.messages.EthPV62;
-import tech.pegasys.pantheon.ethereum.eth.messages.NewBlockMessage;
+import tech.pegasys.pantheon.ethereum.eth.messages.EthPV63;
 import tech.pegasys.pantheon.ethereum.eth.messages.StatusMessage;
 import tech.pegasys.pantheon.ethereum.p2p.api.Message;
 import tech.pegasys.pantheon.ethereum.p2p.api.MessageData;
@@ -30,6 +30,11 @@ import tech.pegasys.pantheon.ethereum.p2p.api.ProtocolManager;
 import tech.pegasys.pantheon.ethereum.p2p.wire.Capability;
 import tech.pegasys.pantheon.ethereum.p2p.wire.messages.DisconnectMessage.DisconnectReason;
 import tech.pegasys.pantheon.ethereum.rlp.RLPException;
+import tech.pegasys.pantheon.metrics.Counter;
+import tech.pegasys.pantheon.metrics.LabelledMetric;
+import tech.pegasys.pantheon.metrics.MetricCategory;
+import tech.pegasys.pantheon.metrics.MetricsSystem;
+import tech.pegasys.pantheon.metrics.OperationTimer;
 import tech.pegasys.pantheon.util.uint.UInt256;
 
 import java.util.Arrays;
@@ -44,6 +49,8 @@ import org.apache.logging.log4j.Logger;
 
 public class EthProtocolManager implements ProtocolManager, MinedBlockObserver {
   static final int DEFAULT_REQUEST_LIMIT = 200;
+  private static final int MAX_QUEUED_MESSAGES_PER_PEER = 1000;
+  static final int MAX_QUEUED_REQUESTS_PER_PEER = 16;
   private static final Logger LOG = LogManager.getLogger();
   private static final List<Capability> FAST_SYNC_CAPS =
       Collections.singletonList(EthProtocol.ETH63);
@@ -59,16 +66,20 @@ public class EthProtocolManager implements ProtocolManager, MinedBlockObserver {
   private final EthPeers ethPeers;
   private final EthMessages ethMessages;
   private final EthContext ethContext;
+  private final BlockBroadcaster blockBroadcaster;
   private final boolean fastSyncEnabled;
   private List<Capability> supportedCapabilities;
   private final Blockchain blockchain;
+  private final EthMessageExecutor messageExecutor;
+  private final EthMessageExecutor requestExecutor;
 
   EthProtocolManager(
       final Blockchain blockchain,
       final int networkId,
       final boolean fastSyncEnabled,
       final int requestLimit,
-      final EthScheduler scheduler) {
+      final EthScheduler scheduler,
+      final MetricsSystem metricsSystem) {
     this.networkId = networkId;
 
     this.scheduler = scheduler;
@@ -81,9 +92,53 @@ public class EthProtocolManager implements ProtocolManager, MinedBlockObserver {
     ethPeers = new EthPeers(getSupportedProtocol());
     ethMessages = new EthMessages();
     ethContext = new EthContext(getSupportedProtocol(), ethPeers, ethMessages, scheduler);
+    blockBroadcaster = new BlockBroadcaster(ethPeers);
 
     // Set up request handlers
     new EthServer(blockchain, ethMessages, requestLimit);
+
+    final LabelledMetric<OperationTimer> queueTimer =
+        metricsSystem.createLabelledTimer(
+            MetricCategory.NETWORK,
+            "eth_message_queue_time",
+            "Time eth messages wait before being handled",
+            "code");
+    final LabelledMetric<OperationTimer> handlingTimer =
+        metricsSystem.createLabelledTimer(
+            MetricCategory.NETWORK,
+            "eth_message_handling_time",
+            "Time spent handling eth messages",
+            "code");
+    final LabelledMetric<Counter> droppedCounter =
+        metricsSystem.createLabelledCounter(
+            MetricCategory.NETWORK,
+            "eth_messages_dropped_total",
+            "Number of eth messages dropped because too many were queued for the peer",
+            "code");
+    messageExecutor =
+        new EthMessageExecutor(
+            scheduler::executeMessageTask,
+            MAX_QUEUED_MESSAGES_PER_PEER,
+            queueTimer,
+            handlingTimer,
+            droppedCounter);
+    requestExecutor =
+        new EthMessageExecutor(
+            scheduler::executeServiceTask,
+            MAX_QUEUED_REQUESTS_PER_PEER,
+            queueTimer,
+            handlingTimer,
+            droppedCounter);
+    metricsSystem.createGauge(
+        MetricCategory.NETWORK,
+        "eth_message_queue_depth",
+        "Number of eth messages waiting to be handled, other than requests for chain data",
+        () -> (double) messageExecutor.queuedMessages());
+    metricsSystem.createGauge(
+        MetricCategory.NETWORK,
+        "eth_request_queue_depth",
+        "Number of requests for chain data from peers waiting to be served",
+        () -> (double) requestExecutor.queuedMessages());
   }
 
   EthProtocolManager(
@@ -92,13 +147,15 @@ public class EthProtocolManager implements ProtocolManager, MinedBlockObserver {
       final boolean fastSyncEnabled,
       final int syncWorkers,
       final int txWorkers,
-      final int requestLimit) {
+      final int requestLimit,
+      final MetricsSystem metricsSystem) {
     this(
         blockchain,
         networkId,
         fastSyncEnabled,
         requestLimit,
-        new EthScheduler(syncWorkers, txWorkers));
+        new EthScheduler(syncWorkers, txWorkers),
+        metricsSystem);
   }
 
   public EthProtocolManager(
@@ -106,8 +163,16 @@ public class EthProtocolManager implements ProtocolManager, MinedBlockObserver {
       final int networkId,
       final boolean fastSyncEnabled,
       final int syncWorkers,
-      final int txWorkers) {
-    this(blockchain, networkId, fastSyncEnabled, syncWorkers, txWorkers, DEFAULT_REQUEST_LIMIT);
+      final int txWorkers,
+      final MetricsSystem metricsSystem) {
+    this(
+        blockchain,
+        networkId,
+        fastSyncEnabled,
+        syncWorkers,
+        txWorkers,
+        DEFAULT_REQUEST_LIMIT,
+        metricsSystem);
   }
 
   public EthContext ethContext() {
@@ -168,8 +233,45 @@ public class EthProtocolManager implements ProtocolManager, MinedBlockObserver {
       return;
     }
 
-    // Dispatch eth message
+    // Dispatch eth message off the network thread, serving requests separately so they can't
+    // hold up the handling of responses and announcements.
     final EthMessage ethMessage = new EthMessage(peer, message.getData());
+    final int code = message.getData().getCode();
+    if (!isRequest(code)) {
+      messageExecutor.execute(peer, code, () -> dispatch(ethMessage));
+      return;
+    }
+    // Peers match responses to their requests by order, so a request which doesn't fit in the
+    // queue is still answered in turn, as though we had none of the data asked for.
+    if (!requestExecutor.execute(
+        peer, code, () -> dispatch(ethMessage), () -> sendEmptyResponse(peer, code))) {
+      LOG.debug("Too many requests queued for {}, disconnecting", peer);
+      peer.disconnect(DisconnectReason.USELESS_PEER);
+    }
+  }
+
+  private static boolean isRequest(final int code) {
+    switch (code) {
+      case EthPV62.GET_BLOCK_HEADERS:
+      case EthPV62.GET_BLOCK_BODIES:
+      case EthPV63.GET_RECEIPTS:
+      case EthPV63.GET_NODE_DATA:
+        return true;
+      default:
+        return false;
+    }
+  }
+
+  private static void sendEmptyResponse(final EthPeer peer, final int requestCode) {
+    try {
+      peer.send(EthServer.constructEmptyResponse(requestCode));
+    } catch (final PeerNotConnected peerNotConnected) {
+      // Nothing to do.
+    }
+  }
+
+  private void dispatch(final EthMessage ethMessage) {
+    final EthPeer peer = ethMessage.getPeer();
     if (!peer.validateReceivedMessage(ethMessage)) {
       LOG.warn("Unsolicited message received from {}, disconnecting", peer);
       peer.disconnect(DisconnectReason.BREACH_OF_PROTOCOL);
@@ -209,6 +311,11 @@ public class EthProtocolManager implements ProtocolManager, MinedBlockObserver {
       final PeerConnection connection,
       final DisconnectReason reason,
       final boolean initiatedByPeer) {
+    final EthPeer peer = ethPeers.peer(connection);
+    if (peer != null) {
+      messageExecutor.remove(peer);
+      requestExecutor.remove(peer);
+    }
     ethPeers.registerDisconnect(connection);
     if (initiatedByPeer) {
       LOG.debug(
@@ -264,17 +371,6 @@ public class EthProtocolManager implements ProtocolManager, MinedBlockObserver {
           "Unable to get total difficulty from blockchain for mined block.");
     }
 
-    final NewBlockMessage newBlockMessage = NewBlockMessage.create(block, totalDifficulty.get());
-
-    ethPeers
-        .availablePeers()
-        .forEach(
-            peer -> {
-              try {
-                peer.send(newBlockMessage);
-              } catch (final PeerNotConnected ex) {
-                // Peers may disconnect while traversing the list, this is a normal occurrence.
-              }
-            });
+    blockBroadcaster.propagate(block, totalDifficulty.get());
   }
 }
@@ -29,6 +29,7 @@ import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
+import com.google.common.util.concurrent.MoreExecutors;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -36,6 +37,9 @@ import org.apache.logging.log4j.Logger;
 public class EthScheduler {
   private static final Logger LOG = LogManager.getLogger();
 
+  private static final int MESSAGE_WORKER_COUNT = 2;
+  private static final int SERVICE_WORKER_COUNT = 2;
+
   private final Duration defaultTimeout = Duration.ofSeconds(5);
 
   private final AtomicBoolean stopped = new AtomicBoolean(false);
@@ -44,6 +48,8 @@ public class EthScheduler {
   protected final ExecutorService syncWorkerExecutor;
   protected final ScheduledExecutorService scheduler;
   protected final ExecutorService txWorkerExecutor;
+  protected final ExecutorService messageWorkerExecutor;
+  protected final ExecutorService serviceWorkerExecutor;
 
   EthScheduler(final int syncWorkerCount, final int txWorkerCount) {
     this(
@@ -62,16 +68,43 @@ public class EthScheduler {
             txWorkerCount,
             new ThreadFactoryBuilder()
                 .setNameFormat(EthScheduler.class.getSimpleName() + "-Transactions")
+                .build()),
+        Executors.newFixedThreadPool(
+            MESSAGE_WORKER_COUNT,
+            new ThreadFactoryBuilder()
+                .setNameFormat(EthScheduler.class.getSimpleName() + "-Messages-%d")
+                .build()),
+        Executors.newFixedThreadPool(
+            SERVICE_WORKER_COUNT,
+            new ThreadFactoryBuilder()
+                .setNameFormat(EthScheduler.class.getSimpleName() + "-Services-%d")
                 .build()));
   }
 
+  /** Handles inbound messages synchronously, on the thread they are received on. */
   protected EthScheduler(
       final ExecutorService syncWorkerExecutor,
       final ScheduledExecutorService scheduler,
       final ExecutorService txWorkerExecutor) {
+    this(
+        syncWorkerExecutor,
+        scheduler,
+        txWorkerExecutor,
+        MoreExecutors.newDirectExecutorService(),
+        MoreExecutors.newDirectExecutorService());
+  }
+
+  protected EthScheduler(
+      final ExecutorService syncWorkerExecutor,
+      final ScheduledExecutorService scheduler,
+      final ExecutorService txWorkerExecutor,
+      final ExecutorService messageWorkerExecutor,
+      final ExecutorService serviceWorkerExecutor) {
     this.syncWorkerExecutor = syncWorkerExecutor;
     this.scheduler = scheduler;
     this.txWorkerExecutor = txWorkerExecutor;
+    this.messageWorkerExecutor = messageWorkerExecutor;
+    this.serviceWorkerExecutor = serviceWorkerExecutor;
   }
 
   public <T> CompletableFuture<T> scheduleSyncWorkerTask(
@@ -109,6 +142,24 @@ public class EthScheduler {
     return txWorkerExecutor.submit(command);
   }
 
+  /**
+   * Runs the handling of an inbound message, other than a request for chain data.
+   *
+   * @param command handles the message
+   */
+  void executeMessageTask(final Runnable command) {
+    messageWorkerExecutor.execute(command);
+  }
+
+  /**
+   * Runs the handling of a request for chain data received from a peer.
+   *
+   * @param command serves the request
+   */
+  void executeServiceTask(final Runnable command) {
+    serviceWorkerExecutor.execute(command);
+  }
+
   public CompletableFuture<Void> scheduleFutureTask(
       final Runnable command, final Duration duration) {
     final CompletableFuture<Void> promise = new CompletableFuture<>();
@@ -194,6 +245,8 @@ public class EthScheduler {
     if (stopped.compareAndSet(false, true)) {
       LOG.trace("Stopping " + getClass().getSimpleName());
       syncWorkerExecutor.shutdown();
+      messageWorkerExecutor.shutdown();
+      serviceWorkerExecutor.shutdown();
       scheduler.shutdown();
       shutdown.countDown();
     } else {
@@ -208,6 +261,8 @@ public class EthScheduler {
       syncWorkerExecutor.shutdownNow();
       syncWorkerExecutor.awaitTermination(2L, TimeUnit.MINUTES);
     }
+    awaitTermination(messageWorkerExecutor, "message worker");
+    awaitTermination(serviceWorkerExecutor, "service worker");
     if (!scheduler.awaitTermination(2L, TimeUnit.MINUTES)) {
       LOG.error("{} scheduler did not shutdown cleanly.", this.getClass().getSimpleName());
       scheduler.shutdownNow();
@@ -216,6 +271,15 @@ public class EthScheduler {
     LOG.trace("{} stopped.", this.getClass().getSimpleName());
   }
 
+  private void awaitTermination(final ExecutorService executor, final String name)
+      throws InterruptedException {
+    if (!executor.awaitTermination(2L, TimeUnit.MINUTES)) {
+      LOG.error("{} {} executor did not shutdown cleanly.", getClass().getSimpleName(), name);
+      executor.shutdownNow();
+      executor.awaitTermination(2L, TimeUnit.MINUTES);
+    }
+  }
+
   private <T> CompletableFuture<T> failAfterTimeout(final Duration timeout) {
     final CompletableFuture<T> promise = new CompletableFuture<>();
     failAfterTimeout(promise, timeout);
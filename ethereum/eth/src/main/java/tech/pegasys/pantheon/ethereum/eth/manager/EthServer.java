@@ -210,4 +210,19 @@ class EthServer {
     }
     return NodeDataMessage.create(nodeData);
   }
+
+  static MessageData constructEmptyResponse(final int requestCode) {
+    switch (requestCode) {
+      case EthPV62.GET_BLOCK_HEADERS:
+        return BlockHeadersMessage.create(Collections.emptyList());
+      case EthPV62.GET_BLOCK_BODIES:
+        return BlockBodiesMessage.create(Collections.emptyList());
+      case EthPV63.GET_RECEIPTS:
+        return ReceiptsMessage.create(Collections.emptyList());
+      case EthPV63.GET_NODE_DATA:
+        return NodeDataMessage.create(Collections.emptyList());
+      default:
+        throw new IllegalArgumentException("Not a request message code: " + requestCode);
+    }
+  }
 }
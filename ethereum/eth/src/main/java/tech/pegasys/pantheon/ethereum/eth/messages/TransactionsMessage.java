@@ -47,6 +47,22 @@ public class TransactionsMessage extends AbstractMessageData {
     return new TransactionsMessage(tmp.encoded());
   }
 
+  /**
+   * Creates a message from transactions which are already RLP encoded.
+   *
+   * @param encodedTransactions the RLP encoding of each transaction
+   * @return the message
+   */
+  public static TransactionsMessage createEncoded(final Iterable<BytesValue> encodedTransactions) {
+    final BytesValueRLPOutput tmp = new BytesValueRLPOutput();
+    tmp.startList();
+    for (final BytesValue encodedTransaction : encodedTransactions) {
+      tmp.writeRLPUnsafe(encodedTransaction);
+    }
+    tmp.endList();
+    return new TransactionsMessage(tmp.encoded());
+  }
+
   private TransactionsMessage(final BytesValue data) {
     super(data);
   }
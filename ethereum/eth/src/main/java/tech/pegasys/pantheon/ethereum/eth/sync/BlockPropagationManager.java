@@ -17,8 +17,10 @@ import tech.pegasys.pantheon.ethereum.chain.BlockAddedEvent;
 import tech.pegasys.pantheon.ethereum.chain.BlockAddedEvent.EventType;
 import tech.pegasys.pantheon.ethereum.chain.Blockchain;
 import tech.pegasys.pantheon.ethereum.core.Block;
+import tech.pegasys.pantheon.ethereum.core.BlockHeader;
 import tech.pegasys.pantheon.ethereum.core.Hash;
 import tech.pegasys.pantheon.ethereum.eth.manager.AbstractPeerTask;
+import tech.pegasys.pantheon.ethereum.eth.manager.BlockBroadcaster;
 import tech.pegasys.pantheon.ethereum.eth.manager.EthContext;
 import tech.pegasys.pantheon.ethereum.eth.manager.EthMessage;
 import tech.pegasys.pantheon.ethereum.eth.manager.EthPeer;
@@ -30,6 +32,8 @@ import tech.pegasys.pantheon.ethereum.eth.sync.state.PendingBlocks;
 import tech.pegasys.pantheon.ethereum.eth.sync.state.SyncState;
 import tech.pegasys.pantheon.ethereum.eth.sync.tasks.GetBlockFromPeerTask;
 import tech.pegasys.pantheon.ethereum.eth.sync.tasks.PersistBlockTask;
+import tech.pegasys.pantheon.ethereum.eth.sync.tasks.exceptions.InvalidBlockException;
+import tech.pegasys.pantheon.ethereum.mainnet.BlockHeaderValidator;
 import tech.pegasys.pantheon.ethereum.mainnet.HeaderValidationMode;
 import tech.pegasys.pantheon.ethereum.mainnet.ProtocolSchedule;
 import tech.pegasys.pantheon.ethereum.p2p.wire.messages.DisconnectMessage.DisconnectReason;
@@ -40,6 +44,7 @@ import tech.pegasys.pantheon.util.uint.UInt256;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -62,6 +67,7 @@ public class BlockPropagationManager<C> {
   private final EthContext ethContext;
   private final SyncState syncState;
   private final LabelledMetric<OperationTimer> ethTasksTimer;
+  private final BlockBroadcaster blockBroadcaster;
 
   private final AtomicBoolean started = new AtomicBoolean(false);
 
@@ -81,6 +87,7 @@ public class BlockPropagationManager<C> {
     this.protocolContext = protocolContext;
     this.ethContext = ethContext;
     this.ethTasksTimer = ethTasksTimer;
+    this.blockBroadcaster = new BlockBroadcaster(ethContext.getEthPeers());
 
     this.syncState = syncState;
     this.pendingBlocks = pendingBlocks;
@@ -149,6 +156,7 @@ public class BlockPropagationManager<C> {
       final Block block = newBlockMessage.block(protocolSchedule);
       final UInt256 totalDifficulty = newBlockMessage.totalDifficulty(protocolSchedule);
 
+      message.getPeer().registerKnownBlock(block.getHash());
       message.getPeer().chainState().update(block.getHeader(), totalDifficulty);
 
       // Return early if we don't care about this block
@@ -247,13 +255,13 @@ public class BlockPropagationManager<C> {
       }
     }
 
-    // Import block
+    // Import block, its header is validated beforehand so it can be relayed without waiting
     final PersistBlockTask<C> importTask =
         PersistBlockTask.create(
-            protocolSchedule, protocolContext, block, HeaderValidationMode.FULL, ethTasksTimer);
+            protocolSchedule, protocolContext, block, HeaderValidationMode.NONE, ethTasksTimer);
     return ethContext
         .getScheduler()
-        .scheduleSyncWorkerTask(importTask::run)
+        .scheduleSyncWorkerTask(() -> validateAndImportBlock(block, importTask))
         .whenComplete(
             (r, t) -> {
               if (t != null) {
@@ -272,6 +280,33 @@ public class BlockPropagationManager<C> {
             });
   }
 
+  private CompletableFuture<Block> validateAndImportBlock(
+      final Block block, final PersistBlockTask<C> importTask) {
+    final BlockHeader header = block.getHeader();
+    final Blockchain blockchain = protocolContext.getBlockchain();
+    final Optional<BlockHeader> parent = blockchain.getBlockHeader(header.getParentHash());
+    final BlockHeaderValidator<C> headerValidator =
+        protocolSchedule.getByBlockNumber(header.getNumber()).getBlockHeaderValidator();
+    if (!parent.isPresent()
+        || !headerValidator.validateHeader(
+            header, parent.get(), protocolContext, HeaderValidationMode.FULL)) {
+      final CompletableFuture<Block> result = new CompletableFuture<>();
+      result.completeExceptionally(
+          new InvalidBlockException("Invalid block header", header.getNumber(), block.getHash()));
+      return result;
+    }
+
+    // Relay the block before executing it, a valid header is proof enough that it was worth
+    // sending and this keeps its propagation delay from adding up at every hop.
+    blockchain
+        .getTotalDifficultyByHash(header.getParentHash())
+        .ifPresent(
+            parentTotalDifficulty ->
+                blockBroadcaster.propagate(
+                    block, parentTotalDifficulty.plus(header.getDifficulty())));
+    return importTask.run();
+  }
+
   // Only import blocks within a certain range of our head and sync target
   private boolean shouldImportBlockAtHeight(
       final long blockNumber, final long localHeight, final long bestChainHeight) {
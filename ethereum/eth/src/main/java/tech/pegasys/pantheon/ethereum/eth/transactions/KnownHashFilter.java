@@ -0,0 +1,62 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.eth.transactions;
+
+import tech.pegasys.pantheon.ethereum.core.Hash;
+
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnel;
+
+/**
+ * A compact, approximate set of the most recently added hashes.
+ *
+ * <p>Hashes are added to the current of two bloom filters. Once it holds {@code generationSize}
+ * hashes, the older filter is dropped and a new one is started, so between {@code generationSize}
+ * and {@code 2 * generationSize} of the most recent hashes are remembered. Lookups can report a
+ * hash that was never added with a small probability, but never miss one that is remembered.
+ *
+ * <p>This class is not thread-safe.
+ */
+class KnownHashFilter {
+  private static final double FALSE_POSITIVE_PROBABILITY = 0.001;
+
+  private static final Funnel<Hash> HASH_FUNNEL =
+      (hash, sink) -> sink.putBytes(hash.getArrayUnsafe());
+
+  private final int generationSize;
+  private BloomFilter<Hash> current;
+  private BloomFilter<Hash> previous;
+  private int currentSize;
+
+  KnownHashFilter(final int generationSize) {
+    this.generationSize = generationSize;
+    this.current = newGeneration();
+    this.previous = newGeneration();
+  }
+
+  void add(final Hash hash) {
+    if (current.put(hash) && ++currentSize >= generationSize) {
+      previous = current;
+      current = newGeneration();
+      currentSize = 0;
+    }
+  }
+
+  boolean mightContain(final Hash hash) {
+    return current.mightContain(hash) || previous.mightContain(hash);
+  }
+
+  private BloomFilter<Hash> newGeneration() {
+    return BloomFilter.create(HASH_FUNNEL, generationSize, FALSE_POSITIVE_PROBABILITY);
+  }
+}
@@ -12,34 +12,67 @@
  */
 package tech.pegasys.pantheon.ethereum.eth.transactions;
 
-import static java.util.Collections.emptySet;
+import static java.util.Collections.emptyList;
 
-import tech.pegasys.pantheon.ethereum.core.Hash;
 import tech.pegasys.pantheon.ethereum.core.Transaction;
 import tech.pegasys.pantheon.ethereum.eth.manager.EthPeer;
 import tech.pegasys.pantheon.ethereum.eth.manager.EthPeer.DisconnectCallback;
 
+import java.time.Clock;
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
-import java.util.LinkedHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
+import com.google.common.annotations.VisibleForTesting;
+
+/**
+ * Tracks the transactions each peer has seen, and those queued to be sent to it.
+ *
+ * <p>Transactions are handed out to be sent to a peer at no more than {@code
+ * maxTransactionsPerSecond}, any excess stays queued until the peer's allowance is replenished.
+ */
 class PeerTransactionTracker implements DisconnectCallback {
   private static final int MAX_TRACKED_SEEN_TRANSACTIONS = 30_000;
-  private final Map<EthPeer, Set<Hash>> seenTransactions = new ConcurrentHashMap<>();
+  private static final int MAX_QUEUED_TRANSACTIONS = 4_096;
+  private static final int DEFAULT_MAX_TRANSACTIONS_PER_SECOND = 1_000;
+
+  private final Map<EthPeer, KnownHashFilter> seenTransactions = new ConcurrentHashMap<>();
   private final Map<EthPeer, Set<Transaction>> transactionsToSend = new ConcurrentHashMap<>();
+  private final Map<EthPeer, SendAllowance> sendAllowances = new ConcurrentHashMap<>();
+  private final int maxTransactionsPerSecond;
+  private final Clock clock;
+
+  PeerTransactionTracker() {
+    this(DEFAULT_MAX_TRANSACTIONS_PER_SECOND, Clock.systemUTC());
+  }
+
+  @VisibleForTesting
+  PeerTransactionTracker(final int maxTransactionsPerSecond, final Clock clock) {
+    this.maxTransactionsPerSecond = maxTransactionsPerSecond;
+    this.clock = clock;
+  }
 
   public synchronized void markTransactionsAsSeen(
       final EthPeer peer, final Collection<Transaction> transactions) {
-    final Set<Hash> seenTransactionsForPeer = getOrCreateSeenTransactionsForPeer(peer);
+    final KnownHashFilter seenTransactionsForPeer = getOrCreateSeenTransactionsForPeer(peer);
     transactions.stream().map(Transaction::hash).forEach(seenTransactionsForPeer::add);
   }
 
   public synchronized void addToPeerSendQueue(final EthPeer peer, final Transaction transaction) {
     if (!hasPeerSeenTransaction(peer, transaction)) {
-      transactionsToSend.computeIfAbsent(peer, key -> createTransactionsSet()).add(transaction);
+      final Set<Transaction> queue =
+          transactionsToSend.computeIfAbsent(peer, key -> new LinkedHashSet<>());
+      if (queue.add(transaction) && queue.size() > MAX_QUEUED_TRANSACTIONS) {
+        // The peer isn't keeping up, the oldest transactions are the least likely to be useful.
+        final Iterator<Transaction> oldest = queue.iterator();
+        oldest.next();
+        oldest.remove();
+      }
     }
   }
 
@@ -47,38 +80,71 @@ class PeerTransactionTracker implements DisconnectCallback {
     return transactionsToSend.keySet();
   }
 
-  public synchronized Set<Transaction> claimTransactionsToSendToPeer(final EthPeer peer) {
-    final Set<Transaction> transactionsToSend = this.transactionsToSend.remove(peer);
-    if (transactionsToSend != null) {
-      markTransactionsAsSeen(peer, transactionsToSend);
-      return transactionsToSend;
-    } else {
-      return emptySet();
-    }
+  public boolean hasUnsentTransactions() {
+    return !transactionsToSend.isEmpty();
   }
 
-  private Set<Hash> getOrCreateSeenTransactionsForPeer(final EthPeer peer) {
-    return seenTransactions.computeIfAbsent(peer, key -> createTransactionsSet());
+  /**
+   * Removes the transactions to send to a peer from its queue, and marks them as seen by the peer.
+   *
+   * @param peer the peer to send the transactions to
+   * @return the transactions to send, in the order they were queued, which may not be all the
+   *     queued transactions if the peer is over its rate limit
+   */
+  public synchronized List<Transaction> claimTransactionsToSendToPeer(final EthPeer peer) {
+    final Set<Transaction> queue = transactionsToSend.get(peer);
+    if (queue == null) {
+      return emptyList();
+    }
+    final int allowance =
+        sendAllowances
+            .computeIfAbsent(peer, key -> new SendAllowance())
+            .claim(queue.size(), clock.millis());
+    final List<Transaction> claimed = new ArrayList<>(allowance);
+    final Iterator<Transaction> iterator = queue.iterator();
+    while (claimed.size() < allowance) {
+      claimed.add(iterator.next());
+      iterator.remove();
+    }
+    if (queue.isEmpty()) {
+      transactionsToSend.remove(peer);
+    }
+    markTransactionsAsSeen(peer, claimed);
+    return claimed;
   }
 
-  private boolean hasPeerSeenTransaction(final EthPeer peer, final Transaction transaction) {
-    final Set<Hash> seenTransactionsForPeer = seenTransactions.get(peer);
-    return seenTransactionsForPeer != null && seenTransactionsForPeer.contains(transaction.hash());
+  private KnownHashFilter getOrCreateSeenTransactionsForPeer(final EthPeer peer) {
+    return seenTransactions.computeIfAbsent(
+        peer, key -> new KnownHashFilter(MAX_TRACKED_SEEN_TRANSACTIONS / 2));
   }
 
-  private <T> Set<T> createTransactionsSet() {
-    return Collections.newSetFromMap(
-        new LinkedHashMap<T, Boolean>(1 << 4, 0.75f, true) {
-          @Override
-          protected boolean removeEldestEntry(final Map.Entry<T, Boolean> eldest) {
-            return size() > MAX_TRACKED_SEEN_TRANSACTIONS;
-          }
-        });
+  private boolean hasPeerSeenTransaction(final EthPeer peer, final Transaction transaction) {
+    final KnownHashFilter seenTransactionsForPeer = seenTransactions.get(peer);
+    return seenTransactionsForPeer != null
+        && seenTransactionsForPeer.mightContain(transaction.hash());
   }
 
   @Override
-  public void onDisconnect(final EthPeer peer) {
+  public synchronized void onDisconnect(final EthPeer peer) {
     seenTransactions.remove(peer);
     transactionsToSend.remove(peer);
+    sendAllowances.remove(peer);
+  }
+
+  /** A token bucket holding up to one second worth of transactions. */
+  private class SendAllowance {
+    private double available = maxTransactionsPerSecond;
+    private long lastUpdate = clock.millis();
+
+    int claim(final int wanted, final long now) {
+      available =
+          Math.min(
+              maxTransactionsPerSecond,
+              available + (now - lastUpdate) * maxTransactionsPerSecond / 1000.0);
+      lastUpdate = now;
+      final int claimed = Math.min(wanted, (int) available);
+      available -= claimed;
+      return claimed;
+    }
   }
 }
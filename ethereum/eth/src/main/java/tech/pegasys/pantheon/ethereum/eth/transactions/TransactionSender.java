@@ -16,11 +16,17 @@ import tech.pegasys.pantheon.ethereum.core.Transaction;
 import tech.pegasys.pantheon.ethereum.core.TransactionPool.TransactionBatchAddedListener;
 import tech.pegasys.pantheon.ethereum.eth.manager.EthContext;
 
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+
 class TransactionSender implements TransactionBatchAddedListener {
 
+  private static final Duration RESEND_DELAY = Duration.ofMillis(500);
+
   private final PeerTransactionTracker transactionTracker;
   private final TransactionsMessageSender transactionsMessageSender;
   private final EthContext ethContext;
+  private final AtomicBoolean resendScheduled = new AtomicBoolean(false);
 
   public TransactionSender(
       final PeerTransactionTracker transactionTracker,
@@ -40,8 +46,25 @@ class TransactionSender implements TransactionBatchAddedListener {
             peer ->
                 transactions.forEach(
                     transaction -> transactionTracker.addToPeerSendQueue(peer, transaction)));
-    ethContext
-        .getScheduler()
-        .scheduleSyncWorkerTask(transactionsMessageSender::sendTransactionsToPeers);
+    scheduleSend();
+  }
+
+  private void scheduleSend() {
+    ethContext.getScheduler().scheduleSyncWorkerTask(this::sendTransactions);
+  }
+
+  private void sendTransactions() {
+    transactionsMessageSender.sendTransactionsToPeers();
+    // Transactions are left queued for peers over their rate limit, retry once it has replenished.
+    if (transactionTracker.hasUnsentTransactions() && resendScheduled.compareAndSet(false, true)) {
+      ethContext
+          .getScheduler()
+          .scheduleFutureTask(
+              () -> {
+                resendScheduled.set(false);
+                scheduleSend();
+              },
+              RESEND_DELAY);
+    }
   }
 }
@@ -12,39 +12,79 @@
  */
 package tech.pegasys.pantheon.ethereum.eth.transactions;
 
-import static java.util.stream.Collectors.toSet;
-
+import tech.pegasys.pantheon.ethereum.core.Hash;
 import tech.pegasys.pantheon.ethereum.core.Transaction;
 import tech.pegasys.pantheon.ethereum.eth.manager.EthPeer;
 import tech.pegasys.pantheon.ethereum.eth.messages.TransactionsMessage;
 import tech.pegasys.pantheon.ethereum.p2p.api.PeerConnection.PeerNotConnected;
+import tech.pegasys.pantheon.ethereum.rlp.RLP;
+import tech.pegasys.pantheon.util.bytes.BytesValue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
-import java.util.Set;
+import com.google.common.annotations.VisibleForTesting;
 
 class TransactionsMessageSender {
 
-  private static final int MAX_BATCH_SIZE = 10;
+  // Transactions are batched into messages of up to this many bytes, unless a single transaction
+  // is bigger than that on its own.
+  private static final int MAX_MESSAGE_SIZE = 100 * 1024;
+
   private final PeerTransactionTracker transactionTracker;
+  private final int maxMessageSize;
 
   public TransactionsMessageSender(final PeerTransactionTracker transactionTracker) {
+    this(transactionTracker, MAX_MESSAGE_SIZE);
+  }
+
+  @VisibleForTesting
+  TransactionsMessageSender(
+      final PeerTransactionTracker transactionTracker, final int maxMessageSize) {
     this.transactionTracker = transactionTracker;
+    this.maxMessageSize = maxMessageSize;
   }
 
   public void sendTransactionsToPeers() {
-    transactionTracker.getEthPeersWithUnsentTransactions().forEach(this::sendTransactionsToPeer);
+    // Most transactions go to several peers, so each is only encoded once for all of them.
+    final Map<Hash, BytesValue> encodedTransactions = new HashMap<>();
+    transactionTracker
+        .getEthPeersWithUnsentTransactions()
+        .forEach(peer -> sendTransactionsToPeer(peer, encodedTransactions));
   }
 
-  private void sendTransactionsToPeer(final EthPeer peer) {
-    final Set<Transaction> allTxToSend = transactionTracker.claimTransactionsToSendToPeer(peer);
-    while (!allTxToSend.isEmpty()) {
-      final Set<Transaction> subsetToSend =
-          allTxToSend.stream().limit(MAX_BATCH_SIZE).collect(toSet());
-      allTxToSend.removeAll(subsetToSend);
-      try {
-        peer.send(TransactionsMessage.create(subsetToSend));
-      } catch (final PeerNotConnected e) {
-        return;
+  private void sendTransactionsToPeer(
+      final EthPeer peer, final Map<Hash, BytesValue> encodedTransactions) {
+    final List<Transaction> allTxToSend = transactionTracker.claimTransactionsToSendToPeer(peer);
+    List<BytesValue> batch = new ArrayList<>();
+    int batchSize = 0;
+    for (final Transaction transaction : allTxToSend) {
+      final BytesValue encoded =
+          encodedTransactions.computeIfAbsent(
+              transaction.hash(), hash -> RLP.encode(transaction::writeTo));
+      if (!batch.isEmpty() && batchSize + encoded.size() > maxMessageSize) {
+        if (!send(peer, batch)) {
+          return;
+        }
+        batch = new ArrayList<>();
+        batchSize = 0;
       }
+      batch.add(encoded);
+      batchSize += encoded.size();
+    }
+    if (!batch.isEmpty()) {
+      send(peer, batch);
+    }
+  }
+
+  private boolean send(final EthPeer peer, final List<BytesValue> encodedTransactions) {
+    try {
+      peer.send(TransactionsMessage.createEncoded(encodedTransactions));
+      return true;
+    } catch (final PeerNotConnected e) {
+      return false;
     }
   }
 }
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.eth.manager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import tech.pegasys.pantheon.ethereum.core.Block;
+import tech.pegasys.pantheon.ethereum.core.BlockDataGenerator;
+import tech.pegasys.pantheon.ethereum.eth.messages.EthPV62;
+import tech.pegasys.pantheon.ethereum.p2p.api.MessageData;
+import tech.pegasys.pantheon.util.uint.UInt256;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class BlockBroadcasterTest {
+
+  private final BlockDataGenerator gen = new BlockDataGenerator();
+  private EthProtocolManager ethProtocolManager;
+  private BlockBroadcaster blockBroadcaster;
+
+  @Before
+  public void setup() {
+    ethProtocolManager = EthProtocolManagerTestUtil.create();
+    blockBroadcaster = new BlockBroadcaster(ethProtocolManager.ethContext().getEthPeers());
+  }
+
+  @Test
+  public void sendsFullBlockToSqrtOfPeers() {
+    assertThat(BlockBroadcaster.fullBlockPeerCount(1)).isEqualTo(1);
+    assertThat(BlockBroadcaster.fullBlockPeerCount(3)).isEqualTo(1);
+    assertThat(BlockBroadcaster.fullBlockPeerCount(4)).isEqualTo(2);
+    assertThat(BlockBroadcaster.fullBlockPeerCount(25)).isEqualTo(5);
+    assertThat(BlockBroadcaster.fullBlockPeerCount(50)).isEqualTo(7);
+  }
+
+  @Test
+  public void doesNotSendBlockToPeersWhichHaveSeenIt() {
+    final Block block = gen.block();
+    final List<RespondingEthPeer> peers = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      peers.add(EthProtocolManagerTestUtil.createPeer(ethProtocolManager));
+    }
+    peers.get(0).getEthPeer().registerKnownBlock(block.getHash());
+    peers.get(1).getEthPeer().registerKnownBlock(block.getHash());
+
+    blockBroadcaster.propagate(block, UInt256.ONE);
+
+    final List<Integer> sent =
+        peers
+            .stream()
+            .flatMap(RespondingEthPeer::pendingOutgoingRequests)
+            .map(MessageData::getCode)
+            .collect(Collectors.toList());
+    assertThat(peers.get(0).hasOutstandingRequests()).isFalse();
+    assertThat(peers.get(1).hasOutstandingRequests()).isFalse();
+    assertThat(sent).hasSize(8);
+    assertThat(sent.stream().filter(code -> code == EthPV62.NEW_BLOCK)).hasSize(2);
+    assertThat(sent.stream().filter(code -> code == EthPV62.NEW_BLOCK_HASHES)).hasSize(6);
+    assertThat(peers).allMatch(peer -> peer.getEthPeer().hasSeenBlock(block.getHash()));
+  }
+}
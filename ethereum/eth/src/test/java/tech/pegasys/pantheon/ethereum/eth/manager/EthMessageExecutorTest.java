@@ -0,0 +1,148 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.eth.manager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import tech.pegasys.pantheon.metrics.MetricCategory;
+import tech.pegasys.pantheon.metrics.MetricsSystem;
+import tech.pegasys.pantheon.metrics.noop.NoOpMetricsSystem;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+
+import org.junit.Test;
+
+public class EthMessageExecutorTest {
+
+  private final Queue<Runnable> pending = new ArrayDeque<>();
+  private final List<String> handled = new ArrayList<>();
+  private final EthMessageExecutor executor = createExecutor(3);
+
+  @Test
+  public void handlesMessagesOfAPeerInOrder() {
+    final EthPeer peer = mock(EthPeer.class);
+    for (int i = 0; i < 3; i++) {
+      final int message = i;
+      executor.execute(peer, 1, () -> handled.add("peer-" + message));
+    }
+
+    // Only one message of a peer is handed to the executor at a time.
+    assertThat(pending).hasSize(1);
+    assertThat(executor.queuedMessages()).isEqualTo(3);
+    runPending();
+
+    assertThat(handled).containsExactly("peer-0", "peer-1", "peer-2");
+    assertThat(executor.queuedMessages()).isZero();
+  }
+
+  @Test
+  public void peersTakeTurns() {
+    final EthPeer busyPeer = mock(EthPeer.class);
+    final EthPeer otherPeer = mock(EthPeer.class);
+    executor.execute(busyPeer, 1, () -> handled.add("busy-0"));
+    executor.execute(busyPeer, 1, () -> handled.add("busy-1"));
+    executor.execute(busyPeer, 1, () -> handled.add("busy-2"));
+    executor.execute(otherPeer, 1, () -> handled.add("other-0"));
+    executor.execute(otherPeer, 1, () -> handled.add("other-1"));
+
+    runPending();
+
+    assertThat(handled).containsExactly("busy-0", "other-0", "busy-1", "other-1", "busy-2");
+  }
+
+  @Test
+  public void dropsMessagesWhenTheQueueOfAPeerIsFull() {
+    final EthPeer peer = mock(EthPeer.class);
+    final EthPeer otherPeer = mock(EthPeer.class);
+    for (int i = 0; i < 3; i++) {
+      final int message = i;
+      assertThat(executor.execute(peer, 1, () -> handled.add("peer-" + message))).isTrue();
+    }
+    assertThat(executor.execute(peer, 1, () -> handled.add("dropped"))).isFalse();
+    assertThat(executor.execute(otherPeer, 1, () -> handled.add("other-0"))).isTrue();
+
+    runPending();
+
+    assertThat(handled).containsExactly("peer-0", "other-0", "peer-1", "peer-2");
+    assertThat(executor.execute(peer, 1, () -> handled.add("peer-3"))).isTrue();
+  }
+
+  @Test
+  public void queuesFallbackHandlersInTurnWhenTheQueueOfAPeerIsFull() {
+    final EthPeer peer = mock(EthPeer.class);
+    for (int i = 0; i < 3; i++) {
+      final int message = i;
+      assertThat(
+              executor.execute(
+                  peer, 1, () -> handled.add("peer-" + message), () -> handled.add("fallback")))
+          .isTrue();
+    }
+    assertThat(
+            executor.execute(peer, 1, () -> handled.add("peer-3"), () -> handled.add("fallback-3")))
+        .isTrue();
+
+    runPending();
+
+    assertThat(handled).containsExactly("peer-0", "peer-1", "peer-2", "fallback-3");
+  }
+
+  @Test
+  public void dropsMessagesWhenTheQueueOfAPeerIsFullOfFallbackHandlers() {
+    final EthPeer peer = mock(EthPeer.class);
+    for (int i = 0; i < 6; i++) {
+      assertThat(executor.execute(peer, 1, () -> {}, () -> {})).isTrue();
+    }
+    assertThat(executor.execute(peer, 1, () -> handled.add("dropped"), () -> {})).isFalse();
+    assertThat(executor.queuedMessages()).isEqualTo(6);
+
+    runPending();
+
+    assertThat(handled).isEmpty();
+  }
+
+  @Test
+  public void continuesAfterAHandlerFails() {
+    final EthPeer peer = mock(EthPeer.class);
+    executor.execute(
+        peer,
+        1,
+        () -> {
+          throw new IllegalStateException("Expected");
+        });
+    executor.execute(peer, 1, () -> handled.add("peer-1"));
+
+    runPending();
+
+    assertThat(handled).containsExactly("peer-1");
+  }
+
+  private void runPending() {
+    while (!pending.isEmpty()) {
+      pending.poll().run();
+    }
+  }
+
+  private EthMessageExecutor createExecutor(final int maxQueuedPerPeer) {
+    final MetricsSystem metricsSystem = new NoOpMetricsSystem();
+    return new EthMessageExecutor(
+        pending::add,
+        maxQueuedPerPeer,
+        metricsSystem.createLabelledTimer(MetricCategory.NETWORK, "queue", "", "code"),
+        metricsSystem.createLabelledTimer(MetricCategory.NETWORK, "handling", "", "code"),
+        metricsSystem.createLabelledCounter(MetricCategory.NETWORK, "dropped", "", "code"));
+  }
+}
@@ -42,6 +42,8 @@ import tech.pegasys.pantheon.ethereum.eth.messages.EthPV63;
 import tech.pegasys.pantheon.ethereum.eth.messages.GetBlockBodiesMessage;
 import tech.pegasys.pantheon.ethereum.eth.messages.GetBlockHeadersMessage;
 import tech.pegasys.pantheon.ethereum.eth.messages.GetReceiptsMessage;
+import tech.pegasys.pantheon.ethereum.eth.messages.NewBlockHashesMessage;
+import tech.pegasys.pantheon.ethereum.eth.messages.NewBlockHashesMessage.NewBlockHash;
 import tech.pegasys.pantheon.ethereum.eth.messages.NewBlockMessage;
 import tech.pegasys.pantheon.ethereum.eth.messages.ReceiptsMessage;
 import tech.pegasys.pantheon.ethereum.eth.messages.StatusMessage;
@@ -54,6 +56,7 @@ import tech.pegasys.pantheon.ethereum.p2p.api.PeerConnection;
 import tech.pegasys.pantheon.ethereum.p2p.wire.Capability;
 import tech.pegasys.pantheon.ethereum.p2p.wire.DefaultMessage;
 import tech.pegasys.pantheon.ethereum.p2p.wire.RawMessage;
+import tech.pegasys.pantheon.metrics.noop.NoOpMetricsSystem;
 import tech.pegasys.pantheon.util.uint.UInt256;
 
 import java.util.ArrayList;
@@ -63,13 +66,17 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.MoreExecutors;
 import org.awaitility.Awaitility;
 import org.awaitility.core.ConditionTimeoutException;
 import org.junit.BeforeClass;
@@ -96,18 +103,20 @@ public final class EthProtocolManagerTest {
 
   @Test
   public void disconnectOnUnsolicitedMessage() {
-    try (final EthProtocolManager ethManager = new EthProtocolManager(blockchain, 1, true, 1, 1)) {
+    try (final EthProtocolManager ethManager =
+        new EthProtocolManager(blockchain, 1, true, 1, 1, new NoOpMetricsSystem())) {
       final MessageData messageData =
           BlockHeadersMessage.create(Collections.singletonList(blockchain.getBlockHeader(1).get()));
       final MockPeerConnection peer = setupPeer(ethManager, (cap, msg, conn) -> {});
       ethManager.processMessage(EthProtocol.ETH63, new DefaultMessage(peer, messageData));
-      assertThat(peer.isDisconnected()).isTrue();
+      Awaitility.await().atMost(2, TimeUnit.SECONDS).until(peer::isDisconnected);
     }
   }
 
   @Test
   public void disconnectOnFailureToSendStatusMessage() {
-    try (final EthProtocolManager ethManager = new EthProtocolManager(blockchain, 1, true, 1, 1)) {
+    try (final EthProtocolManager ethManager =
+        new EthProtocolManager(blockchain, 1, true, 1, 1, new NoOpMetricsSystem())) {
       final MessageData messageData =
           BlockHeadersMessage.create(Collections.singletonList(blockchain.getBlockHeader(1).get()));
       final MockPeerConnection peer =
@@ -119,7 +128,8 @@ public final class EthProtocolManagerTest {
 
   @Test
   public void disconnectOnWrongChainId() {
-    try (final EthProtocolManager ethManager = new EthProtocolManager(blockchain, 1, true, 1, 1)) {
+    try (final EthProtocolManager ethManager =
+        new EthProtocolManager(blockchain, 1, true, 1, 1, new NoOpMetricsSystem())) {
       final MessageData messageData =
           BlockHeadersMessage.create(Collections.singletonList(blockchain.getBlockHeader(1).get()));
       final MockPeerConnection peer =
@@ -142,7 +152,8 @@ public final class EthProtocolManagerTest {
 
   @Test
   public void disconnectOnWrongGenesisHash() {
-    try (final EthProtocolManager ethManager = new EthProtocolManager(blockchain, 1, true, 1, 1)) {
+    try (final EthProtocolManager ethManager =
+        new EthProtocolManager(blockchain, 1, true, 1, 1, new NoOpMetricsSystem())) {
       final MessageData messageData =
           BlockHeadersMessage.create(Collections.singletonList(blockchain.getBlockHeader(1).get()));
       final MockPeerConnection peer =
@@ -165,7 +176,8 @@ public final class EthProtocolManagerTest {
 
   @Test(expected = ConditionTimeoutException.class)
   public void doNotDisconnectOnValidMessage() {
-    try (final EthProtocolManager ethManager = new EthProtocolManager(blockchain, 1, true, 1, 1)) {
+    try (final EthProtocolManager ethManager =
+        new EthProtocolManager(blockchain, 1, true, 1, 1, new NoOpMetricsSystem())) {
       final MessageData messageData =
           GetBlockBodiesMessage.create(Collections.singletonList(gen.hash()));
       final MockPeerConnection peer = setupPeer(ethManager, (cap, msg, conn) -> {});
@@ -180,7 +192,8 @@ public final class EthProtocolManagerTest {
   @Test
   public void respondToGetHeaders() throws ExecutionException, InterruptedException {
     final CompletableFuture<Void> done = new CompletableFuture<>();
-    try (final EthProtocolManager ethManager = new EthProtocolManager(blockchain, 1, true, 1, 1)) {
+    try (final EthProtocolManager ethManager =
+        new EthProtocolManager(blockchain, 1, true, 1, 1, new NoOpMetricsSystem())) {
       final long startBlock = 5L;
       final int blockCount = 5;
       final MessageData messageData =
@@ -212,7 +225,7 @@ public final class EthProtocolManagerTest {
     final CompletableFuture<Void> done = new CompletableFuture<>();
     final int limit = 5;
     try (final EthProtocolManager ethManager =
-        new EthProtocolManager(blockchain, 1, true, 1, 1, limit)) {
+        new EthProtocolManager(blockchain, 1, true, 1, 1, limit, new NoOpMetricsSystem())) {
       final long startBlock = 5L;
       final int blockCount = 10;
       final MessageData messageData =
@@ -239,10 +252,79 @@ public final class EthProtocolManagerTest {
     }
   }
 
+  @Test
+  public void respondInOrderWhenTooManyRequestsAreQueued() throws Exception {
+    final CountDownLatch serving = new CountDownLatch(1);
+    final ExecutorService serviceWorkerExecutor = Executors.newSingleThreadExecutor();
+    // Hold up the service worker so that requests pile up in the queue of the peer
+    serviceWorkerExecutor.execute(
+        () -> {
+          try {
+            serving.await();
+          } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+        });
+    final EthScheduler ethScheduler =
+        new EthScheduler(
+            new MockExecutorService(),
+            new MockScheduledExecutor(),
+            new MockExecutorService(),
+            MoreExecutors.newDirectExecutorService(),
+            serviceWorkerExecutor);
+    final List<MessageData> responses = new CopyOnWriteArrayList<>();
+    try (final EthProtocolManager ethManager =
+        new EthProtocolManager(
+            blockchain,
+            1,
+            true,
+            EthProtocolManager.DEFAULT_REQUEST_LIMIT,
+            ethScheduler,
+            new NoOpMetricsSystem())) {
+      final PeerSendHandler onSend =
+          (cap, message, conn) -> {
+            if (message.getCode() == EthPV62.STATUS) {
+              // Ignore status message
+              return;
+            }
+            responses.add(message);
+          };
+      final PeerConnection peer = setupPeer(ethManager, onSend);
+      final int requestCount = EthProtocolManager.MAX_QUEUED_REQUESTS_PER_PEER + 1;
+      for (int i = 0; i < requestCount; i++) {
+        final MessageData messageData = GetBlockHeadersMessage.create(i, 1, 0, false);
+        ethManager.processMessage(EthProtocol.ETH63, new DefaultMessage(peer, messageData));
+      }
+      // Nothing is answered ahead of the queued requests
+      assertThat(responses).isEmpty();
+
+      serving.countDown();
+      Awaitility.await()
+          .atMost(5, TimeUnit.SECONDS)
+          .until(() -> responses.size() == requestCount);
+      for (int i = 0; i < requestCount; i++) {
+        assertThat(responses.get(i).getCode()).isEqualTo(EthPV62.BLOCK_HEADERS);
+        final BlockHeadersMessage headersMsg = BlockHeadersMessage.readFrom(responses.get(i));
+        final List<BlockHeader> headers =
+            Lists.newArrayList(headersMsg.getHeaders(protocolSchedule));
+        if (i < EthProtocolManager.MAX_QUEUED_REQUESTS_PER_PEER) {
+          assertThat(headers.size()).isEqualTo(1);
+          assertThat(headers.get(0).getNumber()).isEqualTo(i);
+        } else {
+          // The request which didn't fit in the queue is answered last, with no headers
+          assertThat(headers).isEmpty();
+        }
+      }
+    } finally {
+      serviceWorkerExecutor.shutdownNow();
+    }
+  }
+
   @Test
   public void respondToGetHeadersReversed() throws ExecutionException, InterruptedException {
     final CompletableFuture<Void> done = new CompletableFuture<>();
-    try (final EthProtocolManager ethManager = new EthProtocolManager(blockchain, 1, true, 1, 1)) {
+    try (final EthProtocolManager ethManager =
+        new EthProtocolManager(blockchain, 1, true, 1, 1, new NoOpMetricsSystem())) {
       final long endBlock = 10L;
       final int blockCount = 5;
       final MessageData messageData = GetBlockHeadersMessage.create(endBlock, blockCount, 0, true);
@@ -271,7 +353,8 @@ public final class EthProtocolManagerTest {
   @Test
   public void respondToGetHeadersWithSkip() throws ExecutionException, InterruptedException {
     final CompletableFuture<Void> done = new CompletableFuture<>();
-    try (final EthProtocolManager ethManager = new EthProtocolManager(blockchain, 1, true, 1, 1)) {
+    try (final EthProtocolManager ethManager =
+        new EthProtocolManager(blockchain, 1, true, 1, 1, new NoOpMetricsSystem())) {
       final long startBlock = 5L;
       final int blockCount = 5;
       final int skip = 1;
@@ -303,7 +386,8 @@ public final class EthProtocolManagerTest {
   public void respondToGetHeadersReversedWithSkip()
       throws ExecutionException, InterruptedException {
     final CompletableFuture<Void> done = new CompletableFuture<>();
-    try (final EthProtocolManager ethManager = new EthProtocolManager(blockchain, 1, true, 1, 1)) {
+    try (final EthProtocolManager ethManager =
+        new EthProtocolManager(blockchain, 1, true, 1, 1, new NoOpMetricsSystem())) {
       final long endBlock = 10L;
       final int blockCount = 5;
       final int skip = 1;
@@ -356,7 +440,8 @@ public final class EthProtocolManagerTest {
   @Test
   public void respondToGetHeadersPartial() throws ExecutionException, InterruptedException {
     final CompletableFuture<Void> done = new CompletableFuture<>();
-    try (final EthProtocolManager ethManager = new EthProtocolManager(blockchain, 1, true, 1, 1)) {
+    try (final EthProtocolManager ethManager =
+        new EthProtocolManager(blockchain, 1, true, 1, 1, new NoOpMetricsSystem())) {
       final long startBlock = blockchain.getChainHeadBlockNumber() - 1L;
       final int blockCount = 5;
       final MessageData messageData =
@@ -386,7 +471,8 @@ public final class EthProtocolManagerTest {
   @Test
   public void respondToGetHeadersEmpty() throws ExecutionException, InterruptedException {
     final CompletableFuture<Void> done = new CompletableFuture<>();
-    try (final EthProtocolManager ethManager = new EthProtocolManager(blockchain, 1, true, 1, 1)) {
+    try (final EthProtocolManager ethManager =
+        new EthProtocolManager(blockchain, 1, true, 1, 1, new NoOpMetricsSystem())) {
       final long startBlock = blockchain.getChainHeadBlockNumber() + 1;
       final int blockCount = 5;
       final MessageData messageData =
@@ -413,7 +499,8 @@ public final class EthProtocolManagerTest {
   @Test
   public void respondToGetBodies() throws ExecutionException, InterruptedException {
     final CompletableFuture<Void> done = new CompletableFuture<>();
-    try (final EthProtocolManager ethManager = new EthProtocolManager(blockchain, 1, true, 1, 1)) {
+    try (final EthProtocolManager ethManager =
+        new EthProtocolManager(blockchain, 1, true, 1, 1, new NoOpMetricsSystem())) {
       // Setup blocks query
       final long startBlock = blockchain.getChainHeadBlockNumber() - 5;
       final int blockCount = 2;
@@ -457,7 +544,7 @@ public final class EthProtocolManagerTest {
     final CompletableFuture<Void> done = new CompletableFuture<>();
     final int limit = 5;
     try (final EthProtocolManager ethManager =
-        new EthProtocolManager(blockchain, 1, true, 1, 1, limit)) {
+        new EthProtocolManager(blockchain, 1, true, 1, 1, limit, new NoOpMetricsSystem())) {
       // Setup blocks query
       final int blockCount = 10;
       final long startBlock = blockchain.getChainHeadBlockNumber() - blockCount;
@@ -499,7 +586,8 @@ public final class EthProtocolManagerTest {
   @Test
   public void respondToGetBodiesPartial() throws ExecutionException, InterruptedException {
     final CompletableFuture<Void> done = new CompletableFuture<>();
-    try (final EthProtocolManager ethManager = new EthProtocolManager(blockchain, 1, true, 1, 1)) {
+    try (final EthProtocolManager ethManager =
+        new EthProtocolManager(blockchain, 1, true, 1, 1, new NoOpMetricsSystem())) {
       // Setup blocks query
       final long expectedBlockNumber = blockchain.getChainHeadBlockNumber() - 1;
       final BlockHeader header = blockchain.getBlockHeader(expectedBlockNumber).get();
@@ -535,7 +623,8 @@ public final class EthProtocolManagerTest {
   @Test
   public void respondToGetReceipts() throws ExecutionException, InterruptedException {
     final CompletableFuture<Void> done = new CompletableFuture<>();
-    try (final EthProtocolManager ethManager = new EthProtocolManager(blockchain, 1, true, 1, 1)) {
+    try (final EthProtocolManager ethManager =
+        new EthProtocolManager(blockchain, 1, true, 1, 1, new NoOpMetricsSystem())) {
       // Setup blocks query
       final long startBlock = blockchain.getChainHeadBlockNumber() - 5;
       final int blockCount = 2;
@@ -578,7 +667,7 @@ public final class EthProtocolManagerTest {
     final CompletableFuture<Void> done = new CompletableFuture<>();
     final int limit = 5;
     try (final EthProtocolManager ethManager =
-        new EthProtocolManager(blockchain, 1, true, 1, 1, limit)) {
+        new EthProtocolManager(blockchain, 1, true, 1, 1, limit, new NoOpMetricsSystem())) {
       // Setup blocks query
       final int blockCount = 10;
       final long startBlock = blockchain.getChainHeadBlockNumber() - blockCount;
@@ -619,7 +708,8 @@ public final class EthProtocolManagerTest {
   @Test
   public void respondToGetReceiptsPartial() throws ExecutionException, InterruptedException {
     final CompletableFuture<Void> done = new CompletableFuture<>();
-    try (final EthProtocolManager ethManager = new EthProtocolManager(blockchain, 1, true, 1, 1)) {
+    try (final EthProtocolManager ethManager =
+        new EthProtocolManager(blockchain, 1, true, 1, 1, new NoOpMetricsSystem())) {
       // Setup blocks query
       final long blockNumber = blockchain.getChainHeadBlockNumber() - 5;
       final BlockHeader header = blockchain.getBlockHeader(blockNumber).get();
@@ -653,8 +743,9 @@ public final class EthProtocolManagerTest {
   }
 
   @Test
-  public void newBlockMinedSendsNewBlockMessageToAllPeers() {
-    final EthProtocolManager ethManager = new EthProtocolManager(blockchain, 1, true, 1, 1);
+  public void newBlockMinedSendsNewBlockToSqrtOfPeersAndHashToTheRest() {
+    final EthProtocolManager ethManager =
+        new EthProtocolManager(blockchain, 1, true, 1, 1, new NoOpMetricsSystem());
 
     // Define handler to validate response
     final PeerSendHandler onSend = mock(PeerSendHandler.class);
@@ -677,8 +768,8 @@ public final class EthProtocolManagerTest {
 
     ethManager.blockMined(minedBlock);
 
-    final ArgumentCaptor<NewBlockMessage> messageSentCaptor =
-        ArgumentCaptor.forClass(NewBlockMessage.class);
+    final ArgumentCaptor<MessageData> messageSentCaptor =
+        ArgumentCaptor.forClass(MessageData.class);
     final ArgumentCaptor<PeerConnection> receivingPeerCaptor =
         ArgumentCaptor.forClass(PeerConnection.class);
     final ArgumentCaptor<Capability> capabilityCaptor = ArgumentCaptor.forClass(Capability.class);
@@ -691,14 +782,34 @@ public final class EthProtocolManagerTest {
     assertThat(capabilityCaptor.getAllValues().stream().distinct().collect(Collectors.toList()))
         .isEqualTo(Collections.singletonList(EthProtocol.ETH63));
 
+    // assert that sqrt(PEER_COUNT) peers got the full block and the others only its hash.
+    final List<MessageData> messages = messageSentCaptor.getAllValues();
+    assertThat(messages.stream().filter(m -> m.getCode() == EthPV62.NEW_BLOCK).count())
+        .isEqualTo(2);
+    assertThat(messages.stream().filter(m -> m.getCode() == EthPV62.NEW_BLOCK_HASHES).count())
+        .isEqualTo(3);
+
     // assert that all messages transmitted contain the expected block & total difficulty.
     final ProtocolSchedule<Void> protocolSchdeule = MainnetProtocolSchedule.create();
-    for (final NewBlockMessage msg : messageSentCaptor.getAllValues()) {
-      assertThat(msg.block(protocolSchdeule)).isEqualTo(minedBlock);
-      assertThat(msg.totalDifficulty(protocolSchdeule)).isEqualTo(expectedTotalDifficulty);
+    for (final MessageData msg : messages) {
+      if (msg.getCode() == EthPV62.NEW_BLOCK) {
+        final NewBlockMessage newBlockMessage = NewBlockMessage.readFrom(msg);
+        assertThat(newBlockMessage.block(protocolSchdeule)).isEqualTo(minedBlock);
+        assertThat(newBlockMessage.totalDifficulty(protocolSchdeule))
+            .isEqualTo(expectedTotalDifficulty);
+      } else {
+        assertThat(Lists.newArrayList(NewBlockHashesMessage.readFrom(msg).getNewHashes()))
+            .containsExactly(
+                new NewBlockHash(minedBlock.getHash(), minedBlock.getHeader().getNumber()));
+      }
     }
 
     assertThat(receivingPeerCaptor.getAllValues().containsAll(peers)).isTrue();
+
+    // Peers are only sent a block once.
+    reset(onSend);
+    ethManager.blockMined(minedBlock);
+    verifyZeroInteractions(onSend);
   }
 
   @Test
@@ -716,7 +827,8 @@ public final class EthProtocolManagerTest {
     blockchain.appendBlock(block, receipts);
 
     final CompletableFuture<Void> done = new CompletableFuture<>();
-    try (final EthProtocolManager ethManager = new EthProtocolManager(blockchain, 1, true, 1, 1)) {
+    try (final EthProtocolManager ethManager =
+        new EthProtocolManager(blockchain, 1, true, 1, 1, new NoOpMetricsSystem())) {
       final long startBlock = 1L;
       final int requestedBlockCount = 13;
       final int receivedBlockCount = 2;
@@ -772,7 +884,7 @@ public final class EthProtocolManagerTest {
     final TransactionsMessage transactionMessage = TransactionsMessage.readFrom(raw);
 
     try (final EthProtocolManager ethManager =
-        new EthProtocolManager(blockchain, 1, true, 1, ethScheduler)) {
+        new EthProtocolManager(blockchain, 1, true, 1, ethScheduler, new NoOpMetricsSystem())) {
 
       // Create a transaction pool.  This has a side effect of registring a listener for the
       // transactions message.
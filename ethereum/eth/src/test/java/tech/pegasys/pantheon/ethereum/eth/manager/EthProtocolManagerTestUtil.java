@@ -24,6 +24,7 @@ import tech.pegasys.pantheon.ethereum.mainnet.MainnetProtocolSchedule;
 import tech.pegasys.pantheon.ethereum.mainnet.ProtocolSchedule;
 import tech.pegasys.pantheon.ethereum.p2p.api.MessageData;
 import tech.pegasys.pantheon.ethereum.p2p.wire.DefaultMessage;
+import tech.pegasys.pantheon.metrics.noop.NoOpMetricsSystem;
 import tech.pegasys.pantheon.util.uint.UInt256;
 
 public class EthProtocolManagerTestUtil {
@@ -33,7 +34,12 @@ public class EthProtocolManagerTestUtil {
     final int networkId = 1;
     final EthScheduler ethScheduler = new DeterministicEthScheduler(timeoutPolicy);
     return new EthProtocolManager(
-        blockchain, networkId, false, EthProtocolManager.DEFAULT_REQUEST_LIMIT, ethScheduler);
+        blockchain,
+        networkId,
+        false,
+        EthProtocolManager.DEFAULT_REQUEST_LIMIT,
+        ethScheduler,
+        new NoOpMetricsSystem());
   }
 
   public static EthProtocolManager create(final Blockchain blockchain) {
@@ -24,6 +24,8 @@ import tech.pegasys.pantheon.ethereum.chain.MutableBlockchain;
 import tech.pegasys.pantheon.ethereum.core.Block;
 import tech.pegasys.pantheon.ethereum.core.BlockDataGenerator;
 import tech.pegasys.pantheon.ethereum.core.BlockDataGenerator.BlockOptions;
+import tech.pegasys.pantheon.ethereum.core.BlockHeader;
+import tech.pegasys.pantheon.ethereum.core.BlockHeaderBuilder;
 import tech.pegasys.pantheon.ethereum.eth.manager.EthProtocolManager;
 import tech.pegasys.pantheon.ethereum.eth.manager.EthProtocolManagerTestUtil;
 import tech.pegasys.pantheon.ethereum.eth.manager.RespondingEthPeer;
@@ -34,13 +36,17 @@ import tech.pegasys.pantheon.ethereum.eth.messages.NewBlockHashesMessage.NewBloc
 import tech.pegasys.pantheon.ethereum.eth.messages.NewBlockMessage;
 import tech.pegasys.pantheon.ethereum.eth.sync.state.PendingBlocks;
 import tech.pegasys.pantheon.ethereum.eth.sync.state.SyncState;
+import tech.pegasys.pantheon.ethereum.mainnet.MainnetBlockHashFunction;
 import tech.pegasys.pantheon.ethereum.mainnet.ProtocolSchedule;
+import tech.pegasys.pantheon.ethereum.p2p.api.MessageData;
 import tech.pegasys.pantheon.metrics.LabelledMetric;
 import tech.pegasys.pantheon.metrics.OperationTimer;
 import tech.pegasys.pantheon.metrics.noop.NoOpMetricsSystem;
 import tech.pegasys.pantheon.util.uint.UInt256;
 
 import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
 
 import org.junit.Before;
 import org.junit.BeforeClass;
@@ -530,4 +536,60 @@ public class BlockPropagationManagerTest {
     assertThat(peer.getEthPeer().chainState().getBestBlock().getTotalDifficulty())
         .isEqualTo(totalDifficulty);
   }
+
+  @Test
+  public void relaysValidNewBlockToOtherPeers() {
+    blockchainUtil.importFirstBlocks(2);
+    final Block nextBlock = blockchainUtil.getBlock(2);
+
+    blockPropagationManager.start();
+
+    // Setup peers and message
+    final RespondingEthPeer peer = EthProtocolManagerTestUtil.createPeer(ethProtocolManager, 0);
+    final RespondingEthPeer otherPeer =
+        EthProtocolManagerTestUtil.createPeer(ethProtocolManager, 0);
+    final UInt256 totalDifficulty =
+        fullBlockchain.getTotalDifficultyByHash(nextBlock.getHash()).get();
+    final NewBlockMessage nextAnnouncement = NewBlockMessage.create(nextBlock, totalDifficulty);
+
+    // Broadcast message
+    EthProtocolManagerTestUtil.broadcastMessage(ethProtocolManager, peer, nextAnnouncement);
+
+    assertThat(blockchain.contains(nextBlock.getHash())).isTrue();
+    assertThat(peer.hasOutstandingRequests()).isFalse();
+    final List<MessageData> relayed =
+        otherPeer.pendingOutgoingRequests().collect(Collectors.toList());
+    assertThat(relayed).hasSize(1);
+    final NewBlockMessage relayedBlock = NewBlockMessage.readFrom(relayed.get(0));
+    assertThat(relayedBlock.block(protocolSchedule)).isEqualTo(nextBlock);
+    assertThat(relayedBlock.totalDifficulty(protocolSchedule)).isEqualTo(totalDifficulty);
+  }
+
+  @Test
+  public void doesNotRelayBlockWithInvalidHeader() {
+    blockchainUtil.importFirstBlocks(2);
+    final Block nextBlock = blockchainUtil.getBlock(2);
+    final BlockHeader invalidHeader =
+        BlockHeaderBuilder.fromHeader(nextBlock.getHeader())
+            .nonce(nextBlock.getHeader().getNonce() + 1)
+            .blockHashFunction(MainnetBlockHashFunction::createHash)
+            .buildBlockHeader();
+    final Block invalidBlock = new Block(invalidHeader, nextBlock.getBody());
+
+    blockPropagationManager.start();
+
+    // Setup peers and message
+    final RespondingEthPeer peer = EthProtocolManagerTestUtil.createPeer(ethProtocolManager, 0);
+    final RespondingEthPeer otherPeer =
+        EthProtocolManagerTestUtil.createPeer(ethProtocolManager, 0);
+    final NewBlockMessage invalidAnnouncement =
+        NewBlockMessage.create(
+            invalidBlock, fullBlockchain.getTotalDifficultyByHash(nextBlock.getHash()).get());
+
+    // Broadcast message
+    EthProtocolManagerTestUtil.broadcastMessage(ethProtocolManager, peer, invalidAnnouncement);
+
+    assertThat(blockchain.contains(invalidBlock.getHash())).isFalse();
+    assertThat(otherPeer.hasOutstandingRequests()).isFalse();
+  }
 }
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.eth.transactions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import tech.pegasys.pantheon.ethereum.core.BlockDataGenerator;
+import tech.pegasys.pantheon.ethereum.core.Hash;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+
+public class KnownHashFilterTest {
+
+  private final BlockDataGenerator generator = new BlockDataGenerator();
+  private final KnownHashFilter filter = new KnownHashFilter(100);
+
+  @Test
+  public void shouldContainAddedHashes() {
+    final List<Hash> hashes = hashes(100);
+    hashes.forEach(filter::add);
+
+    assertThat(hashes).allMatch(filter::mightContain);
+  }
+
+  @Test
+  public void shouldForgetOldestGenerationOfHashes() {
+    final List<Hash> oldest = hashes(100);
+    final List<Hash> older = hashes(100);
+    final List<Hash> newest = hashes(50);
+    oldest.forEach(filter::add);
+    older.forEach(filter::add);
+    newest.forEach(filter::add);
+
+    assertThat(older).allMatch(filter::mightContain);
+    assertThat(newest).allMatch(filter::mightContain);
+    // Bloom filters can have false positives, but most of these should be gone.
+    assertThat(oldest.stream().filter(filter::mightContain).count()).isLessThan(10);
+  }
+
+  private List<Hash> hashes(final int count) {
+    return IntStream.range(0, count).mapToObj(i -> generator.hash()).collect(Collectors.toList());
+  }
+}
@@ -14,11 +14,14 @@ package tech.pegasys.pantheon.ethereum.eth.transactions;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 import tech.pegasys.pantheon.ethereum.core.BlockDataGenerator;
 import tech.pegasys.pantheon.ethereum.core.Transaction;
 import tech.pegasys.pantheon.ethereum.eth.manager.EthPeer;
 
+import java.time.Clock;
+
 import com.google.common.collect.ImmutableSet;
 import org.junit.Test;
 
@@ -88,4 +91,26 @@ public class PeerTransactionTrackerTest {
     assertThat(tracker.claimTransactionsToSendToPeer(ethPeer1)).containsOnly(transaction1);
     assertThat(tracker.claimTransactionsToSendToPeer(ethPeer2)).containsOnly(transaction3);
   }
+
+  @Test
+  public void shouldLimitRateOfTransactionsClaimedForPeer() {
+    final Clock clock = mock(Clock.class);
+    when(clock.millis()).thenReturn(0L);
+    final PeerTransactionTracker rateLimitedTracker = new PeerTransactionTracker(2, clock);
+
+    rateLimitedTracker.addToPeerSendQueue(ethPeer1, transaction1);
+    rateLimitedTracker.addToPeerSendQueue(ethPeer1, transaction2);
+    rateLimitedTracker.addToPeerSendQueue(ethPeer1, transaction3);
+
+    assertThat(rateLimitedTracker.claimTransactionsToSendToPeer(ethPeer1))
+        .containsExactly(transaction1, transaction2);
+    assertThat(rateLimitedTracker.claimTransactionsToSendToPeer(ethPeer1)).isEmpty();
+    assertThat(rateLimitedTracker.getEthPeersWithUnsentTransactions()).containsOnly(ethPeer1);
+
+    when(clock.millis()).thenReturn(500L);
+
+    assertThat(rateLimitedTracker.claimTransactionsToSendToPeer(ethPeer1))
+        .containsExactly(transaction3);
+    assertThat(rateLimitedTracker.hasUnsentTransactions()).isFalse();
+  }
 }
@@ -102,7 +102,7 @@ public class TestNode implements Closeable {
     final ProtocolContext<Void> protocolContext =
         new ProtocolContext<>(blockchain, worldStateArchive, null);
     final EthProtocolManager ethProtocolManager =
-        new EthProtocolManager(blockchain, 1, false, 1, 1);
+        new EthProtocolManager(blockchain, 1, false, 1, 1, new NoOpMetricsSystem());
 
     final NetworkRunner networkRunner =
         NetworkRunner.builder()
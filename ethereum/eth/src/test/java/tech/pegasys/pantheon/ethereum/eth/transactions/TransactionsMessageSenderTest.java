@@ -16,8 +16,8 @@ import static com.google.common.collect.Sets.newHashSet;
 import static java.util.stream.Collectors.toSet;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.atLeast;
 import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 
@@ -27,12 +27,13 @@ import tech.pegasys.pantheon.ethereum.eth.manager.EthPeer;
 import tech.pegasys.pantheon.ethereum.eth.messages.EthPV62;
 import tech.pegasys.pantheon.ethereum.eth.messages.TransactionsMessage;
 import tech.pegasys.pantheon.ethereum.p2p.api.MessageData;
+import tech.pegasys.pantheon.ethereum.rlp.RLP;
 
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.IntStream;
 
-import com.google.common.collect.Sets;
 import org.junit.Test;
 import org.mockito.ArgumentCaptor;
 
@@ -63,29 +64,45 @@ public class TransactionsMessageSenderTest {
   }
 
   @Test
-  public void shouldSendTransactionsInBatches() throws Exception {
+  public void shouldSendTransactionsInBatchesOfLimitedSize() throws Exception {
     final Set<Transaction> fifteenTransactions =
         IntStream.range(0, 15).mapToObj(number -> generator.transaction()).collect(toSet());
     fifteenTransactions.forEach(
         transaction -> transactionTracker.addToPeerSendQueue(peer1, transaction));
+    final int maxEncodedSize =
+        fifteenTransactions
+            .stream()
+            .mapToInt(transaction -> RLP.encode(transaction::writeTo).size())
+            .max()
+            .getAsInt();
+    final int maxMessageSize = 4 * maxEncodedSize;
 
-    messageSender.sendTransactionsToPeers();
+    new TransactionsMessageSender(transactionTracker, maxMessageSize).sendTransactionsToPeers();
 
     final ArgumentCaptor<MessageData> messageDataArgumentCaptor =
         ArgumentCaptor.forClass(MessageData.class);
-    verify(peer1, times(2)).send(messageDataArgumentCaptor.capture());
+    verify(peer1, atLeast(4)).send(messageDataArgumentCaptor.capture());
 
     final List<MessageData> sentMessages = messageDataArgumentCaptor.getAllValues();
-
-    assertThat(sentMessages).hasSize(2);
     assertThat(sentMessages).allMatch(message -> message.getCode() == EthPV62.TRANSACTIONS);
-    final Set<Transaction> firstBatch = getTransactionsFromMessage(sentMessages.get(0));
-    final Set<Transaction> secondBatch = getTransactionsFromMessage(sentMessages.get(1));
+    // Allow for the header of the list of transactions.
+    assertThat(sentMessages).allMatch(message -> message.getSize() <= maxMessageSize + 4);
+
+    final Set<Transaction> sentTransactions = new HashSet<>();
+    sentMessages.forEach(message -> sentTransactions.addAll(getTransactionsFromMessage(message)));
+    assertThat(sentTransactions).isEqualTo(fifteenTransactions);
+  }
+
+  @Test
+  public void shouldSendTransactionLargerThanMessageSizeOnItsOwn() throws Exception {
+    transactionTracker.addToPeerSendQueue(peer1, transaction1);
+    transactionTracker.addToPeerSendQueue(peer1, transaction2);
 
-    assertThat(firstBatch).hasSize(10);
-    assertThat(secondBatch).hasSize(5);
+    new TransactionsMessageSender(transactionTracker, 1).sendTransactionsToPeers();
 
-    assertThat(Sets.union(firstBatch, secondBatch)).isEqualTo(fifteenTransactions);
+    verify(peer1).send(transactionsMessageContaining(transaction1));
+    verify(peer1).send(transactionsMessageContaining(transaction2));
+    verifyNoMoreInteractions(peer1);
   }
 
   private MessageData transactionsMessageContaining(final Transaction... transactions) {
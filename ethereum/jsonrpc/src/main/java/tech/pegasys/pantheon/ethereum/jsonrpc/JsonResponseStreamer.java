@@ -0,0 +1,159 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.jsonrpc;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpServerResponse;
+
+/**
+ * An {@link OutputStream} which writes the body of an HTTP response in chunks as it is produced.
+ *
+ * <p>It is meant to be written to from a worker thread. While the response's write queue is full,
+ * writes block until the client has read enough of it, so no more than one chunk and the write
+ * queue of the response are held in memory however large the body is. A body which fits in a
+ * single chunk is sent in one go with a {@code Content-Length}, without chunked encoding.
+ *
+ * <p>Closing the stream doesn't end the response, {@link #end()} does once the whole body has been
+ * written. A response that can't be completed must be closed instead, so the client doesn't take
+ * a truncated body for a complete one.
+ */
+class JsonResponseStreamer extends OutputStream {
+
+  static final int CHUNK_SIZE = 16 * 1024;
+  private static final long DRAIN_POLL_MILLIS = 100;
+
+  private final HttpServerResponse response;
+  private final boolean chunked;
+  private final long drainTimeoutMillis;
+  private final byte[] chunk = new byte[CHUNK_SIZE];
+
+  private int position;
+  private boolean started;
+  private Buffer unchunkedBody;
+  private volatile boolean connectionClosed;
+
+  /**
+   * @param response the response to write the body of
+   * @param chunked whether chunked encoding can be used; without it the body is accumulated and
+   *     sent when the stream is ended, as its length must be known up front
+   * @param drainTimeoutMillis how long a write waits for the client to read a full write queue
+   *     before giving up
+   */
+  JsonResponseStreamer(
+      final HttpServerResponse response, final boolean chunked, final long drainTimeoutMillis) {
+    this.response = response;
+    this.chunked = chunked;
+    this.drainTimeoutMillis = drainTimeoutMillis;
+    response.closeHandler(v -> connectionClosed = true);
+  }
+
+  @Override
+  public void write(final int b) throws IOException {
+    if (position == CHUNK_SIZE) {
+      writeChunk();
+    }
+    chunk[position++] = (byte) b;
+  }
+
+  @Override
+  public void write(final byte[] bytes, final int offset, final int length) throws IOException {
+    int written = 0;
+    while (written < length) {
+      if (position == CHUNK_SIZE) {
+        writeChunk();
+      }
+      final int count = Math.min(length - written, CHUNK_SIZE - position);
+      System.arraycopy(bytes, offset + written, chunk, position, count);
+      position += count;
+      written += count;
+    }
+  }
+
+  /**
+   * Whether part of the body has been sent. Until then, the response can still be replaced by
+   * another one.
+   */
+  boolean isStarted() {
+    return started;
+  }
+
+  boolean isConnectionClosed() {
+    return connectionClosed;
+  }
+
+  /** Sends what remains of the body and ends the response. */
+  void end() throws IOException {
+    checkConnection();
+    final Buffer remaining = Buffer.buffer(position).appendBytes(chunk, 0, position);
+    position = 0;
+    if (unchunkedBody != null) {
+      response.end(unchunkedBody.appendBuffer(remaining));
+    } else {
+      response.end(remaining);
+    }
+  }
+
+  private void writeChunk() throws IOException {
+    checkConnection();
+    if (!chunked) {
+      if (unchunkedBody == null) {
+        unchunkedBody = Buffer.buffer(CHUNK_SIZE * 2);
+      }
+      unchunkedBody.appendBytes(chunk, 0, position);
+      position = 0;
+      return;
+    }
+    if (!started) {
+      response.setChunked(true);
+      started = true;
+    }
+    awaitWriteQueue();
+    // The buffer is copied, so the chunk can be reused straight away.
+    response.write(Buffer.buffer(position).appendBytes(chunk, 0, position));
+    position = 0;
+  }
+
+  private void awaitWriteQueue() throws IOException {
+    if (!response.writeQueueFull()) {
+      return;
+    }
+    final CountDownLatch drained = new CountDownLatch(1);
+    response.drainHandler(v -> drained.countDown());
+    final long deadline = System.currentTimeMillis() + drainTimeoutMillis;
+    // The queue may have drained before the handler was set, so it is polled as well.
+    while (response.writeQueueFull()) {
+      checkConnection();
+      if (System.currentTimeMillis() >= deadline) {
+        throw new IOException("Timed out waiting for the client to read the response");
+      }
+      try {
+        drained.await(DRAIN_POLL_MILLIS, TimeUnit.MILLISECONDS);
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException("Interrupted while writing the response");
+      }
+    }
+  }
+
+  private void checkConnection() throws IOException {
+    if (connectionClosed) {
+      throw new IOException("Connection closed before the response was complete");
+    }
+  }
+}
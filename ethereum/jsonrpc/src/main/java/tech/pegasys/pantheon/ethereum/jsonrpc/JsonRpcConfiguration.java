@@ -12,9 +12,13 @@
  */
 package tech.pegasys.pantheon.ethereum.jsonrpc;
 
+import static com.google.common.base.Preconditions.checkArgument;
+
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
 
 import com.google.common.base.MoreObjects;
 import com.google.common.base.Objects;
@@ -30,6 +34,9 @@ public class JsonRpcConfiguration {
   private Collection<String> corsAllowedDomains = Collections.emptyList();
   private Collection<RpcApi> rpcApis;
   private Collection<String> hostsWhitelist = Collections.singletonList("localhost");
+  private final Map<RpcMethodClass, Integer> workerThreads = new EnumMap<>(RpcMethodClass.class);
+  private final Map<RpcMethodClass, Integer> queueCapacities =
+      new EnumMap<>(RpcMethodClass.class);
 
   public static JsonRpcConfiguration createDefault() {
     final JsonRpcConfiguration config = new JsonRpcConfiguration();
@@ -97,6 +104,28 @@ public class JsonRpcConfiguration {
     this.hostsWhitelist = hostsWhitelist;
   }
 
+  public int getWorkerThreads(final RpcMethodClass methodClass) {
+    return workerThreads.getOrDefault(methodClass, methodClass.getDefaultWorkerThreads());
+  }
+
+  public void setWorkerThreads(final RpcMethodClass methodClass, final int threads) {
+    checkArgument(threads > 0, "Worker threads must be positive.");
+    workerThreads.put(methodClass, threads);
+  }
+
+  public int getQueueCapacity(final RpcMethodClass methodClass) {
+    return queueCapacities.getOrDefault(methodClass, methodClass.getDefaultQueueCapacity());
+  }
+
+  /**
+   * Sets how many requests of a method class may wait for a worker before further requests are
+   * rejected.
+   */
+  public void setQueueCapacity(final RpcMethodClass methodClass, final int capacity) {
+    checkArgument(capacity > 0, "Queue capacity must be positive.");
+    queueCapacities.put(methodClass, capacity);
+  }
+
   @Override
   public String toString() {
     return MoreObjects.toStringHelper(this)
@@ -106,6 +135,8 @@ public class JsonRpcConfiguration {
         .add("corsAllowedDomains", corsAllowedDomains)
         .add("hostsWhitelist", hostsWhitelist)
         .add("rpcApis", rpcApis)
+        .add("workerThreads", workerThreads)
+        .add("queueCapacities", queueCapacities)
         .toString();
   }
 
@@ -125,11 +156,21 @@ public class JsonRpcConfiguration {
             Lists.newArrayList(corsAllowedDomains), Lists.newArrayList(that.corsAllowedDomains))
         && Objects.equal(
             Lists.newArrayList(hostsWhitelist), Lists.newArrayList(that.hostsWhitelist))
-        && Objects.equal(Lists.newArrayList(rpcApis), Lists.newArrayList(that.rpcApis));
+        && Objects.equal(Lists.newArrayList(rpcApis), Lists.newArrayList(that.rpcApis))
+        && Objects.equal(workerThreads, that.workerThreads)
+        && Objects.equal(queueCapacities, that.queueCapacities);
   }
 
   @Override
   public int hashCode() {
-    return Objects.hashCode(enabled, port, host, corsAllowedDomains, hostsWhitelist, rpcApis);
+    return Objects.hashCode(
+        enabled,
+        port,
+        host,
+        corsAllowedDomains,
+        hostsWhitelist,
+        rpcApis,
+        workerThreads,
+        queueCapacities);
   }
 }
@@ -26,6 +26,8 @@ import tech.pegasys.pantheon.ethereum.jsonrpc.internal.response.JsonRpcErrorResp
 import tech.pegasys.pantheon.ethereum.jsonrpc.internal.response.JsonRpcNoResponse;
 import tech.pegasys.pantheon.ethereum.jsonrpc.internal.response.JsonRpcResponse;
 import tech.pegasys.pantheon.ethereum.jsonrpc.internal.response.JsonRpcResponseType;
+import tech.pegasys.pantheon.ethereum.jsonrpc.internal.response.JsonRpcSuccessResponse;
+import tech.pegasys.pantheon.metrics.Counter;
 import tech.pegasys.pantheon.metrics.LabelledMetric;
 import tech.pegasys.pantheon.metrics.MetricCategory;
 import tech.pegasys.pantheon.metrics.MetricsSystem;
@@ -33,21 +35,28 @@ import tech.pegasys.pantheon.metrics.OperationTimer;
 import tech.pegasys.pantheon.metrics.OperationTimer.TimingContext;
 import tech.pegasys.pantheon.util.NetworkUtility;
 
+import java.io.IOException;
 import java.net.BindException;
 import java.net.InetSocketAddress;
 import java.net.SocketException;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.StringJoiner;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Splitter;
 import com.google.common.collect.Iterables;
 import io.netty.handler.codec.http.HttpResponseStatus;
+import io.vertx.core.AsyncResult;
 import io.vertx.core.CompositeFuture;
+import io.vertx.core.Context;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
@@ -55,6 +64,7 @@ import io.vertx.core.http.HttpMethod;
 import io.vertx.core.http.HttpServer;
 import io.vertx.core.http.HttpServerOptions;
 import io.vertx.core.http.HttpServerResponse;
+import io.vertx.core.http.HttpVersion;
 import io.vertx.core.json.DecodeException;
 import io.vertx.core.json.Json;
 import io.vertx.core.json.JsonArray;
@@ -74,14 +84,19 @@ public class JsonRpcHttpService {
   private static final String APPLICATION_JSON = "application/json";
   private static final JsonRpcResponse NO_RESPONSE = new JsonRpcNoResponse();
   private static final String EMPTY_RESPONSE = "";
+  private static final String UNKNOWN_METHOD = "unknown";
+  private static final long RESPONSE_DRAIN_TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(30);
 
   private final Vertx vertx;
   private final JsonRpcConfiguration config;
   private final Map<String, JsonRpcMethod> jsonRpcMethods;
   private final Path dataDir;
   private final LabelledMetric<OperationTimer> requestTimer;
+  private final LabelledMetric<OperationTimer> queueTimer;
+  private final LabelledMetric<Counter> rejectedRequests;
 
   private HttpServer httpServer;
+  private JsonRpcWorkerPools workerPools;
 
   public JsonRpcHttpService(
       final Vertx vertx,
@@ -96,6 +111,18 @@ public class JsonRpcHttpService {
             "request_time",
             "Time taken to process a JSON-RPC request",
             "methodName");
+    queueTimer =
+        metricsSystem.createLabelledTimer(
+            MetricCategory.RPC,
+            "request_queue_time",
+            "Time a JSON-RPC request waited for a worker of its method class",
+            "methodName");
+    rejectedRequests =
+        metricsSystem.createLabelledCounter(
+            MetricCategory.RPC,
+            "requests_rejected_total",
+            "Number of JSON-RPC requests rejected because their worker queue was full",
+            "methodName");
     validateConfig(config);
     this.config = config;
     this.vertx = vertx;
@@ -111,6 +138,7 @@ public class JsonRpcHttpService {
 
   public CompletableFuture<?> start() {
     LOG.info("Starting JsonRPC service on {}:{}", config.getHost(), config.getPort());
+    workerPools = new JsonRpcWorkerPools(config);
     // Create the HTTP server and a router object.
     httpServer =
         vertx.createHttpServer(
@@ -155,6 +183,7 @@ public class JsonRpcHttpService {
                 return;
               }
               httpServer = null;
+              shutdownWorkerPools();
               final Throwable cause = res.cause();
               if (cause instanceof BindException || cause instanceof SocketException) {
                 resultFuture.completeExceptionally(
@@ -208,6 +237,7 @@ public class JsonRpcHttpService {
 
   public CompletableFuture<?> stop() {
     if (httpServer == null) {
+      shutdownWorkerPools();
       return CompletableFuture.completedFuture(null);
     }
 
@@ -218,12 +248,20 @@ public class JsonRpcHttpService {
             resultFuture.completeExceptionally(res.cause());
           } else {
             httpServer = null;
+            shutdownWorkerPools();
             resultFuture.complete(null);
           }
         });
     return resultFuture;
   }
 
+  private void shutdownWorkerPools() {
+    if (workerPools != null) {
+      workerPools.shutdown();
+      workerPools = null;
+    }
+  }
+
   public InetSocketAddress socketAddress() {
     if (httpServer == null) {
       return EMPTY_SOCKET_ADDRESS;
@@ -266,22 +304,24 @@ public class JsonRpcHttpService {
   private void handleJsonSingleRequest(
       final RoutingContext routingContext, final JsonObject request) {
     final HttpServerResponse response = routingContext.response();
-    vertx.executeBlocking(
-        future -> {
-          final JsonRpcResponse jsonRpcResponse = process(request);
-          future.complete(jsonRpcResponse);
-        },
-        false,
+    // The response is written by the worker that processed the request, so results which are only
+    // computed as they are serialised, such as traces, are bounded by the pool of their class.
+    execute(
+        request,
         (res) -> {
           if (res.failed()) {
             response.setStatusCode(HttpResponseStatus.INTERNAL_SERVER_ERROR.code()).end();
             return;
           }
 
-          final JsonRpcResponse jsonRpcResponse = (JsonRpcResponse) res.result();
+          final JsonRpcResponse jsonRpcResponse = res.result();
           response.setStatusCode(status(jsonRpcResponse).code());
           response.putHeader("Content-Type", APPLICATION_JSON);
-          response.end(serialise(jsonRpcResponse));
+          if (jsonRpcResponse.getType() == JsonRpcResponseType.NONE) {
+            response.end(EMPTY_RESPONSE);
+            return;
+          }
+          writeResponse(routingContext, jsonRpcResponse, requestId(request), Json.prettyMapper);
         });
   }
 
@@ -289,7 +329,9 @@ public class JsonRpcHttpService {
 
     switch (response.getType()) {
       case ERROR:
-        return HttpResponseStatus.BAD_REQUEST;
+        return ((JsonRpcErrorResponse) response).getError() == JsonRpcError.SERVER_BUSY
+            ? HttpResponseStatus.SERVICE_UNAVAILABLE
+            : HttpResponseStatus.BAD_REQUEST;
       case SUCCESS:
       case NONE:
       default:
@@ -297,13 +339,38 @@ public class JsonRpcHttpService {
     }
   }
 
-  private String serialise(final JsonRpcResponse response) {
-
-    if (response.getType() == JsonRpcResponseType.NONE) {
-      return EMPTY_RESPONSE;
+  /**
+   * Serialises a response body straight to the HTTP response, in chunks, blocking while the client
+   * is slow to read it. If serialising the body fails before any of it has been sent, an {@link
+   * JsonRpcError#INTERNAL_ERROR} response is sent instead. Otherwise the connection is closed, as
+   * the body can't be written in full.
+   *
+   * @param errorId the id of the error response sent in place of the body
+   */
+  private void writeResponse(
+      final RoutingContext routingContext,
+      final Object body,
+      final Object errorId,
+      final ObjectMapper mapper) {
+    final HttpServerResponse response = routingContext.response();
+    final JsonResponseStreamer out =
+        new JsonResponseStreamer(
+            response,
+            routingContext.request().version() != HttpVersion.HTTP_1_0,
+            RESPONSE_DRAIN_TIMEOUT_MILLIS);
+    try {
+      mapper.writeValue(out, body);
+      out.end();
+    } catch (final IOException | RuntimeException e) {
+      if (out.isStarted() || out.isConnectionClosed()) {
+        LOG.debug("Failed to write JSON-RPC response", e);
+        response.close();
+        return;
+      }
+      LOG.error(JsonRpcError.INTERNAL_ERROR.getMessage(), e);
+      final JsonRpcResponse error = errorResponse(errorId, JsonRpcError.INTERNAL_ERROR);
+      response.setStatusCode(status(error).code()).end(Json.encode(error));
     }
-
-    return Json.encodePrettily(response);
   }
 
   @SuppressWarnings("rawtypes")
@@ -320,21 +387,18 @@ public class JsonRpcHttpService {
                         errorResponse(null, JsonRpcError.INVALID_REQUEST));
                   }
 
-                  final JsonObject req = (JsonObject) obj;
-                  final Future<JsonRpcResponse> fut = Future.future();
-                  vertx.executeBlocking(
-                      future -> future.complete(process(req)),
-                      false,
-                      ar -> {
-                        if (ar.failed()) {
-                          fut.fail(ar.cause());
-                        } else {
-                          fut.complete((JsonRpcResponse) ar.result());
-                        }
-                      });
-                  return fut;
+                  return execute((JsonObject) obj);
                 })
             .collect(toList());
+    final List<Boolean> traced =
+        jsonArray
+            .stream()
+            .map(
+                obj ->
+                    obj instanceof JsonObject
+                        && RpcMethodClass.forMethod(methodName((JsonObject) obj))
+                            == RpcMethodClass.TRACING)
+            .collect(toList());
 
     CompositeFuture.all(responses)
         .setHandler(
@@ -346,22 +410,122 @@ public class JsonRpcHttpService {
                     .end();
                 return;
               }
-              final JsonRpcResponse[] completed =
-                  res.result()
-                      .list()
-                      .stream()
-                      .map(JsonRpcResponse.class::cast)
-                      .filter(r -> isNonEmptyResponses(r))
-                      .toArray(JsonRpcResponse[]::new);
-
-              routingContext.response().end(Json.encode(completed));
+              final List<JsonRpcResponse> completed = new ArrayList<>();
+              final List<Integer> tracedIndices = new ArrayList<>();
+              for (int i = 0; i < responses.size(); ++i) {
+                final JsonRpcResponse response = res.result().resultAt(i);
+                if (isNonEmptyResponses(response)) {
+                  if (traced.get(i)) {
+                    tracedIndices.add(completed.size());
+                  }
+                  completed.add(response);
+                }
+              }
+
+              writeBatchResponse(routingContext, completed, tracedIndices);
             });
   }
 
+  /**
+   * Writes the responses to a batch request. Traces are only computed as their results are
+   * serialised, so a batch with tracing requests is written on the tracing pool. If that pool's
+   * queue is full, the tracing requests are answered with {@link JsonRpcError#SERVER_BUSY}
+   * instead, as they haven't been traced yet.
+   */
+  private void writeBatchResponse(
+      final RoutingContext routingContext,
+      final List<JsonRpcResponse> responses,
+      final List<Integer> tracedIndices) {
+    if (!tracedIndices.isEmpty()) {
+      final JsonRpcResponse[] body = responses.toArray(new JsonRpcResponse[0]);
+      try {
+        workerPools.execute(
+            RpcMethodClass.TRACING,
+            () -> writeResponse(routingContext, body, null, Json.mapper));
+        return;
+      } catch (final RejectedExecutionException e) {
+        LOG.debug("Rejecting traces in batch request, the TRACING worker queue is full");
+        for (final int i : tracedIndices) {
+          final JsonRpcResponse response = responses.get(i);
+          if (response.getType() == JsonRpcResponseType.SUCCESS) {
+            final Object id = ((JsonRpcSuccessResponse) response).getId();
+            responses.set(i, errorResponse(id, JsonRpcError.SERVER_BUSY));
+          }
+        }
+      }
+    }
+    final JsonRpcResponse[] body = responses.toArray(new JsonRpcResponse[0]);
+    vertx.<Void>executeBlocking(
+        future -> {
+          writeResponse(routingContext, body, null, Json.mapper);
+          future.complete();
+        },
+        false,
+        res -> {});
+  }
+
   private boolean isNonEmptyResponses(final JsonRpcResponse result) {
     return result.getType() != JsonRpcResponseType.NONE;
   }
 
+  /**
+   * Processes a request on the worker pool of its method class, completing the returned future on
+   * the caller's context.
+   */
+  private Future<JsonRpcResponse> execute(final JsonObject requestJson) {
+    final Future<JsonRpcResponse> result = Future.future();
+    final Context context = vertx.getOrCreateContext();
+    execute(requestJson, res -> context.runOnContext(v -> result.handle(res)));
+    return result;
+  }
+
+  /**
+   * Processes a request on the worker pool of its method class, and passes its response to the
+   * handler on the worker thread. A request is answered with {@link JsonRpcError#SERVER_BUSY}
+   * straight away, on the caller's thread, if that pool's queue is full.
+   */
+  private void execute(
+      final JsonObject requestJson, final Handler<AsyncResult<JsonRpcResponse>> handler) {
+    final String methodName = methodName(requestJson);
+    final RpcMethodClass methodClass = RpcMethodClass.forMethod(methodName);
+    final TimingContext queueTime = queueTimer.labels(methodName).startTimer();
+    try {
+      workerPools.execute(
+          methodClass,
+          () -> {
+            queueTime.stopTimer();
+            AsyncResult<JsonRpcResponse> response;
+            try {
+              response = Future.succeededFuture(process(requestJson));
+            } catch (final RuntimeException e) {
+              response = Future.failedFuture(e);
+            }
+            handler.handle(response);
+          });
+    } catch (final RejectedExecutionException e) {
+      LOG.debug("Rejecting {} request, the {} worker queue is full", methodName, methodClass);
+      rejectedRequests.labels(methodName).inc();
+      handler.handle(
+          Future.succeededFuture(errorResponse(requestId(requestJson), JsonRpcError.SERVER_BUSY)));
+    }
+  }
+
+  private String methodName(final JsonObject requestJson) {
+    final Object method = requestJson.getValue("method");
+    // Metrics are only labelled with the names of existing methods, the rest is up to clients.
+    return method instanceof String && jsonRpcMethods.containsKey(method)
+        ? (String) method
+        : UNKNOWN_METHOD;
+  }
+
+  private Object requestId(final JsonObject requestJson) {
+    try {
+      return new JsonRpcRequestId(requestJson.getValue("id")).getValue();
+    } catch (final IllegalArgumentException e) {
+      return null;
+    }
+  }
+
   private JsonRpcResponse process(final JsonObject requestJson) {
     final JsonRpcRequest request;
     Object id = null;
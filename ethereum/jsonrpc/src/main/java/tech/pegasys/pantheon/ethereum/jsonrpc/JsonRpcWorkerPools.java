@@ -0,0 +1,74 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.jsonrpc;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * One bounded worker pool per {@link RpcMethodClass}.
+ *
+ * <p>Each pool has a fixed number of threads and a bounded queue, sized from the {@link
+ * JsonRpcConfiguration}. Once a pool's queue is full, further requests of that class are rejected
+ * rather than queued, while the other classes are unaffected.
+ */
+class JsonRpcWorkerPools {
+
+  private final Map<RpcMethodClass, ThreadPoolExecutor> executors =
+      new EnumMap<>(RpcMethodClass.class);
+
+  JsonRpcWorkerPools(final JsonRpcConfiguration config) {
+    for (final RpcMethodClass methodClass : RpcMethodClass.values()) {
+      final int threads = config.getWorkerThreads(methodClass);
+      executors.put(
+          methodClass,
+          new ThreadPoolExecutor(
+              threads,
+              threads,
+              0L,
+              TimeUnit.MILLISECONDS,
+              new ArrayBlockingQueue<>(config.getQueueCapacity(methodClass)),
+              new ThreadFactoryBuilder()
+                  .setNameFormat(
+                      "jsonrpc-" + methodClass.name().toLowerCase(Locale.ROOT) + "-%d")
+                  .setDaemon(true)
+                  .build()));
+    }
+  }
+
+  /**
+   * Executes a task on the pool of a method class.
+   *
+   * @param methodClass the class of the method the task executes
+   * @param task the task
+   * @throws RejectedExecutionException if the pool's queue is full, or the pools are shut down
+   */
+  void execute(final RpcMethodClass methodClass, final Runnable task) {
+    executors.get(methodClass).execute(task);
+  }
+
+  int queuedTasks(final RpcMethodClass methodClass) {
+    return executors.get(methodClass).getQueue().size();
+  }
+
+  void shutdown() {
+    executors.values().forEach(ThreadPoolExecutor::shutdownNow);
+  }
+}
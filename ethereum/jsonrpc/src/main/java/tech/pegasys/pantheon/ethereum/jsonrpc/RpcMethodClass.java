@@ -0,0 +1,94 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.jsonrpc;
+
+import java.util.Set;
+
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * The classes of JSON-RPC methods that are executed on separate worker pools, so a flood of
+ * expensive requests of one class doesn't starve the others.
+ */
+public enum RpcMethodClass {
+  /** Methods answered from in-memory state, such as {@code eth_blockNumber}. */
+  CHEAP_READ(4, 1000),
+  /** Methods that read blocks, receipts or world state. */
+  STATE_READ(8, 1000),
+  /** Tracing methods, and log queries over unbounded block ranges. */
+  TRACING(2, 64),
+  /** Methods that submit transactions or change the node's behaviour. */
+  WRITE(4, 1000);
+
+  private static final Set<String> CHEAP_READS =
+      ImmutableSet.of(
+          "eth_accounts",
+          "eth_blockNumber",
+          "eth_chainId",
+          "eth_coinbase",
+          "eth_gasPrice",
+          "eth_getFilterChanges",
+          "eth_getWork",
+          "eth_hashrate",
+          "eth_mining",
+          "eth_newBlockFilter",
+          "eth_newFilter",
+          "eth_newPendingTransactionFilter",
+          "eth_protocolVersion",
+          "eth_syncing",
+          "eth_uninstallFilter",
+          "admin_peers",
+          "debug_metrics");
+
+  private static final Set<String> TRACES = ImmutableSet.of("eth_getLogs", "eth_getFilterLogs");
+
+  private static final Set<String> WRITES =
+      ImmutableSet.of(
+          "eth_sendRawTransaction",
+          "eth_sendTransaction",
+          "eth_submitHashrate",
+          "eth_submitWork",
+          "clique_discard",
+          "clique_propose",
+          "ibft_discardValidatorVote",
+          "ibft_proposeValidatorVote");
+
+  private final int defaultWorkerThreads;
+  private final int defaultQueueCapacity;
+
+  RpcMethodClass(final int defaultWorkerThreads, final int defaultQueueCapacity) {
+    this.defaultWorkerThreads = defaultWorkerThreads;
+    this.defaultQueueCapacity = defaultQueueCapacity;
+  }
+
+  public int getDefaultWorkerThreads() {
+    return defaultWorkerThreads;
+  }
+
+  public int getDefaultQueueCapacity() {
+    return defaultQueueCapacity;
+  }
+
+  public static RpcMethodClass forMethod(final String methodName) {
+    if (CHEAP_READS.contains(methodName)
+        || methodName.startsWith("net_")
+        || methodName.startsWith("web3_")) {
+      return CHEAP_READ;
+    } else if (TRACES.contains(methodName) || methodName.startsWith("debug_")) {
+      return TRACING;
+    } else if (WRITES.contains(methodName) || methodName.startsWith("miner_")) {
+      return WRITE;
+    }
+    return STATE_READ;
+  }
+}
@@ -16,16 +16,22 @@ import static com.google.common.base.Preconditions.checkNotNull;
 
 import tech.pegasys.pantheon.ethereum.chain.BlockAddedEvent;
 import tech.pegasys.pantheon.ethereum.chain.Blockchain;
+import tech.pegasys.pantheon.ethereum.core.Block;
 import tech.pegasys.pantheon.ethereum.core.Hash;
+import tech.pegasys.pantheon.ethereum.core.Log;
 import tech.pegasys.pantheon.ethereum.core.Transaction;
 import tech.pegasys.pantheon.ethereum.core.TransactionPool;
+import tech.pegasys.pantheon.ethereum.core.TransactionReceipt;
 import tech.pegasys.pantheon.ethereum.jsonrpc.internal.parameters.BlockParameter;
 import tech.pegasys.pantheon.ethereum.jsonrpc.internal.queries.BlockchainQueries;
 import tech.pegasys.pantheon.ethereum.jsonrpc.internal.queries.LogWithMetadata;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 import com.google.common.annotations.VisibleForTesting;
 import io.vertx.core.AbstractVerticle;
@@ -133,19 +139,64 @@ public class FilterManager extends AbstractVerticle {
           }
         });
 
-    checkBlockchainForMatchingLogsForFilters();
+    if (event.isNewCanonicalHead()) {
+      checkBlockForMatchingLogsForFilters(event, blockchain);
+    }
   }
 
-  private void checkBlockchainForMatchingLogsForFilters() {
-    final Collection<LogFilter> logFilters = filterRepository.getFiltersOfType(LogFilter.class);
-    logFilters.forEach(
-        (filter) -> {
-          final long headBlockNumber = blockchainQueries.headBlockNumber();
-          final long toBlockNumber =
-              filter.getToBlock().getNumber().orElse(blockchainQueries.headBlockNumber());
-          final List<LogWithMetadata> logs =
-              blockchainQueries.matchingLogs(headBlockNumber, toBlockNumber, filter.getLogsQuery());
-          filter.addLog(logs);
+  private void checkBlockForMatchingLogsForFilters(
+      final BlockAddedEvent event, final Blockchain blockchain) {
+    final Block block = event.getBlock();
+    final long blockNumber = block.getHeader().getNumber();
+    if (!filterRepository.hasLogFilters()) {
+      return;
+    }
+
+    // The receipts the block was imported with are used when available, so matching the logs of
+    // all the filters takes a single pass over the block, without reading it back from storage.
+    final Optional<List<TransactionReceipt>> maybeReceipts =
+        event.getTransactionReceipts().isPresent()
+            ? event.getTransactionReceipts()
+            : blockchain.getTxReceipts(block.getHash());
+    if (!maybeReceipts.isPresent()) {
+      return;
+    }
+    final List<TransactionReceipt> receipts = maybeReceipts.get();
+    final List<Transaction> transactions = block.getBody().getTransactions();
+
+    final Map<LogFilter, List<LogWithMetadata>> matchingLogs = new HashMap<>();
+    for (int transactionIndex = 0; transactionIndex < receipts.size(); ++transactionIndex) {
+      final List<Log> logs = receipts.get(transactionIndex).getLogs();
+      for (int logIndex = 0; logIndex < logs.size(); ++logIndex) {
+        final Log log = logs.get(logIndex);
+        final List<LogFilter> matchingFilters = filterRepository.getLogFiltersMatching(log);
+        matchingFilters.removeIf(
+            filter -> filter.getToBlock().getNumber().orElse(blockNumber) < blockNumber);
+        if (matchingFilters.isEmpty()) {
+          continue;
+        }
+        final LogWithMetadata logWithMetadata =
+            LogWithMetadata.create(
+                logIndex,
+                blockNumber,
+                block.getHash(),
+                transactions.get(transactionIndex).hash(),
+                transactionIndex,
+                log.getLogger(),
+                log.getData(),
+                log.getTopics(),
+                false);
+        for (final LogFilter filter : matchingFilters) {
+          matchingLogs.computeIfAbsent(filter, f -> new ArrayList<>()).add(logWithMetadata);
+        }
+      }
+    }
+
+    matchingLogs.forEach(
+        (filter, logs) -> {
+          synchronized (filter) {
+            filter.addLog(logs);
+          }
         });
   }
 
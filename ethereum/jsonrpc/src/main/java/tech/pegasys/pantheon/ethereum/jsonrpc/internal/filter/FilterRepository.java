@@ -12,8 +12,11 @@
  */
 package tech.pegasys.pantheon.ethereum.jsonrpc.internal.filter;
 
+import tech.pegasys.pantheon.ethereum.core.Log;
+
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
@@ -23,6 +26,8 @@ import java.util.stream.Stream;
 public class FilterRepository {
 
   private final Map<String, Filter> filters = new ConcurrentHashMap<>();
+  // Kept up to date as log filters are saved and deleted, and guarded by its own monitor.
+  private final LogsQueryIndex<LogFilter> logFilterIndex = new LogsQueryIndex<>();
 
   public FilterRepository() {}
 
@@ -57,6 +62,24 @@ public class FilterRepository {
     return Optional.of((T) filter);
   }
 
+  /**
+   * Returns the log filters whose query matches a log.
+   *
+   * @param log the log to match
+   * @return the matching log filters
+   */
+  List<LogFilter> getLogFiltersMatching(final Log log) {
+    synchronized (logFilterIndex) {
+      return logFilterIndex.matching(log);
+    }
+  }
+
+  boolean hasLogFilters() {
+    synchronized (logFilterIndex) {
+      return !logFilterIndex.isEmpty();
+    }
+  }
+
   boolean exists(final String id) {
     return filters.containsKey(id);
   }
@@ -72,13 +95,28 @@ public class FilterRepository {
     }
 
     filters.put(filter.getId(), filter);
+    if (filter instanceof LogFilter) {
+      final LogFilter logFilter = (LogFilter) filter;
+      synchronized (logFilterIndex) {
+        logFilterIndex.add(logFilter, logFilter.getLogsQuery());
+      }
+    }
   }
 
   void delete(final String id) {
-    filters.remove(id);
+    final Filter filter = filters.remove(id);
+    if (filter instanceof LogFilter) {
+      final LogFilter logFilter = (LogFilter) filter;
+      synchronized (logFilterIndex) {
+        logFilterIndex.remove(logFilter, logFilter.getLogsQuery());
+      }
+    }
   }
 
   void deleteAll() {
     filters.clear();
+    synchronized (logFilterIndex) {
+      logFilterIndex.clear();
+    }
   }
 }
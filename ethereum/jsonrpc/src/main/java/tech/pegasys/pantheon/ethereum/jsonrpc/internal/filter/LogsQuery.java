@@ -15,27 +15,81 @@ package tech.pegasys.pantheon.ethereum.jsonrpc.internal.filter;
 import tech.pegasys.pantheon.ethereum.core.Address;
 import tech.pegasys.pantheon.ethereum.core.Log;
 import tech.pegasys.pantheon.ethereum.core.LogTopic;
+import tech.pegasys.pantheon.ethereum.core.LogsBloomFilter;
 import tech.pegasys.pantheon.ethereum.jsonrpc.internal.parameters.TopicsParameter;
+import tech.pegasys.pantheon.util.bytes.BytesValue;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
 
 public class LogsQuery {
 
   private final List<Address> queryAddresses;
   private final List<List<LogTopic>> queryTopics;
+  private final List<List<BytesValue>> bloomCriteria;
 
   private LogsQuery(final List<Address> addresses, final List<List<LogTopic>> topics) {
     this.queryAddresses = addresses;
     this.queryTopics = topics;
+    this.bloomCriteria = bloomCriteria(addresses, topics);
+  }
+
+  private static List<List<BytesValue>> bloomCriteria(
+      final List<Address> addresses, final List<List<LogTopic>> topics) {
+    final List<List<BytesValue>> criteria = new ArrayList<>();
+    if (!addresses.isEmpty()) {
+      criteria.add(ImmutableList.copyOf(addresses));
+    }
+    for (final List<LogTopic> alternatives : topics) {
+      // A null topic matches anything, so it doesn't constrain the bloom filter.
+      if (!alternatives.contains(null)) {
+        criteria.add(ImmutableList.copyOf(alternatives));
+      }
+    }
+    return ImmutableList.copyOf(criteria);
   }
 
   public boolean matches(final Log log) {
     return matchesAddresses(log.getLogger()) && matchesTopics(log.getTopics());
   }
 
+  /**
+   * Whether a block could contain logs matching this query, judging from its logs bloom filter.
+   *
+   * @param bloom the logs bloom filter of the block
+   * @return {@code false} if the block definitely contains no matching log
+   */
+  public boolean couldMatch(final LogsBloomFilter bloom) {
+    for (final List<BytesValue> alternatives : bloomCriteria) {
+      if (alternatives.stream().noneMatch(bloom::couldContain)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Returns the values a block's logs bloom filter must contain for the block to contain logs
+   * matching this query: at least one value of each of the returned lists.
+   *
+   * @return the bloom filter criteria of this query, empty if any block could match
+   */
+  public List<List<BytesValue>> getBloomCriteria() {
+    return bloomCriteria;
+  }
+
+  List<Address> getAddresses() {
+    return queryAddresses;
+  }
+
+  List<List<LogTopic>> getTopics() {
+    return queryTopics;
+  }
+
   private boolean matchesAddresses(final Address address) {
     return queryAddresses.isEmpty() || queryAddresses.contains(address);
   }
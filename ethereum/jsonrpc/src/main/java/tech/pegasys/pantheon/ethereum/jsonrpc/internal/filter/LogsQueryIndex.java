@@ -0,0 +1,148 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.jsonrpc.internal.filter;
+
+import tech.pegasys.pantheon.ethereum.core.Address;
+import tech.pegasys.pantheon.ethereum.core.Log;
+import tech.pegasys.pantheon.ethereum.core.LogTopic;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An index of {@link LogsQuery} instances by the addresses and topics they match, used to find the
+ * queries matching a log without testing it against every query.
+ *
+ * <p>A query is indexed under its addresses if it has any, otherwise under the values of its first
+ * topic position that doesn't match any topic. Only the queries indexed under the log's address or
+ * one of its topics, and the queries that match any log, are tested against a log.
+ *
+ * @param <T> the type of the values associated with the queries
+ */
+public class LogsQueryIndex<T> {
+
+  private final Map<Address, List<Entry<T>>> byAddress = new HashMap<>();
+  private final Map<LogTopic, List<Entry<T>>> byTopic = new HashMap<>();
+  private final List<Entry<T>> unindexed = new ArrayList<>();
+
+  /**
+   * Adds a query to the index.
+   *
+   * @param value the value returned when a log matches the query
+   * @param query the query
+   */
+  public void add(final T value, final LogsQuery query) {
+    final Entry<T> entry = new Entry<>(value, query);
+    if (!query.getAddresses().isEmpty()) {
+      for (final Address address : query.getAddresses()) {
+        byAddress.computeIfAbsent(address, a -> new ArrayList<>()).add(entry);
+      }
+      return;
+    }
+    for (final List<LogTopic> alternatives : query.getTopics()) {
+      if (!alternatives.contains(null)) {
+        for (final LogTopic topic : alternatives) {
+          byTopic.computeIfAbsent(topic, t -> new ArrayList<>()).add(entry);
+        }
+        return;
+      }
+    }
+    unindexed.add(entry);
+  }
+
+  /**
+   * Removes a query from the index.
+   *
+   * @param value the value the query was added with
+   * @param query the query, as it was added
+   */
+  public void remove(final T value, final LogsQuery query) {
+    if (!query.getAddresses().isEmpty()) {
+      for (final Address address : query.getAddresses()) {
+        removeFrom(byAddress, address, value);
+      }
+      return;
+    }
+    for (final List<LogTopic> alternatives : query.getTopics()) {
+      if (!alternatives.contains(null)) {
+        for (final LogTopic topic : alternatives) {
+          removeFrom(byTopic, topic, value);
+        }
+        return;
+      }
+    }
+    unindexed.removeIf(entry -> entry.value.equals(value));
+  }
+
+  private static <K, T> void removeFrom(
+      final Map<K, List<Entry<T>>> index, final K key, final T value) {
+    final List<Entry<T>> entries = index.get(key);
+    if (entries != null) {
+      entries.removeIf(entry -> entry.value.equals(value));
+      if (entries.isEmpty()) {
+        index.remove(key);
+      }
+    }
+  }
+
+  public void clear() {
+    byAddress.clear();
+    byTopic.clear();
+    unindexed.clear();
+  }
+
+  public boolean isEmpty() {
+    return byAddress.isEmpty() && byTopic.isEmpty() && unindexed.isEmpty();
+  }
+
+  /**
+   * Returns the values of the queries matching a log.
+   *
+   * @param log the log to match
+   * @return the values of the matching queries, each at most once
+   */
+  public List<T> matching(final Log log) {
+    final Set<Entry<T>> candidates = new LinkedHashSet<>(unindexed);
+    candidates.addAll(byAddress.getOrDefault(log.getLogger(), Collections.emptyList()));
+    for (final LogTopic topic : log.getTopics()) {
+      candidates.addAll(byTopic.getOrDefault(topic, Collections.emptyList()));
+    }
+    if (candidates.isEmpty()) {
+      return Collections.emptyList();
+    }
+
+    final List<T> matching = new ArrayList<>(candidates.size());
+    for (final Entry<T> candidate : candidates) {
+      if (candidate.query.matches(log)) {
+        matching.add(candidate.value);
+      }
+    }
+    return matching;
+  }
+
+  private static class Entry<T> {
+
+    private final T value;
+    private final LogsQuery query;
+
+    Entry(final T value, final LogsQuery query) {
+      this.value = value;
+      this.query = query;
+    }
+  }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.jsonrpc.internal.methods;
+
+import tech.pegasys.pantheon.ethereum.core.Hash;
+import tech.pegasys.pantheon.ethereum.debug.TraceOptions;
+import tech.pegasys.pantheon.ethereum.jsonrpc.internal.JsonRpcRequest;
+import tech.pegasys.pantheon.ethereum.jsonrpc.internal.parameters.BlockParameter;
+import tech.pegasys.pantheon.ethereum.jsonrpc.internal.parameters.JsonRpcParameter;
+import tech.pegasys.pantheon.ethereum.jsonrpc.internal.processor.TransactionTraceParams;
+import tech.pegasys.pantheon.ethereum.jsonrpc.internal.processor.TransactionTracer;
+import tech.pegasys.pantheon.ethereum.jsonrpc.internal.queries.BlockchainQueries;
+import tech.pegasys.pantheon.ethereum.jsonrpc.internal.results.StreamingDebugTraceBlockResult;
+
+import java.util.Optional;
+
+public class DebugTraceBlockByNumber extends AbstractBlockParameterMethod {
+
+  private final TransactionTracer transactionTracer;
+
+  public DebugTraceBlockByNumber(
+      final BlockchainQueries blockchain,
+      final TransactionTracer transactionTracer,
+      final JsonRpcParameter parameters) {
+    super(blockchain, parameters);
+    this.transactionTracer = transactionTracer;
+  }
+
+  @Override
+  public String getName() {
+    return "debug_traceBlockByNumber";
+  }
+
+  @Override
+  protected BlockParameter blockParameter(final JsonRpcRequest request) {
+    return parameters().required(request.getParams(), 0, BlockParameter.class);
+  }
+
+  @Override
+  protected Object resultByBlockNumber(final JsonRpcRequest request, final long blockNumber) {
+    final Optional<Hash> blockHash = blockchainQueries().getBlockHashByNumber(blockNumber);
+    if (!blockHash.isPresent()) {
+      return null;
+    }
+    final TraceOptions traceOptions =
+        parameters()
+            .optional(request.getParams(), 1, TransactionTraceParams.class)
+            .map(TransactionTraceParams::traceOptions)
+            .orElse(TraceOptions.DEFAULT);
+
+    // The block is executed once, as the response is written on a tracing worker.
+    return new StreamingDebugTraceBlockResult(
+        (frameConsumer, traceConsumer) ->
+            transactionTracer.traceBlock(
+                blockHash.get(), traceOptions, frameConsumer, traceConsumer));
+  }
+}
@@ -22,8 +22,7 @@ import tech.pegasys.pantheon.ethereum.jsonrpc.internal.queries.BlockchainQueries
 import tech.pegasys.pantheon.ethereum.jsonrpc.internal.queries.TransactionWithMetadata;
 import tech.pegasys.pantheon.ethereum.jsonrpc.internal.response.JsonRpcResponse;
 import tech.pegasys.pantheon.ethereum.jsonrpc.internal.response.JsonRpcSuccessResponse;
-import tech.pegasys.pantheon.ethereum.jsonrpc.internal.results.DebugTraceTransactionResult;
-import tech.pegasys.pantheon.ethereum.vm.DebugOperationTracer;
+import tech.pegasys.pantheon.ethereum.jsonrpc.internal.results.StreamingDebugTraceTransactionResult;
 
 import java.util.Optional;
 
@@ -60,13 +59,12 @@ public class DebugTraceTransaction implements JsonRpcMethod {
             .map(TransactionTraceParams::traceOptions)
             .orElse(TraceOptions.DEFAULT);
 
-    final DebugOperationTracer execTracer = new DebugOperationTracer(traceOptions);
-
-    final DebugTraceTransactionResult result =
-        transactionTracer
-            .traceTransaction(blockHash, hash, execTracer)
-            .map(DebugTraceTransactionResult::new)
-            .orElse(null);
+    // The transaction is traced as the response is written, by the tracing worker that handled the
+    // request, so frames don't pile up in memory.
+    final StreamingDebugTraceTransactionResult result =
+        new StreamingDebugTraceTransactionResult(
+            frameConsumer ->
+                transactionTracer.traceTransaction(blockHash, hash, traceOptions, frameConsumer));
     return new JsonRpcSuccessResponse(request.getId(), result);
   }
 }
@@ -29,17 +29,30 @@ import java.util.function.Function;
 
 public class EthEstimateGas implements JsonRpcMethod {
 
+  // Enough to search the whole range of an 8M block gas limit down to the exact gas.
+  public static final int DEFAULT_MAX_ITERATIONS = 24;
+
   private final BlockchainQueries blockchainQueries;
   private final TransientTransactionProcessor transientTransactionProcessor;
   private final JsonRpcParameter parameters;
+  private final int maxIterations;
 
   public EthEstimateGas(
       final BlockchainQueries blockchainQueries,
       final TransientTransactionProcessor transientTransactionProcessor,
       final JsonRpcParameter parameters) {
+    this(blockchainQueries, transientTransactionProcessor, parameters, DEFAULT_MAX_ITERATIONS);
+  }
+
+  public EthEstimateGas(
+      final BlockchainQueries blockchainQueries,
+      final TransientTransactionProcessor transientTransactionProcessor,
+      final JsonRpcParameter parameters,
+      final int maxIterations) {
     this.blockchainQueries = blockchainQueries;
     this.transientTransactionProcessor = transientTransactionProcessor;
     this.parameters = parameters;
+    this.maxIterations = maxIterations;
   }
 
   @Override
@@ -61,7 +74,7 @@ public class EthEstimateGas implements JsonRpcMethod {
         overrideGasLimitAndPrice(callParams, blockHeader.getGasLimit());
 
     return transientTransactionProcessor
-        .process(modifiedCallParams, blockHeader.getNumber())
+        .estimateGas(modifiedCallParams, blockHeader.getNumber(), maxIterations)
         .map(gasEstimateResponse(request))
         .orElse(errorResponse(request));
   }
@@ -84,8 +97,12 @@ public class EthEstimateGas implements JsonRpcMethod {
 
   private Function<TransientTransactionProcessingResult, JsonRpcResponse> gasEstimateResponse(
       final JsonRpcRequest request) {
+    // A call which fails even with the block gas limit is estimated at the gas it used.
     return result ->
-        new JsonRpcSuccessResponse(request.getId(), Quantity.create(result.getGasEstimate()));
+        new JsonRpcSuccessResponse(
+            request.getId(),
+            Quantity.create(
+                result.isSuccessful() ? result.getGasLimit() : result.getGasEstimate()));
   }
 
   private JsonRpcErrorResponse errorResponse(final JsonRpcRequest request) {
@@ -13,11 +13,13 @@
 package tech.pegasys.pantheon.ethereum.jsonrpc.internal.processor;
 
 import tech.pegasys.pantheon.ethereum.chain.Blockchain;
+import tech.pegasys.pantheon.ethereum.core.Address;
 import tech.pegasys.pantheon.ethereum.core.BlockBody;
 import tech.pegasys.pantheon.ethereum.core.BlockHeader;
 import tech.pegasys.pantheon.ethereum.core.Hash;
 import tech.pegasys.pantheon.ethereum.core.MutableWorldState;
 import tech.pegasys.pantheon.ethereum.core.Transaction;
+import tech.pegasys.pantheon.ethereum.core.WorldUpdater;
 import tech.pegasys.pantheon.ethereum.db.WorldStateArchive;
 import tech.pegasys.pantheon.ethereum.mainnet.ProtocolSchedule;
 import tech.pegasys.pantheon.ethereum.mainnet.ProtocolSpec;
@@ -79,6 +81,55 @@ public class BlockReplay {
     return Optional.empty();
   }
 
+  /**
+   * Executes all the transactions of a block once, in order, from the state of its parent.
+   *
+   * <p>Each transaction is handed to the action, which executes it against the given updater. The
+   * updater is committed once the action returns, so every transaction sees the effects of the
+   * ones before it. Processing a whole block this way is linear in its number of transactions,
+   * whereas replaying each transaction with {@link #beforeTransactionInBlock(Hash, Hash, Action)}
+   * is quadratic.
+   *
+   * @param blockHash the hash of the block
+   * @param action executes each transaction
+   * @return {@code false} if the block or its parent isn't available, in which case the action is
+   *     never called
+   */
+  public boolean forEachTransaction(final Hash blockHash, final TransactionAction action) {
+    final BlockHeader header = blockchain.getBlockHeader(blockHash).orElse(null);
+    if (header == null) {
+      return false;
+    }
+    final BlockBody body = blockchain.getBlockBody(header.getHash()).orElse(null);
+    if (body == null) {
+      return false;
+    }
+    final BlockHeader previous = blockchain.getBlockHeader(header.getParentHash()).orElse(null);
+    if (previous == null) {
+      return false;
+    }
+    final ProtocolSpec<?> protocolSpec = protocolSchedule.getByBlockNumber(header.getNumber());
+    final TransactionProcessor transactionProcessor = protocolSpec.getTransactionProcessor();
+    final Address miningBeneficiary =
+        protocolSpec.getMiningBeneficiaryCalculator().calculateBeneficiary(header);
+    final MutableWorldState mutableWorldState =
+        worldStateArchive.getMutable(previous.getStateRoot());
+    final BlockHashLookup blockHashLookup = new BlockHashLookup(header, blockchain);
+    for (final Transaction transaction : body.getTransactions()) {
+      final WorldUpdater updater = mutableWorldState.updater();
+      action.performAction(
+          transaction,
+          header,
+          blockchain,
+          updater,
+          transactionProcessor,
+          miningBeneficiary,
+          blockHashLookup);
+      updater.commit();
+    }
+    return true;
+  }
+
   public <T> Optional<T> afterTransactionInBlock(
       final Hash blockHash, final Hash transactionHash, final Action<T> action) {
     return beforeTransactionInBlock(
@@ -107,4 +158,16 @@ public class BlockReplay {
         MutableWorldState worldState,
         TransactionProcessor transactionProcessor);
   }
+
+  public interface TransactionAction {
+
+    void performAction(
+        Transaction transaction,
+        BlockHeader blockHeader,
+        Blockchain blockchain,
+        WorldUpdater worldUpdater,
+        TransactionProcessor transactionProcessor,
+        Address miningBeneficiary,
+        BlockHashLookup blockHashLookup);
+  }
 }
@@ -13,11 +13,14 @@
 package tech.pegasys.pantheon.ethereum.jsonrpc.internal.processor;
 
 import tech.pegasys.pantheon.ethereum.core.Hash;
+import tech.pegasys.pantheon.ethereum.debug.TraceFrame;
+import tech.pegasys.pantheon.ethereum.debug.TraceOptions;
 import tech.pegasys.pantheon.ethereum.mainnet.TransactionProcessor.Result;
 import tech.pegasys.pantheon.ethereum.vm.BlockHashLookup;
 import tech.pegasys.pantheon.ethereum.vm.DebugOperationTracer;
 
 import java.util.Optional;
+import java.util.function.Consumer;
 
 /** Used to produce debug traces of transactions */
 public class TransactionTracer {
@@ -28,6 +31,62 @@ public class TransactionTracer {
     this.blockReplay = blockReplay;
   }
 
+  /**
+   * Traces a transaction, passing each frame to a consumer as soon as its operation has executed.
+   *
+   * @param blockHash the hash of the block containing the transaction
+   * @param transactionHash the hash of the transaction
+   * @param options what to trace
+   * @param frameConsumer receives the trace frames
+   * @return the trace, whose frames are empty, or empty if the transaction can't be traced
+   */
+  public Optional<TransactionTrace> traceTransaction(
+      final Hash blockHash,
+      final Hash transactionHash,
+      final TraceOptions options,
+      final Consumer<TraceFrame> frameConsumer) {
+    return traceTransaction(
+        blockHash, transactionHash, new DebugOperationTracer(options, frameConsumer));
+  }
+
+  /**
+   * Traces all the transactions of a block, executing the block only once.
+   *
+   * @param blockHash the hash of the block
+   * @param options what to trace
+   * @param frameConsumer receives the trace frames of every transaction, in order
+   * @param traceConsumer receives the trace of each transaction once it has executed, after its
+   *     frames; the frames of the trace are empty
+   * @return {@code false} if the block can't be traced
+   */
+  public boolean traceBlock(
+      final Hash blockHash,
+      final TraceOptions options,
+      final Consumer<TraceFrame> frameConsumer,
+      final Consumer<TransactionTrace> traceConsumer) {
+    return blockReplay.forEachTransaction(
+        blockHash,
+        (transaction,
+            header,
+            blockchain,
+            worldUpdater,
+            transactionProcessor,
+            miningBeneficiary,
+            blockHashLookup) -> {
+          final DebugOperationTracer tracer = new DebugOperationTracer(options, frameConsumer);
+          final Result result =
+              transactionProcessor.processTransaction(
+                  blockchain,
+                  worldUpdater,
+                  header,
+                  transaction,
+                  miningBeneficiary,
+                  tracer,
+                  blockHashLookup);
+          traceConsumer.accept(new TransactionTrace(transaction, result, tracer.getTraceFrames()));
+        });
+  }
+
   public Optional<TransactionTrace> traceTransaction(
       final Hash blockHash, final Hash transactionHash, final DebugOperationTracer tracer) {
     return blockReplay.beforeTransactionInBlock(
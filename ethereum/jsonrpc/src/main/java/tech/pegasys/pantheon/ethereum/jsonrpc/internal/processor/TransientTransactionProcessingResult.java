@@ -34,6 +34,10 @@ public class TransientTransactionProcessingResult {
     return result.isSuccessful();
   }
 
+  public long getGasLimit() {
+    return transaction.getGasLimit();
+  }
+
   public long getGasEstimate() {
     return transaction.getGasLimit() - result.getGasRemaining();
   }
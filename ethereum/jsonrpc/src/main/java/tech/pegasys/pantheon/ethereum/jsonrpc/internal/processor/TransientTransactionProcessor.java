@@ -17,9 +17,10 @@ import tech.pegasys.pantheon.ethereum.chain.Blockchain;
 import tech.pegasys.pantheon.ethereum.core.Account;
 import tech.pegasys.pantheon.ethereum.core.Address;
 import tech.pegasys.pantheon.ethereum.core.BlockHeader;
-import tech.pegasys.pantheon.ethereum.core.MutableWorldState;
+import tech.pegasys.pantheon.ethereum.core.ReadTrackingWorldUpdater;
 import tech.pegasys.pantheon.ethereum.core.Transaction;
 import tech.pegasys.pantheon.ethereum.core.Wei;
+import tech.pegasys.pantheon.ethereum.core.WorldState;
 import tech.pegasys.pantheon.ethereum.db.WorldStateArchive;
 import tech.pegasys.pantheon.ethereum.jsonrpc.internal.parameters.CallParameter;
 import tech.pegasys.pantheon.ethereum.mainnet.ProtocolSchedule;
@@ -47,6 +48,9 @@ public class TransientTransactionProcessor {
   private static final Address DEFAULT_FROM =
       Address.fromHexString("0x0000000000000000000000000000000000000000");
 
+  // Gas given to the callee of a call transferring value on top of what the caller passes on.
+  private static final long CALL_STIPEND = 2_300L;
+
   private final Blockchain blockchain;
   private final WorldStateArchive worldStateArchive;
   private final ProtocolSchedule<?> protocolSchedule;
@@ -66,14 +70,78 @@ public class TransientTransactionProcessor {
     if (header == null) {
       return Optional.empty();
     }
-    final MutableWorldState worldState = worldStateArchive.getMutable(header.getStateRoot());
+    // The view is never modified, the updates of the transaction are buffered in an updater which
+    // is then discarded.
+    final WorldState worldState = worldStateArchive.get(header.getStateRoot());
+    return Optional.of(process(callParams, header, worldState, gasLimit(callParams, header)));
+  }
+
+  /**
+   * Searches for the lowest gas limit with which a call succeeds.
+   *
+   * <p>The call is first executed with the gas limit of {@code callParams}, or the block gas limit
+   * if none is given. If that fails, its result is returned. Otherwise the gas it used is a lower
+   * bound for the search, and is tried first as most calls succeed with exactly the gas they use.
+   * Calls which retain gas in nested calls, through the 63/64 rule or a call stipend, are tried
+   * with a little more than that next, which keeps the range of the binary search that follows
+   * small. All executions are against the same world state view.
+   *
+   * @param callParams the call
+   * @param blockNumber the number of the block to execute the call at
+   * @param maxIterations the maximum number of executions after the first one
+   * @return the result of the execution with the lowest succeeding gas limit found, or of the
+   *     first execution if it failed, or empty if the block doesn't exist
+   */
+  public Optional<TransientTransactionProcessingResult> estimateGas(
+      final CallParameter callParams, final long blockNumber, final int maxIterations) {
+    final BlockHeader header = blockchain.getBlockHeader(blockNumber).orElse(null);
+    if (header == null) {
+      return Optional.empty();
+    }
+    final WorldState worldState = worldStateArchive.get(header.getStateRoot());
+
+    final long upperBound = gasLimit(callParams, header);
+    TransientTransactionProcessingResult lowest =
+        process(callParams, header, worldState, upperBound);
+    if (!lowest.isSuccessful()) {
+      return Optional.of(lowest);
+    }
+
+    final long gasUsed = lowest.getGasEstimate();
+    // Refunds are only paid after execution, so the gas used can't cover less than itself.
+    long failing = gasUsed - 1;
+    long succeeding = upperBound;
+    long candidate = gasUsed;
+    for (int i = 0; i < maxIterations && succeeding - failing > 1; ++i) {
+      final TransientTransactionProcessingResult result =
+          process(callParams, header, worldState, candidate);
+      if (result.isSuccessful()) {
+        succeeding = candidate;
+        lowest = result;
+      } else {
+        failing = candidate;
+      }
+      candidate =
+          i == 0 && failing == gasUsed
+              ? Math.min(gasUsed + gasUsed / 63 + CALL_STIPEND, succeeding - 1)
+              : failing + (succeeding - failing) / 2;
+    }
+    return Optional.of(lowest);
+  }
+
+  private static long gasLimit(final CallParameter callParams, final BlockHeader header) {
+    return callParams.getGasLimit() >= 0 ? callParams.getGasLimit() : header.getGasLimit();
+  }
 
+  private TransientTransactionProcessingResult process(
+      final CallParameter callParams,
+      final BlockHeader header,
+      final WorldState worldState,
+      final long gasLimit) {
     final Address senderAddress =
         callParams.getFrom() != null ? callParams.getFrom() : DEFAULT_FROM;
     final Account sender = worldState.get(senderAddress);
     final long nonce = sender != null ? sender.getNonce() : 0L;
-    final long gasLimit =
-        callParams.getGasLimit() >= 0 ? callParams.getGasLimit() : header.getGasLimit();
     final Wei gasPrice = callParams.getGasPrice() != null ? callParams.getGasPrice() : Wei.ZERO;
     final Wei value = callParams.getValue() != null ? callParams.getValue() : Wei.ZERO;
     final BytesValue payload =
@@ -98,12 +166,12 @@ public class TransientTransactionProcessor {
     final TransactionProcessor.Result result =
         transactionProcessor.processTransaction(
             blockchain,
-            worldState.updater(),
+            new ReadTrackingWorldUpdater(worldState, Optional.empty()),
             header,
             transaction,
             protocolSpec.getMiningBeneficiaryCalculator().calculateBeneficiary(header),
             new BlockHashLookup(header, blockchain));
 
-    return Optional.of(new TransientTransactionProcessingResult(transaction, result));
+    return new TransientTransactionProcessingResult(transaction, result);
   }
 }
@@ -32,20 +32,52 @@ import tech.pegasys.pantheon.util.bytes.BytesValue;
 import tech.pegasys.pantheon.util.uint.UInt256;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 
 import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.MoreExecutors;
 
 public class BlockchainQueries {
 
   private final WorldStateArchive worldStateArchive;
   private final Blockchain blockchain;
+  private final Optional<LogBloomIndex> logBloomIndex;
+  private final Executor logSearchExecutor;
 
   public BlockchainQueries(final Blockchain blockchain, final WorldStateArchive worldStateArchive) {
+    this(blockchain, worldStateArchive, Optional.empty());
+  }
+
+  public BlockchainQueries(
+      final Blockchain blockchain,
+      final WorldStateArchive worldStateArchive,
+      final Optional<LogBloomIndex> logBloomIndex) {
+    this(blockchain, worldStateArchive, logBloomIndex, MoreExecutors.directExecutor());
+  }
+
+  /**
+   * Creates queries that search logs over block ranges on the given executor.
+   *
+   * @param blockchain the blockchain to query
+   * @param worldStateArchive the archive of world states to query
+   * @param logBloomIndex the index of log blooms, if any
+   * @param logSearchExecutor the bounded executor the sections of a log search run on
+   */
+  public BlockchainQueries(
+      final Blockchain blockchain,
+      final WorldStateArchive worldStateArchive,
+      final Optional<LogBloomIndex> logBloomIndex,
+      final Executor logSearchExecutor) {
     this.blockchain = blockchain;
     this.worldStateArchive = worldStateArchive;
+    this.logBloomIndex = logBloomIndex;
+    this.logSearchExecutor = logSearchExecutor;
   }
 
   public Blockchain getBlockchain() {
@@ -491,24 +523,61 @@ public class BlockchainQueries {
   }
 
   /**
-   * Retrieve logs from the range of blocks with optional filtering based on logger address and log
-   * topics.
+   * Returns the logs of the canonical chain between two blocks that match a query.
+   *
+   * <p>Blocks whose logs bloom filter shows they can't contain a matching log are skipped without
+   * reading their receipts, and if a {@link LogBloomIndex} is available, without reading their
+   * headers either. The range is searched in sections, which run on the log search executor.
    *
-   * @param fromBlockNumber The block number defining the first block in the search range
-   *     (inclusive).
-   * @param toBlockNumber The block number defining the last block in the search range (inclusive).
-   * @param query Constraints on required topics by topic index. For a given index if the set of
-   *     topics is non-empty, the topic at this index must match one of the values in the set.
-   * @return The set of logs matching the given constraints.
+   * @param fromBlockNumber the first block of the range
+   * @param toBlockNumber the last block of the range, inclusive
+   * @param query the query the logs must match
+   * @return the matching logs, in chain order
    */
   public List<LogWithMetadata> matchingLogs(
       final long fromBlockNumber, final long toBlockNumber, final LogsQuery query) {
     if (fromBlockNumber > toBlockNumber || toBlockNumber > headBlockNumber()) {
       return Lists.newArrayList();
     }
+    final long sectionSize =
+        logBloomIndex.map(LogBloomIndex::getSectionSize).orElse(LogBloomIndex.DEFAULT_SECTION_SIZE);
+    final List<CompletableFuture<List<LogWithMetadata>>> sections =
+        LongStream.rangeClosed(fromBlockNumber / sectionSize, toBlockNumber / sectionSize)
+            .mapToObj(
+                section ->
+                    CompletableFuture.supplyAsync(
+                        () ->
+                            matchingLogsInSection(
+                                section,
+                                Math.max(fromBlockNumber, section * sectionSize),
+                                Math.min(toBlockNumber, (section + 1) * sectionSize - 1),
+                                query),
+                        logSearchExecutor))
+            .collect(Collectors.toList());
+    return sections.stream()
+        .map(CompletableFuture::join)
+        .flatMap(List::stream)
+        .collect(Collectors.toList());
+  }
+
+  private List<LogWithMetadata> matchingLogsInSection(
+      final long section,
+      final long fromBlockNumber,
+      final long toBlockNumber,
+      final LogsQuery query) {
+    final Optional<BitSet> candidates =
+        logBloomIndex.flatMap(index -> index.candidateBlocks(section, query.getBloomCriteria()));
+    final long firstBlockNumber = logBloomIndex.map(index -> index.firstBlock(section)).orElse(0L);
     List<LogWithMetadata> matchingLogs = Lists.newArrayList();
     for (long blockNumber = fromBlockNumber; blockNumber <= toBlockNumber; blockNumber++) {
-      final Hash blockhash = blockchain.getBlockHashByNumber(blockNumber).get();
+      if (candidates.isPresent() && !candidates.get().get((int) (blockNumber - firstBlockNumber))) {
+        continue;
+      }
+      final BlockHeader header = blockchain.getBlockHeader(blockNumber).get();
+      if (!query.couldMatch(header.getLogsBloom())) {
+        continue;
+      }
+      final Hash blockhash = header.getHash();
       final boolean logHasBeenRemoved = !blockchain.blockIsOnCanonicalChain(blockhash);
       final List<TransactionReceipt> receipts = blockchain.getTxReceipts(blockhash).get();
       final List<Transaction> transaction =
@@ -0,0 +1,360 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.jsonrpc.internal.queries;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+import tech.pegasys.pantheon.ethereum.chain.BlockAddedEvent;
+import tech.pegasys.pantheon.ethereum.chain.BlockAddedObserver;
+import tech.pegasys.pantheon.ethereum.chain.Blockchain;
+import tech.pegasys.pantheon.ethereum.core.BlockHeader;
+import tech.pegasys.pantheon.ethereum.core.Hash;
+import tech.pegasys.pantheon.ethereum.core.LogsBloomFilter;
+import tech.pegasys.pantheon.util.bytes.Bytes32;
+import tech.pegasys.pantheon.util.bytes.BytesValue;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.google.common.annotations.VisibleForTesting;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * A persisted index of the logs bloom filters of the canonical chain, used to find the blocks that
+ * could contain logs matching a query without reading the header of every block.
+ *
+ * <p>The chain is divided in sections of {@link #DEFAULT_SECTION_SIZE} blocks, each indexed in its
+ * own file. The index of a section is bit-sliced: for each of the 2048 bits of a bloom filter, it
+ * holds a vector of that bit across all the blocks of the section. The blocks that could contain a
+ * value are found by reading the vectors of the three bits the value sets, a few sequential reads
+ * per section instead of one header read per block.
+ *
+ * <p>Sections are indexed in the background once their last block is 256 blocks behind the chain
+ * head. Each section file records the hash of the section's last block, so a section that was
+ * since reorganised out of the canonical chain is ignored and indexed again.
+ */
+public class LogBloomIndex implements BlockAddedObserver {
+
+  private static final Logger LOG = LogManager.getLogger();
+
+  public static final int DEFAULT_SECTION_SIZE = 4096;
+  private static final long DEFAULT_CONFIRMATIONS = 256;
+
+  private static final int BLOOM_BITS = LogsBloomFilter.BYTE_SIZE * 8;
+  private static final String SECTION_FILE_PREFIX = "section-";
+
+  private final Blockchain blockchain;
+  private final Path directory;
+  private final ExecutorService executor;
+  private final int sectionSize;
+  private final long confirmations;
+
+  private final AtomicBoolean indexing = new AtomicBoolean(false);
+  private final AtomicBoolean indexingRequested = new AtomicBoolean(false);
+  private final AtomicBoolean reorganised = new AtomicBoolean(false);
+  private volatile long completeSections = 0;
+  // The sections below this one are known to match the canonical chain, unless it was reorganised.
+  private volatile long indexedSections = 0;
+
+  public LogBloomIndex(
+      final Blockchain blockchain, final Path directory, final ExecutorService executor) {
+    this(blockchain, directory, executor, DEFAULT_SECTION_SIZE, DEFAULT_CONFIRMATIONS);
+  }
+
+  @VisibleForTesting
+  LogBloomIndex(
+      final Blockchain blockchain,
+      final Path directory,
+      final ExecutorService executor,
+      final int sectionSize,
+      final long confirmations) {
+    checkArgument(sectionSize > 0 && sectionSize % 8 == 0, "Section size must be a multiple of 8");
+    this.blockchain = blockchain;
+    this.directory = directory;
+    this.executor = executor;
+    this.sectionSize = sectionSize;
+    this.confirmations = confirmations;
+  }
+
+  public int getSectionSize() {
+    return sectionSize;
+  }
+
+  public long sectionOf(final long blockNumber) {
+    return blockNumber / sectionSize;
+  }
+
+  public long firstBlock(final long section) {
+    return section * sectionSize;
+  }
+
+  @Override
+  public void onBlockAdded(final BlockAddedEvent event, final Blockchain blockchain) {
+    if (!event.isNewCanonicalHead()) {
+      return;
+    }
+    final boolean reorg = event.getEventType() == BlockAddedEvent.EventType.CHAIN_REORG;
+    final long sections = completeSections(event.getBlock().getHeader().getNumber());
+    if (sections > completeSections || reorg) {
+      completeSections = sections;
+      if (reorg) {
+        reorganised.set(true);
+      }
+      indexingRequested.set(true);
+      scheduleIndexing();
+    }
+  }
+
+  private void scheduleIndexing() {
+    if (indexing.compareAndSet(false, true)) {
+      try {
+        executor.execute(this::indexSectionsInBackground);
+      } catch (final RejectedExecutionException e) {
+        indexing.set(false);
+        LOG.debug("Not indexing log blooms, the executor is shut down", e);
+      }
+    }
+  }
+
+  private void indexSectionsInBackground() {
+    try {
+      // Sections completed while a pass runs are left to the next pass, so none goes unindexed
+      // until the following section completes.
+      while (indexingRequested.getAndSet(false) && !executor.isShutdown()) {
+        long fromSection = indexedSections;
+        if (reorganised.getAndSet(false)) {
+          fromSection = firstReorganisedSection(fromSection);
+        }
+        indexedSections = indexSections(fromSection);
+      }
+    } catch (final RuntimeException e) {
+      LOG.warn("Failed to index log blooms", e);
+    } finally {
+      indexing.set(false);
+    }
+    // A request made after the last pass, but before the indexing flag was cleared, would be lost.
+    if (indexingRequested.get()) {
+      scheduleIndexing();
+    }
+  }
+
+  /**
+   * Indexes the complete sections of the canonical chain that are not indexed yet, or whose index
+   * no longer matches the canonical chain. Stops early once the executor is shut down.
+   */
+  public void indexSections() {
+    indexedSections = indexSections(0);
+  }
+
+  /** Returns the first section from which the canonical chain may not be indexed. */
+  private long indexSections(final long fromSection) {
+    final long sections = completeSections(blockchain.getChainHeadBlockNumber());
+    for (long section = fromSection; section < sections; ++section) {
+      if (executor.isShutdown()) {
+        return section;
+      }
+      if (!readSectionHead(section).equals(canonicalSectionHead(section))) {
+        try {
+          if (!indexSection(section)) {
+            return section;
+          }
+        } catch (final IOException e) {
+          LOG.warn("Failed to index the log blooms of blocks from {}", firstBlock(section), e);
+          return section;
+        }
+      }
+    }
+    return sections;
+  }
+
+  /**
+   * Finds the first section whose index was reorganised out of the canonical chain. A reorg only
+   * replaces the blocks after the common ancestor, so the sections are checked from the top down
+   * and the search stops at the section holding the common ancestor.
+   */
+  private long firstReorganisedSection(final long sections) {
+    long section = Math.min(sections, completeSections(blockchain.getChainHeadBlockNumber()));
+    while (section > 0 && !readSectionHead(section - 1).equals(canonicalSectionHead(section - 1))) {
+      --section;
+    }
+    return section;
+  }
+
+  /**
+   * Returns the blocks of a section that could contain logs matching the given criteria.
+   *
+   * @param section the section to search
+   * @param criteria the values the bloom of a matching block must contain: at least one value of
+   *     each list
+   * @return the offsets within the section of the candidate blocks, or empty if the section isn't
+   *     indexed or the criteria are empty
+   */
+  public Optional<BitSet> candidateBlocks(
+      final long section, final List<List<BytesValue>> criteria) {
+    if (criteria.isEmpty()) {
+      return Optional.empty();
+    }
+    final Optional<Hash> sectionHead = canonicalSectionHead(section);
+    if (!sectionHead.isPresent()) {
+      return Optional.empty();
+    }
+    try (final FileChannel channel = FileChannel.open(sectionFile(section))) {
+      if (!readHash(channel).equals(sectionHead.get())) {
+        return Optional.empty();
+      }
+      final Map<Integer, BitSet> vectors = new HashMap<>();
+      BitSet candidates = null;
+      for (final List<BytesValue> alternatives : criteria) {
+        final BitSet matching = new BitSet(sectionSize);
+        for (final BytesValue value : alternatives) {
+          BitSet containing = null;
+          for (final int bit : LogsBloomFilter.bitsOf(value)) {
+            final BitSet vector = vectors.computeIfAbsent(bit, b -> readVector(channel, b));
+            if (containing == null) {
+              containing = (BitSet) vector.clone();
+            } else {
+              containing.and(vector);
+            }
+          }
+          matching.or(containing);
+        }
+        if (candidates == null) {
+          candidates = matching;
+        } else {
+          candidates.and(matching);
+        }
+      }
+      return Optional.of(candidates);
+    } catch (final IOException | UncheckedIOException e) {
+      LOG.debug("Log bloom index of blocks from {} is unavailable", firstBlock(section), e);
+      return Optional.empty();
+    }
+  }
+
+  private boolean indexSection(final long section) throws IOException {
+    final byte[][] vectors = new byte[BLOOM_BITS][sectionSize / 8];
+    BlockHeader header = null;
+    for (int offset = 0; offset < sectionSize; ++offset) {
+      final Optional<BlockHeader> maybeHeader =
+          blockchain.getBlockHeader(firstBlock(section) + offset);
+      if (!maybeHeader.isPresent()) {
+        return false;
+      }
+      header = maybeHeader.get();
+      final BytesValue bloom = header.getLogsBloom().getBytes();
+      for (int i = 0; i < LogsBloomFilter.BYTE_SIZE; ++i) {
+        final int bits = bloom.get(i) & 0xFF;
+        if (bits == 0) {
+          continue;
+        }
+        for (int bitInByte = 0; bitInByte < 8; ++bitInByte) {
+          if ((bits & (1 << bitInByte)) != 0) {
+            final int bit = (LogsBloomFilter.BYTE_SIZE - 1 - i) * 8 + bitInByte;
+            vectors[bit][offset / 8] |= (byte) (1 << (offset % 8));
+          }
+        }
+      }
+    }
+    // Blocks may have been reorganised while the section was read, the last header is only
+    // recorded if the section is still part of the canonical chain.
+    if (!canonicalSectionHead(section).equals(Optional.of(header.getHash()))) {
+      return false;
+    }
+
+    Files.createDirectories(directory);
+    final Path tempFile = Files.createTempFile(directory, SECTION_FILE_PREFIX, ".tmp");
+    try {
+      try (final FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.WRITE)) {
+        writeFully(channel, ByteBuffer.wrap(header.getHash().extractArray()));
+        for (final byte[] vector : vectors) {
+          writeFully(channel, ByteBuffer.wrap(vector));
+        }
+      }
+      Files.move(tempFile, sectionFile(section), REPLACE_EXISTING, ATOMIC_MOVE);
+    } finally {
+      Files.deleteIfExists(tempFile);
+    }
+    LOG.debug("Indexed the log blooms of blocks from {}", firstBlock(section));
+    return true;
+  }
+
+  private Optional<Hash> readSectionHead(final long section) {
+    try (final FileChannel channel = FileChannel.open(sectionFile(section))) {
+      return Optional.of(readHash(channel));
+    } catch (final IOException e) {
+      return Optional.empty();
+    }
+  }
+
+  private Optional<Hash> canonicalSectionHead(final long section) {
+    return blockchain.getBlockHashByNumber(firstBlock(section + 1) - 1);
+  }
+
+  private static Hash readHash(final FileChannel channel) throws IOException {
+    final ByteBuffer buffer = ByteBuffer.allocate(Bytes32.SIZE);
+    readFully(channel, buffer, 0);
+    return Hash.wrap(Bytes32.wrap(buffer.array()));
+  }
+
+  private BitSet readVector(final FileChannel channel, final int bit) {
+    final int vectorBytes = sectionSize / 8;
+    final ByteBuffer buffer = ByteBuffer.allocate(vectorBytes);
+    try {
+      readFully(channel, buffer, Bytes32.SIZE + (long) bit * vectorBytes);
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    buffer.flip();
+    return BitSet.valueOf(buffer);
+  }
+
+  private static void readFully(
+      final FileChannel channel, final ByteBuffer buffer, final long position) throws IOException {
+    while (buffer.hasRemaining()) {
+      if (channel.read(buffer, position + buffer.position()) < 0) {
+        throw new IOException("Truncated log bloom index");
+      }
+    }
+  }
+
+  private static void writeFully(final FileChannel channel, final ByteBuffer buffer)
+      throws IOException {
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+  }
+
+  private Path sectionFile(final long section) {
+    return directory.resolve(SECTION_FILE_PREFIX + section);
+  }
+
+  private long completeSections(final long chainHead) {
+    return Math.max(0, chainHead + 1 - confirmations) / sectionSize;
+  }
+}
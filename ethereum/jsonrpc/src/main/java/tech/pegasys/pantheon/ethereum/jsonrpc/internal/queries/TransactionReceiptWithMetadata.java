@@ -12,10 +12,14 @@
  */
 package tech.pegasys.pantheon.ethereum.jsonrpc.internal.queries;
 
+import tech.pegasys.pantheon.ethereum.core.Block;
 import tech.pegasys.pantheon.ethereum.core.Hash;
 import tech.pegasys.pantheon.ethereum.core.Transaction;
 import tech.pegasys.pantheon.ethereum.core.TransactionReceipt;
 
+import java.util.ArrayList;
+import java.util.List;
+
 public class TransactionReceiptWithMetadata {
   private final TransactionReceipt receipt;
   private final Hash transactionHash;
@@ -54,6 +58,35 @@ public class TransactionReceiptWithMetadata {
         receipt, transaction, transactionHash, transactionIndex, gasUsed, blockHash, blockNumber);
   }
 
+  /**
+   * Creates the receipts with metadata of all the transactions of a block.
+   *
+   * @param block the block
+   * @param receipts the receipts of the block's transactions, in order
+   * @return the receipts with metadata, in transaction order
+   */
+  public static List<TransactionReceiptWithMetadata> createForBlock(
+      final Block block, final List<TransactionReceipt> receipts) {
+    final List<Transaction> transactions = block.getBody().getTransactions();
+    final List<TransactionReceiptWithMetadata> result = new ArrayList<>(receipts.size());
+    long previousCumulativeGasUsed = 0;
+    for (int i = 0; i < receipts.size(); ++i) {
+      final TransactionReceipt receipt = receipts.get(i);
+      final Transaction transaction = transactions.get(i);
+      result.add(
+          create(
+              receipt,
+              transaction,
+              transaction.hash(),
+              i,
+              receipt.getCumulativeGasUsed() - previousCumulativeGasUsed,
+              block.getHash(),
+              block.getHeader().getNumber()));
+      previousCumulativeGasUsed = receipt.getCumulativeGasUsed();
+    }
+    return result;
+  }
+
   public TransactionReceipt getReceipt() {
     return receipt;
   }
@@ -26,6 +26,9 @@ public enum JsonRpcError {
   INVALID_PARAMS(-32602, "Invalid params"),
   INTERNAL_ERROR(-32603, "Internal error"),
 
+  // Server errors
+  SERVER_BUSY(-32020, "Server busy, request rejected"),
+
   // Filter & Subscription Errors
   FILTER_NOT_FOUND(-32000, "Filter not found"),
   LOGS_FILTER_NOT_FOUND(-32000, "Logs filter not found"),
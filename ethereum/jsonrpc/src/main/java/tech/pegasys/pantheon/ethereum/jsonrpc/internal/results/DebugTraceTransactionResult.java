@@ -14,9 +14,12 @@ package tech.pegasys.pantheon.ethereum.jsonrpc.internal.results;
 
 import tech.pegasys.pantheon.ethereum.debug.TraceFrame;
 import tech.pegasys.pantheon.ethereum.jsonrpc.internal.processor.TransactionTrace;
+import tech.pegasys.pantheon.util.uint.UInt256;
 
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Optional;
 
 import com.fasterxml.jackson.annotation.JsonGetter;
 import com.fasterxml.jackson.annotation.JsonPropertyOrder;
@@ -32,19 +35,19 @@ public class DebugTraceTransactionResult {
   public DebugTraceTransactionResult(final TransactionTrace transactionTrace) {
     gas = transactionTrace.getGas();
     returnValue = transactionTrace.getResult().getOutput().toString().substring(2);
-    structLogs =
-        transactionTrace
-            .getTraceFrames()
-            .stream()
-            .map(DebugTraceTransactionResult::createStructLog)
-            .collect(Collectors.toList());
+    final StorageTracker storageTracker = new StorageTracker();
+    structLogs = new ArrayList<>(transactionTrace.getTraceFrames().size());
+    for (final TraceFrame frame : transactionTrace.getTraceFrames()) {
+      structLogs.add(createStructLog(frame, storageTracker.storageAt(frame)));
+    }
     failed = !transactionTrace.getResult().isSuccessful();
   }
 
-  private static StructLog createStructLog(final TraceFrame frame) {
+  static StructLog createStructLog(
+      final TraceFrame frame, final Optional<Map<UInt256, UInt256>> storage) {
     return frame.getExceptionalHaltReasons().isEmpty()
-        ? new StructLog(frame)
-        : new StructLogWithError(frame);
+        ? new StructLog(frame, storage)
+        : new StructLogWithError(frame, storage);
   }
 
   @JsonGetter(value = "structLogs")
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.jsonrpc.internal.results;
+
+import tech.pegasys.pantheon.ethereum.debug.TraceFrame;
+import tech.pegasys.pantheon.util.uint.UInt256;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * Rebuilds the storage shown by each struct log from the storage changes recorded in trace frames.
+ *
+ * <p>A struct log shows all the storage slots updated so far by the call it belongs to, whereas a
+ * frame only records the slots changed since the previous frame of the same call. The updated
+ * storage of every call on the message stack is tracked here, so frames must be passed in the
+ * order they were traced. A frame deeper than the previous one is the first of a new call.
+ */
+class StorageTracker {
+
+  private final List<Map<UInt256, UInt256>> callStorage = new ArrayList<>();
+  private int previousDepth = -1;
+
+  /**
+   * The storage updated by the call of a frame, up to and including that frame.
+   *
+   * <p>The returned map is updated by later frames of the same call, so it must be consumed before
+   * the next frame is passed in.
+   *
+   * @param frame the next frame of the trace
+   * @return the updated storage slots, sorted by key, or empty if storage wasn't traced
+   */
+  Optional<Map<UInt256, UInt256>> storageAt(final TraceFrame frame) {
+    final int depth = frame.getDepth();
+    if (depth > previousDepth) {
+      while (callStorage.size() <= depth) {
+        callStorage.add(null);
+      }
+      callStorage.set(depth, new TreeMap<>());
+    }
+    previousDepth = depth;
+
+    return frame
+        .getStorageChanges()
+        .map(
+            changes -> {
+              final Map<UInt256, UInt256> storage = callStorage.get(depth);
+              storage.putAll(changes);
+              return storage;
+            });
+  }
+}
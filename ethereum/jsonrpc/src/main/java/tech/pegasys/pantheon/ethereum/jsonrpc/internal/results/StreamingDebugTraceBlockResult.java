@@ -0,0 +1,131 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.jsonrpc.internal.results;
+
+import tech.pegasys.pantheon.ethereum.debug.TraceFrame;
+import tech.pegasys.pantheon.ethereum.jsonrpc.internal.processor.TransactionTrace;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+
+/**
+ * The result of {@code debug_traceBlockByHash} and {@code debug_traceBlockByNumber}, which traces
+ * the transactions of the block as it is serialized.
+ *
+ * <p>Serializes to an array holding the trace of each transaction of the block, in order, in the
+ * same format as {@link StreamingDebugTraceTransactionResult}. Serializes to {@code null} if the
+ * block can't be traced.
+ *
+ * <p>As with {@link StreamingDebugTraceTransactionResult}, serialising the result executes the
+ * block, so it has to be serialised on a tracing worker, and failures are thrown from {@link
+ * #serialize}.
+ */
+public class StreamingDebugTraceBlockResult implements JsonSerializable {
+
+  private final BlockTracer tracer;
+
+  /**
+   * @param tracer traces the transactions of the block, passing every frame and then the trace of
+   *     each transaction to the given consumers as they are produced
+   */
+  public StreamingDebugTraceBlockResult(final BlockTracer tracer) {
+    this.tracer = tracer;
+  }
+
+  @Override
+  public void serialize(final JsonGenerator generator, final SerializerProvider serializers)
+      throws IOException {
+    final BlockTraceWriter blockWriter = new BlockTraceWriter(generator, serializers);
+    final boolean traced;
+    try {
+      traced = tracer.trace(blockWriter::acceptFrame, blockWriter::acceptTrace);
+    } catch (final UncheckedIOException e) {
+      throw e.getCause();
+    }
+
+    if (!traced) {
+      if (blockWriter.started) {
+        throw new IllegalStateException("Traces were produced for a missing block");
+      }
+      generator.writeNull();
+      return;
+    }
+    blockWriter.start();
+    generator.writeEndArray();
+  }
+
+  @Override
+  public void serializeWithType(
+      final JsonGenerator generator,
+      final SerializerProvider serializers,
+      final TypeSerializer typeSerializer)
+      throws IOException {
+    serialize(generator, serializers);
+  }
+
+  private static class BlockTraceWriter {
+
+    private final JsonGenerator generator;
+    private final TransactionTraceWriter traceWriter;
+    private boolean started;
+
+    BlockTraceWriter(final JsonGenerator generator, final SerializerProvider serializers) {
+      this.generator = generator;
+      this.traceWriter = new TransactionTraceWriter(generator, serializers);
+    }
+
+    void start() throws IOException {
+      if (!started) {
+        generator.writeStartArray();
+        started = true;
+      }
+    }
+
+    void acceptFrame(final TraceFrame frame) {
+      try {
+        start();
+      } catch (final IOException e) {
+        throw new UncheckedIOException(e);
+      }
+      traceWriter.accept(frame);
+    }
+
+    void acceptTrace(final TransactionTrace trace) {
+      try {
+        start();
+        traceWriter.end(trace);
+      } catch (final IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+  }
+
+  @FunctionalInterface
+  public interface BlockTracer {
+
+    /**
+     * Traces the transactions of a block.
+     *
+     * @param frameConsumer receives the frames of every transaction, in order
+     * @param traceConsumer receives the trace of each transaction after its frames
+     * @return {@code false} if the block can't be traced
+     */
+    boolean trace(Consumer<TraceFrame> frameConsumer, Consumer<TransactionTrace> traceConsumer);
+  }
+}
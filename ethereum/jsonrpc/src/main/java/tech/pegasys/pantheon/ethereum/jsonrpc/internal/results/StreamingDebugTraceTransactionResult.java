@@ -0,0 +1,83 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.jsonrpc.internal.results;
+
+import tech.pegasys.pantheon.ethereum.debug.TraceFrame;
+import tech.pegasys.pantheon.ethereum.jsonrpc.internal.processor.TransactionTrace;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+
+/**
+ * The result of {@code debug_traceTransaction}, which traces the transaction as it is serialized.
+ *
+ * <p>Each struct log is written out as soon as its operation has executed, so the trace is never
+ * held in memory as a whole. As the struct logs are only known once the transaction has executed,
+ * they are written before the other fields of the result. Serializes to {@code null} if the
+ * transaction can't be traced.
+ *
+ * <p>Serialising the result is what runs the trace, so it has to be serialised on the worker that
+ * handled the request rather than handed to another thread. A failing trace throws from {@link
+ * #serialize}, so the response can still be replaced by an error if none of it has been sent.
+ */
+public class StreamingDebugTraceTransactionResult implements JsonSerializable {
+
+  private final Function<Consumer<TraceFrame>, Optional<TransactionTrace>> tracer;
+
+  /**
+   * @param tracer traces the transaction, passing each frame to the given consumer as it is
+   *     produced, and returns the trace or empty if the transaction can't be traced
+   */
+  public StreamingDebugTraceTransactionResult(
+      final Function<Consumer<TraceFrame>, Optional<TransactionTrace>> tracer) {
+    this.tracer = tracer;
+  }
+
+  @Override
+  public void serialize(final JsonGenerator generator, final SerializerProvider serializers)
+      throws IOException {
+    final TransactionTraceWriter traceWriter = new TransactionTraceWriter(generator, serializers);
+    final Optional<TransactionTrace> trace;
+    try {
+      trace = tracer.apply(traceWriter);
+    } catch (final UncheckedIOException e) {
+      throw e.getCause();
+    }
+
+    if (!trace.isPresent()) {
+      if (traceWriter.isStarted()) {
+        throw new IllegalStateException("Trace frames were produced for a missing transaction");
+      }
+      generator.writeNull();
+      return;
+    }
+    traceWriter.end(trace.get());
+  }
+
+  @Override
+  public void serializeWithType(
+      final JsonGenerator generator,
+      final SerializerProvider serializers,
+      final TypeSerializer typeSerializer)
+      throws IOException {
+    serialize(generator, serializers);
+  }
+}
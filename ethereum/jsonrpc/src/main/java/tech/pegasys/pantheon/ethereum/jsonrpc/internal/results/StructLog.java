@@ -20,6 +20,7 @@ import tech.pegasys.pantheon.util.uint.UInt256;
 import java.util.Arrays;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.TreeMap;
 
 import com.fasterxml.jackson.annotation.JsonGetter;
@@ -37,7 +38,13 @@ public class StructLog {
   private final String[] stack;
   private final Object storage;
 
-  public StructLog(final TraceFrame traceFrame) {
+  /**
+   * Creates the struct log of an operation.
+   *
+   * @param traceFrame the frame of the operation
+   * @param storage the storage updated by the operation's call so far, if storage is traced
+   */
+  public StructLog(final TraceFrame traceFrame, final Optional<Map<UInt256, UInt256>> storage) {
     depth = traceFrame.getDepth() + 1;
     gas = traceFrame.getGasRemaining().toLong();
     gasCost = traceFrame.getGasCost().map(Gas::toLong).orElse(0L);
@@ -53,7 +60,7 @@ public class StructLog {
             .getStack()
             .map(a -> Arrays.stream(a).map(Bytes32s::unprefixedHexString).toArray(String[]::new))
             .orElse(null);
-    storage = traceFrame.getStorage().map(StructLog::formatStorage).orElse(null);
+    this.storage = storage.map(StructLog::formatStorage).orElse(null);
   }
 
   private static Map<String, String> formatStorage(final Map<UInt256, UInt256> storage) {
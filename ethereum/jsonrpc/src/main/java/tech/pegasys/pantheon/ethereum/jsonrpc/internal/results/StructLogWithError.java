@@ -14,6 +14,10 @@ package tech.pegasys.pantheon.ethereum.jsonrpc.internal.results;
 
 import tech.pegasys.pantheon.ethereum.debug.TraceFrame;
 import tech.pegasys.pantheon.ethereum.vm.ExceptionalHaltReason;
+import tech.pegasys.pantheon.util.uint.UInt256;
+
+import java.util.Map;
+import java.util.Optional;
 
 import com.fasterxml.jackson.annotation.JsonGetter;
 
@@ -21,8 +25,9 @@ public class StructLogWithError extends StructLog {
 
   private final String[] error;
 
-  public StructLogWithError(final TraceFrame traceFrame) {
-    super(traceFrame);
+  public StructLogWithError(
+      final TraceFrame traceFrame, final Optional<Map<UInt256, UInt256>> storage) {
+    super(traceFrame, storage);
     error =
         traceFrame.getExceptionalHaltReasons().isEmpty()
             ? null
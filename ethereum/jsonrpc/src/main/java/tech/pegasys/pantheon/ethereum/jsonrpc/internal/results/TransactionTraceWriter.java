@@ -0,0 +1,81 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.jsonrpc.internal.results;
+
+import tech.pegasys.pantheon.ethereum.debug.TraceFrame;
+import tech.pegasys.pantheon.ethereum.jsonrpc.internal.processor.TransactionTrace;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+
+/**
+ * Writes the trace of a transaction as it executes, in the format of {@link
+ * DebugTraceTransactionResult}.
+ *
+ * <p>The object and its {@code structLogs} array are started by the first frame, and each frame is
+ * written out as a struct log as soon as it is accepted. {@link #end(TransactionTrace)} then writes
+ * the fields only known once the transaction has executed, after which the writer is ready for the
+ * next transaction. Failures to write are rethrown as {@link UncheckedIOException}.
+ */
+class TransactionTraceWriter implements Consumer<TraceFrame> {
+
+  private final JsonGenerator generator;
+  private final SerializerProvider serializers;
+  private StorageTracker storageTracker = new StorageTracker();
+  private boolean started;
+
+  TransactionTraceWriter(final JsonGenerator generator, final SerializerProvider serializers) {
+    this.generator = generator;
+    this.serializers = serializers;
+  }
+
+  boolean isStarted() {
+    return started;
+  }
+
+  @Override
+  public void accept(final TraceFrame frame) {
+    try {
+      start();
+      serializers.defaultSerializeValue(
+          DebugTraceTransactionResult.createStructLog(frame, storageTracker.storageAt(frame)),
+          generator);
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  void end(final TransactionTrace trace) throws IOException {
+    start();
+    generator.writeEndArray();
+    generator.writeNumberField("gas", trace.getGas());
+    generator.writeBooleanField("failed", !trace.getResult().isSuccessful());
+    generator.writeStringField(
+        "returnValue", trace.getResult().getOutput().toString().substring(2));
+    generator.writeEndObject();
+    storageTracker = new StorageTracker();
+    started = false;
+  }
+
+  private void start() throws IOException {
+    if (!started) {
+      generator.writeStartObject();
+      generator.writeArrayFieldStart("structLogs");
+      started = true;
+    }
+  }
+}
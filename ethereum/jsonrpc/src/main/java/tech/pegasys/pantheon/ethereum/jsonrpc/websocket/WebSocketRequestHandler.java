@@ -39,20 +39,22 @@ public class WebSocketRequestHandler {
   }
 
   public void handle(final String id, final Buffer buffer) {
-    vertx.executeBlocking(
+    vertx.<Buffer>executeBlocking(
         future -> {
           final WebSocketRpcRequest request;
           try {
             request = buffer.toJsonObject().mapTo(WebSocketRpcRequest.class);
           } catch (final IllegalArgumentException | DecodeException e) {
             LOG.debug("Error mapping json to WebSocketRpcRequest", e);
-            future.complete(new JsonRpcErrorResponse(null, JsonRpcError.INVALID_REQUEST));
+            future.complete(
+                Json.encodeToBuffer(new JsonRpcErrorResponse(null, JsonRpcError.INVALID_REQUEST)));
             return;
           }
 
           if (!methods.containsKey(request.getMethod())) {
             future.complete(
-                new JsonRpcErrorResponse(request.getId(), JsonRpcError.METHOD_NOT_FOUND));
+                Json.encodeToBuffer(
+                    new JsonRpcErrorResponse(request.getId(), JsonRpcError.METHOD_NOT_FOUND)));
             LOG.debug("Can't find method {}", request.getMethod());
             return;
           }
@@ -60,15 +62,19 @@ public class WebSocketRequestHandler {
           try {
             LOG.debug("WS-RPC request -> {}", request.getMethod());
             request.setConnectionId(id);
-            future.complete(method.response(request));
+            // Some results are only computed as they are encoded, which mustn't happen on the
+            // event loop.
+            future.complete(Json.encodeToBuffer(method.response(request)));
           } catch (final Exception e) {
             LOG.error(JsonRpcError.INTERNAL_ERROR.getMessage(), e);
-            future.complete(new JsonRpcErrorResponse(request.getId(), JsonRpcError.INTERNAL_ERROR));
+            future.complete(
+                Json.encodeToBuffer(
+                    new JsonRpcErrorResponse(request.getId(), JsonRpcError.INTERNAL_ERROR)));
           }
         },
         result -> {
           if (result.succeeded()) {
-            replyToClient(id, Json.encodeToBuffer(result.result()));
+            replyToClient(id, result.result());
           } else {
             replyToClient(
                 id,
@@ -13,17 +13,23 @@
 package tech.pegasys.pantheon.ethereum.jsonrpc.websocket;
 
 import tech.pegasys.pantheon.ethereum.jsonrpc.websocket.subscription.SubscriptionManager;
+import tech.pegasys.pantheon.ethereum.jsonrpc.websocket.subscription.response.EncodedSubscriptionResponse;
 
 import java.net.InetSocketAddress;
+import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.eventbus.MessageConsumer;
 import io.vertx.core.http.HttpServer;
 import io.vertx.core.http.HttpServerOptions;
 import io.vertx.core.http.HttpServerRequest;
 import io.vertx.core.http.ServerWebSocket;
+import io.vertx.core.http.WebSocketFrame;
 import io.vertx.core.net.SocketAddress;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -34,6 +40,9 @@ public class WebSocketService {
 
   private static final InetSocketAddress EMPTY_SOCKET_ADDRESS = new InetSocketAddress("0.0.0.0", 0);
 
+  // Bytes that may be waiting to be written to a connection before it is considered too slow.
+  private static final int MAX_PENDING_WRITE_BYTES = 4 * 1024 * 1024;
+
   private final Vertx vertx;
   private final WebSocketConfiguration configuration;
   private final WebSocketRequestHandler websocketRequestHandler;
@@ -72,10 +81,17 @@ public class WebSocketService {
   private Handler<ServerWebSocket> websocketHandler() {
     return websocket -> {
       final SocketAddress socketAddress = websocket.remoteAddress();
-      final String connectionId = websocket.textHandlerID();
+      final String connectionId = "websocket-" + UUID.randomUUID();
 
       LOG.debug("Websocket Connected ({})", socketAddressAsString(socketAddress));
 
+      // Responses and notifications for this connection are sent to its id on the event bus. A
+      // client that doesn't read them fast enough would otherwise make them pile up in memory, so
+      // the connection is closed once its write queue is full.
+      final ConnectionWriter connectionWriter = new ConnectionWriter(websocket);
+      final MessageConsumer<Object> outbound =
+          vertx.eventBus().localConsumer(connectionId, connectionWriter);
+
       websocket.handler(
           buffer -> {
             LOG.debug(
@@ -89,6 +105,8 @@ public class WebSocketService {
       websocket.closeHandler(
           v -> {
             LOG.debug("Websocket Disconnected ({})", socketAddressAsString(socketAddress));
+            connectionWriter.closed = true;
+            outbound.unregister();
             vertx
                 .eventBus()
                 .publish(SubscriptionManager.EVENTBUS_REMOVE_SUBSCRIPTIONS_ADDRESS, connectionId);
@@ -153,7 +171,48 @@ public class WebSocketService {
     return new InetSocketAddress(configuration.getHost(), httpServer.actualPort());
   }
 
-  private String socketAddressAsString(final SocketAddress socketAddress) {
+  private static String socketAddressAsString(final SocketAddress socketAddress) {
     return String.format("host=%s, port=%d", socketAddress.host(), socketAddress.port());
   }
+
+  private static class ConnectionWriter implements Handler<Message<Object>> {
+
+    private final ServerWebSocket websocket;
+    private boolean closed;
+
+    ConnectionWriter(final ServerWebSocket websocket) {
+      this.websocket = websocket;
+      websocket.setWriteQueueMaxSize(MAX_PENDING_WRITE_BYTES);
+    }
+
+    @Override
+    public void handle(final Message<Object> message) {
+      if (closed) {
+        return;
+      }
+      if (websocket.writeQueueFull()) {
+        LOG.debug(
+            "Closing Websocket, client is too slow to consume messages ({})",
+            socketAddressAsString(websocket.remoteAddress()));
+        closed = true;
+        websocket.close();
+        return;
+      }
+      if (message.body() instanceof EncodedSubscriptionResponse) {
+        writeSubscriptionResponse((EncodedSubscriptionResponse) message.body());
+      } else {
+        websocket.writeFinalTextFrame((String) message.body());
+      }
+    }
+
+    // The result is shared with the other subscriptions it is sent to. It is written as a frame
+    // of its own between the subscription's envelope, so its bytes aren't copied for each of them.
+    private void writeSubscriptionResponse(final EncodedSubscriptionResponse response) {
+      websocket.writeFrame(WebSocketFrame.textFrame(response.getPrefix(), false));
+      websocket.writeFrame(WebSocketFrame.continuationFrame(response.getEncodedResult(), false));
+      websocket.writeFrame(
+          WebSocketFrame.continuationFrame(
+              Buffer.buffer(EncodedSubscriptionResponse.SUFFIX), true));
+    }
+  }
 }
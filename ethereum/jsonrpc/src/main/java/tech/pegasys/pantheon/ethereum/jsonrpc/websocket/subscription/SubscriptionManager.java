@@ -17,19 +17,22 @@ import tech.pegasys.pantheon.ethereum.jsonrpc.websocket.WebSocketConfiguration;
 import tech.pegasys.pantheon.ethereum.jsonrpc.websocket.subscription.request.SubscribeRequest;
 import tech.pegasys.pantheon.ethereum.jsonrpc.websocket.subscription.request.SubscriptionType;
 import tech.pegasys.pantheon.ethereum.jsonrpc.websocket.subscription.request.UnsubscribeRequest;
-import tech.pegasys.pantheon.ethereum.jsonrpc.websocket.subscription.response.SubscriptionResponse;
+import tech.pegasys.pantheon.ethereum.jsonrpc.websocket.subscription.response.EncodedSubscriptionResponse;
 
-import java.util.HashMap;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 import com.google.common.annotations.VisibleForTesting;
-import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import io.vertx.core.AbstractVerticle;
+import io.vertx.core.buffer.Buffer;
 import io.vertx.core.eventbus.Message;
 import io.vertx.core.json.Json;
 import org.apache.logging.log4j.LogManager;
@@ -38,6 +41,10 @@ import org.apache.logging.log4j.Logger;
 /**
  * The SubscriptionManager is responsible for managing subscriptions and sending messages to the
  * clients that have an active subscription subscription.
+ *
+ * <p>Subscriptions are registered from the websocket request handlers and looked up from the
+ * blockchain observers, so the registries are concurrent. A notification for several subscriptions
+ * is encoded only once, see {@link #sendMessageToSubscriptions(Collection, JsonRpcResult)}.
  */
 public class SubscriptionManager extends AbstractVerticle {
 
@@ -47,8 +54,9 @@ public class SubscriptionManager extends AbstractVerticle {
       "SubscriptionManager::removeSubscriptions";
 
   private final AtomicLong subscriptionCounter = new AtomicLong(0);
-  private final Map<Long, Subscription> subscriptions = new HashMap<>();
-  private final Map<String, List<Long>> connectionSubscriptionsMap = new HashMap<>();
+  private final Map<Long, Subscription> subscriptions = new ConcurrentHashMap<>();
+  private final Map<Long, String> subscriptionConnections = new ConcurrentHashMap<>();
+  private final Map<String, List<Long>> connectionSubscriptionsMap = new ConcurrentHashMap<>();
   private final SubscriptionBuilder subscriptionBuilder = new SubscriptionBuilder();
   private final long refreshDelay;
 
@@ -62,9 +70,18 @@ public class SubscriptionManager extends AbstractVerticle {
 
   @Override
   public void start() {
+    vertx
+        .eventBus()
+        .registerDefaultCodec(
+            EncodedSubscriptionResponse.class, new EncodedSubscriptionResponse.LocalCodec());
     vertx.eventBus().consumer(EVENTBUS_REMOVE_SUBSCRIPTIONS_ADDRESS, this::removeSubscriptions);
   }
 
+  @Override
+  public void stop() {
+    vertx.eventBus().unregisterDefaultCodec(EncodedSubscriptionResponse.class);
+  }
+
   public Long subscribe(final SubscribeRequest request) {
     LOG.debug("Subscribe request {}", request);
 
@@ -76,16 +93,20 @@ public class SubscriptionManager extends AbstractVerticle {
   }
 
   private void addSubscription(final Subscription subscription, final String connectionId) {
-    subscriptions.put(subscription.getId(), subscription);
     mapSubscriptionToConnection(connectionId, subscription.getId());
+    subscriptionConnections.put(subscription.getId(), connectionId);
+    subscriptions.put(subscription.getId(), subscription);
   }
 
   private void mapSubscriptionToConnection(final String connectionId, final Long subscriptionId) {
-    if (connectionSubscriptionsMap.containsKey(connectionId)) {
-      connectionSubscriptionsMap.get(connectionId).add(subscriptionId);
-    } else {
-      connectionSubscriptionsMap.put(connectionId, Lists.newArrayList(subscriptionId));
-    }
+    connectionSubscriptionsMap.compute(
+        connectionId,
+        (id, subscriptionIds) -> {
+          final List<Long> updated =
+              subscriptionIds == null ? new CopyOnWriteArrayList<>() : subscriptionIds;
+          updated.add(subscriptionId);
+          return updated;
+        });
   }
 
   public boolean unsubscribe(final UnsubscribeRequest request) {
@@ -105,25 +126,23 @@ public class SubscriptionManager extends AbstractVerticle {
   }
 
   private boolean connectionOwnsSubscription(final Long subscriptionId, final String connectionId) {
-    return connectionSubscriptionsMap.get(connectionId) != null
-        && connectionSubscriptionsMap.get(connectionId).contains(subscriptionId);
+    return connectionId.equals(subscriptionConnections.get(subscriptionId));
   }
 
   private void destroySubscription(final long subscriptionId, final String connectionId) {
     subscriptions.remove(subscriptionId);
-
-    if (connectionSubscriptionsMap.containsKey(connectionId)) {
-      removeSubscriptionToConnectionMapping(connectionId, subscriptionId);
-    }
+    subscriptionConnections.remove(subscriptionId);
+    removeSubscriptionToConnectionMapping(connectionId, subscriptionId);
   }
 
   private void removeSubscriptionToConnectionMapping(
       final String connectionId, final Long subscriptionId) {
-    if (connectionSubscriptionsMap.get(connectionId).size() > 1) {
-      connectionSubscriptionsMap.get(connectionId).remove(subscriptionId);
-    } else {
-      connectionSubscriptionsMap.remove(connectionId);
-    }
+    connectionSubscriptionsMap.computeIfPresent(
+        connectionId,
+        (id, subscriptionIds) -> {
+          subscriptionIds.remove(subscriptionId);
+          return subscriptionIds.isEmpty() ? null : subscriptionIds;
+        });
   }
 
   @VisibleForTesting
@@ -136,8 +155,7 @@ public class SubscriptionManager extends AbstractVerticle {
     LOG.debug("Removing subscription for connectionId = {}", connectionId);
 
     final List<Long> subscriptionIds =
-        Lists.newArrayList(
-            connectionSubscriptionsMap.getOrDefault(connectionId, Lists.newArrayList()));
+        connectionSubscriptionsMap.getOrDefault(connectionId, Collections.emptyList());
     subscriptionIds.forEach(subscriptionId -> destroySubscription(subscriptionId, connectionId));
   }
 
@@ -162,15 +180,34 @@ public class SubscriptionManager extends AbstractVerticle {
   }
 
   public void sendMessage(final Long subscriptionId, final JsonRpcResult msg) {
-    final SubscriptionResponse response = new SubscriptionResponse(subscriptionId, msg);
-
-    connectionSubscriptionsMap
-        .entrySet()
-        .stream()
-        .filter(e -> e.getValue().contains(subscriptionId))
-        .map(Entry::getKey)
-        .findFirst()
-        .ifPresent(connectionId -> vertx.eventBus().send(connectionId, Json.encode(response)));
+    sendMessageToSubscriptions(Collections.singletonList(subscriptionId), msg);
+  }
+
+  /**
+   * Sends the same result to several subscriptions.
+   *
+   * <p>The result is encoded once, into a buffer shared by the responses to all of them. Only the
+   * envelope naming the subscription is encoded for each, see {@link EncodedSubscriptionResponse}.
+   * Subscriptions that no longer exist are skipped.
+   *
+   * @param subscriptionIds the subscriptions to notify
+   * @param msg the result to send
+   */
+  public void sendMessageToSubscriptions(
+      final Collection<Long> subscriptionIds, final JsonRpcResult msg) {
+    Buffer encodedResult = null;
+    for (final Long subscriptionId : subscriptionIds) {
+      final String connectionId = subscriptionConnections.get(subscriptionId);
+      if (connectionId == null) {
+        continue;
+      }
+      if (encodedResult == null) {
+        encodedResult = Json.encodeToBuffer(msg);
+      }
+      vertx
+          .eventBus()
+          .send(connectionId, new EncodedSubscriptionResponse(subscriptionId, encodedResult));
+    }
   }
 
   public long getRefreshDelay() {
@@ -22,6 +22,7 @@ import tech.pegasys.pantheon.ethereum.jsonrpc.internal.results.BlockResultFactor
 import tech.pegasys.pantheon.ethereum.jsonrpc.websocket.subscription.SubscriptionManager;
 import tech.pegasys.pantheon.ethereum.jsonrpc.websocket.subscription.request.SubscriptionType;
 
+import java.util.ArrayList;
 import java.util.List;
 
 public class NewBlockHeadersSubscriptionService implements BlockAddedObserver {
@@ -44,13 +45,24 @@ public class NewBlockHeadersSubscriptionService implements BlockAddedObserver {
 
     final Hash newBlockHash = event.getBlock().getHash();
 
+    // Each form of the block is built and encoded once, for all the subscriptions that want it.
+    final List<Long> withTransactions = new ArrayList<>();
+    final List<Long> withTransactionHashes = new ArrayList<>();
     for (final NewBlockHeadersSubscription subscription : subscribers) {
-      final BlockResult newBlock =
-          subscription.getIncludeTransactions()
-              ? blockWithCompleteTransaction(newBlockHash)
-              : blockWithTransactionHash(newBlockHash);
+      if (subscription.getIncludeTransactions()) {
+        withTransactions.add(subscription.getId());
+      } else {
+        withTransactionHashes.add(subscription.getId());
+      }
+    }
 
-      subscriptionManager.sendMessage(subscription.getId(), newBlock);
+    if (!withTransactions.isEmpty()) {
+      subscriptionManager.sendMessageToSubscriptions(
+          withTransactions, blockWithCompleteTransaction(newBlockHash));
+    }
+    if (!withTransactionHashes.isEmpty()) {
+      subscriptionManager.sendMessageToSubscriptions(
+          withTransactionHashes, blockWithTransactionHash(newBlockHash));
     }
   }
 
@@ -13,9 +13,12 @@
 package tech.pegasys.pantheon.ethereum.jsonrpc.websocket.subscription.logs;
 
 import tech.pegasys.pantheon.ethereum.chain.BlockAddedEvent;
+import tech.pegasys.pantheon.ethereum.chain.BlockAddedEvent.EventType;
 import tech.pegasys.pantheon.ethereum.chain.BlockAddedObserver;
 import tech.pegasys.pantheon.ethereum.chain.Blockchain;
 import tech.pegasys.pantheon.ethereum.core.Log;
+import tech.pegasys.pantheon.ethereum.core.Transaction;
+import tech.pegasys.pantheon.ethereum.jsonrpc.internal.filter.LogsQueryIndex;
 import tech.pegasys.pantheon.ethereum.jsonrpc.internal.queries.BlockchainQueries;
 import tech.pegasys.pantheon.ethereum.jsonrpc.internal.queries.LogWithMetadata;
 import tech.pegasys.pantheon.ethereum.jsonrpc.internal.queries.TransactionReceiptWithMetadata;
@@ -25,6 +28,7 @@ import tech.pegasys.pantheon.ethereum.jsonrpc.websocket.subscription.request.Sub
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 public class LogsSubscriptionService implements BlockAddedObserver {
 
@@ -46,54 +50,60 @@ public class LogsSubscriptionService implements BlockAddedObserver {
       return;
     }
 
-    event
-        .getAddedTransactions()
-        .stream()
-        .map(tx -> blockchainQueries.transactionReceiptByTransactionHash(tx.hash()))
-        .filter(Optional::isPresent)
-        .map(Optional::get)
-        .forEachOrdered(
-            receiptWithMetadata -> {
-              final List<Log> logs = receiptWithMetadata.getReceipt().getLogs();
-              sendLogsToMatchingSubscriptions(logs, logsSubscriptions, receiptWithMetadata, false);
-            });
+    final LogsQueryIndex<LogsSubscription> subscriptionIndex = new LogsQueryIndex<>();
+    logsSubscriptions.forEach(
+        subscription -> subscriptionIndex.add(subscription, subscription.getLogsQuery()));
+
+    addedTransactionReceipts(event)
+        .forEach(receipt -> sendLogsToMatchingSubscriptions(subscriptionIndex, receipt, false));
+
+    transactionReceipts(event.getRemovedTransactions())
+        .forEach(receipt -> sendLogsToMatchingSubscriptions(subscriptionIndex, receipt, true));
+  }
 
-    event
-        .getRemovedTransactions()
+  private List<TransactionReceiptWithMetadata> addedTransactionReceipts(
+      final BlockAddedEvent event) {
+    // When the head advances, the receipts the block was imported with are all that is needed.
+    if (event.getEventType() == EventType.HEAD_ADVANCED
+        && event.getTransactionReceipts().isPresent()) {
+      return TransactionReceiptWithMetadata.createForBlock(
+          event.getBlock(), event.getTransactionReceipts().get());
+    }
+    return transactionReceipts(event.getAddedTransactions());
+  }
+
+  private List<TransactionReceiptWithMetadata> transactionReceipts(
+      final List<Transaction> transactions) {
+    return transactions
         .stream()
         .map(tx -> blockchainQueries.transactionReceiptByTransactionHash(tx.hash()))
         .filter(Optional::isPresent)
         .map(Optional::get)
-        .forEachOrdered(
-            receiptWithMetadata -> {
-              final List<Log> logs = receiptWithMetadata.getReceipt().getLogs();
-              sendLogsToMatchingSubscriptions(logs, logsSubscriptions, receiptWithMetadata, true);
-            });
+        .collect(Collectors.toList());
   }
 
   private void sendLogsToMatchingSubscriptions(
-      final List<Log> logs,
-      final List<LogsSubscription> logsSubscriptions,
+      final LogsQueryIndex<LogsSubscription> subscriptionIndex,
       final TransactionReceiptWithMetadata receiptWithMetadata,
       final boolean removed) {
+    final List<Log> logs = receiptWithMetadata.getReceipt().getLogs();
     for (int logIndex = 0; logIndex < logs.size(); logIndex++) {
-      for (final LogsSubscription subscription : logsSubscriptions) {
-        if (subscription.getLogsQuery().matches(logs.get(logIndex))) {
-          sendLogToSubscription(receiptWithMetadata, removed, logIndex, subscription);
-        }
+      final List<Long> subscriptionIds =
+          subscriptionIndex
+              .matching(logs.get(logIndex))
+              .stream()
+              .map(LogsSubscription::getId)
+              .collect(Collectors.toList());
+      if (!subscriptionIds.isEmpty()) {
+        // The log is the same for every matching subscription, so it is only encoded once.
+        final LogWithMetadata logWithMetaData =
+            logWithMetadata(logIndex, receiptWithMetadata, removed);
+        subscriptionManager.sendMessageToSubscriptions(
+            subscriptionIds, new LogResult(logWithMetaData));
       }
     }
   }
 
-  private void sendLogToSubscription(
-      final TransactionReceiptWithMetadata receiptWithMetadata,
-      final boolean removed,
-      final int logIndex,
-      final LogsSubscription subscription) {
-    final LogWithMetadata logWithMetaData = logWithMetadata(logIndex, receiptWithMetadata, removed);
-    subscriptionManager.sendMessage(subscription.getId(), new LogResult(logWithMetaData));
-  }
-
   // @formatter:off
   private LogWithMetadata logWithMetadata(
       final int logIndex,
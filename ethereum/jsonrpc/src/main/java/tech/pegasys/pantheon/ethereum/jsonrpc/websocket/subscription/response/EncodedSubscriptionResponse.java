@@ -0,0 +1,88 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.jsonrpc.websocket.subscription.response;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.MessageCodec;
+
+/**
+ * A {@link SubscriptionResponse} around a result that has already been encoded, so a result sent to
+ * many subscriptions is only encoded once and all of their responses share its bytes.
+ *
+ * <p>Only the envelope naming the subscription differs between responses. The response is written
+ * as {@link #getPrefix()}, then {@link #getEncodedResult()}, then {@link #SUFFIX}, which together
+ * are the same as encoding a {@link SubscriptionResponse} with {@link
+ * io.vertx.core.json.Json#encode(Object)}. The shared result must not be modified.
+ */
+public class EncodedSubscriptionResponse {
+
+  public static final String SUFFIX = "}}";
+
+  private final long subscriptionId;
+  private final Buffer encodedResult;
+
+  /**
+   * @param subscriptionId the subscription the result is sent to
+   * @param encodedResult the JSON encoding of the result
+   */
+  public EncodedSubscriptionResponse(final long subscriptionId, final Buffer encodedResult) {
+    this.subscriptionId = subscriptionId;
+    this.encodedResult = encodedResult;
+  }
+
+  public String getPrefix() {
+    return SubscriptionResponse.encodePrefix(subscriptionId);
+  }
+
+  public Buffer getEncodedResult() {
+    return encodedResult;
+  }
+
+  /** @return the whole JSON encoding of the response */
+  public String encode() {
+    return getPrefix() + encodedResult.toString() + SUFFIX;
+  }
+
+  /**
+   * Passes responses between verticles of the same Vert.x instance as they are, so the encoded
+   * result isn't copied for every subscription. Responses are never sent to other nodes.
+   */
+  public static class LocalCodec
+      implements MessageCodec<EncodedSubscriptionResponse, EncodedSubscriptionResponse> {
+
+    @Override
+    public void encodeToWire(final Buffer buffer, final EncodedSubscriptionResponse response) {
+      throw new UnsupportedOperationException("Subscription responses are only sent locally");
+    }
+
+    @Override
+    public EncodedSubscriptionResponse decodeFromWire(final int pos, final Buffer buffer) {
+      throw new UnsupportedOperationException("Subscription responses are only sent locally");
+    }
+
+    @Override
+    public EncodedSubscriptionResponse transform(final EncodedSubscriptionResponse response) {
+      return response;
+    }
+
+    @Override
+    public String name() {
+      return EncodedSubscriptionResponse.class.getSimpleName();
+    }
+
+    @Override
+    public byte systemCodecID() {
+      return -1;
+    }
+  }
+}
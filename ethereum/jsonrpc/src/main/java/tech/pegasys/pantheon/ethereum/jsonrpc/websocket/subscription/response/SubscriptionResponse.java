@@ -30,6 +30,22 @@ public class SubscriptionResponse {
     this.params = new SubscriptionResponseResult(Quantity.create(subscriptionId), result);
   }
 
+  /**
+   * The part of the JSON encoding of a response that precedes its result.
+   *
+   * @param subscriptionId the subscription the result is sent to
+   * @return the start of the encoding, up to the result
+   */
+  static String encodePrefix(final long subscriptionId) {
+    return "{\"jsonrpc\":\""
+        + JSON_RPC_VERSION
+        + "\",\"method\":\""
+        + METHOD_NAME
+        + "\",\"params\":{\"subscription\":\""
+        + Quantity.create(subscriptionId)
+        + "\",\"result\":";
+  }
+
   @JsonGetter("jsonrpc")
   public String getJsonrpc() {
     return JSON_RPC_VERSION;
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.jsonrpc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import io.vertx.core.Handler;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpServerResponse;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+public class JsonResponseStreamerTest {
+
+  private final HttpServerResponse response = mock(HttpServerResponse.class);
+
+  @Test
+  public void sendsSmallBodyWithoutChunking() throws IOException {
+    final JsonResponseStreamer out = new JsonResponseStreamer(response, true, 1000);
+    out.write(body(100));
+    out.end();
+
+    verify(response, never()).setChunked(true);
+    verify(response, never()).write(any(Buffer.class));
+    assertThat(endedBody().getBytes()).isEqualTo(body(100));
+  }
+
+  @Test
+  public void writesLargeBodyInChunks() throws IOException {
+    final byte[] body = body(JsonResponseStreamer.CHUNK_SIZE * 3 + 10);
+    final JsonResponseStreamer out = new JsonResponseStreamer(response, true, 1000);
+    out.write(body);
+    out.end();
+
+    verify(response).setChunked(true);
+    final ArgumentCaptor<Buffer> chunks = ArgumentCaptor.forClass(Buffer.class);
+    verify(response, times(3)).write(chunks.capture());
+    final Buffer written = Buffer.buffer();
+    chunks.getAllValues().forEach(written::appendBuffer);
+    written.appendBuffer(endedBody());
+    assertThat(written.getBytes()).isEqualTo(body);
+  }
+
+  @Test
+  public void sendsLargeBodyInOneGoWhenChunkingIsNotSupported() throws IOException {
+    final byte[] body = body(JsonResponseStreamer.CHUNK_SIZE * 3 + 10);
+    final JsonResponseStreamer out = new JsonResponseStreamer(response, false, 1000);
+    for (final byte b : body) {
+      out.write(b);
+    }
+    out.end();
+
+    verify(response, never()).setChunked(true);
+    verify(response, never()).write(any(Buffer.class));
+    assertThat(endedBody().getBytes()).isEqualTo(body);
+  }
+
+  @Test
+  public void waitsForWriteQueueToDrain() throws IOException {
+    when(response.writeQueueFull()).thenReturn(true, true, false);
+    final JsonResponseStreamer out = new JsonResponseStreamer(response, true, 5000);
+    out.write(body(JsonResponseStreamer.CHUNK_SIZE + 1));
+
+    verify(response).drainHandler(any());
+    verify(response).write(any(Buffer.class));
+  }
+
+  @Test
+  public void failsWhenWriteQueueDoesNotDrainInTime() {
+    when(response.writeQueueFull()).thenReturn(true);
+    final JsonResponseStreamer out = new JsonResponseStreamer(response, true, 0);
+
+    assertThatThrownBy(() -> out.write(body(JsonResponseStreamer.CHUNK_SIZE + 1)))
+        .isInstanceOf(IOException.class);
+    verify(response, never()).write(any(Buffer.class));
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void failsOnceConnectionIsClosed() throws IOException {
+    final ArgumentCaptor<Handler<Void>> closeHandler = ArgumentCaptor.forClass(Handler.class);
+    final JsonResponseStreamer out = new JsonResponseStreamer(response, true, 1000);
+    verify(response).closeHandler(closeHandler.capture());
+    out.write(body(10));
+
+    closeHandler.getValue().handle(null);
+
+    assertThatThrownBy(out::end).isInstanceOf(IOException.class);
+    verify(response, never()).end(any(Buffer.class));
+  }
+
+  private Buffer endedBody() {
+    final ArgumentCaptor<Buffer> ended = ArgumentCaptor.forClass(Buffer.class);
+    verify(response).end(ended.capture());
+    return ended.getValue();
+  }
+
+  private static byte[] body(final int length) {
+    final byte[] body = new byte[length];
+    Arrays.fill(body, (byte) 'a');
+    for (int i = 0; i < length; i += 7) {
+      body[i] = (byte) ('0' + i % 10);
+    }
+    return body;
+  }
+}
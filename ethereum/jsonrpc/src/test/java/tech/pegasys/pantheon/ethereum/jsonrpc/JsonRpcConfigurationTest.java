@@ -64,4 +64,29 @@ public class JsonRpcConfigurationTest {
     configuration.setRpcApis(Lists.newArrayList(RpcApis.DEBUG));
     assertThat(configuration.getRpcApis()).containsExactly(RpcApis.DEBUG);
   }
+
+  @Test
+  public void workerPoolsDefaultToMethodClassDefaults() {
+    final JsonRpcConfiguration configuration = JsonRpcConfiguration.createDefault();
+    for (final RpcMethodClass methodClass : RpcMethodClass.values()) {
+      assertThat(configuration.getWorkerThreads(methodClass))
+          .isEqualTo(methodClass.getDefaultWorkerThreads());
+      assertThat(configuration.getQueueCapacity(methodClass))
+          .isEqualTo(methodClass.getDefaultQueueCapacity());
+    }
+  }
+
+  @Test
+  public void settingWorkerPoolLimitsOnlyAffectsThatMethodClass() {
+    final JsonRpcConfiguration configuration = JsonRpcConfiguration.createDefault();
+
+    configuration.setWorkerThreads(RpcMethodClass.TRACING, 1);
+    configuration.setQueueCapacity(RpcMethodClass.TRACING, 5);
+
+    assertThat(configuration.getWorkerThreads(RpcMethodClass.TRACING)).isEqualTo(1);
+    assertThat(configuration.getQueueCapacity(RpcMethodClass.TRACING)).isEqualTo(5);
+    assertThat(configuration.getWorkerThreads(RpcMethodClass.WRITE))
+        .isEqualTo(RpcMethodClass.WRITE.getDefaultWorkerThreads());
+    assertThat(configuration).isNotEqualTo(JsonRpcConfiguration.createDefault());
+  }
 }
@@ -33,12 +33,14 @@ import tech.pegasys.pantheon.ethereum.core.Transaction;
 import tech.pegasys.pantheon.ethereum.core.TransactionPool;
 import tech.pegasys.pantheon.ethereum.core.Wei;
 import tech.pegasys.pantheon.ethereum.eth.EthProtocol;
+import tech.pegasys.pantheon.ethereum.jsonrpc.internal.JsonRpcRequest;
 import tech.pegasys.pantheon.ethereum.jsonrpc.internal.filter.FilterManager;
 import tech.pegasys.pantheon.ethereum.jsonrpc.internal.methods.JsonRpcMethod;
 import tech.pegasys.pantheon.ethereum.jsonrpc.internal.queries.BlockWithMetadata;
 import tech.pegasys.pantheon.ethereum.jsonrpc.internal.queries.BlockchainQueries;
 import tech.pegasys.pantheon.ethereum.jsonrpc.internal.queries.TransactionWithMetadata;
 import tech.pegasys.pantheon.ethereum.jsonrpc.internal.response.JsonRpcError;
+import tech.pegasys.pantheon.ethereum.jsonrpc.internal.response.JsonRpcSuccessResponse;
 import tech.pegasys.pantheon.ethereum.mainnet.MainnetProtocolSchedule;
 import tech.pegasys.pantheon.ethereum.p2p.api.P2PNetwork;
 import tech.pegasys.pantheon.ethereum.p2p.wire.Capability;
@@ -61,6 +63,10 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
 import io.vertx.core.Vertx;
 import io.vertx.core.json.Json;
 import io.vertx.core.json.JsonArray;
@@ -1451,6 +1457,57 @@ public class JsonRpcHttpServiceTest {
     }
   }
 
+  @Test
+  public void failureWritingResultBeforeAnyOfItIsSentReturnsInternalError() throws Exception {
+    mockFailingTraceMethod();
+
+    final String id = "777";
+    final RequestBody body =
+        RequestBody.create(
+            JSON,
+            "{\"jsonrpc\":\"2.0\",\"id\":"
+                + Json.encode(id)
+                + ",\"method\":\"debug_failingTrace\"}");
+
+    try (final Response resp = client.newCall(buildPostRequest(body)).execute()) {
+      assertThat(resp.code()).isEqualTo(400);
+      final JsonObject json = new JsonObject(resp.body().string());
+      final JsonRpcError expectedError = JsonRpcError.INTERNAL_ERROR;
+      testHelper.assertValidJsonRpcError(
+          json, id, expectedError.getCode(), expectedError.getMessage());
+    }
+  }
+
+  @Test
+  public void failureWritingBatchBeforeAnyOfItIsSentReturnsInternalError() throws Exception {
+    mockFailingTraceMethod();
+
+    final RequestBody body =
+        RequestBody.create(
+            JSON,
+            "[{\"jsonrpc\":\"2.0\",\"id\":\"000\",\"method\":\"web3_clientVersion\"},"
+                + "{\"jsonrpc\":\"2.0\",\"id\":\"111\",\"method\":\"debug_failingTrace\"}]");
+
+    try (final Response resp = client.newCall(buildPostRequest(body)).execute()) {
+      assertThat(resp.code()).isEqualTo(400);
+      final JsonObject json = new JsonObject(resp.body().string());
+      final JsonRpcError expectedError = JsonRpcError.INTERNAL_ERROR;
+      testHelper.assertValidJsonRpcError(
+          json, null, expectedError.getCode(), expectedError.getMessage());
+    }
+  }
+
+  private void mockFailingTraceMethod() {
+    final JsonRpcMethod jsonRpcMethod = mock(JsonRpcMethod.class);
+    when(jsonRpcMethod.getName()).thenReturn("debug_failingTrace");
+    when(jsonRpcMethod.response(ArgumentMatchers.any()))
+        .thenAnswer(
+            invocation ->
+                new JsonRpcSuccessResponse(
+                    invocation.<JsonRpcRequest>getArgument(0).getId(), new FailingResult()));
+    doReturn(jsonRpcMethod).when(rpcMethods).get("debug_failingTrace");
+  }
+
   @Test
   public void batchRequest() throws Exception {
     final int clientVersionRequestId = 2;
@@ -1987,6 +2044,23 @@ public class JsonRpcHttpServiceTest {
     }
   }
 
+  /** A result which fails as it is serialised, like a trace that can't be completed. */
+  private static class FailingResult implements JsonSerializable {
+
+    @Override
+    public void serialize(final JsonGenerator generator, final SerializerProvider serializers) {
+      throw new IllegalStateException("Unable to produce the result");
+    }
+
+    @Override
+    public void serializeWithType(
+        final JsonGenerator generator,
+        final SerializerProvider serializers,
+        final TypeSerializer typeSerializer) {
+      serialize(generator, serializers);
+    }
+  }
+
   private Request buildPostRequest(final RequestBody body) {
     return new Request.Builder().post(body).url(baseUrl).build();
   }
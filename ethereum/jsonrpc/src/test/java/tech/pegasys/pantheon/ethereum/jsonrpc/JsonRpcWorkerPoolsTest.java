@@ -0,0 +1,87 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.jsonrpc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class JsonRpcWorkerPoolsTest {
+
+  private final CountDownLatch release = new CountDownLatch(1);
+  private JsonRpcWorkerPools workerPools;
+
+  @Before
+  public void setUp() {
+    final JsonRpcConfiguration config = JsonRpcConfiguration.createDefault();
+    config.setWorkerThreads(RpcMethodClass.TRACING, 1);
+    config.setQueueCapacity(RpcMethodClass.TRACING, 1);
+    workerPools = new JsonRpcWorkerPools(config);
+  }
+
+  @After
+  public void tearDown() {
+    release.countDown();
+    workerPools.shutdown();
+  }
+
+  @Test
+  public void rejectsTasksOnceQueueIsFull() throws Exception {
+    final CountDownLatch started = new CountDownLatch(1);
+    workerPools.execute(RpcMethodClass.TRACING, blockingTask(started));
+    assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+    workerPools.execute(RpcMethodClass.TRACING, blockingTask(new CountDownLatch(1)));
+    assertThat(workerPools.queuedTasks(RpcMethodClass.TRACING)).isEqualTo(1);
+
+    assertThatThrownBy(() -> workerPools.execute(RpcMethodClass.TRACING, () -> {}))
+        .isInstanceOf(RejectedExecutionException.class);
+  }
+
+  @Test
+  public void fullQueueDoesNotAffectOtherMethodClasses() throws Exception {
+    final CountDownLatch started = new CountDownLatch(1);
+    workerPools.execute(RpcMethodClass.TRACING, blockingTask(started));
+    assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+    workerPools.execute(RpcMethodClass.TRACING, blockingTask(new CountDownLatch(1)));
+
+    final CountDownLatch executed = new CountDownLatch(1);
+    workerPools.execute(RpcMethodClass.CHEAP_READ, executed::countDown);
+    assertThat(executed.await(5, TimeUnit.SECONDS)).isTrue();
+  }
+
+  @Test
+  public void rejectsTasksAfterShutdown() {
+    workerPools.shutdown();
+
+    assertThatThrownBy(() -> workerPools.execute(RpcMethodClass.CHEAP_READ, () -> {}))
+        .isInstanceOf(RejectedExecutionException.class);
+  }
+
+  private Runnable blockingTask(final CountDownLatch started) {
+    return () -> {
+      started.countDown();
+      try {
+        release.await();
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    };
+  }
+}
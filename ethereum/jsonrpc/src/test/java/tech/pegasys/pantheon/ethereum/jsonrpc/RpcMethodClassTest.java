@@ -0,0 +1,53 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.jsonrpc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+public class RpcMethodClassTest {
+
+  @Test
+  public void classifiesCheapReads() {
+    assertThat(RpcMethodClass.forMethod("eth_blockNumber")).isEqualTo(RpcMethodClass.CHEAP_READ);
+    assertThat(RpcMethodClass.forMethod("eth_syncing")).isEqualTo(RpcMethodClass.CHEAP_READ);
+    assertThat(RpcMethodClass.forMethod("net_version")).isEqualTo(RpcMethodClass.CHEAP_READ);
+    assertThat(RpcMethodClass.forMethod("web3_clientVersion"))
+        .isEqualTo(RpcMethodClass.CHEAP_READ);
+  }
+
+  @Test
+  public void classifiesTracingAndLogQueries() {
+    assertThat(RpcMethodClass.forMethod("debug_traceTransaction"))
+        .isEqualTo(RpcMethodClass.TRACING);
+    assertThat(RpcMethodClass.forMethod("debug_storageRangeAt")).isEqualTo(RpcMethodClass.TRACING);
+    assertThat(RpcMethodClass.forMethod("eth_getLogs")).isEqualTo(RpcMethodClass.TRACING);
+    assertThat(RpcMethodClass.forMethod("debug_metrics")).isEqualTo(RpcMethodClass.CHEAP_READ);
+  }
+
+  @Test
+  public void classifiesWrites() {
+    assertThat(RpcMethodClass.forMethod("eth_sendRawTransaction"))
+        .isEqualTo(RpcMethodClass.WRITE);
+    assertThat(RpcMethodClass.forMethod("miner_start")).isEqualTo(RpcMethodClass.WRITE);
+    assertThat(RpcMethodClass.forMethod("clique_propose")).isEqualTo(RpcMethodClass.WRITE);
+  }
+
+  @Test
+  public void otherMethodsAreStateReads() {
+    assertThat(RpcMethodClass.forMethod("eth_call")).isEqualTo(RpcMethodClass.STATE_READ);
+    assertThat(RpcMethodClass.forMethod("eth_getBalance")).isEqualTo(RpcMethodClass.STATE_READ);
+    assertThat(RpcMethodClass.forMethod("unknown")).isEqualTo(RpcMethodClass.STATE_READ);
+  }
+}
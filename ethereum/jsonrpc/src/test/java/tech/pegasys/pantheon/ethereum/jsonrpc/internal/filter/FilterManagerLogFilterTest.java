@@ -18,6 +18,7 @@ import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.refEq;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -26,9 +27,13 @@ import static org.mockito.Mockito.when;
 import tech.pegasys.pantheon.ethereum.chain.BlockAddedEvent;
 import tech.pegasys.pantheon.ethereum.chain.Blockchain;
 import tech.pegasys.pantheon.ethereum.core.Address;
+import tech.pegasys.pantheon.ethereum.core.Block;
 import tech.pegasys.pantheon.ethereum.core.BlockDataGenerator;
+import tech.pegasys.pantheon.ethereum.core.BlockDataGenerator.BlockOptions;
 import tech.pegasys.pantheon.ethereum.core.Hash;
+import tech.pegasys.pantheon.ethereum.core.Log;
 import tech.pegasys.pantheon.ethereum.core.TransactionPool;
+import tech.pegasys.pantheon.ethereum.core.TransactionReceipt;
 import tech.pegasys.pantheon.ethereum.jsonrpc.internal.parameters.BlockParameter;
 import tech.pegasys.pantheon.ethereum.jsonrpc.internal.queries.BlockchainQueries;
 import tech.pegasys.pantheon.ethereum.jsonrpc.internal.queries.LogWithMetadata;
@@ -49,6 +54,8 @@ import org.mockito.junit.MockitoJUnitRunner;
 @RunWith(MockitoJUnitRunner.class)
 public class FilterManagerLogFilterTest {
 
+  private static final long BLOCK_NUMBER = 100L;
+
   private FilterManager filterManager;
 
   @Mock private Blockchain blockchain;
@@ -76,48 +83,94 @@ public class FilterManagerLogFilterTest {
   }
 
   @Test
-  public void shouldCheckMatchingLogsWhenRecordedNewBlockEvent() {
-    when(blockchainQueries.headBlockNumber()).thenReturn(100L);
-
-    filterManager.installLogFilter(latest(), latest(), logsQuery());
-    recordNewBlockEvent();
+  public void shouldRecordLogsOfNewBlockWithoutQueryingBlockchain() {
+    final String filterId = filterManager.installLogFilter(latest(), latest(), logsQuery());
+    final Block block = recordNewBlockEvent(BLOCK_NUMBER, receiptWithLog(log()));
 
-    verify(blockchainQueries).matchingLogs(eq(100L), eq(100L), refEq(logsQuery()));
+    assertThat(filterManager.logsChanges(filterId).size()).isEqualTo(1);
+    verify(blockchainQueries, never()).matchingLogs(anyLong(), anyLong(), any());
+    verify(blockchain, never()).getTxReceipts(eq(block.getHash()));
   }
 
   @Test
-  public void shouldUseHeadBlockAsFromBlockNumberWhenCheckingLogsForChanges() {
-    when(blockchainQueries.headBlockNumber()).thenReturn(3L);
+  public void shouldNotRecordLogsOfBlocksAfterFilterToBlock() {
+    final String filterId =
+        filterManager.installLogFilter(blockNum(1L), blockNum(10L), logsQuery());
 
-    filterManager.installLogFilter(blockNum(1L), blockNum(10L), logsQuery());
-    recordNewBlockEvent();
+    recordNewBlockEvent(11L, receiptWithLog(log()));
+    assertThat(filterManager.logsChanges(filterId)).isEmpty();
 
-    verify(blockchainQueries).matchingLogs(eq(3L), eq(10L), refEq(logsQuery()));
+    recordNewBlockEvent(10L, receiptWithLog(log()));
+    assertThat(filterManager.logsChanges(filterId).size()).isEqualTo(1);
   }
 
   @Test
   public void shouldReturnLogWhenLogFilterMatches() {
-    final LogWithMetadata log = logWithMetadata();
-    when(blockchainQueries.headBlockNumber()).thenReturn(100L);
-    when(blockchainQueries.matchingLogs(eq(100L), eq(100L), refEq(logsQuery())))
-        .thenReturn(Lists.newArrayList(log));
-
+    final Log log = log();
     final String filterId = filterManager.installLogFilter(latest(), latest(), logsQuery());
-    recordNewBlockEvent();
+    final Block block = recordNewBlockEvent(BLOCK_NUMBER, receiptWithLog(log));
 
     final List<LogWithMetadata> retrievedLogs = filterManager.logsChanges(filterId);
 
-    assertThat(retrievedLogs).isEqualToComparingFieldByFieldRecursively(Lists.newArrayList(log));
+    final LogWithMetadata expectedLog =
+        LogWithMetadata.create(
+            0,
+            block.getHeader().getNumber(),
+            block.getHash(),
+            block.getBody().getTransactions().get(0).hash(),
+            0,
+            log.getLogger(),
+            log.getData(),
+            log.getTopics(),
+            false);
+    assertThat(retrievedLogs)
+        .isEqualToComparingFieldByFieldRecursively(Lists.newArrayList(expectedLog));
+  }
+
+  @Test
+  public void shouldNotReturnLogWhenLogFilterDoesNotMatch() {
+    final LogsQuery logsQuery =
+        new LogsQuery.Builder().address(Address.fromHexString("0x1")).build();
+    final String filterId = filterManager.installLogFilter(latest(), latest(), logsQuery);
+    recordNewBlockEvent(BLOCK_NUMBER, receiptWithLog(log()));
+
+    assertThat(filterManager.logsChanges(filterId)).isEmpty();
   }
 
   @Test
   public void shouldCheckLogsForEveryLogFilter() {
+    final List<String> filterIds =
+        Lists.newArrayList(
+            filterManager.installLogFilter(latest(), latest(), logsQuery()),
+            filterManager.installLogFilter(latest(), latest(), logsQuery()),
+            filterManager.installLogFilter(latest(), latest(), logsQuery()));
+    recordNewBlockEvent(BLOCK_NUMBER, receiptWithLog(log()));
+
+    for (final String filterId : filterIds) {
+      assertThat(filterManager.logsChanges(filterId).size()).isEqualTo(1);
+    }
+  }
+
+  @Test
+  public void shouldReadReceiptsOnceWhenBlockAddedWithoutThem() {
     filterManager.installLogFilter(latest(), latest(), logsQuery());
     filterManager.installLogFilter(latest(), latest(), logsQuery());
-    filterManager.installLogFilter(latest(), latest(), logsQuery());
-    recordNewBlockEvent();
+    final Block block = block(BLOCK_NUMBER);
+    when(blockchain.getTxReceipts(block.getHash()))
+        .thenReturn(Optional.of(Lists.newArrayList(receiptWithLog(log()))));
+
+    filterManager.recordBlockEvent(BlockAddedEvent.createForHeadAdvancement(block), blockchain);
+
+    verify(blockchain).getTxReceipts(block.getHash());
+  }
+
+  @Test
+  public void shouldNotRecordLogsOfForks() {
+    final String filterId = filterManager.installLogFilter(latest(), latest(), logsQuery());
+    filterManager.recordBlockEvent(
+        BlockAddedEvent.createForFork(block(BLOCK_NUMBER)), blockchain);
 
-    verify(blockchainQueries, times(3)).matchingLogs(anyLong(), anyLong(), any());
+    assertThat(filterManager.logsChanges(filterId)).isEmpty();
   }
 
   @Test
@@ -130,21 +183,34 @@ public class FilterManagerLogFilterTest {
 
   @Test
   public void shouldClearLogsAfterGettingLogChanges() {
-    when(blockchainQueries.matchingLogs(anyLong(), anyLong(), any()))
-        .thenReturn(Lists.newArrayList(logWithMetadata()));
-
     final String filterId = filterManager.installLogFilter(latest(), latest(), logsQuery());
-    recordNewBlockEvent();
-    recordNewBlockEvent();
+    recordNewBlockEvent(BLOCK_NUMBER, receiptWithLog(log()));
+    recordNewBlockEvent(BLOCK_NUMBER + 1, receiptWithLog(log()));
 
     assertThat(filterManager.logsChanges(filterId).size()).isEqualTo(2);
     assertThat(filterManager.logsChanges(filterId).size()).isEqualTo(0);
   }
 
-  private void recordNewBlockEvent() {
+  private Block recordNewBlockEvent(final long blockNumber, final TransactionReceipt receipt) {
+    final Block block = block(blockNumber);
     filterManager.recordBlockEvent(
-        BlockAddedEvent.createForHeadAdvancement(new BlockDataGenerator().block()),
+        BlockAddedEvent.createForHeadAdvancement(block, Lists.newArrayList(receipt)),
         blockchainQueries.getBlockchain());
+    return block;
+  }
+
+  private Block block(final long blockNumber) {
+    final BlockDataGenerator gen = new BlockDataGenerator();
+    return gen.block(
+        new BlockOptions().setBlockNumber(blockNumber).addTransaction(gen.transaction()));
+  }
+
+  private TransactionReceipt receiptWithLog(final Log log) {
+    return new TransactionReceipt(Hash.ZERO, 1L, Lists.newArrayList(log));
+  }
+
+  private Log log() {
+    return new Log(Address.fromHexString("0x0"), BytesValue.EMPTY, Lists.newArrayList());
   }
 
   @Test
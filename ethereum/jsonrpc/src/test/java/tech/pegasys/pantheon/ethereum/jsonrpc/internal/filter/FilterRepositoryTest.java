@@ -15,7 +15,13 @@ package tech.pegasys.pantheon.ethereum.jsonrpc.internal.filter;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.catchThrowable;
 
+import tech.pegasys.pantheon.ethereum.core.Address;
+import tech.pegasys.pantheon.ethereum.core.Log;
+import tech.pegasys.pantheon.ethereum.jsonrpc.internal.parameters.BlockParameter;
+import tech.pegasys.pantheon.util.bytes.BytesValue;
+
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Optional;
 
 import org.assertj.core.util.Lists;
@@ -200,4 +206,49 @@ public class FilterRepositoryTest {
     assertThat(repository.exists(filter1.getId())).isFalse();
     assertThat(repository.exists(filter2.getId())).isFalse();
   }
+
+  @Test
+  public void savedLogFiltersAreMatchedAgainstLogs() {
+    final LogFilter filter = logFilter("foo", Address.ID);
+    repository.save(filter);
+    repository.save(new BlockFilter("bar"));
+
+    assertThat(repository.hasLogFilters()).isTrue();
+    assertThat(repository.getLogFiltersMatching(log(Address.ID))).containsExactly(filter);
+    assertThat(repository.getLogFiltersMatching(log(Address.ECREC))).isEmpty();
+  }
+
+  @Test
+  public void deletedLogFiltersAreNoLongerMatched() {
+    final LogFilter filter = logFilter("foo", Address.ID);
+    repository.save(filter);
+
+    repository.delete("foo");
+
+    assertThat(repository.hasLogFilters()).isFalse();
+    assertThat(repository.getLogFiltersMatching(log(Address.ID))).isEmpty();
+  }
+
+  @Test
+  public void deleteAllShouldClearLogFilters() {
+    repository.save(logFilter("foo", Address.ID));
+    repository.save(logFilter("bar", Address.ECREC));
+
+    repository.deleteAll();
+
+    assertThat(repository.hasLogFilters()).isFalse();
+    assertThat(repository.getLogFiltersMatching(log(Address.ID))).isEmpty();
+  }
+
+  private LogFilter logFilter(final String id, final Address address) {
+    return new LogFilter(
+        id,
+        new BlockParameter("latest"),
+        new BlockParameter("latest"),
+        new LogsQuery.Builder().address(address).build());
+  }
+
+  private Log log(final Address address) {
+    return new Log(address, BytesValue.EMPTY, Collections.emptyList());
+  }
 }
@@ -0,0 +1,160 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.jsonrpc.internal.filter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import tech.pegasys.pantheon.ethereum.core.Address;
+import tech.pegasys.pantheon.ethereum.core.Log;
+import tech.pegasys.pantheon.ethereum.core.LogTopic;
+import tech.pegasys.pantheon.util.bytes.BytesValue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.google.common.collect.Lists;
+import org.junit.Test;
+
+public class LogsQueryIndexTest {
+
+  private static final Address ADDRESS_1 =
+      Address.fromHexString("0x1111111111111111111111111111111111111111");
+  private static final Address ADDRESS_2 =
+      Address.fromHexString("0x2222222222222222222222222222222222222222");
+  private static final LogTopic TOPIC_1 =
+      LogTopic.fromHexString("0xaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaa");
+  private static final LogTopic TOPIC_2 =
+      LogTopic.fromHexString("0xbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbb");
+
+  private final LogsQueryIndex<String> index = new LogsQueryIndex<>();
+
+  @Test
+  public void emptyIndexMatchesNothing() {
+    assertThat(index.isEmpty()).isTrue();
+    assertThat(index.matching(log(ADDRESS_1, TOPIC_1))).isEmpty();
+  }
+
+  @Test
+  public void matchesQueriesByAddress() {
+    index.add("address1", new LogsQuery.Builder().address(ADDRESS_1).build());
+    index.add("address2", new LogsQuery.Builder().address(ADDRESS_2).build());
+    index.add("both", new LogsQuery.Builder().addresses(ADDRESS_1, ADDRESS_2).build());
+
+    assertThat(index.matching(log(ADDRESS_1))).containsExactlyInAnyOrder("address1", "both");
+    assertThat(index.matching(log(ADDRESS_2))).containsExactlyInAnyOrder("address2", "both");
+  }
+
+  @Test
+  public void matchesQueriesByTopic() {
+    index.add("topic1", query(Lists.newArrayList(TOPIC_1)));
+    index.add("topic2", query(Lists.newArrayList(TOPIC_2)));
+    index.add("secondTopic2", query(wildcard(), Lists.newArrayList(TOPIC_2)));
+
+    assertThat(index.matching(log(ADDRESS_1, TOPIC_1))).containsExactly("topic1");
+    assertThat(index.matching(log(ADDRESS_1, TOPIC_1, TOPIC_2)))
+        .containsExactlyInAnyOrder("topic1", "secondTopic2");
+    assertThat(index.matching(log(ADDRESS_1, TOPIC_2))).containsExactly("topic2");
+  }
+
+  @Test
+  public void candidatesMustMatchTheWholeQuery() {
+    index.add(
+        "address1AndTopic2",
+        new LogsQuery.Builder()
+            .address(ADDRESS_1)
+            .topics(Lists.<List<LogTopic>>newArrayList(Lists.newArrayList(TOPIC_2)))
+            .build());
+
+    assertThat(index.matching(log(ADDRESS_1, TOPIC_1))).isEmpty();
+    assertThat(index.matching(log(ADDRESS_1, TOPIC_2))).containsExactly("address1AndTopic2");
+  }
+
+  @Test
+  public void queriesMatchingAnyLogMatchEveryLog() {
+    index.add("all", new LogsQuery.Builder().build());
+    index.add("anyFirstTopic", query(wildcard()));
+
+    assertThat(index.matching(log(ADDRESS_1))).containsExactly("all");
+    assertThat(index.matching(log(ADDRESS_2, TOPIC_2)))
+        .containsExactlyInAnyOrder("all", "anyFirstTopic");
+  }
+
+  @Test
+  public void matchesEachQueryOnce() {
+    index.add("eitherTopic", query(Lists.newArrayList(TOPIC_1, TOPIC_2)));
+
+    assertThat(index.matching(log(ADDRESS_1, TOPIC_2, TOPIC_1))).containsExactly("eitherTopic");
+  }
+
+  @Test
+  public void removedQueriesNoLongerMatch() {
+    final LogsQuery byAddress = new LogsQuery.Builder().addresses(ADDRESS_1, ADDRESS_2).build();
+    final LogsQuery byTopic = query(Lists.newArrayList(TOPIC_1));
+    final LogsQuery all = new LogsQuery.Builder().build();
+    index.add("address", byAddress);
+    index.add("topic", byTopic);
+    index.add("all", all);
+
+    index.remove("address", byAddress);
+    index.remove("topic", byTopic);
+
+    assertThat(index.matching(log(ADDRESS_1, TOPIC_1))).containsExactly("all");
+
+    index.remove("all", all);
+
+    assertThat(index.matching(log(ADDRESS_1, TOPIC_1))).isEmpty();
+    assertThat(index.isEmpty()).isTrue();
+  }
+
+  @Test
+  public void removeOnlyRemovesTheGivenValue() {
+    final LogsQuery query = new LogsQuery.Builder().address(ADDRESS_1).build();
+    index.add("first", query);
+    index.add("second", query);
+
+    index.remove("first", query);
+
+    assertThat(index.matching(log(ADDRESS_1))).containsExactly("second");
+  }
+
+  @Test
+  public void clearRemovesAllQueries() {
+    index.add("address", new LogsQuery.Builder().address(ADDRESS_1).build());
+    index.add("topic", query(Lists.newArrayList(TOPIC_1)));
+    index.add("all", new LogsQuery.Builder().build());
+
+    index.clear();
+
+    assertThat(index.isEmpty()).isTrue();
+    assertThat(index.matching(log(ADDRESS_1, TOPIC_1))).isEmpty();
+  }
+
+  @SafeVarargs
+  private static LogsQuery query(final List<LogTopic>... topics) {
+    return new LogsQuery.Builder().topics(Lists.newArrayList(topics)).build();
+  }
+
+  private static List<LogTopic> wildcard() {
+    final List<LogTopic> wildcard = new ArrayList<>();
+    wildcard.add(null);
+    return wildcard;
+  }
+
+  private static Log log(final Address address, final LogTopic... topics) {
+    return new Log(
+        address,
+        BytesValue.fromHexString("0x0102"),
+        topics.length == 0 ? Collections.emptyList() : Lists.newArrayList(topics));
+  }
+}
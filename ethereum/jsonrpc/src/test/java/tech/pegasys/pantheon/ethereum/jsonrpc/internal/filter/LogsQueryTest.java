@@ -17,9 +17,11 @@ import static org.assertj.core.api.Assertions.assertThat;
 import tech.pegasys.pantheon.ethereum.core.Address;
 import tech.pegasys.pantheon.ethereum.core.Log;
 import tech.pegasys.pantheon.ethereum.core.LogTopic;
+import tech.pegasys.pantheon.ethereum.core.LogsBloomFilter;
 import tech.pegasys.pantheon.util.bytes.BytesValue;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import com.google.common.collect.Lists;
@@ -414,4 +416,47 @@ public class LogsQueryTest {
 
     assertThat(query.matches(log)).isTrue();
   }
+
+  @Test
+  public void bloomOfMatchingLogCouldMatch() {
+    final Address address = Address.fromHexString("0x1111111111111111111111111111111111111111");
+    final LogTopic topic =
+        LogTopic.fromHexString(
+            "0xaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaa");
+    final LogsQuery query =
+        new LogsQuery.Builder()
+            .address(address)
+            .topics(Lists.<List<LogTopic>>newArrayList(Lists.newArrayList(topic)))
+            .build();
+
+    final Log log = new Log(address, BytesValue.fromHexString("0x0102"), Lists.newArrayList(topic));
+    final LogsBloomFilter bloom = LogsBloomFilter.compute(Collections.singletonList(log));
+
+    assertThat(query.matches(log)).isTrue();
+    assertThat(query.couldMatch(bloom)).isTrue();
+  }
+
+  @Test
+  public void bloomWithoutQueriedAddressCannotMatch() {
+    final Address address1 = Address.fromHexString("0x1111111111111111111111111111111111111111");
+    final Address address2 = Address.fromHexString("0x2222222222222222222222222222222222222222");
+    final LogsQuery query = new LogsQuery.Builder().address(address1).build();
+
+    final Log log = new Log(address2, BytesValue.fromHexString("0x0102"), new ArrayList<>());
+    final LogsBloomFilter bloom = LogsBloomFilter.compute(Collections.singletonList(log));
+
+    assertThat(query.couldMatch(bloom)).isFalse();
+  }
+
+  @Test
+  public void wildcardTopicDoesNotConstrainBloom() {
+    final List<LogTopic> wildcard = new ArrayList<>();
+    wildcard.add(null);
+    final List<List<LogTopic>> queryParameter = new ArrayList<>();
+    queryParameter.add(wildcard);
+    final LogsQuery query = new LogsQuery.Builder().topics(queryParameter).build();
+
+    assertThat(query.getBloomCriteria()).isEmpty();
+    assertThat(query.couldMatch(LogsBloomFilter.empty())).isTrue();
+  }
 }
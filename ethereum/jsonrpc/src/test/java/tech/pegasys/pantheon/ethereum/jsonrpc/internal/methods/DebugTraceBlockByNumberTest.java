@@ -0,0 +1,84 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.jsonrpc.internal.methods;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+import tech.pegasys.pantheon.ethereum.core.Hash;
+import tech.pegasys.pantheon.ethereum.jsonrpc.internal.JsonRpcRequest;
+import tech.pegasys.pantheon.ethereum.jsonrpc.internal.parameters.JsonRpcParameter;
+import tech.pegasys.pantheon.ethereum.jsonrpc.internal.processor.TransactionTracer;
+import tech.pegasys.pantheon.ethereum.jsonrpc.internal.queries.BlockchainQueries;
+import tech.pegasys.pantheon.ethereum.jsonrpc.internal.response.JsonRpcSuccessResponse;
+
+import java.util.Collections;
+import java.util.Optional;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+
+public class DebugTraceBlockByNumberTest {
+
+  private final JsonRpcParameter parameters = new JsonRpcParameter();
+  private final BlockchainQueries blockchain = mock(BlockchainQueries.class);
+  private final TransactionTracer transactionTracer = mock(TransactionTracer.class);
+  private final DebugTraceBlockByNumber debugTraceBlockByNumber =
+      new DebugTraceBlockByNumber(blockchain, transactionTracer, parameters);
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  private final Hash blockHash =
+      Hash.fromHexString("aaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaa");
+
+  @Test
+  public void nameShouldBeDebugTraceBlockByNumber() {
+    assertThat(debugTraceBlockByNumber.getName()).isEqualTo("debug_traceBlockByNumber");
+  }
+
+  @Test
+  public void shouldTraceTheBlockWithTheGivenNumber() {
+    final Object[] params =
+        new Object[] {"0xc", Collections.singletonMap("disableStorage", true)};
+    final JsonRpcRequest request = new JsonRpcRequest("2.0", "debug_traceBlockByNumber", params);
+    when(blockchain.getBlockHashByNumber(12L)).thenReturn(Optional.of(blockHash));
+    when(transactionTracer.traceBlock(
+            eq(blockHash), argThat(options -> !options.isStorageEnabled()), any(), any()))
+        .thenReturn(true);
+
+    final JsonRpcSuccessResponse response =
+        (JsonRpcSuccessResponse) debugTraceBlockByNumber.response(request);
+    final JsonNode result = objectMapper.valueToTree(response.getResult());
+
+    assertThat(result.isArray()).isTrue();
+    assertThat(result).isEmpty();
+  }
+
+  @Test
+  public void shouldReturnNullWhenBlockIsNotFound() {
+    final JsonRpcRequest request =
+        new JsonRpcRequest("2.0", "debug_traceBlockByNumber", new Object[] {"0xc"});
+    when(blockchain.getBlockHashByNumber(12L)).thenReturn(Optional.empty());
+
+    final JsonRpcSuccessResponse response =
+        (JsonRpcSuccessResponse) debugTraceBlockByNumber.response(request);
+
+    assertThat(response.getResult()).isNull();
+    verifyZeroInteractions(transactionTracer);
+  }
+}
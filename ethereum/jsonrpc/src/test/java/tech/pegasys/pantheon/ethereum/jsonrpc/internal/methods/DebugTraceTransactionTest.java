@@ -12,6 +12,7 @@
  */
 package tech.pegasys.pantheon.ethereum.jsonrpc.internal.methods;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.Assert.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
@@ -23,6 +24,7 @@ import tech.pegasys.pantheon.ethereum.core.Gas;
 import tech.pegasys.pantheon.ethereum.core.Hash;
 import tech.pegasys.pantheon.ethereum.core.Transaction;
 import tech.pegasys.pantheon.ethereum.debug.TraceFrame;
+import tech.pegasys.pantheon.ethereum.debug.TraceOptions;
 import tech.pegasys.pantheon.ethereum.jsonrpc.internal.JsonRpcRequest;
 import tech.pegasys.pantheon.ethereum.jsonrpc.internal.parameters.JsonRpcParameter;
 import tech.pegasys.pantheon.ethereum.jsonrpc.internal.processor.TransactionTrace;
@@ -30,7 +32,6 @@ import tech.pegasys.pantheon.ethereum.jsonrpc.internal.processor.TransactionTrac
 import tech.pegasys.pantheon.ethereum.jsonrpc.internal.queries.BlockchainQueries;
 import tech.pegasys.pantheon.ethereum.jsonrpc.internal.queries.TransactionWithMetadata;
 import tech.pegasys.pantheon.ethereum.jsonrpc.internal.response.JsonRpcSuccessResponse;
-import tech.pegasys.pantheon.ethereum.jsonrpc.internal.results.DebugTraceTransactionResult;
 import tech.pegasys.pantheon.ethereum.jsonrpc.internal.results.StructLog;
 import tech.pegasys.pantheon.ethereum.mainnet.TransactionProcessor.Result;
 import tech.pegasys.pantheon.ethereum.vm.ExceptionalHaltReason;
@@ -42,7 +43,10 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.Test;
 
 public class DebugTraceTransactionTest {
@@ -53,6 +57,7 @@ public class DebugTraceTransactionTest {
   private final DebugTraceTransaction debugTraceTransaction =
       new DebugTraceTransaction(blockchain, transactionTracer, parameters);
   private final Transaction transaction = mock(Transaction.class);
+  private final ObjectMapper objectMapper = new ObjectMapper();
 
   private final BlockHeader blockHeader = mock(BlockHeader.class);
   private final Hash blockHash =
@@ -91,21 +96,50 @@ public class DebugTraceTransactionTest {
         new TransactionTrace(transaction, result, traceFrames);
     when(transaction.getGasLimit()).thenReturn(100L);
     when(result.getGasRemaining()).thenReturn(27L);
+    when(result.isSuccessful()).thenReturn(true);
     when(result.getOutput()).thenReturn(BytesValue.fromHexString("1234"));
     when(blockHeader.getNumber()).thenReturn(12L);
     when(blockchain.headBlockNumber()).thenReturn(12L);
     when(blockchain.transactionByHash(transactionHash))
         .thenReturn(Optional.of(transactionWithMetadata));
-    when(transactionTracer.traceTransaction(eq(blockHash), eq(transactionHash), any()))
-        .thenReturn(Optional.of(transactionTrace));
+    when(transactionTracer.traceTransaction(
+            eq(blockHash), eq(transactionHash), any(TraceOptions.class), any()))
+        .thenAnswer(
+            invocation -> {
+              final TraceOptions options = invocation.getArgument(2);
+              assertThat(options.isStorageEnabled()).isFalse();
+              final Consumer<TraceFrame> frameConsumer = invocation.getArgument(3);
+              traceFrames.forEach(frameConsumer);
+              return Optional.of(transactionTrace);
+            });
     final JsonRpcSuccessResponse response =
         (JsonRpcSuccessResponse) debugTraceTransaction.response(request);
-    final DebugTraceTransactionResult transactionResult =
-        (DebugTraceTransactionResult) response.getResult();
+    final JsonNode transactionResult = objectMapper.valueToTree(response.getResult());
 
-    assertEquals(73, transactionResult.getGas());
-    assertEquals("1234", transactionResult.getReturnValue());
-    final List<StructLog> expectedStructLogs = Collections.singletonList(new StructLog(traceFrame));
-    assertEquals(expectedStructLogs, transactionResult.getStructLogs());
+    assertEquals(73, transactionResult.get("gas").asLong());
+    assertEquals("1234", transactionResult.get("returnValue").asText());
+    assertThat(transactionResult.get("failed").asBoolean()).isFalse();
+    final JsonNode expectedStructLogs =
+        objectMapper.valueToTree(
+            Collections.singletonList(new StructLog(traceFrame, Optional.empty())));
+    assertEquals(expectedStructLogs, transactionResult.get("structLogs"));
+  }
+
+  @Test
+  public void shouldReturnNullWhenTransactionCannotBeTraced() {
+    final TransactionWithMetadata transactionWithMetadata =
+        new TransactionWithMetadata(transaction, 12L, blockHash, 2);
+    final Object[] params = new Object[] {transactionHash};
+    final JsonRpcRequest request = new JsonRpcRequest("2.0", "debug_traceTransaction", params);
+    when(blockchain.transactionByHash(transactionHash))
+        .thenReturn(Optional.of(transactionWithMetadata));
+    when(transactionTracer.traceTransaction(
+            eq(blockHash), eq(transactionHash), any(TraceOptions.class), any()))
+        .thenReturn(Optional.empty());
+
+    final JsonRpcSuccessResponse response =
+        (JsonRpcSuccessResponse) debugTraceTransaction.response(request);
+
+    assertThat(objectMapper.valueToTree(response.getResult()).isNull()).isTrue();
   }
 }
@@ -70,7 +70,8 @@ public class EthEstimateGasTest {
   @Test
   public void shouldReturnErrorWhenTransientTransactionProcessorReturnsEmpty() {
     final JsonRpcRequest request = ethEstimateGasRequest(callParameter());
-    when(transientTransactionProcessor.process(eq(modifiedCallParameter()), eq(1L)))
+    when(transientTransactionProcessor.estimateGas(
+            eq(modifiedCallParameter()), eq(1L), eq(EthEstimateGas.DEFAULT_MAX_ITERATIONS)))
         .thenReturn(Optional.empty());
 
     final JsonRpcResponse expectedResponse =
@@ -89,11 +90,32 @@ public class EthEstimateGasTest {
     assertThat(method.response(request)).isEqualToComparingFieldByField(expectedResponse);
   }
 
+  @Test
+  public void shouldReturnGasUsedWhenTransactionFailsWithBlockGasLimit() {
+    final JsonRpcRequest request = ethEstimateGasRequest(callParameter());
+    final TransientTransactionProcessingResult result =
+        mock(TransientTransactionProcessingResult.class);
+    when(result.isSuccessful()).thenReturn(false);
+    when(result.getGasEstimate()).thenReturn(21_000L);
+    mockTransientProcessorResult(result);
+
+    final JsonRpcResponse expectedResponse =
+        new JsonRpcSuccessResponse(null, Quantity.create(21_000L));
+
+    assertThat(method.response(request)).isEqualToComparingFieldByField(expectedResponse);
+  }
+
   private void mockTransientProcessorResultGasEstimate(final long gasEstimate) {
     final TransientTransactionProcessingResult result =
         mock(TransientTransactionProcessingResult.class);
-    when(result.getGasEstimate()).thenReturn(gasEstimate);
-    when(transientTransactionProcessor.process(eq(modifiedCallParameter()), eq(1L)))
+    when(result.isSuccessful()).thenReturn(true);
+    when(result.getGasLimit()).thenReturn(gasEstimate);
+    mockTransientProcessorResult(result);
+  }
+
+  private void mockTransientProcessorResult(final TransientTransactionProcessingResult result) {
+    when(transientTransactionProcessor.estimateGas(
+            eq(modifiedCallParameter()), eq(1L), eq(EthEstimateGas.DEFAULT_MAX_ITERATIONS)))
         .thenReturn(Optional.of(result));
   }
 
@@ -16,6 +16,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -25,18 +26,21 @@ import tech.pegasys.pantheon.ethereum.core.Account;
 import tech.pegasys.pantheon.ethereum.core.Address;
 import tech.pegasys.pantheon.ethereum.core.BlockHeader;
 import tech.pegasys.pantheon.ethereum.core.Hash;
-import tech.pegasys.pantheon.ethereum.core.MutableWorldState;
+import tech.pegasys.pantheon.ethereum.core.LogSeries;
 import tech.pegasys.pantheon.ethereum.core.Transaction;
 import tech.pegasys.pantheon.ethereum.core.Wei;
+import tech.pegasys.pantheon.ethereum.core.WorldState;
 import tech.pegasys.pantheon.ethereum.db.WorldStateArchive;
 import tech.pegasys.pantheon.ethereum.jsonrpc.internal.parameters.CallParameter;
 import tech.pegasys.pantheon.ethereum.jsonrpc.internal.processor.TransientTransactionProcessingResult;
 import tech.pegasys.pantheon.ethereum.jsonrpc.internal.processor.TransientTransactionProcessor;
+import tech.pegasys.pantheon.ethereum.mainnet.MainnetTransactionProcessor;
 import tech.pegasys.pantheon.ethereum.mainnet.ProtocolSchedule;
 import tech.pegasys.pantheon.ethereum.mainnet.ProtocolSpec;
 import tech.pegasys.pantheon.ethereum.mainnet.TransactionProcessor;
 import tech.pegasys.pantheon.ethereum.mainnet.TransactionProcessor.Result;
 import tech.pegasys.pantheon.ethereum.mainnet.TransactionProcessor.Result.Status;
+import tech.pegasys.pantheon.ethereum.mainnet.ValidationResult;
 import tech.pegasys.pantheon.util.bytes.BytesValue;
 
 import java.util.Optional;
@@ -61,7 +65,7 @@ public class TransientTransactionProcessorTest {
 
   @Mock private Blockchain blockchain;
   @Mock private WorldStateArchive worldStateArchive;
-  @Mock private MutableWorldState worldState;
+  @Mock private WorldState worldState;
   @Mock private ProtocolSchedule<?> protocolSchedule;
   @Mock private ProtocolSpec protocolSpec;
   @Mock private TransactionProcessor transactionProcessor;
@@ -187,16 +191,84 @@ public class TransientTransactionProcessorTest {
     verifyTransactionWasProcessed(expectedTransaction);
   }
 
+  @Test
+  public void shouldEstimateGasUsedWhenTransactionSucceedsWithIt() {
+    mockBlockchainForBlockHeader(Hash.ZERO, 1L);
+    mockWorldStateForAbsentAccount(Hash.ZERO);
+    mockProcessorRequiringGas(1L, 50_000L, 50_000L);
+
+    final Optional<TransientTransactionProcessingResult> result =
+        transientTransactionProcessor.estimateGas(callParameterWithGas(1_000_000L), 1L, 24);
+
+    assertThat(result.get().isSuccessful()).isTrue();
+    assertThat(result.get().getGasLimit()).isEqualTo(50_000L);
+    verify(transactionProcessor, times(2))
+        .processTransaction(any(), any(), any(), any(), any(), any());
+    verify(worldStateArchive).get(Hash.ZERO);
+  }
+
+  @Test
+  public void shouldSearchLowestSucceedingGasLimitWhenGasUsedIsNotEnough() {
+    mockBlockchainForBlockHeader(Hash.ZERO, 1L);
+    mockWorldStateForAbsentAccount(Hash.ZERO);
+    mockProcessorRequiringGas(1L, 60_000L, 50_000L);
+
+    final Optional<TransientTransactionProcessingResult> result =
+        transientTransactionProcessor.estimateGas(callParameterWithGas(1_000_000L), 1L, 24);
+
+    assertThat(result.get().isSuccessful()).isTrue();
+    assertThat(result.get().getGasLimit()).isEqualTo(60_000L);
+    assertThat(result.get().getGasEstimate()).isEqualTo(50_000L);
+  }
+
+  @Test
+  public void shouldStopSearchingAfterMaxIterations() {
+    mockBlockchainForBlockHeader(Hash.ZERO, 1L);
+    mockWorldStateForAbsentAccount(Hash.ZERO);
+    mockProcessorRequiringGas(1L, 60_000L, 50_000L);
+
+    final Optional<TransientTransactionProcessingResult> result =
+        transientTransactionProcessor.estimateGas(callParameterWithGas(1_000_000L), 1L, 3);
+
+    assertThat(result.get().isSuccessful()).isTrue();
+    assertThat(result.get().getGasLimit()).isGreaterThan(60_000L);
+    verify(transactionProcessor, times(4))
+        .processTransaction(any(), any(), any(), any(), any(), any());
+  }
+
+  @Test
+  public void shouldReturnFailureWhenTransactionFailsWithUpperBound() {
+    mockBlockchainForBlockHeader(Hash.ZERO, 1L);
+    mockWorldStateForAbsentAccount(Hash.ZERO);
+    mockProcessorRequiringGas(1L, 2_000_000L, 50_000L);
+
+    final Optional<TransientTransactionProcessingResult> result =
+        transientTransactionProcessor.estimateGas(callParameterWithGas(1_000_000L), 1L, 24);
+
+    assertThat(result.get().isSuccessful()).isFalse();
+    verify(transactionProcessor).processTransaction(any(), any(), any(), any(), any(), any());
+  }
+
+  @Test
+  public void shouldNotEstimateGasWhenBlockDoesNotExist() {
+    when(blockchain.getBlockHeader(eq(1L))).thenReturn(Optional.empty());
+
+    final Optional<TransientTransactionProcessingResult> result =
+        transientTransactionProcessor.estimateGas(callParameter(), 1L, 24);
+
+    assertThat(result.isPresent()).isFalse();
+  }
+
   private void mockWorldStateForAccount(
       final Hash stateRoot, final Address address, final long nonce) {
     final Account account = mock(Account.class);
     when(account.getNonce()).thenReturn(nonce);
-    when(worldStateArchive.getMutable(eq(stateRoot))).thenReturn(worldState);
+    when(worldStateArchive.get(eq(stateRoot))).thenReturn(worldState);
     when(worldState.get(eq(address))).thenReturn(account);
   }
 
   private void mockWorldStateForAbsentAccount(final Hash stateRoot) {
-    when(worldStateArchive.getMutable(eq(stateRoot))).thenReturn(worldState);
+    when(worldStateArchive.get(eq(stateRoot))).thenReturn(worldState);
     when(worldState.get(any())).thenReturn(null);
   }
 
@@ -232,6 +304,26 @@ public class TransientTransactionProcessorTest {
         .thenReturn(result);
   }
 
+  private void mockProcessorRequiringGas(
+      final long blockNumber, final long gasRequired, final long gasUsed) {
+    when(protocolSchedule.getByBlockNumber(eq(blockNumber))).thenReturn(protocolSpec);
+    when(protocolSpec.getTransactionProcessor()).thenReturn(transactionProcessor);
+    when(protocolSpec.getMiningBeneficiaryCalculator()).thenReturn(BlockHeader::getCoinbase);
+
+    when(transactionProcessor.processTransaction(any(), any(), any(), any(), any(), any()))
+        .thenAnswer(
+            invocation -> {
+              final long gasLimit = ((Transaction) invocation.getArgument(3)).getGasLimit();
+              return gasLimit >= gasRequired
+                  ? MainnetTransactionProcessor.Result.successful(
+                      LogSeries.empty(),
+                      gasLimit - gasUsed,
+                      BytesValue.EMPTY,
+                      ValidationResult.valid())
+                  : MainnetTransactionProcessor.Result.failed(0L, ValidationResult.valid());
+            });
+  }
+
   private void verifyTransactionWasProcessed(final Transaction expectedTransaction) {
     verify(transactionProcessor)
         .processTransaction(any(), any(), any(), eq(expectedTransaction), any(), any());
@@ -240,4 +332,8 @@ public class TransientTransactionProcessorTest {
   private CallParameter callParameter() {
     return new CallParameter("0x0", "0x0", "0x0", "0x0", "0x0", "");
   }
+
+  private CallParameter callParameterWithGas(final long gasLimit) {
+    return new CallParameter("0x0", "0x0", "0x" + Long.toHexString(gasLimit), "0x0", "0x0", "");
+  }
 }
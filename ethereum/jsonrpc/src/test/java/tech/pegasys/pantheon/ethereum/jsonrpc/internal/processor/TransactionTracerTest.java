@@ -16,6 +16,9 @@ import static org.junit.Assert.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
 
 import tech.pegasys.pantheon.ethereum.chain.Blockchain;
@@ -28,16 +31,19 @@ import tech.pegasys.pantheon.ethereum.core.Transaction;
 import tech.pegasys.pantheon.ethereum.core.WorldUpdater;
 import tech.pegasys.pantheon.ethereum.db.WorldStateArchive;
 import tech.pegasys.pantheon.ethereum.debug.TraceFrame;
+import tech.pegasys.pantheon.ethereum.debug.TraceOptions;
 import tech.pegasys.pantheon.ethereum.mainnet.ProtocolSchedule;
 import tech.pegasys.pantheon.ethereum.mainnet.ProtocolSpec;
 import tech.pegasys.pantheon.ethereum.mainnet.TransactionProcessor;
 import tech.pegasys.pantheon.ethereum.mainnet.TransactionProcessor.Result;
 import tech.pegasys.pantheon.ethereum.vm.DebugOperationTracer;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -195,4 +201,54 @@ public class TransactionTracerTest {
 
     assertEquals(Optional.empty(), transactionTrace);
   }
+
+  @Test
+  public void traceBlockShouldReturnFalseWhenBlockHeaderNotFound() {
+    @SuppressWarnings("unchecked")
+    final Consumer<TransactionTrace> traceConsumer = mock(Consumer.class);
+
+    final boolean traced =
+        transactionTracer.traceBlock(
+            invalidBlockHash, TraceOptions.DEFAULT, frame -> {}, traceConsumer);
+
+    assertEquals(false, traced);
+    verifyZeroInteractions(traceConsumer);
+  }
+
+  @Test
+  public void traceBlockShouldTraceEveryTransactionAndCommitEachOne() {
+    final Result result = mock(Result.class);
+    final Result otherResult = mock(Result.class);
+    final WorldUpdater updater = mock(WorldUpdater.class);
+
+    when(blockchain.getBlockHeader(blockHash)).thenReturn(Optional.of(blockHeader));
+    when(blockchain.getBlockHeader(previousBlockHash)).thenReturn(Optional.of(previousBlockHeader));
+    when(blockBody.getTransactions()).thenReturn(Arrays.asList(otherTransaction, transaction));
+    when(blockchain.getBlockBody(blockHash)).thenReturn(Optional.of(blockBody));
+    when(mutableWorldState.updater()).thenReturn(updater);
+    when(transactionProcessor.processTransaction(
+            eq(blockchain),
+            eq(updater),
+            eq(blockHeader),
+            eq(otherTransaction),
+            any(),
+            any(),
+            any()))
+        .thenReturn(otherResult);
+    when(transactionProcessor.processTransaction(
+            eq(blockchain), eq(updater), eq(blockHeader), eq(transaction), any(), any(), any()))
+        .thenReturn(result);
+
+    final List<TransactionTrace> traces = new ArrayList<>();
+    final boolean traced =
+        transactionTracer.traceBlock(blockHash, TraceOptions.DEFAULT, frame -> {}, traces::add);
+
+    assertEquals(true, traced);
+    assertEquals(2, traces.size());
+    assertEquals(otherTransaction, traces.get(0).getTransaction());
+    assertEquals(otherResult, traces.get(0).getResult());
+    assertEquals(transaction, traces.get(1).getTransaction());
+    assertEquals(result, traces.get(1).getResult());
+    verify(updater, times(2)).commit();
+  }
 }
@@ -0,0 +1,362 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.jsonrpc.internal.queries;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static tech.pegasys.pantheon.ethereum.core.InMemoryStorageProvider.createInMemoryBlockchain;
+
+import tech.pegasys.pantheon.ethereum.chain.MutableBlockchain;
+import tech.pegasys.pantheon.ethereum.core.Address;
+import tech.pegasys.pantheon.ethereum.core.Block;
+import tech.pegasys.pantheon.ethereum.core.BlockDataGenerator;
+import tech.pegasys.pantheon.ethereum.core.BlockDataGenerator.BlockOptions;
+import tech.pegasys.pantheon.ethereum.core.BlockHeader;
+import tech.pegasys.pantheon.ethereum.core.Hash;
+import tech.pegasys.pantheon.ethereum.core.LogsBloomFilter;
+import tech.pegasys.pantheon.ethereum.db.DefaultMutableBlockchain;
+import tech.pegasys.pantheon.ethereum.jsonrpc.internal.filter.LogsQuery;
+import tech.pegasys.pantheon.ethereum.mainnet.MainnetBlockHashFunction;
+import tech.pegasys.pantheon.ethereum.storage.keyvalue.KeyValueStoragePrefixedKeyBlockchainStorage;
+import tech.pegasys.pantheon.metrics.noop.NoOpMetricsSystem;
+import tech.pegasys.pantheon.services.kvstore.InMemoryKeyValueStorage;
+import tech.pegasys.pantheon.util.bytes.BytesValue;
+import tech.pegasys.pantheon.util.uint.UInt256;
+
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongConsumer;
+import java.util.stream.Collectors;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.MoreExecutors;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class LogBloomIndexTest {
+
+  private static final int SECTION_SIZE = 8;
+  private static final long CONFIRMATIONS = 4;
+
+  @Rule public final TemporaryFolder folder = new TemporaryFolder();
+
+  private final BlockDataGenerator gen = new BlockDataGenerator();
+  private MutableBlockchain blockchain;
+  private Path indexDirectory;
+
+  @Before
+  public void setUp() throws Exception {
+    blockchain = createBlockchain(30);
+    indexDirectory = folder.newFolder().toPath();
+  }
+
+  @Test
+  public void indexesOnlyConfirmedSections() {
+    final LogBloomIndex index = createIndex(blockchain);
+    index.indexSections();
+
+    // Blocks 0 to 23 are confirmed, but blocks 24 to 29 are not.
+    final List<List<BytesValue>> criteria = criteria(gen.address());
+    assertThat(index.candidateBlocks(0, criteria)).isPresent();
+    assertThat(index.candidateBlocks(2, criteria)).isPresent();
+    assertThat(index.candidateBlocks(3, criteria)).isEmpty();
+  }
+
+  @Test
+  public void candidatesAreTheBlocksWhoseBloomCouldContainTheValue() {
+    final LogBloomIndex index = createIndex(blockchain);
+    index.indexSections();
+
+    for (int i = 0; i < 10; ++i) {
+      final Address address = gen.address();
+      for (long section = 0; section < 3; ++section) {
+        final BitSet candidates = index.candidateBlocks(section, criteria(address)).get();
+        for (int offset = 0; offset < SECTION_SIZE; ++offset) {
+          final LogsBloomFilter bloom =
+              blockchain
+                  .getBlockHeader(section * SECTION_SIZE + offset)
+                  .get()
+                  .getLogsBloom();
+          assertThat(candidates.get(offset)).isEqualTo(bloom.couldContain(address));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void candidatesMustMatchEveryCriterion() {
+    final LogBloomIndex index = createIndex(blockchain);
+    index.indexSections();
+
+    final Address address = gen.address();
+    final BytesValue topic = gen.hash();
+    final List<List<BytesValue>> criteria =
+        ImmutableList.of(ImmutableList.of(address), ImmutableList.of(topic));
+
+    final BitSet candidates = index.candidateBlocks(1, criteria).get();
+    for (int offset = 0; offset < SECTION_SIZE; ++offset) {
+      final LogsBloomFilter bloom =
+          blockchain.getBlockHeader(SECTION_SIZE + offset).get().getLogsBloom();
+      assertThat(candidates.get(offset))
+          .isEqualTo(bloom.couldContain(address) && bloom.couldContain(topic));
+    }
+  }
+
+  @Test
+  public void emptyCriteriaAreNotLookedUp() {
+    final LogBloomIndex index = createIndex(blockchain);
+    index.indexSections();
+
+    assertThat(index.candidateBlocks(0, Collections.emptyList())).isEmpty();
+  }
+
+  @Test
+  public void ignoresSectionsIndexedFromAnotherChain() {
+    createIndex(createBlockchain(30)).indexSections();
+
+    final LogBloomIndex index = createIndex(blockchain);
+    assertThat(index.candidateBlocks(0, criteria(gen.address()))).isEmpty();
+
+    index.indexSections();
+    assertThat(index.candidateBlocks(0, criteria(gen.address()))).isPresent();
+  }
+
+  @Test
+  public void indexesInBackgroundWhenASectionIsConfirmed() {
+    final LogBloomIndex index = createIndex(blockchain);
+    blockchain.observeBlockAdded(index);
+
+    appendBlocks(blockchain, 10);
+
+    // The chain head is now block 39, which confirms the sections up to block 31.
+    assertThat(index.candidateBlocks(3, criteria(gen.address()))).isPresent();
+    assertThat(index.candidateBlocks(4, criteria(gen.address()))).isEmpty();
+  }
+
+  @Test
+  public void indexesSectionsConfirmedWhileAPassIsRunning() {
+    final QueueingExecutorService executor = new QueueingExecutorService();
+    final ObservedBlockchain blockchain = createObservedBlockchain(30);
+    final LogBloomIndex index = createIndex(blockchain, executor);
+    blockchain.observeBlockAdded(index);
+
+    // The chain head is now block 30, which confirms the sections up to block 23.
+    appendBlocks(blockchain, 1);
+    // Confirm section 3 while the pass indexing the sections before it reads the chain.
+    blockchain.onRead(
+        number -> {
+          blockchain.onRead(n -> {});
+          appendBlocks(blockchain, 8);
+        });
+    executor.runPending();
+
+    assertThat(index.candidateBlocks(2, criteria(gen.address()))).isPresent();
+    assertThat(index.candidateBlocks(3, criteria(gen.address()))).isPresent();
+  }
+
+  @Test
+  public void reorgIsIndexedFromTheSectionOfTheCommonAncestor() {
+    final ObservedBlockchain blockchain = createObservedBlockchain(30);
+    final LogBloomIndex index = createIndex(blockchain);
+    blockchain.observeBlockAdded(index);
+    index.indexSections();
+
+    // Fork from block 19, in section 2. The fork overtakes the chain with its first block.
+    final Set<Long> blocksRead = new HashSet<>();
+    Hash parentHash = blockchain.getBlockHashByNumber(19).get();
+    blockchain.onRead(blocksRead::add);
+    for (long number = 20; number < 32; ++number) {
+      final Block block =
+          gen.block(
+              new BlockOptions()
+                  .setBlockNumber(number)
+                  .setParentHash(parentHash)
+                  .setDifficulty(UInt256.of(1L << 40)));
+      blockchain.appendBlock(block, gen.receipts(block));
+      parentHash = block.getHash();
+    }
+    assertThat(blockchain.getChainHeadHash()).isEqualTo(parentHash);
+
+    assertThat(blocksRead).allMatch(number -> number >= SECTION_SIZE);
+    final Address address = gen.address();
+    final BitSet candidates = index.candidateBlocks(2, criteria(address)).get();
+    for (int offset = 0; offset < SECTION_SIZE; ++offset) {
+      final LogsBloomFilter bloom =
+          blockchain.getBlockHeader(2 * SECTION_SIZE + offset).get().getLogsBloom();
+      assertThat(candidates.get(offset)).isEqualTo(bloom.couldContain(address));
+    }
+  }
+
+  private LogBloomIndex createIndex(final MutableBlockchain blockchain) {
+    return createIndex(blockchain, MoreExecutors.newDirectExecutorService());
+  }
+
+  private LogBloomIndex createIndex(
+      final MutableBlockchain blockchain, final ExecutorService executor) {
+    return new LogBloomIndex(blockchain, indexDirectory, executor, SECTION_SIZE, CONFIRMATIONS);
+  }
+
+  @Test
+  public void logSearchRunsEachSectionOnTheExecutorAndKeepsChainOrder() {
+    final LogBloomIndex index = createIndex(blockchain);
+    index.indexSections();
+    final LogsQuery query = new LogsQuery.Builder().build();
+    final List<Hash> expected =
+        transactionHashes(new BlockchainQueries(blockchain, null).matchingLogs(3, 29, query));
+
+    final AtomicInteger sectionsSubmitted = new AtomicInteger();
+    final ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      final BlockchainQueries queries =
+          new BlockchainQueries(
+              blockchain,
+              null,
+              Optional.of(index),
+              task -> {
+                sectionsSubmitted.incrementAndGet();
+                executor.execute(task);
+              });
+
+      assertThat(transactionHashes(queries.matchingLogs(3, 29, query))).isEqualTo(expected);
+      // Blocks 3 to 29 span sections 0 to 3.
+      assertThat(sectionsSubmitted.get()).isEqualTo(4);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private static List<Hash> transactionHashes(final List<LogWithMetadata> logs) {
+    return logs.stream().map(LogWithMetadata::getTransactionHash).collect(Collectors.toList());
+  }
+
+  private MutableBlockchain createBlockchain(final int blockCount) {
+    final List<Block> blocks = gen.blockSequence(blockCount);
+    final MutableBlockchain blockchain = createInMemoryBlockchain(blocks.get(0));
+    blocks.subList(1, blocks.size()).forEach(b -> blockchain.appendBlock(b, gen.receipts(b)));
+    return blockchain;
+  }
+
+  private ObservedBlockchain createObservedBlockchain(final int blockCount) {
+    final List<Block> blocks = gen.blockSequence(blockCount);
+    final ObservedBlockchain blockchain = new ObservedBlockchain(blocks.get(0));
+    blocks.subList(1, blocks.size()).forEach(b -> blockchain.appendBlock(b, gen.receipts(b)));
+    return blockchain;
+  }
+
+  private void appendBlocks(final MutableBlockchain blockchain, final int blockCount) {
+    for (int i = 0; i < blockCount; ++i) {
+      final Block block =
+          gen.block(
+              new BlockOptions()
+                  .setBlockNumber(blockchain.getChainHeadBlockNumber() + 1)
+                  .setParentHash(blockchain.getChainHeadHash()));
+      blockchain.appendBlock(block, gen.receipts(block));
+    }
+  }
+
+  private static List<List<BytesValue>> criteria(final BytesValue value) {
+    return ImmutableList.of(ImmutableList.of(value));
+  }
+
+  /** A blockchain which reports the blocks read by number. */
+  private static class ObservedBlockchain extends DefaultMutableBlockchain {
+    private LongConsumer onRead = number -> {};
+
+    private ObservedBlockchain(final Block genesisBlock) {
+      super(
+          genesisBlock,
+          new KeyValueStoragePrefixedKeyBlockchainStorage(
+              new InMemoryKeyValueStorage(), MainnetBlockHashFunction::createHash),
+          new NoOpMetricsSystem());
+    }
+
+    private void onRead(final LongConsumer onRead) {
+      this.onRead = onRead;
+    }
+
+    @Override
+    public Optional<BlockHeader> getBlockHeader(final long blockNumber) {
+      onRead.accept(blockNumber);
+      return super.getBlockHeader(blockNumber);
+    }
+
+    @Override
+    public Optional<Hash> getBlockHashByNumber(final long number) {
+      onRead.accept(number);
+      return super.getBlockHashByNumber(number);
+    }
+  }
+
+  /** An executor which runs its tasks only when asked to. */
+  private static class QueueingExecutorService extends AbstractExecutorService {
+    private final Queue<Runnable> pending = new ArrayDeque<>();
+    private boolean shutdown = false;
+
+    private void runPending() {
+      while (!pending.isEmpty()) {
+        pending.poll().run();
+      }
+    }
+
+    @Override
+    public void execute(final Runnable command) {
+      if (shutdown) {
+        throw new RejectedExecutionException();
+      }
+      pending.add(command);
+    }
+
+    @Override
+    public void shutdown() {
+      shutdown = true;
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+      shutdown = true;
+      final List<Runnable> notRun = new ArrayList<>(pending);
+      pending.clear();
+      return notRun;
+    }
+
+    @Override
+    public boolean isShutdown() {
+      return shutdown;
+    }
+
+    @Override
+    public boolean isTerminated() {
+      return shutdown && pending.isEmpty();
+    }
+
+    @Override
+    public boolean awaitTermination(final long timeout, final TimeUnit unit) {
+      return isTerminated();
+    }
+  }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.jsonrpc.internal.results;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import tech.pegasys.pantheon.ethereum.core.Gas;
+import tech.pegasys.pantheon.ethereum.core.Transaction;
+import tech.pegasys.pantheon.ethereum.debug.TraceFrame;
+import tech.pegasys.pantheon.ethereum.jsonrpc.internal.processor.TransactionTrace;
+import tech.pegasys.pantheon.ethereum.mainnet.TransactionProcessor.Result;
+import tech.pegasys.pantheon.ethereum.vm.ExceptionalHaltReason;
+import tech.pegasys.pantheon.util.bytes.BytesValue;
+import tech.pegasys.pantheon.util.uint.UInt256;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+
+public class StreamingDebugTraceBlockResultTest {
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private final Transaction transaction = mock(Transaction.class);
+  private final Result result = mock(Result.class);
+
+  @Test
+  public void shouldSerializeTraceOfEachTransactionInOrder() {
+    when(transaction.getGasLimit()).thenReturn(100L);
+    when(result.getGasRemaining()).thenReturn(27L);
+    when(result.getOutput()).thenReturn(BytesValue.fromHexString("1234"));
+    final List<TraceFrame> firstFrames =
+        Arrays.asList(
+            traceFrame(0, Collections.singletonMap(UInt256.ONE, UInt256.of(5))),
+            traceFrame(1, Collections.singletonMap(UInt256.of(2), UInt256.of(6))));
+    final List<TraceFrame> secondFrames =
+        Collections.singletonList(traceFrame(0, Collections.emptyMap()));
+
+    final JsonNode streamed =
+        objectMapper.valueToTree(
+            new StreamingDebugTraceBlockResult(
+                (frameConsumer, traceConsumer) -> {
+                  firstFrames.forEach(frameConsumer);
+                  traceConsumer.accept(trace(Collections.emptyList()));
+                  traceConsumer.accept(trace(Collections.emptyList()));
+                  secondFrames.forEach(frameConsumer);
+                  traceConsumer.accept(trace(Collections.emptyList()));
+                  return true;
+                }));
+
+    assertThat(streamed.isArray()).isTrue();
+    assertThat(streamed).hasSize(3);
+    assertThat(streamed.get(0))
+        .isEqualTo(objectMapper.valueToTree(new DebugTraceTransactionResult(trace(firstFrames))));
+    assertThat(streamed.get(1).get("structLogs")).isEmpty();
+    // Storage accumulated by an earlier transaction isn't shown in the next one.
+    assertThat(streamed.get(2))
+        .isEqualTo(objectMapper.valueToTree(new DebugTraceTransactionResult(trace(secondFrames))));
+  }
+
+  @Test
+  public void shouldSerializeEmptyArrayWhenBlockHasNoTransactions() {
+    final JsonNode streamed =
+        objectMapper.valueToTree(
+            new StreamingDebugTraceBlockResult((frameConsumer, traceConsumer) -> true));
+
+    assertThat(streamed.isArray()).isTrue();
+    assertThat(streamed).isEmpty();
+  }
+
+  @Test
+  public void shouldSerializeNullWhenBlockCannotBeTraced() {
+    final JsonNode streamed =
+        objectMapper.valueToTree(
+            new StreamingDebugTraceBlockResult((frameConsumer, traceConsumer) -> false));
+
+    assertThat(streamed.isNull()).isTrue();
+  }
+
+  private TransactionTrace trace(final List<TraceFrame> frames) {
+    return new TransactionTrace(transaction, result, frames);
+  }
+
+  private TraceFrame traceFrame(final int depth, final Map<UInt256, UInt256> storageChanges) {
+    return new TraceFrame(
+        1,
+        "SSTORE",
+        Gas.of(10),
+        Optional.of(Gas.of(3)),
+        depth,
+        EnumSet.noneOf(ExceptionalHaltReason.class),
+        Optional.empty(),
+        Optional.empty(),
+        Optional.of(storageChanges));
+  }
+}
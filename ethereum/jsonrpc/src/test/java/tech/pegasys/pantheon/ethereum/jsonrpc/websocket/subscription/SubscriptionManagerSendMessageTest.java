@@ -18,11 +18,16 @@ import static org.mockito.Mockito.mock;
 import tech.pegasys.pantheon.ethereum.jsonrpc.internal.results.JsonRpcResult;
 import tech.pegasys.pantheon.ethereum.jsonrpc.websocket.subscription.request.SubscribeRequest;
 import tech.pegasys.pantheon.ethereum.jsonrpc.websocket.subscription.request.SubscriptionType;
+import tech.pegasys.pantheon.ethereum.jsonrpc.websocket.subscription.response.EncodedSubscriptionResponse;
 import tech.pegasys.pantheon.ethereum.jsonrpc.websocket.subscription.response.SubscriptionResponse;
 
+import java.util.Arrays;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
 import io.vertx.core.json.Json;
 import io.vertx.ext.unit.Async;
 import io.vertx.ext.unit.TestContext;
@@ -62,10 +67,10 @@ public class SubscriptionManagerSendMessageTest {
 
     vertx
         .eventBus()
-        .consumer(connectionId)
+        .<EncodedSubscriptionResponse>consumer(connectionId)
         .handler(
             msg -> {
-              context.assertEquals(Json.encode(expectedResponse), msg.body());
+              context.assertEquals(Json.encode(expectedResponse), msg.body().encode());
               async.complete();
             })
         .completionHandler(v -> subscriptionManager.sendMessage(subscriptionId, expectedResult));
@@ -73,6 +78,54 @@ public class SubscriptionManagerSendMessageTest {
     async.awaitSuccess(VERTX_AWAIT_TIMEOUT_MILLIS);
   }
 
+  @Test
+  public void shouldSendSameResultToEverySubscriptionOnItsConnection(final TestContext context) {
+    final String connectionId1 = UUID.randomUUID().toString();
+    final String connectionId2 = UUID.randomUUID().toString();
+    final Long subscriptionId1 =
+        subscriptionManager.subscribe(
+            new SubscribeRequest(SubscriptionType.SYNCING, null, null, connectionId1));
+    final Long subscriptionId2 =
+        subscriptionManager.subscribe(
+            new SubscribeRequest(SubscriptionType.SYNCING, null, null, connectionId2));
+
+    final JsonRpcResult expectedResult = mock(JsonRpcResult.class);
+
+    final Async async = context.async(2);
+    final List<Buffer> encodedResults = new CopyOnWriteArrayList<>();
+
+    vertx
+        .eventBus()
+        .<EncodedSubscriptionResponse>consumer(connectionId1)
+        .handler(
+            msg -> {
+              context.assertEquals(
+                  Json.encode(new SubscriptionResponse(subscriptionId1, expectedResult)),
+                  msg.body().encode());
+              encodedResults.add(msg.body().getEncodedResult());
+              async.countDown();
+            });
+    vertx
+        .eventBus()
+        .<EncodedSubscriptionResponse>consumer(connectionId2)
+        .handler(
+            msg -> {
+              context.assertEquals(
+                  Json.encode(new SubscriptionResponse(subscriptionId2, expectedResult)),
+                  msg.body().encode());
+              encodedResults.add(msg.body().getEncodedResult());
+              async.countDown();
+            })
+        .completionHandler(
+            v ->
+                subscriptionManager.sendMessageToSubscriptions(
+                    Arrays.asList(subscriptionId1, 42L, subscriptionId2), expectedResult));
+
+    async.awaitSuccess(VERTX_AWAIT_TIMEOUT_MILLIS);
+    // The result is encoded once, and the same buffer is sent to both connections.
+    context.assertTrue(encodedResults.get(0) == encodedResults.get(1));
+  }
+
   @Test
   public void shouldNotSendMessageOnTheConnectionIdEventBusAddressForAbsentSubscription(
       final TestContext context) {
@@ -36,6 +36,8 @@ import tech.pegasys.pantheon.ethereum.jsonrpc.websocket.subscription.Subscriptio
 import tech.pegasys.pantheon.util.uint.UInt256;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
@@ -54,7 +56,7 @@ public class NewBlockHeadersSubscriptionServiceTest {
 
   private NewBlockHeadersSubscriptionService newBlockHeadersSubscriptionService;
 
-  @Captor ArgumentCaptor<Long> subscriptionIdCaptor;
+  @Captor ArgumentCaptor<Collection<Long>> subscriptionIdsCaptor;
   @Captor ArgumentCaptor<JsonRpcResult> responseCaptor;
 
   @Mock private SubscriptionManager subscriptionManager;
@@ -85,14 +87,14 @@ public class NewBlockHeadersSubscriptionServiceTest {
     simulateAddingBlock();
 
     verify(subscriptionManager)
-        .sendMessage(subscriptionIdCaptor.capture(), responseCaptor.capture());
-    final Long actualSubscriptionId = subscriptionIdCaptor.getValue();
+        .sendMessageToSubscriptions(subscriptionIdsCaptor.capture(), responseCaptor.capture());
+    final Collection<Long> actualSubscriptionIds = subscriptionIdsCaptor.getValue();
     final Object actualBlock = responseCaptor.getValue();
 
-    assertThat(actualSubscriptionId).isEqualTo(subscription.getId());
+    assertThat(actualSubscriptionIds).containsExactly(subscription.getId());
     assertThat(actualBlock).isEqualToComparingFieldByFieldRecursively(expectedNewBlock);
 
-    verify(subscriptionManager, times(1)).sendMessage(any(), any());
+    verify(subscriptionManager, times(1)).sendMessageToSubscriptions(any(), any());
   }
 
   @Test
@@ -109,17 +111,17 @@ public class NewBlockHeadersSubscriptionServiceTest {
     simulateAddingBlock();
 
     verify(subscriptionManager)
-        .sendMessage(subscriptionIdCaptor.capture(), responseCaptor.capture());
-    final Long actualSubscriptionId = subscriptionIdCaptor.getValue();
+        .sendMessageToSubscriptions(subscriptionIdsCaptor.capture(), responseCaptor.capture());
+    final Collection<Long> actualSubscriptionIds = subscriptionIdsCaptor.getValue();
     final Object actualBlock = responseCaptor.getValue();
 
-    assertThat(actualSubscriptionId).isEqualTo(subscription.getId());
+    assertThat(actualSubscriptionIds).containsExactly(subscription.getId());
     assertThat(actualBlock).isInstanceOf(BlockResult.class);
     final BlockResult actualBlockResult = (BlockResult) actualBlock;
     assertThat(actualBlockResult.getTransactions()).hasSize(txHashList.size());
     assertThat(actualBlock).isEqualToComparingFieldByFieldRecursively(expectedNewBlock);
 
-    verify(subscriptionManager, times(1)).sendMessage(any(), any());
+    verify(subscriptionManager, times(1)).sendMessageToSubscriptions(any(), any());
     verify(blockchainQueries, times(1)).blockByHashWithTxHashes(any());
     verify(blockchainQueries, times(0)).blockByHash(any());
   }
@@ -140,21 +142,49 @@ public class NewBlockHeadersSubscriptionServiceTest {
     simulateAddingBlock();
 
     verify(subscriptionManager)
-        .sendMessage(subscriptionIdCaptor.capture(), responseCaptor.capture());
-    final Long actualSubscriptionId = subscriptionIdCaptor.getValue();
+        .sendMessageToSubscriptions(subscriptionIdsCaptor.capture(), responseCaptor.capture());
+    final Collection<Long> actualSubscriptionIds = subscriptionIdsCaptor.getValue();
     final Object actualBlock = responseCaptor.getValue();
 
-    assertThat(actualSubscriptionId).isEqualTo(subscription.getId());
+    assertThat(actualSubscriptionIds).containsExactly(subscription.getId());
     assertThat(actualBlock).isInstanceOf(BlockResult.class);
     final BlockResult actualBlockResult = (BlockResult) actualBlock;
     assertThat(actualBlockResult.getTransactions()).hasSize(txHashList.size());
     assertThat(actualBlock).isEqualToComparingFieldByFieldRecursively(expectedNewBlock);
 
-    verify(subscriptionManager, times(1)).sendMessage(any(), any());
+    verify(subscriptionManager, times(1)).sendMessageToSubscriptions(any(), any());
     verify(blockchainQueries, times(0)).blockByHashWithTxHashes(any());
     verify(blockchainQueries, times(1)).blockByHash(any());
   }
 
+  @Test
+  public void shouldBuildEachFormOfTheBlockOnceForAllSubscriptions() {
+    final NewBlockHeadersSubscription hashes1 = new NewBlockHeadersSubscription(1L, false);
+    final NewBlockHeadersSubscription complete = new NewBlockHeadersSubscription(2L, true);
+    final NewBlockHeadersSubscription hashes2 = new NewBlockHeadersSubscription(3L, false);
+    when(subscriptionManager.subscriptionsOfType(any(), any()))
+        .thenReturn(Lists.newArrayList(hashes1, complete, hashes2));
+    final BlockWithMetadata<Hash, Hash> blockWithTxHashes =
+        new BlockWithMetadata<>(
+            blockHeader, Collections.emptyList(), Collections.emptyList(), UInt256.ONE, 1);
+    final BlockWithMetadata<TransactionWithMetadata, Hash> blockWithTransactions =
+        new BlockWithMetadata<>(
+            blockHeader, Collections.emptyList(), Collections.emptyList(), UInt256.ONE, 1);
+    when(blockchainQueries.blockByHashWithTxHashes(blockHeader.getHash()))
+        .thenReturn(Optional.of(blockWithTxHashes));
+    when(blockchainQueries.blockByHash(blockHeader.getHash()))
+        .thenReturn(Optional.of(blockWithTransactions));
+
+    simulateAddingBlock();
+
+    verify(subscriptionManager, times(2))
+        .sendMessageToSubscriptions(subscriptionIdsCaptor.capture(), responseCaptor.capture());
+    assertThat(subscriptionIdsCaptor.getAllValues())
+        .containsExactly(Collections.singletonList(2L), Arrays.asList(1L, 3L));
+    verify(blockchainQueries, times(1)).blockByHashWithTxHashes(any());
+    verify(blockchainQueries, times(1)).blockByHash(any());
+  }
+
   private void simulateAddingBlock() {
     final BlockBody blockBody = new BlockBody(Collections.emptyList(), Collections.emptyList());
     final Block testBlock = new Block(blockHeader, blockBody);
@@ -16,6 +16,7 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.refEq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -25,6 +26,7 @@ import tech.pegasys.pantheon.ethereum.chain.BlockAddedEvent;
 import tech.pegasys.pantheon.ethereum.chain.Blockchain;
 import tech.pegasys.pantheon.ethereum.core.Address;
 import tech.pegasys.pantheon.ethereum.core.Block;
+import tech.pegasys.pantheon.ethereum.core.BlockBody;
 import tech.pegasys.pantheon.ethereum.core.BlockHeader;
 import tech.pegasys.pantheon.ethereum.core.BlockHeaderTestFixture;
 import tech.pegasys.pantheon.ethereum.core.Hash;
@@ -44,6 +46,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import com.google.common.collect.Lists;
 import org.junit.Before;
@@ -80,7 +83,9 @@ public class LogsSubscriptionServiceTest {
 
     logsSubscriptionService.onBlockAdded(createBlockAddedEvent(transaction, null), blockchain);
 
-    verify(subscriptionManager).sendMessage(eq(subscription.getId()), refEq(expectedLogResult));
+    verify(subscriptionManager)
+        .sendMessageToSubscriptions(
+            eq(Collections.singletonList(subscription.getId())), refEq(expectedLogResult));
   }
 
   @Test
@@ -93,7 +98,9 @@ public class LogsSubscriptionServiceTest {
 
     logsSubscriptionService.onBlockAdded(createBlockAddedEvent(null, transaction), blockchain);
 
-    verify(subscriptionManager).sendMessage(eq(subscription.getId()), refEq(expectedLogResult));
+    verify(subscriptionManager)
+        .sendMessageToSubscriptions(
+            eq(Collections.singletonList(subscription.getId())), refEq(expectedLogResult));
   }
 
   @Test
@@ -109,7 +116,42 @@ public class LogsSubscriptionServiceTest {
 
     final int totalOfLogs = addedTransactions.size() + removedTransactions.size();
 
-    verify(subscriptionManager, times(totalOfLogs)).sendMessage(eq(subscription.getId()), any());
+    verify(subscriptionManager, times(totalOfLogs))
+        .sendMessageToSubscriptions(eq(Collections.singletonList(subscription.getId())), any());
+  }
+
+  @Test
+  public void shouldUseReceiptsOfBlockAddedEventWhenHeadAdvances() {
+    final Address address = Address.fromHexString("0x0");
+    final LogsSubscription subscription = createSubscription(address);
+    final Transaction transaction = createTransaction();
+    final Log log = createLog(address);
+    final Block block =
+        new Block(
+            blockHeaderTestFixture.buildHeader(),
+            new BlockBody(Lists.newArrayList(transaction), Collections.emptyList()));
+    final TransactionReceipt receipt =
+        new TransactionReceipt(Hash.ZERO, 1L, Lists.newArrayList(log));
+    final LogResult expectedLogResult =
+        new LogResult(
+            LogWithMetadata.create(
+                0,
+                block.getHeader().getNumber(),
+                block.getHash(),
+                transaction.hash(),
+                0,
+                log.getLogger(),
+                log.getData(),
+                log.getTopics(),
+                false));
+
+    logsSubscriptionService.onBlockAdded(
+        BlockAddedEvent.createForHeadAdvancement(block, Lists.newArrayList(receipt)), blockchain);
+
+    verify(subscriptionManager)
+        .sendMessageToSubscriptions(
+            eq(Collections.singletonList(subscription.getId())), refEq(expectedLogResult));
+    verify(blockchainQueries, never()).transactionReceiptByTransactionHash(any());
   }
 
   @Test
@@ -122,8 +164,10 @@ public class LogsSubscriptionServiceTest {
 
     logsSubscriptionService.onBlockAdded(createBlockAddedEvent(transaction, null), blockchain);
 
-    verify(subscriptionManager, times(subscriptions.size()))
-        .sendMessage(any(), refEq(expectedLogResult));
+    verify(subscriptionManager)
+        .sendMessageToSubscriptions(
+            eq(subscriptions.stream().map(LogsSubscription::getId).collect(Collectors.toList())),
+            refEq(expectedLogResult));
   }
 
   @Test
@@ -135,7 +179,7 @@ public class LogsSubscriptionServiceTest {
         createBlockAddedEvent(Collections.emptyList(), Collections.emptyList()), blockchain);
 
     verify(subscriptionManager).subscriptionsOfType(any(), any());
-    verify(subscriptionManager, times(0)).sendMessage(any(), any());
+    verify(subscriptionManager, times(0)).sendMessageToSubscriptions(any(), any());
   }
 
   @Test
@@ -148,7 +192,7 @@ public class LogsSubscriptionServiceTest {
     logsSubscriptionService.onBlockAdded(createBlockAddedEvent(transaction, null), blockchain);
 
     verify(subscriptionManager).subscriptionsOfType(any(), any());
-    verify(subscriptionManager, times(0)).sendMessage(any(), any());
+    verify(subscriptionManager, times(0)).sendMessageToSubscriptions(any(), any());
   }
 
   private Transaction createTransaction() {
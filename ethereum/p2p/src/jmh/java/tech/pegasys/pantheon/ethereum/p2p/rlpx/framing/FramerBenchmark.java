@@ -0,0 +1,88 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.p2p.rlpx.framing;
+
+import tech.pegasys.pantheon.ethereum.p2p.api.MessageData;
+import tech.pegasys.pantheon.ethereum.p2p.rlpx.handshake.HandshakeSecrets;
+import tech.pegasys.pantheon.ethereum.p2p.wire.RawMessage;
+import tech.pegasys.pantheon.util.bytes.BytesValue;
+
+import java.util.Random;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Frames a message and deframes it on the other end, as on an RLPx connection. Run with {@code
+ * -prof gc} to see the allocation per frame.
+ */
+@State(Scope.Thread)
+public class FramerBenchmark {
+
+  @Param({"100", "1024", "65536"})
+  public int messageSize;
+
+  @Param({"false", "true"})
+  public boolean compression;
+
+  private Framer sender;
+  private Framer receiver;
+  private MessageData message;
+  private ByteBuf wire;
+
+  @Setup(Level.Trial)
+  public void prepare() {
+    final Random random = new Random(1);
+    final byte[] aesSecret = new byte[32];
+    final byte[] macSecret = new byte[32];
+    final byte[] token = new byte[32];
+    random.nextBytes(aesSecret);
+    random.nextBytes(macSecret);
+    random.nextBytes(token);
+
+    // Both ends start from the same secrets, so the receiver's ingress matches the sender's egress.
+    sender = new Framer(new HandshakeSecrets(aesSecret, macSecret, token));
+    receiver = new Framer(new HandshakeSecrets(aesSecret, macSecret, token));
+    if (compression) {
+      sender.enableCompression();
+      receiver.enableCompression();
+    }
+
+    // Half random, half zeroes, so compression has something to do.
+    final byte[] data = new byte[messageSize];
+    final byte[] randomHalf = new byte[messageSize / 2];
+    random.nextBytes(randomHalf);
+    System.arraycopy(randomHalf, 0, data, 0, randomHalf.length);
+    message = new RawMessage(0x10, BytesValue.wrap(data));
+    wire = PooledByteBufAllocator.DEFAULT.buffer(2 * messageSize + 64);
+  }
+
+  @TearDown(Level.Trial)
+  public void release() {
+    wire.release();
+  }
+
+  @Benchmark
+  public MessageData frameAndDeframe() {
+    wire.clear();
+    sender.frame(message, wire);
+    return receiver.deframe(wire);
+  }
+}
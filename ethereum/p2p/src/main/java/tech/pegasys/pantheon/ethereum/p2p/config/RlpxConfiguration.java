@@ -12,13 +12,24 @@
  */
 package tech.pegasys.pantheon.ethereum.p2p.config;
 
+import static com.google.common.base.Preconditions.checkArgument;
+
 import java.util.Objects;
 
 public class RlpxConfiguration {
+  public static final int DEFAULT_WORKER_THREADS = Runtime.getRuntime().availableProcessors();
+  public static final int DEFAULT_HANDSHAKE_THREADS = Math.max(1, DEFAULT_WORKER_THREADS / 2);
+  public static final int DEFAULT_MAX_CONCURRENT_DIALS = 16;
+  public static final long DEFAULT_MAX_QUEUED_OUTBOUND_BYTES = 16 * 1024 * 1024;
+
   private String clientId = "TestClient/1.0.0";
   private String bindHost = "0.0.0.0";
   private int bindPort = 30303;
   private int maxPeers = 25;
+  private int workerThreads = DEFAULT_WORKER_THREADS;
+  private int handshakeThreads = DEFAULT_HANDSHAKE_THREADS;
+  private int maxConcurrentDials = DEFAULT_MAX_CONCURRENT_DIALS;
+  private long maxQueuedOutboundBytes = DEFAULT_MAX_QUEUED_OUTBOUND_BYTES;
   private WireProtocolConfig wire = new WireProtocolConfig();
 
   public static RlpxConfiguration create() {
@@ -61,6 +72,50 @@ public class RlpxConfiguration {
     return maxPeers;
   }
 
+  /** @return the number of threads the established connections are spread over */
+  public int getWorkerThreads() {
+    return workerThreads;
+  }
+
+  public RlpxConfiguration setWorkerThreads(final int workerThreads) {
+    checkArgument(workerThreads > 0, "At least one worker thread is required");
+    this.workerThreads = workerThreads;
+    return this;
+  }
+
+  /** @return the number of threads the key agreement of RLPx handshakes runs on */
+  public int getHandshakeThreads() {
+    return handshakeThreads;
+  }
+
+  public RlpxConfiguration setHandshakeThreads(final int handshakeThreads) {
+    checkArgument(handshakeThreads > 0, "At least one handshake thread is required");
+    this.handshakeThreads = handshakeThreads;
+    return this;
+  }
+
+  /** @return the maximum number of outbound connections being established at the same time */
+  public int getMaxConcurrentDials() {
+    return maxConcurrentDials;
+  }
+
+  public RlpxConfiguration setMaxConcurrentDials(final int maxConcurrentDials) {
+    checkArgument(maxConcurrentDials > 0, "At least one concurrent dial is required");
+    this.maxConcurrentDials = maxConcurrentDials;
+    return this;
+  }
+
+  /** @return the total size of the messages waiting to be written to a peer before it overflows */
+  public long getMaxQueuedOutboundBytes() {
+    return maxQueuedOutboundBytes;
+  }
+
+  public RlpxConfiguration setMaxQueuedOutboundBytes(final long maxQueuedOutboundBytes) {
+    checkArgument(maxQueuedOutboundBytes > 0, "The outbound queue must hold at least one byte");
+    this.maxQueuedOutboundBytes = maxQueuedOutboundBytes;
+    return this;
+  }
+
   public String getClientId() {
     return clientId;
   }
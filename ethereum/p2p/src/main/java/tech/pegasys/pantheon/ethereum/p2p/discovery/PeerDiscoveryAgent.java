@@ -35,6 +35,7 @@ import tech.pegasys.pantheon.ethereum.p2p.peers.DefaultPeerId;
 import tech.pegasys.pantheon.ethereum.p2p.peers.PeerBlacklist;
 import tech.pegasys.pantheon.ethereum.p2p.permissioning.NodeWhitelistController;
 import tech.pegasys.pantheon.ethereum.p2p.wire.messages.DisconnectMessage;
+import tech.pegasys.pantheon.metrics.MetricsSystem;
 import tech.pegasys.pantheon.util.NetworkUtility;
 import tech.pegasys.pantheon.util.bytes.BytesValue;
 
@@ -120,7 +121,8 @@ public class PeerDiscoveryAgent implements DisconnectCallback {
       final DiscoveryConfiguration config,
       final PeerRequirement peerRequirement,
       final PeerBlacklist peerBlacklist,
-      final NodeWhitelistController nodeWhitelistController) {
+      final NodeWhitelistController nodeWhitelistController,
+      final MetricsSystem metricsSystem) {
     checkArgument(vertx != null, "vertx instance cannot be null");
     checkArgument(keyPair != null, "keypair cannot be null");
     checkArgument(config != null, "provided configuration cannot be null");
@@ -133,7 +135,7 @@ public class PeerDiscoveryAgent implements DisconnectCallback {
     this.vertx = vertx;
     this.config = config;
     this.keyPair = keyPair;
-    this.peerTable = new PeerTable(keyPair.getPublicKey().getEncodedBytes(), 16);
+    this.peerTable = new PeerTable(keyPair.getPublicKey().getEncodedBytes(), 16, metricsSystem);
     this.controller =
         new PeerDiscoveryController(
             vertx,
@@ -23,6 +23,7 @@ import tech.pegasys.pantheon.util.bytes.BytesValue;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Predicate;
 
 /**
  * As peers are discovered on the network, they are added to one of the k-buckets described by this
@@ -137,6 +138,23 @@ public class Bucket {
     return unmodifiableList(asList(Arrays.copyOf(kBucket, tailIndex + 1)));
   }
 
+  /**
+   * Appends the peers of this bucket which match a filter to a list, most recently accessed first,
+   * until the list holds {@code limit} peers.
+   *
+   * @param peers the list to append to
+   * @param filter the peers to append
+   * @param limit the size up to which the list is filled
+   */
+  synchronized void copyPeersTo(
+      final List<DiscoveryPeer> peers, final Predicate<DiscoveryPeer> filter, final int limit) {
+    for (int i = 0; i <= tailIndex && peers.size() < limit; i++) {
+      if (filter.test(kBucket[i])) {
+        peers.add(kBucket[i]);
+      }
+    }
+  }
+
   @Override
   public String toString() {
     return Arrays.toString(kBucket);
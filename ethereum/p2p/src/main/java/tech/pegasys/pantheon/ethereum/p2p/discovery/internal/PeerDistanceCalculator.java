@@ -14,8 +14,6 @@ package tech.pegasys.pantheon.ethereum.p2p.discovery.internal;
 
 import tech.pegasys.pantheon.util.bytes.BytesValue;
 
-import java.util.Arrays;
-
 public class PeerDistanceCalculator {
 
   /**
@@ -27,24 +25,14 @@ public class PeerDistanceCalculator {
    */
   static int distance(final BytesValue v1, final BytesValue v2) {
     assert (v1.size() == v2.size());
-    final byte[] v1b = v1.extractArray();
-    final byte[] v2b = v2.extractArray();
-    if (Arrays.equals(v1b, v2b)) {
-      return 0;
-    }
-    int distance = v1b.length * 8;
-    for (int i = 0; i < v1b.length; i++) {
-      final byte xor = (byte) (0xff & (v1b[i] ^ v2b[i]));
-      if (xor == 0) {
-        distance -= 8;
-      } else {
-        int p = 7;
-        while (((xor >> p--) & 0x01) == 0) {
-          distance--;
-        }
-        break;
+    final int size = v1.size();
+    for (int i = 0; i < size; i++) {
+      final int xor = (v1.get(i) ^ v2.get(i)) & 0xff;
+      if (xor != 0) {
+        // The distance is the position of the highest bit that differs, counting from 1.
+        return (size - i - 1) * 8 + (32 - Integer.numberOfLeadingZeros(xor));
       }
     }
-    return distance;
+    return 0;
   }
 }
@@ -22,54 +22,71 @@ import tech.pegasys.pantheon.ethereum.p2p.discovery.DiscoveryPeer;
 import tech.pegasys.pantheon.ethereum.p2p.discovery.PeerDiscoveryStatus;
 import tech.pegasys.pantheon.ethereum.p2p.peers.Peer;
 import tech.pegasys.pantheon.ethereum.p2p.peers.PeerId;
+import tech.pegasys.pantheon.metrics.Counter;
+import tech.pegasys.pantheon.metrics.MetricCategory;
+import tech.pegasys.pantheon.metrics.MetricsSystem;
+import tech.pegasys.pantheon.metrics.noop.NoOpMetricsSystem;
 import tech.pegasys.pantheon.util.bytes.BytesValue;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Stream;
 
-import com.google.common.hash.BloomFilter;
-
 /**
  * Implements a Kademlia routing table based on k-buckets with a keccak-256 XOR-based distance
  * metric.
+ *
+ * <p>The k-bucket of a peer is indexed directly by its distance to this node. Each bucket is locked
+ * on its own, so the table can be used from several threads and operations on different buckets
+ * don't contend.
  */
 public class PeerTable {
   private static final int N_BUCKETS = 256;
   private static final int DEFAULT_BUCKET_SIZE = 16;
-  private static final int BLOOM_FILTER_REGENERATION_THRESHOLD = 50; // evictions
 
   private final Bucket[] table;
   private final BytesValue keccak256;
-  private final int maxEntriesCnt;
+  private final AtomicInteger size = new AtomicInteger();
 
-  private final Map<BytesValue, Integer> distanceCache;
-  private BloomFilter<BytesValue> idBloom;
-  private int evictionCnt = 0;
+  private final Counter addedCounter;
+  private final Counter evictedCounter;
 
   /**
    * Builds a new peer table, where distance is calculated using the provided nodeId as a baseline.
    *
    * @param nodeId The ID of the node where this peer table is stored.
    * @param bucketSize The maximum length of each k-bucket.
+   * @param metricsSystem The metrics system to record the size and churn of the table with.
    */
-  public PeerTable(final BytesValue nodeId, final int bucketSize) {
+  public PeerTable(
+      final BytesValue nodeId, final int bucketSize, final MetricsSystem metricsSystem) {
     this.keccak256 = Hash.keccak256(nodeId);
     this.table =
-        Stream.generate(() -> new Bucket(DEFAULT_BUCKET_SIZE))
-            .limit(N_BUCKETS + 1)
-            .toArray(Bucket[]::new);
-    this.distanceCache = new ConcurrentHashMap<>();
-    this.maxEntriesCnt = N_BUCKETS * bucketSize;
-
-    // A bloom filter with 4096 expected insertions of 64-byte keys with a 0.1% false positive
-    // probability yields a memory footprint of ~7.5kb.
-    buildBloomFilter();
+        Stream.generate(() -> new Bucket(bucketSize)).limit(N_BUCKETS + 1).toArray(Bucket[]::new);
+
+    metricsSystem.createGauge(
+        MetricCategory.NETWORK,
+        "discovery_peer_table_size",
+        "Current number of peers in the discovery peer table",
+        () -> (double) size.get());
+    addedCounter =
+        metricsSystem.createCounter(
+            MetricCategory.NETWORK,
+            "discovery_peer_table_added_total",
+            "Total number of peers added to the discovery peer table");
+    evictedCounter =
+        metricsSystem.createCounter(
+            MetricCategory.NETWORK,
+            "discovery_peer_table_evicted_total",
+            "Total number of peers evicted from the discovery peer table");
+  }
+
+  public PeerTable(final BytesValue nodeId, final int bucketSize) {
+    this(nodeId, bucketSize, new NoOpMetricsSystem());
   }
 
   public PeerTable(final BytesValue nodeId) {
@@ -83,9 +100,6 @@ public class PeerTable {
    * @return The stored representation.
    */
   public Optional<DiscoveryPeer> get(final PeerId peer) {
-    if (!idBloom.mightContain(peer.getId())) {
-      return Optional.empty();
-    }
     final int distance = distanceFrom(peer);
     return table[distance].getAndTouch(peer.getId());
   }
@@ -108,7 +122,6 @@ public class PeerTable {
    * @return An object indicating the outcome of the operation.
    */
   public AddResult tryAdd(final DiscoveryPeer peer) {
-    final BytesValue id = peer.getId();
     final int distance = distanceFrom(peer);
 
     // Safeguard against adding ourselves to the peer table.
@@ -131,8 +144,8 @@ public class PeerTable {
     }
 
     if (!res.isPresent()) {
-      idBloom.put(id);
-      distanceCache.put(id, distance);
+      size.incrementAndGet();
+      addedCounter.inc();
       return AddResult.added();
     }
 
@@ -146,45 +159,50 @@ public class PeerTable {
    * @return Whether the peer existed, and hence the eviction took place.
    */
   public boolean evict(final PeerId peer) {
-    final BytesValue id = peer.getId();
     final int distance = distanceFrom(peer);
-    distanceCache.remove(id);
-
     final boolean evicted = table[distance].evict(peer);
-    evictionCnt += evicted ? 1 : 0;
-
-    // Trigger the bloom filter regeneration if needed.
-    if (evictionCnt >= BLOOM_FILTER_REGENERATION_THRESHOLD) {
-      ForkJoinPool.commonPool().execute(this::buildBloomFilter);
+    if (evicted) {
+      size.decrementAndGet();
+      evictedCounter.inc();
     }
-
     return evicted;
   }
 
-  private void buildBloomFilter() {
-    final BloomFilter<BytesValue> bf =
-        BloomFilter.create((id, val) -> val.putBytes(id.extractArray()), maxEntriesCnt, 0.001);
-    getAllPeers().stream().map(Peer::getId).forEach(bf::put);
-    this.evictionCnt = 0;
-    this.idBloom = bf;
-  }
-
   /**
    * Returns the <code>limit</code> peers (at most) closest to the provided target, based on the XOR
    * distance between the keccak-256 hash of the ID and the keccak-256 hash of the target.
    *
+   * <p>Only the buckets which can hold the closest peers are visited: if the target is at distance
+   * {@code d} from this node, a peer in bucket {@code i} is at distance {@code d} from the target
+   * if {@code i < d}, at distance {@code i} if {@code i > d}, and closer than {@code d} if {@code i
+   * == d}. Bucket {@code d} is visited first, then the buckets below it, then those above it in
+   * order, until enough peers were found.
+   *
    * @param target The target node ID.
    * @param limit The amount of results to return.
    * @return The <code>limit</code> closest peers, at most.
    */
   public List<DiscoveryPeer> nearestPeers(final BytesValue target, final int limit) {
-    final BytesValue keccak256 = Hash.keccak256(target);
-    return getAllPeers()
-        .stream()
-        .filter(p -> p.getStatus() == PeerDiscoveryStatus.BONDED)
-        .sorted(comparingInt((peer) -> distance(peer.keccak256(), keccak256)))
-        .limit(limit)
-        .collect(toList());
+    final BytesValue targetKeccak256 = Hash.keccak256(target);
+    final int targetDistance = distance(keccak256, targetKeccak256);
+    final List<DiscoveryPeer> nearest = new ArrayList<>(limit);
+
+    table[targetDistance].copyPeersTo(nearest, PeerTable::isBonded, Integer.MAX_VALUE);
+    nearest.sort(comparingInt(peer -> distance(peer.keccak256(), targetKeccak256)));
+    if (nearest.size() > limit) {
+      nearest.subList(limit, nearest.size()).clear();
+    }
+    for (int i = 0; i < targetDistance && nearest.size() < limit; i++) {
+      table[i].copyPeersTo(nearest, PeerTable::isBonded, limit);
+    }
+    for (int i = targetDistance + 1; i <= N_BUCKETS && nearest.size() < limit; i++) {
+      table[i].copyPeersTo(nearest, PeerTable::isBonded, limit);
+    }
+    return nearest;
+  }
+
+  private static boolean isBonded(final DiscoveryPeer peer) {
+    return peer.getStatus() == PeerDiscoveryStatus.BONDED;
   }
 
   public Collection<DiscoveryPeer> getAllPeers() {
@@ -192,6 +210,15 @@ public class PeerTable {
         Arrays.stream(table).flatMap(e -> e.peers().stream()).collect(toList()));
   }
 
+  /**
+   * Returns the number of peers in the table.
+   *
+   * @return The number of peers.
+   */
+  public int size() {
+    return size.get();
+  }
+
   /**
    * Calculates the XOR distance between the keccak-256 hashes of our node ID and the provided
    * {@link DiscoveryPeer}.
@@ -200,8 +227,7 @@ public class PeerTable {
    * @return The distance.
    */
   private int distanceFrom(final PeerId peer) {
-    final Integer distance = distanceCache.get(peer.getId());
-    return distance == null ? distance(keccak256, peer.keccak256()) : distance;
+    return distance(keccak256, peer.keccak256());
   }
 
   /** A class that encapsulates the result of a peer addition to the table. */
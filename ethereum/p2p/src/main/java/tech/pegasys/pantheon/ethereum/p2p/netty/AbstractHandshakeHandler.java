@@ -14,6 +14,7 @@ package tech.pegasys.pantheon.ethereum.p2p.netty;
 
 import tech.pegasys.pantheon.ethereum.p2p.api.PeerConnection;
 import tech.pegasys.pantheon.ethereum.p2p.rlpx.framing.Framer;
+import tech.pegasys.pantheon.ethereum.p2p.rlpx.framing.SnappyFrameCodec;
 import tech.pegasys.pantheon.ethereum.p2p.rlpx.handshake.Handshaker;
 import tech.pegasys.pantheon.ethereum.p2p.rlpx.handshake.ecies.ECIESHandshaker;
 import tech.pegasys.pantheon.ethereum.p2p.wire.PeerInfo;
@@ -29,8 +30,13 @@ import tech.pegasys.pantheon.util.bytes.BytesValue;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.SimpleChannelInboundHandler;
 import io.netty.handler.codec.ByteToMessageDecoder;
@@ -53,6 +59,14 @@ abstract class AbstractHandshakeHandler extends SimpleChannelInboundHandler<Byte
   private final List<SubProtocol> subProtocols;
 
   private final LabelledMetric<Counter> outboundMessagesCounter;
+  private final OutboundMessageQueue.Factory outboundQueues;
+  private final SnappyFrameCodec snappyCodec;
+
+  private final Executor handshakeExecutor;
+
+  // Only accessed from the channel's event loop.
+  private boolean stepInProgress = false;
+  private ByteBuf receivedDuringStep;
 
   AbstractHandshakeHandler(
       final List<SubProtocol> subProtocols,
@@ -60,13 +74,19 @@ abstract class AbstractHandshakeHandler extends SimpleChannelInboundHandler<Byte
       final CompletableFuture<PeerConnection> connectionFuture,
       final Callbacks callbacks,
       final PeerConnectionRegistry peerConnectionRegistry,
-      final LabelledMetric<Counter> outboundMessagesCounter) {
+      final LabelledMetric<Counter> outboundMessagesCounter,
+      final OutboundMessageQueue.Factory outboundQueues,
+      final SnappyFrameCodec snappyCodec,
+      final Executor handshakeExecutor) {
     this.subProtocols = subProtocols;
     this.ourInfo = ourInfo;
     this.connectionFuture = connectionFuture;
     this.callbacks = callbacks;
     this.peerConnectionRegistry = peerConnectionRegistry;
     this.outboundMessagesCounter = outboundMessagesCounter;
+    this.outboundQueues = outboundQueues;
+    this.snappyCodec = snappyCodec;
+    this.handshakeExecutor = handshakeExecutor;
   }
 
   /**
@@ -77,17 +97,79 @@ abstract class AbstractHandshakeHandler extends SimpleChannelInboundHandler<Byte
    */
   protected abstract Optional<ByteBuf> nextHandshakeMessage(ByteBuf msg);
 
+  /**
+   * Runs a step of the handshake on the handshake executor, as the key agreement is too CPU
+   * intensive for the event loop, then passes its result to {@code continuation} on the event loop.
+   *
+   * <p>Reading from the channel is paused until the step completes, and any bytes received
+   * meanwhile are held back so that they are handled in order. The channel is closed if the step
+   * fails.
+   *
+   * @param ctx the channel handler context
+   * @param step the step to run
+   * @param continuation consumes the result of the step
+   * @param <T> the type of the result of the step
+   */
+  protected <T> void runHandshakeStep(
+      final ChannelHandlerContext ctx, final Supplier<T> step, final Consumer<T> continuation) {
+    stepInProgress = true;
+    ctx.channel().config().setAutoRead(false);
+    CompletableFuture.supplyAsync(step, handshakeExecutor)
+        .whenCompleteAsync(
+            (result, error) -> {
+              stepInProgress = false;
+              ctx.channel().config().setAutoRead(true);
+              if (error != null) {
+                releaseReceivedDuringStep();
+                exceptionCaught(
+                    ctx, error instanceof CompletionException ? error.getCause() : error);
+              } else {
+                continuation.accept(result);
+                handleReceivedDuringStep(ctx);
+              }
+            },
+            ctx.executor());
+  }
+
   @Override
   protected final void channelRead0(final ChannelHandlerContext ctx, final ByteBuf msg) {
-    final Optional<ByteBuf> nextMsg = nextHandshakeMessage(msg);
+    msg.retain();
+    if (stepInProgress) {
+      receivedDuringStep =
+          receivedDuringStep == null ? msg : Unpooled.wrappedBuffer(receivedDuringStep, msg);
+      return;
+    }
+    handleHandshakeMessage(ctx, msg);
+  }
+
+  private void handleHandshakeMessage(final ChannelHandlerContext ctx, final ByteBuf msg) {
+    runHandshakeStep(
+        ctx,
+        () -> {
+          try {
+            return nextHandshakeMessage(msg);
+          } catch (final RuntimeException e) {
+            msg.release();
+            throw e;
+          }
+        },
+        nextMsg -> onHandshakeMessageHandled(ctx, msg, nextMsg));
+  }
+
+  private void onHandshakeMessageHandled(
+      final ChannelHandlerContext ctx, final ByteBuf msg, final Optional<ByteBuf> nextMsg) {
     if (nextMsg.isPresent()) {
+      msg.release();
       ctx.writeAndFlush(nextMsg.get());
     } else if (handshaker.getStatus() != Handshaker.HandshakeStatus.SUCCESS) {
+      msg.release();
       LOG.debug("waiting for more bytes");
     } else {
 
       final BytesValue nodeId = handshaker.partyPubKey().getEncodedBytes();
       if (peerConnectionRegistry.isAlreadyConnected(nodeId)) {
+        msg.release();
+        releaseReceivedDuringStep();
         LOG.debug("Rejecting connection from already connected client {}", nodeId);
         ctx.writeAndFlush(
                 new OutboundMessage(
@@ -104,11 +186,17 @@ abstract class AbstractHandshakeHandler extends SimpleChannelInboundHandler<Byte
       LOG.debug("Sending framed hello");
 
       // Exchange keys done
-      final Framer framer = new Framer(handshaker.secrets());
+      final Framer framer = new Framer(handshaker.secrets(), snappyCodec);
 
       final ByteToMessageDecoder deFramer =
           new DeFramer(
-              framer, subProtocols, ourInfo, callbacks, connectionFuture, outboundMessagesCounter);
+              framer,
+              subProtocols,
+              ourInfo,
+              callbacks,
+              connectionFuture,
+              outboundMessagesCounter,
+              outboundQueues);
 
       ctx.channel()
           .pipeline()
@@ -122,8 +210,27 @@ abstract class AbstractHandshakeHandler extends SimpleChannelInboundHandler<Byte
                   LOG.debug("Successfully wrote hello message");
                 }
               });
-      msg.retain();
       ctx.fireChannelRead(msg);
+      if (receivedDuringStep != null) {
+        final ByteBuf received = receivedDuringStep;
+        receivedDuringStep = null;
+        ctx.fireChannelRead(received);
+      }
+    }
+  }
+
+  private void handleReceivedDuringStep(final ChannelHandlerContext ctx) {
+    if (receivedDuringStep != null && !stepInProgress) {
+      final ByteBuf received = receivedDuringStep;
+      receivedDuringStep = null;
+      handleHandshakeMessage(ctx, received);
+    }
+  }
+
+  private void releaseReceivedDuringStep() {
+    if (receivedDuringStep != null) {
+      receivedDuringStep.release();
+      receivedDuringStep = null;
     }
   }
 
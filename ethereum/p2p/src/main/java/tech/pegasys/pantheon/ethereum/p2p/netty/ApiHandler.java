@@ -13,7 +13,6 @@
 package tech.pegasys.pantheon.ethereum.p2p.netty;
 
 import tech.pegasys.pantheon.ethereum.p2p.api.MessageData;
-import tech.pegasys.pantheon.ethereum.p2p.api.PeerConnection;
 import tech.pegasys.pantheon.ethereum.p2p.api.PeerConnection.PeerNotConnected;
 import tech.pegasys.pantheon.ethereum.p2p.wire.messages.DisconnectMessage;
 import tech.pegasys.pantheon.ethereum.p2p.wire.messages.DisconnectMessage.DisconnectReason;
@@ -37,11 +36,11 @@ final class ApiHandler extends SimpleChannelInboundHandler<MessageData> {
 
   private final Callbacks callbacks;
 
-  private final PeerConnection connection;
+  private final NettyPeerConnection connection;
 
   ApiHandler(
       final CapabilityMultiplexer multiplexer,
-      final PeerConnection connection,
+      final NettyPeerConnection connection,
       final Callbacks callbacks,
       final AtomicBoolean waitingForPong) {
     this.multiplexer = multiplexer;
@@ -98,6 +97,14 @@ final class ApiHandler extends SimpleChannelInboundHandler<MessageData> {
     callbacks.invokeSubProtocol(connection, demultiplexed.getCapability(), message);
   }
 
+  @Override
+  public void channelWritabilityChanged(final ChannelHandlerContext ctx) throws Exception {
+    if (ctx.channel().isWritable()) {
+      connection.drain();
+    }
+    super.channelWritabilityChanged(ctx);
+  }
+
   @Override
   public void exceptionCaught(final ChannelHandlerContext ctx, final Throwable throwable) {
     LOG.error("Error:", throwable);
@@ -52,6 +52,7 @@ final class DeFramer extends ByteToMessageDecoder {
   private final List<SubProtocol> subProtocols;
   private boolean hellosExchanged;
   private final LabelledMetric<Counter> outboundMessagesCounter;
+  private final OutboundMessageQueue.Factory outboundQueues;
 
   DeFramer(
       final Framer framer,
@@ -59,13 +60,15 @@ final class DeFramer extends ByteToMessageDecoder {
       final PeerInfo ourInfo,
       final Callbacks callbacks,
       final CompletableFuture<PeerConnection> connectFuture,
-      final LabelledMetric<Counter> outboundMessagesCounter) {
+      final LabelledMetric<Counter> outboundMessagesCounter,
+      final OutboundMessageQueue.Factory outboundQueues) {
     this.framer = framer;
     this.subProtocols = subProtocols;
     this.ourInfo = ourInfo;
     this.connectFuture = connectFuture;
     this.callbacks = callbacks;
     this.outboundMessagesCounter = outboundMessagesCounter;
+    this.outboundQueues = outboundQueues;
   }
 
   @Override
@@ -94,9 +97,14 @@ final class DeFramer extends ByteToMessageDecoder {
         final CapabilityMultiplexer capabilityMultiplexer =
             new CapabilityMultiplexer(
                 subProtocols, ourInfo.getCapabilities(), peerInfo.getCapabilities());
-        final PeerConnection connection =
+        final NettyPeerConnection connection =
             new NettyPeerConnection(
-                ctx, peerInfo, capabilityMultiplexer, callbacks, outboundMessagesCounter);
+                ctx,
+                peerInfo,
+                capabilityMultiplexer,
+                callbacks,
+                outboundMessagesCounter,
+                outboundQueues);
         if (capabilityMultiplexer.getAgreedCapabilities().size() == 0) {
           LOG.debug(
               "Disconnecting from {} because no capabilities are shared.", peerInfo.getClientId());
@@ -0,0 +1,184 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.p2p.netty;
+
+import tech.pegasys.pantheon.metrics.LabelledMetric;
+import tech.pegasys.pantheon.metrics.MetricCategory;
+import tech.pegasys.pantheon.metrics.MetricsSystem;
+import tech.pegasys.pantheon.metrics.OperationTimer;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollServerSocketChannel;
+import io.netty.channel.epoll.EpollSocketChannel;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.ServerSocketChannel;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.util.concurrent.DefaultEventExecutorGroup;
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.EventExecutorGroup;
+import io.netty.util.concurrent.SingleThreadEventExecutor;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * The event loops the RLPx connections run on.
+ *
+ * <p>One thread accepts incoming connections, and the established connections are spread over a
+ * configurable number of worker threads, which run the framing, encryption and compression of
+ * every message. The native epoll transport is used where it is available, otherwise the NIO
+ * transport. The key agreement of the RLPx handshakes is CPU intensive, so it runs on a separate
+ * group of threads rather than on the workers.
+ *
+ * <p>The numbers of tasks waiting on the workers and on the handshake threads are exposed as
+ * gauges. Each worker is also regularly sent a probe task, and the time until it runs is recorded
+ * per worker: it grows as soon as a worker can't keep up with its connections.
+ */
+class EventLoops {
+
+  private static final Logger LOG = LogManager.getLogger();
+
+  private static final long PROBE_INTERVAL_MILLIS = 1000;
+
+  private final EventLoopGroup boss;
+  private final EventLoopGroup workers;
+  private final EventExecutorGroup handshakes;
+  private final Class<? extends ServerSocketChannel> serverChannelType;
+  private final Class<? extends SocketChannel> channelType;
+  private final ScheduledFuture<?> probes;
+
+  private EventLoops(
+      final EventLoopGroup boss,
+      final EventLoopGroup workers,
+      final EventExecutorGroup handshakes,
+      final Class<? extends ServerSocketChannel> serverChannelType,
+      final Class<? extends SocketChannel> channelType,
+      final MetricsSystem metricsSystem) {
+    this.boss = boss;
+    this.workers = workers;
+    this.handshakes = handshakes;
+    this.serverChannelType = serverChannelType;
+    this.channelType = channelType;
+
+    metricsSystem.createGauge(
+        MetricCategory.NETWORK,
+        "p2p_worker_pending_tasks",
+        "Number of tasks waiting to run on the RLPx worker event loops",
+        () -> (double) pendingTasks(workers));
+    metricsSystem.createGauge(
+        MetricCategory.NETWORK,
+        "p2p_handshake_pending_tasks",
+        "Number of RLPx handshake steps waiting to run",
+        () -> (double) pendingTasks(handshakes));
+    final LabelledMetric<OperationTimer> latency =
+        metricsSystem.createLabelledTimer(
+            MetricCategory.NETWORK,
+            "p2p_worker_latency",
+            "Time tasks wait before they run on an RLPx worker event loop",
+            "worker");
+    probes =
+        boss.scheduleAtFixedRate(
+            () -> probeLatency(latency),
+            PROBE_INTERVAL_MILLIS,
+            PROBE_INTERVAL_MILLIS,
+            TimeUnit.MILLISECONDS);
+  }
+
+  static EventLoops create(
+      final int workerThreads, final int handshakeThreads, final MetricsSystem metricsSystem) {
+    final EventExecutorGroup handshakes =
+        new DefaultEventExecutorGroup(handshakeThreads, threadFactory("Handshake"));
+    if (Epoll.isAvailable()) {
+      LOG.debug("Using native epoll transport with {} RLPx workers", workerThreads);
+      return new EventLoops(
+          new EpollEventLoopGroup(1, threadFactory("Boss")),
+          new EpollEventLoopGroup(workerThreads, threadFactory("Worker")),
+          handshakes,
+          EpollServerSocketChannel.class,
+          EpollSocketChannel.class,
+          metricsSystem);
+    }
+    LOG.debug(
+        "Native epoll transport is unavailable, using NIO with {} RLPx workers: {}",
+        workerThreads,
+        Epoll.unavailabilityCause().toString());
+    return new EventLoops(
+        new NioEventLoopGroup(1, threadFactory("Boss")),
+        new NioEventLoopGroup(workerThreads, threadFactory("Worker")),
+        handshakes,
+        NioServerSocketChannel.class,
+        NioSocketChannel.class,
+        metricsSystem);
+  }
+
+  private static ThreadFactory threadFactory(final String role) {
+    return new ThreadFactoryBuilder()
+        .setDaemon(true)
+        .setNameFormat(NettyP2PNetwork.class.getSimpleName() + "-" + role + "-%d")
+        .build();
+  }
+
+  private static int pendingTasks(final EventExecutorGroup group) {
+    int pending = 0;
+    for (final EventExecutor executor : group) {
+      if (executor instanceof SingleThreadEventExecutor) {
+        pending += ((SingleThreadEventExecutor) executor).pendingTasks();
+      }
+    }
+    return pending;
+  }
+
+  private void probeLatency(final LabelledMetric<OperationTimer> latency) {
+    int index = 0;
+    for (final EventExecutor executor : workers) {
+      final OperationTimer.TimingContext timing =
+          latency.labels(Integer.toString(index++)).startTimer();
+      executor.execute(timing::stopTimer);
+    }
+  }
+
+  EventLoopGroup boss() {
+    return boss;
+  }
+
+  EventLoopGroup workers() {
+    return workers;
+  }
+
+  EventExecutorGroup handshakes() {
+    return handshakes;
+  }
+
+  Class<? extends ServerSocketChannel> serverChannelType() {
+    return serverChannelType;
+  }
+
+  Class<? extends SocketChannel> channelType() {
+    return channelType;
+  }
+
+  void shutdown() {
+    probes.cancel(false);
+    workers.shutdownGracefully();
+    handshakes.shutdownGracefully();
+    boss.shutdownGracefully();
+  }
+}
@@ -14,6 +14,7 @@ package tech.pegasys.pantheon.ethereum.p2p.netty;
 
 import tech.pegasys.pantheon.crypto.SECP256K1;
 import tech.pegasys.pantheon.ethereum.p2p.api.PeerConnection;
+import tech.pegasys.pantheon.ethereum.p2p.rlpx.framing.SnappyFrameCodec;
 import tech.pegasys.pantheon.ethereum.p2p.rlpx.handshake.Handshaker;
 import tech.pegasys.pantheon.ethereum.p2p.wire.PeerInfo;
 import tech.pegasys.pantheon.ethereum.p2p.wire.SubProtocol;
@@ -23,11 +24,14 @@ import tech.pegasys.pantheon.metrics.LabelledMetric;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 import io.netty.buffer.ByteBuf;
 
 public final class HandshakeHandlerInbound extends AbstractHandshakeHandler {
 
+  private final SECP256K1.KeyPair kp;
+
   public HandshakeHandlerInbound(
       final SECP256K1.KeyPair kp,
       final List<SubProtocol> subProtocols,
@@ -35,19 +39,29 @@ public final class HandshakeHandlerInbound extends AbstractHandshakeHandler {
       final CompletableFuture<PeerConnection> connectionFuture,
       final Callbacks callbacks,
       final PeerConnectionRegistry peerConnectionRegistry,
-      final LabelledMetric<Counter> outboundMessagesCounter) {
+      final LabelledMetric<Counter> outboundMessagesCounter,
+      final OutboundMessageQueue.Factory outboundQueues,
+      final SnappyFrameCodec snappyCodec,
+      final Executor handshakeExecutor) {
     super(
         subProtocols,
         ourInfo,
         connectionFuture,
         callbacks,
         peerConnectionRegistry,
-        outboundMessagesCounter);
-    handshaker.prepareResponder(kp);
+        outboundMessagesCounter,
+        outboundQueues,
+        snappyCodec,
+        handshakeExecutor);
+    this.kp = kp;
   }
 
   @Override
   protected Optional<ByteBuf> nextHandshakeMessage(final ByteBuf msg) {
+    // Preparing generates our ephemeral key, which is done here to keep it off the event loop.
+    if (handshaker.getStatus() == Handshaker.HandshakeStatus.UNINITIALIZED) {
+      handshaker.prepareResponder(kp);
+    }
     final Optional<ByteBuf> nextMsg;
     if (handshaker.getStatus() == Handshaker.HandshakeStatus.IN_PROGRESS) {
       nextMsg = handshaker.handleMessage(msg);
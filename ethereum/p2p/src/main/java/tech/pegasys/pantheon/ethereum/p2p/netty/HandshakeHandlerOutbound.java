@@ -14,6 +14,7 @@ package tech.pegasys.pantheon.ethereum.p2p.netty;
 
 import tech.pegasys.pantheon.crypto.SECP256K1;
 import tech.pegasys.pantheon.ethereum.p2p.api.PeerConnection;
+import tech.pegasys.pantheon.ethereum.p2p.rlpx.framing.SnappyFrameCodec;
 import tech.pegasys.pantheon.ethereum.p2p.rlpx.handshake.Handshaker;
 import tech.pegasys.pantheon.ethereum.p2p.wire.PeerInfo;
 import tech.pegasys.pantheon.ethereum.p2p.wire.SubProtocol;
@@ -24,6 +25,7 @@ import tech.pegasys.pantheon.util.bytes.BytesValue;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandlerContext;
@@ -34,7 +36,8 @@ public final class HandshakeHandlerOutbound extends AbstractHandshakeHandler {
 
   private static final Logger LOG = LogManager.getLogger();
 
-  private final ByteBuf first;
+  private final SECP256K1.KeyPair kp;
+  private final BytesValue peerId;
 
   public HandshakeHandlerOutbound(
       final SECP256K1.KeyPair kp,
@@ -44,16 +47,22 @@ public final class HandshakeHandlerOutbound extends AbstractHandshakeHandler {
       final CompletableFuture<PeerConnection> connectionFuture,
       final Callbacks callbacks,
       final PeerConnectionRegistry peerConnectionRegistry,
-      final LabelledMetric<Counter> outboundMessagesCounter) {
+      final LabelledMetric<Counter> outboundMessagesCounter,
+      final OutboundMessageQueue.Factory outboundQueues,
+      final SnappyFrameCodec snappyCodec,
+      final Executor handshakeExecutor) {
     super(
         subProtocols,
         ourInfo,
         connectionFuture,
         callbacks,
         peerConnectionRegistry,
-        outboundMessagesCounter);
-    handshaker.prepareInitiator(kp, SECP256K1.PublicKey.create(peerId));
-    this.first = handshaker.firstMessage();
+        outboundMessagesCounter,
+        outboundQueues,
+        snappyCodec,
+        handshakeExecutor);
+    this.kp = kp;
+    this.peerId = peerId;
   }
 
   @Override
@@ -70,13 +79,21 @@ public final class HandshakeHandlerOutbound extends AbstractHandshakeHandler {
   @Override
   public void channelActive(final ChannelHandlerContext ctx) throws Exception {
     super.channelActive(ctx);
-    ctx.writeAndFlush(first)
-        .addListener(
-            f -> {
-              if (f.isSuccess()) {
-                LOG.debug(
-                    "Wrote initial crypto handshake message to {}.", ctx.channel().remoteAddress());
-              }
-            });
+    runHandshakeStep(
+        ctx,
+        () -> {
+          handshaker.prepareInitiator(kp, SECP256K1.PublicKey.create(peerId));
+          return handshaker.firstMessage();
+        },
+        first ->
+            ctx.writeAndFlush(first)
+                .addListener(
+                    f -> {
+                      if (f.isSuccess()) {
+                        LOG.debug(
+                            "Wrote initial crypto handshake message to {}.",
+                            ctx.channel().remoteAddress());
+                      }
+                    }));
   }
 }
@@ -26,7 +26,9 @@ import tech.pegasys.pantheon.ethereum.p2p.discovery.internal.PeerRequirement;
 import tech.pegasys.pantheon.ethereum.p2p.peers.Endpoint;
 import tech.pegasys.pantheon.ethereum.p2p.peers.Peer;
 import tech.pegasys.pantheon.ethereum.p2p.peers.PeerBlacklist;
+import tech.pegasys.pantheon.ethereum.p2p.peers.PeerStore;
 import tech.pegasys.pantheon.ethereum.p2p.permissioning.NodeWhitelistController;
+import tech.pegasys.pantheon.ethereum.p2p.rlpx.framing.SnappyFrameCodec;
 import tech.pegasys.pantheon.ethereum.p2p.wire.Capability;
 import tech.pegasys.pantheon.ethereum.p2p.wire.PeerInfo;
 import tech.pegasys.pantheon.ethereum.p2p.wire.SubProtocol;
@@ -38,9 +40,11 @@ import tech.pegasys.pantheon.metrics.MetricsSystem;
 import tech.pegasys.pantheon.util.Subscribers;
 
 import java.net.InetSocketAddress;
+import java.time.Clock;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.OptionalLong;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
@@ -55,11 +59,7 @@ import io.netty.bootstrap.ServerBootstrap;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelOption;
-import io.netty.channel.EventLoopGroup;
-import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.channel.socket.SocketChannel;
-import io.netty.channel.socket.nio.NioServerSocketChannel;
-import io.netty.channel.socket.nio.NioSocketChannel;
 import io.vertx.core.Vertx;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -108,6 +108,7 @@ public final class NettyP2PNetwork implements P2PNetwork {
 
   private static final Logger LOG = LogManager.getLogger();
   private static final int TIMEOUT_SECONDS = 30;
+  private static final long PEER_STORE_SAVE_INTERVAL_MILLIS = TimeUnit.MINUTES.toMillis(5);
 
   final Map<Capability, Subscribers<Consumer<Message>>> protocolCallbacks =
       new ConcurrentHashMap<>();
@@ -120,15 +121,20 @@ public final class NettyP2PNetwork implements P2PNetwork {
 
   private final PeerDiscoveryAgent peerDiscoveryAgent;
   private final PeerBlacklist peerBlacklist;
+  private final NodeWhitelistController nodeWhitelistController;
   private OptionalLong peerBondedObserverId = OptionalLong.empty();
 
+  private final Vertx vertx;
+  private final Optional<PeerStore> peerStore;
+  private OptionalLong peerStoreTimerId = OptionalLong.empty();
+
   private final PeerConnectionRegistry connections;
 
   private final AtomicInteger pendingConnections = new AtomicInteger(0);
 
-  private final EventLoopGroup boss = new NioEventLoopGroup(1);
+  private final OutboundConnectionManager outboundConnections;
 
-  private final EventLoopGroup workers = new NioEventLoopGroup(1);
+  private final EventLoops eventLoops;
 
   private volatile PeerInfo ourPeerInfo;
 
@@ -142,6 +148,10 @@ public final class NettyP2PNetwork implements P2PNetwork {
 
   private final LabelledMetric<Counter> outboundMessagesCounter;
 
+  private final OutboundMessageQueue.Factory outboundQueues;
+
+  private final SnappyFrameCodec snappyCodec;
+
   /**
    * Creates a peer networking service for production purposes.
    *
@@ -167,9 +177,50 @@ public final class NettyP2PNetwork implements P2PNetwork {
       final PeerBlacklist peerBlacklist,
       final MetricsSystem metricsSystem,
       final NodeWhitelistController nodeWhitelistController) {
+    this(
+        vertx,
+        keyPair,
+        config,
+        supportedCapabilities,
+        peerRequirement,
+        peerBlacklist,
+        metricsSystem,
+        nodeWhitelistController,
+        Optional.empty());
+  }
+
+  /**
+   * Creates a peer networking service which remembers the peers it was connected to.
+   *
+   * <p>The peers held by the store are dialed when the network starts, before discovery, and the
+   * store is saved periodically and on stop.
+   *
+   * @param vertx The vertx instance.
+   * @param keyPair This node's keypair.
+   * @param config The network configuration to use.
+   * @param supportedCapabilities The wire protocol capabilities to advertise to connected peers.
+   * @param peerBlacklist The peers with which this node will not connect
+   * @param peerRequirement Queried to determine if enough peers are currently connected.
+   * @param metricsSystem The metrics system to capture metrics with.
+   * @param nodeWhitelistController Controls the whitelist of nodes to which this node will connect.
+   * @param peerStore The store of recently connected peers, if any.
+   */
+  public NettyP2PNetwork(
+      final Vertx vertx,
+      final SECP256K1.KeyPair keyPair,
+      final NetworkingConfiguration config,
+      final List<Capability> supportedCapabilities,
+      final PeerRequirement peerRequirement,
+      final PeerBlacklist peerBlacklist,
+      final MetricsSystem metricsSystem,
+      final NodeWhitelistController nodeWhitelistController,
+      final Optional<PeerStore> peerStore) {
 
     connections = new PeerConnectionRegistry(metricsSystem);
     this.peerBlacklist = peerBlacklist;
+    this.nodeWhitelistController = nodeWhitelistController;
+    this.vertx = vertx;
+    this.peerStore = peerStore;
     peerDiscoveryAgent =
         new PeerDiscoveryAgent(
             vertx,
@@ -177,7 +228,8 @@ public final class NettyP2PNetwork implements P2PNetwork {
             config.getDiscovery(),
             peerRequirement,
             peerBlacklist,
-            nodeWhitelistController);
+            nodeWhitelistController,
+            metricsSystem);
 
     outboundMessagesCounter =
         metricsSystem.createLabelledCounter(
@@ -187,19 +239,45 @@ public final class NettyP2PNetwork implements P2PNetwork {
             "protocol",
             "name",
             "code");
+    outboundQueues =
+        new OutboundMessageQueue.Factory(
+            config.getRlpx().getMaxQueuedOutboundBytes(), metricsSystem);
+    snappyCodec = new SnappyFrameCodec(metricsSystem);
+
+    outboundConnections =
+        new OutboundConnectionManager(
+            this::connect,
+            this::shouldConnect,
+            connections::size,
+            config.getRlpx().getMaxPeers(),
+            config.getRlpx().getMaxConcurrentDials(),
+            Clock.systemUTC(),
+            metricsSystem);
 
     subscribeDisconnect(peerDiscoveryAgent);
     subscribeDisconnect(peerBlacklist);
     subscribeDisconnect(connections);
+    subscribeDisconnect(
+        (connection, reason, initiatedByPeer) -> outboundConnections.dialCandidates());
+    peerStore.ifPresent(
+        store -> {
+          subscribeConnect(store::onConnect);
+          subscribeDisconnect(store);
+        });
 
     maxPeers = config.getRlpx().getMaxPeers();
     this.keyPair = keyPair;
     this.subProtocols = config.getSupportedProtocols();
 
+    eventLoops =
+        EventLoops.create(
+            config.getRlpx().getWorkerThreads(),
+            config.getRlpx().getHandshakeThreads(),
+            metricsSystem);
     server =
         new ServerBootstrap()
-            .group(boss, workers)
-            .channel(NioServerSocketChannel.class)
+            .group(eventLoops.boss(), eventLoops.workers())
+            .channel(eventLoops.serverChannelType())
             .childHandler(inboundChannelInitializer())
             .bind(config.getRlpx().getBindHost(), config.getRlpx().getBindPort());
     final CountDownLatch latch = new CountDownLatch(1);
@@ -255,7 +333,10 @@ public final class NettyP2PNetwork implements P2PNetwork {
                     connectionFuture,
                     callbacks,
                     connections,
-                    outboundMessagesCounter));
+                    outboundMessagesCounter,
+                    outboundQueues,
+                    snappyCodec,
+                    eventLoops.handshakes()));
 
         connectionFuture.thenAccept(
             connection -> {
@@ -283,10 +364,6 @@ public final class NettyP2PNetwork implements P2PNetwork {
     };
   }
 
-  private int connectionCount() {
-    return pendingConnections.get() + connections.size();
-  }
-
   @Override
   public Collection<PeerConnection> getPeers() {
     return connections.getPeerConnections();
@@ -300,8 +377,8 @@ public final class NettyP2PNetwork implements P2PNetwork {
     pendingConnections.incrementAndGet();
 
     new Bootstrap()
-        .group(workers)
-        .channel(NioSocketChannel.class)
+        .group(eventLoops.workers())
+        .channel(eventLoops.channelType())
         .remoteAddress(new InetSocketAddress(endpoint.getHost(), endpoint.getTcpPort().getAsInt()))
         .option(ChannelOption.TCP_NODELAY, true)
         .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, TIMEOUT_SECONDS * 1000)
@@ -327,7 +404,10 @@ public final class NettyP2PNetwork implements P2PNetwork {
                             connectionFuture,
                             callbacks,
                             connections,
-                            outboundMessagesCounter));
+                            outboundMessagesCounter,
+                            outboundQueues,
+                            snappyCodec,
+                            eventLoops.handshakes()));
               }
             })
         .connect()
@@ -377,15 +457,13 @@ public final class NettyP2PNetwork implements P2PNetwork {
   @Override
   public void run() {
     try {
+      peerStore.ifPresent(this::connectToStoredPeers);
       peerDiscoveryAgent.start(ourPeerInfo.getPort()).join();
       final long observerId =
           peerDiscoveryAgent.observePeerBondedEvents(
               peerBondedEvent -> {
-                if (connectionCount() < maxPeers
-                    && peerBondedEvent.getPeer().getEndpoint().getTcpPort().isPresent()
-                    && !connections.isAlreadyConnected(peerBondedEvent.getPeer().getId())) {
-                  connect(peerBondedEvent.getPeer());
-                }
+                final Peer peer = peerBondedEvent.getPeer();
+                outboundConnections.addCandidate(peer, dialPriority(peer));
               });
       peerBondedObserverId = OptionalLong.of(observerId);
     } catch (final Exception ex) {
@@ -393,15 +471,46 @@ public final class NettyP2PNetwork implements P2PNetwork {
     }
   }
 
+  private boolean shouldConnect(final Peer peer) {
+    return peer.getEndpoint().getTcpPort().isPresent()
+        && !connections.isAlreadyConnected(peer.getId())
+        && !peerBlacklist.contains(peer)
+        && nodeWhitelistController.contains(peer);
+  }
+
+  private int dialPriority(final Peer peer) {
+    return peerStore.map(store -> store.getScore(peer.getId()).orElse(0)).orElse(0);
+  }
+
+  private void connectToStoredPeers(final PeerStore store) {
+    final List<Peer> storedPeers = store.getPeersToDial(maxPeers);
+    LOG.info("Connecting to {} previously connected peers", storedPeers.size());
+    storedPeers.forEach(peer -> outboundConnections.addCandidate(peer, dialPriority(peer)));
+    peerStoreTimerId =
+        OptionalLong.of(
+            vertx.setPeriodic(
+                PEER_STORE_SAVE_INTERVAL_MILLIS,
+                timerId ->
+                    vertx.<Void>executeBlocking(
+                        future -> {
+                          store.save();
+                          future.complete();
+                        },
+                        false,
+                        result -> {})));
+  }
+
   @Override
   public void stop() {
+    peerStoreTimerId.ifPresent(vertx::cancelTimer);
+    peerStoreTimerId = OptionalLong.empty();
+    peerStore.ifPresent(PeerStore::save);
     sendClientQuittingToPeers();
     peerDiscoveryAgent.stop().join();
     peerBondedObserverId.ifPresent(peerDiscoveryAgent::removePeerBondedObserver);
     peerBondedObserverId = OptionalLong.empty();
     peerDiscoveryAgent.stop().join();
-    workers.shutdownGracefully();
-    boss.shutdownGracefully();
+    eventLoops.shutdown();
   }
 
   private void sendClientQuittingToPeers() {
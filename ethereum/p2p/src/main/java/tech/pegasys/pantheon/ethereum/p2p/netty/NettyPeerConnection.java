@@ -18,6 +18,7 @@ import static tech.pegasys.pantheon.ethereum.p2p.wire.messages.DisconnectMessage
 import tech.pegasys.pantheon.ethereum.p2p.api.MessageData;
 import tech.pegasys.pantheon.ethereum.p2p.api.PeerConnection;
 import tech.pegasys.pantheon.ethereum.p2p.wire.Capability;
+import tech.pegasys.pantheon.ethereum.p2p.wire.MessagePriority;
 import tech.pegasys.pantheon.ethereum.p2p.wire.PeerInfo;
 import tech.pegasys.pantheon.ethereum.p2p.wire.SubProtocol;
 import tech.pegasys.pantheon.ethereum.p2p.wire.messages.DisconnectMessage;
@@ -35,6 +36,7 @@ import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 
 import com.google.common.base.MoreObjects;
+import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelHandlerContext;
 import org.apache.logging.log4j.LogManager;
@@ -53,13 +55,17 @@ final class NettyPeerConnection implements PeerConnection {
   private final Callbacks callbacks;
   private final CapabilityMultiplexer multiplexer;
   private final LabelledMetric<Counter> outboundMessagesCounter;
+  private final OutboundMessageQueue.Factory outboundQueues;
+  private final OutboundMessageQueue outboundQueue;
+  private final AtomicBoolean drainScheduled = new AtomicBoolean(false);
 
   public NettyPeerConnection(
       final ChannelHandlerContext ctx,
       final PeerInfo peerInfo,
       final CapabilityMultiplexer multiplexer,
       final Callbacks callbacks,
-      final LabelledMetric<Counter> outboundMessagesCounter) {
+      final LabelledMetric<Counter> outboundMessagesCounter,
+      final OutboundMessageQueue.Factory outboundQueues) {
     this.ctx = ctx;
     this.peerInfo = peerInfo;
     this.multiplexer = multiplexer;
@@ -69,7 +75,15 @@ final class NettyPeerConnection implements PeerConnection {
     }
     this.callbacks = callbacks;
     this.outboundMessagesCounter = outboundMessagesCounter;
-    ctx.channel().closeFuture().addListener(f -> terminateConnection(TCP_SUBSYSTEM_ERROR, false));
+    this.outboundQueues = outboundQueues;
+    this.outboundQueue = outboundQueues.create();
+    ctx.channel()
+        .closeFuture()
+        .addListener(
+            f -> {
+              outboundQueue.clear();
+              terminateConnection(TCP_SUBSYSTEM_ERROR, false);
+            });
   }
 
   @Override
@@ -77,6 +91,7 @@ final class NettyPeerConnection implements PeerConnection {
     if (isDisconnected()) {
       throw new PeerNotConnected("Attempt to send message to a closed peer connection");
     }
+    final MessagePriority priority;
     if (capability != null) {
       // Validate message is valid for this capability
       final SubProtocol subProtocol = multiplexer.subProtocol(capability);
@@ -94,6 +109,7 @@ final class NettyPeerConnection implements PeerConnection {
               subProtocol.messageName(capability.getVersion(), message.getCode()),
               Integer.toString(message.getCode()))
           .inc();
+      priority = subProtocol.messagePriority(capability.getVersion(), message.getCode());
     } else {
       outboundMessagesCounter
           .labels(
@@ -101,10 +117,56 @@ final class NettyPeerConnection implements PeerConnection {
               WireMessageCodes.messageName(message.getCode()),
               Integer.toString(message.getCode()))
           .inc();
+      priority = MessagePriority.HIGH;
     }
 
-    LOG.trace("Writing {} to {} via protocol {}", message, peerInfo, capability);
-    ctx.channel().writeAndFlush(new OutboundMessage(capability, message));
+    LOG.trace("Queueing {} to {} via protocol {}", message, peerInfo, capability);
+    switch (outboundQueue.add(new OutboundMessage(capability, message), priority)) {
+      case QUEUED:
+        scheduleDrain();
+        break;
+      case DROPPED:
+        LOG.trace("Dropped {} to {} which is not reading fast enough", message, peerInfo);
+        break;
+      case OVERFLOW:
+        LOG.debug(
+            "Disconnecting from {} which is not reading fast enough, {} bytes are queued",
+            peerInfo,
+            outboundQueue.queuedBytes());
+        outboundQueues.overflowed();
+        // Nothing queued is going to be of use once disconnected, so make room for the DISCONNECT.
+        outboundQueue.clear();
+        disconnect(DisconnectReason.TIMEOUT);
+        break;
+    }
+  }
+
+  private void scheduleDrain() {
+    if (drainScheduled.compareAndSet(false, true)) {
+      ctx.channel().eventLoop().execute(this::drain);
+    }
+  }
+
+  /**
+   * Writes queued messages for as long as the channel is writable. Must be called on the event loop
+   * of the channel, and again whenever the channel becomes writable.
+   */
+  void drain() {
+    drainScheduled.set(false);
+    final Channel channel = ctx.channel();
+    if (!channel.isActive()) {
+      outboundQueue.clear();
+      return;
+    }
+    boolean written = false;
+    OutboundMessage message;
+    while (channel.isWritable() && (message = outboundQueue.poll()) != null) {
+      channel.write(message);
+      written = true;
+    }
+    if (written) {
+      channel.flush();
+    }
   }
 
   @Override
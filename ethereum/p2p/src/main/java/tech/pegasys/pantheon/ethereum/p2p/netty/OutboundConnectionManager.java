@@ -0,0 +1,245 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.p2p.netty;
+
+import tech.pegasys.pantheon.ethereum.p2p.api.PeerConnection;
+import tech.pegasys.pantheon.ethereum.p2p.peers.Peer;
+import tech.pegasys.pantheon.metrics.Counter;
+import tech.pegasys.pantheon.metrics.LabelledMetric;
+import tech.pegasys.pantheon.metrics.MetricCategory;
+import tech.pegasys.pantheon.metrics.MetricsSystem;
+import tech.pegasys.pantheon.metrics.OperationTimer;
+import tech.pegasys.pantheon.util.bytes.BytesValue;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.IntSupplier;
+import java.util.function.Predicate;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Decides which peers are dialed, and when.
+ *
+ * <p>Candidates are queued by priority, which reflects how the peer behaved in the past, and at
+ * most a fixed number of them are dialed at the same time, as long as the number of connections is
+ * below the target. A peer we failed to connect to isn't dialed again for a while, the delay
+ * doubling with every consecutive failure.
+ */
+class OutboundConnectionManager {
+
+  private static final Logger LOG = LogManager.getLogger();
+
+  static final Duration INITIAL_BACKOFF = Duration.ofSeconds(30);
+  static final Duration MAX_BACKOFF = Duration.ofHours(1);
+  private static final int MAX_CANDIDATES = 256;
+  private static final int MAX_TRACKED_FAILURES = 1000;
+
+  private static final Comparator<Candidate> BEST_FIRST =
+      Comparator.<Candidate>comparingInt(candidate -> candidate.priority)
+          .reversed()
+          .thenComparingLong(candidate -> candidate.sequence);
+
+  private final Function<Peer, CompletableFuture<PeerConnection>> dialer;
+  private final Predicate<Peer> shouldDial;
+  private final IntSupplier connectionCount;
+  private final int targetConnections;
+  private final int maxConcurrentDials;
+  private final Clock clock;
+
+  private final TreeSet<Candidate> candidates = new TreeSet<>(BEST_FIRST);
+  private final Set<BytesValue> queuedOrDialing = new HashSet<>();
+  private final Map<BytesValue, Failures> failures =
+      new LinkedHashMap<BytesValue, Failures>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<BytesValue, Failures> eldest) {
+          return size() > MAX_TRACKED_FAILURES;
+        }
+      };
+  private long nextSequence = 0;
+  private int dialing = 0;
+
+  private final LabelledMetric<Counter> dialCounter;
+  private final OperationTimer dialLatency;
+
+  /**
+   * Creates a connection manager.
+   *
+   * @param dialer establishes a connection with a peer
+   * @param shouldDial whether a peer may be dialed, checked right before it is dialed
+   * @param connectionCount the number of established connections
+   * @param targetConnections the number of connections to maintain
+   * @param maxConcurrentDials the maximum number of peers dialed at the same time
+   * @param clock the clock failed dials are timed with
+   * @param metricsSystem the metrics system
+   */
+  OutboundConnectionManager(
+      final Function<Peer, CompletableFuture<PeerConnection>> dialer,
+      final Predicate<Peer> shouldDial,
+      final IntSupplier connectionCount,
+      final int targetConnections,
+      final int maxConcurrentDials,
+      final Clock clock,
+      final MetricsSystem metricsSystem) {
+    this.dialer = dialer;
+    this.shouldDial = shouldDial;
+    this.connectionCount = connectionCount;
+    this.targetConnections = targetConnections;
+    this.maxConcurrentDials = maxConcurrentDials;
+    this.clock = clock;
+
+    dialCounter =
+        metricsSystem.createLabelledCounter(
+            MetricCategory.NETWORK,
+            "p2p_outbound_dials_total",
+            "Count of outbound connection attempts by result",
+            "result");
+    dialLatency =
+        metricsSystem.createTimer(
+            MetricCategory.NETWORK,
+            "p2p_outbound_dial_latency",
+            "Time taken to establish outbound connections, including the handshake");
+    metricsSystem.createGauge(
+        MetricCategory.NETWORK,
+        "p2p_outbound_dial_candidates",
+        "Number of peers waiting to be dialed",
+        () -> (double) candidateCount());
+    metricsSystem.createGauge(
+        MetricCategory.NETWORK,
+        "p2p_outbound_dials_in_progress",
+        "Number of outbound connections being established",
+        () -> (double) dialsInProgress());
+  }
+
+  /**
+   * Queues a peer to be dialed, unless it is already queued or being dialed, or dialing it
+   * recently failed.
+   *
+   * @param peer the peer
+   * @param priority peers with a higher priority are dialed first
+   */
+  void addCandidate(final Peer peer, final int priority) {
+    synchronized (this) {
+      final BytesValue id = peer.getId();
+      if (queuedOrDialing.contains(id) || isBackingOff(id)) {
+        return;
+      }
+      candidates.add(new Candidate(peer, priority, nextSequence++));
+      queuedOrDialing.add(id);
+      if (candidates.size() > MAX_CANDIDATES) {
+        queuedOrDialing.remove(candidates.pollLast().peer.getId());
+      }
+    }
+    dialCandidates();
+  }
+
+  /** Dials queued candidates, as long as fewer connections than the target are established. */
+  void dialCandidates() {
+    final List<Peer> toDial = new ArrayList<>();
+    synchronized (this) {
+      while (dialing < maxConcurrentDials
+          && connectionCount.getAsInt() + dialing < targetConnections
+          && !candidates.isEmpty()) {
+        final Peer peer = candidates.pollFirst().peer;
+        if (!shouldDial.test(peer)) {
+          queuedOrDialing.remove(peer.getId());
+          continue;
+        }
+        dialing++;
+        toDial.add(peer);
+      }
+    }
+    toDial.forEach(this::dial);
+  }
+
+  private void dial(final Peer peer) {
+    final OperationTimer.TimingContext timing = dialLatency.startTimer();
+    CompletableFuture<PeerConnection> connection;
+    try {
+      connection = dialer.apply(peer);
+    } catch (final RuntimeException e) {
+      connection = new CompletableFuture<>();
+      connection.completeExceptionally(e);
+    }
+    connection.whenComplete(
+        (result, error) -> {
+          final BytesValue id = peer.getId();
+          synchronized (this) {
+            dialing--;
+            queuedOrDialing.remove(id);
+            if (error == null) {
+              failures.remove(id);
+            } else {
+              failures.computeIfAbsent(id, key -> new Failures()).record(clock.millis());
+            }
+          }
+          if (error == null) {
+            timing.stopTimer();
+            dialCounter.labels("success").inc();
+          } else {
+            LOG.trace("Dialing peer {} failed", id, error);
+            dialCounter.labels("failure").inc();
+          }
+          dialCandidates();
+        });
+  }
+
+  private boolean isBackingOff(final BytesValue id) {
+    final Failures peerFailures = failures.get(id);
+    return peerFailures != null && clock.millis() < peerFailures.retryAt;
+  }
+
+  synchronized int candidateCount() {
+    return candidates.size();
+  }
+
+  synchronized int dialsInProgress() {
+    return dialing;
+  }
+
+  private static class Candidate {
+
+    private final Peer peer;
+    private final int priority;
+    private final long sequence;
+
+    private Candidate(final Peer peer, final int priority, final long sequence) {
+      this.peer = peer;
+      this.priority = priority;
+      this.sequence = sequence;
+    }
+  }
+
+  private static class Failures {
+
+    private int count;
+    private long retryAt;
+
+    private void record(final long now) {
+      count++;
+      final long backoff = INITIAL_BACKOFF.toMillis() << Math.min(count - 1, 16);
+      retryAt = now + Math.min(backoff, MAX_BACKOFF.toMillis());
+    }
+  }
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.p2p.netty;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import tech.pegasys.pantheon.ethereum.p2p.wire.MessagePriority;
+import tech.pegasys.pantheon.metrics.Counter;
+import tech.pegasys.pantheon.metrics.LabelledMetric;
+import tech.pegasys.pantheon.metrics.MetricCategory;
+import tech.pegasys.pantheon.metrics.MetricsSystem;
+
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The messages waiting to be written to one peer.
+ *
+ * <p>Messages are taken in order of {@link MessagePriority}, then in the order they were added. The
+ * queue is bounded by the total size of the messages it holds. When a message does not fit, queued
+ * {@link MessagePriority#LOW} messages are dropped to make room for it. A low priority message
+ * which still doesn't fit is dropped, while any other message overflows the queue, which means the
+ * peer is reading too slowly to keep up with the protocol.
+ *
+ * <p>A message is always accepted by an empty queue, regardless of its size.
+ */
+final class OutboundMessageQueue {
+
+  enum Result {
+    QUEUED,
+    DROPPED,
+    OVERFLOW
+  }
+
+  private final Factory factory;
+  private final Map<MessagePriority, ArrayDeque<OutboundMessage>> queues =
+      new EnumMap<>(MessagePriority.class);
+  private long queuedBytes = 0;
+
+  private OutboundMessageQueue(final Factory factory) {
+    this.factory = factory;
+    for (final MessagePriority priority : MessagePriority.values()) {
+      queues.put(priority, new ArrayDeque<>());
+    }
+  }
+
+  synchronized Result add(final OutboundMessage message, final MessagePriority priority) {
+    final int size = sizeOf(message);
+    if (priority != MessagePriority.LOW) {
+      final ArrayDeque<OutboundMessage> gossip = queues.get(MessagePriority.LOW);
+      while (!fits(size) && !gossip.isEmpty()) {
+        removed(gossip.poll());
+        factory.droppedCounter.labels(MessagePriority.LOW.name()).inc();
+      }
+    }
+    if (!fits(size)) {
+      factory.droppedCounter.labels(priority.name()).inc();
+      return priority == MessagePriority.LOW ? Result.DROPPED : Result.OVERFLOW;
+    }
+    queues.get(priority).add(message);
+    queuedBytes += size;
+    factory.queuedBytes.addAndGet(size);
+    factory.queuedMessages.incrementAndGet();
+    return Result.QUEUED;
+  }
+
+  /** @return the next message to write, or {@code null} if the queue is empty */
+  synchronized OutboundMessage poll() {
+    for (final ArrayDeque<OutboundMessage> queue : queues.values()) {
+      final OutboundMessage message = queue.poll();
+      if (message != null) {
+        removed(message);
+        return message;
+      }
+    }
+    return null;
+  }
+
+  /** Discards every queued message. */
+  synchronized void clear() {
+    for (final ArrayDeque<OutboundMessage> queue : queues.values()) {
+      OutboundMessage message;
+      while ((message = queue.poll()) != null) {
+        removed(message);
+      }
+    }
+  }
+
+  synchronized long queuedBytes() {
+    return queuedBytes;
+  }
+
+  private boolean fits(final int size) {
+    return queuedBytes == 0 || queuedBytes + size <= factory.maxQueuedBytes;
+  }
+
+  private void removed(final OutboundMessage message) {
+    final int size = sizeOf(message);
+    queuedBytes -= size;
+    factory.queuedBytes.addAndGet(-size);
+    factory.queuedMessages.decrementAndGet();
+  }
+
+  private static int sizeOf(final OutboundMessage message) {
+    return message.getData().getSize();
+  }
+
+  /** Creates the queues of all connections and keeps their aggregate metrics. */
+  static final class Factory {
+
+    private final long maxQueuedBytes;
+    private final AtomicLong queuedBytes = new AtomicLong();
+    private final AtomicLong queuedMessages = new AtomicLong();
+    private final LabelledMetric<Counter> droppedCounter;
+    private final Counter overflowCounter;
+
+    Factory(final long maxQueuedBytes, final MetricsSystem metricsSystem) {
+      checkArgument(maxQueuedBytes > 0, "The outbound queue must hold at least one byte");
+      this.maxQueuedBytes = maxQueuedBytes;
+      metricsSystem.createGauge(
+          MetricCategory.NETWORK,
+          "p2p_outbound_queued_bytes",
+          "Total size of the messages waiting to be written to peers",
+          () -> (double) queuedBytes.get());
+      metricsSystem.createGauge(
+          MetricCategory.NETWORK,
+          "p2p_outbound_queued_messages",
+          "Number of messages waiting to be written to peers",
+          () -> (double) queuedMessages.get());
+      droppedCounter =
+          metricsSystem.createLabelledCounter(
+              MetricCategory.NETWORK,
+              "p2p_outbound_messages_dropped_total",
+              "Messages dropped because a peer was not reading fast enough",
+              "priority");
+      overflowCounter =
+          metricsSystem.createCounter(
+              MetricCategory.NETWORK,
+              "p2p_slow_peer_disconnects_total",
+              "Peers disconnected because their outbound queue overflowed");
+    }
+
+    OutboundMessageQueue create() {
+      return new OutboundMessageQueue(this);
+    }
+
+    void overflowed() {
+      overflowCounter.inc();
+    }
+  }
+}
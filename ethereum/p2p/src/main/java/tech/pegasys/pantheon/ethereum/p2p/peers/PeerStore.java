@@ -0,0 +1,342 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.p2p.peers;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+import tech.pegasys.pantheon.ethereum.p2p.api.DisconnectCallback;
+import tech.pegasys.pantheon.ethereum.p2p.api.PeerConnection;
+import tech.pegasys.pantheon.ethereum.p2p.wire.messages.DisconnectMessage.DisconnectReason;
+import tech.pegasys.pantheon.util.bytes.BytesValue;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.net.InetAddresses;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * The peers this node recently had a working connection with, kept in a file so that they can be
+ * dialed as soon as the node restarts rather than waiting for discovery to find peers again.
+ *
+ * <p>A peer is recorded once a connection with it is fully established, with the address it
+ * connected from and the port it listens on. Its score goes up for every connection which lasted
+ * at least {@link #STABLE_CONNECTION}, and down whenever we disconnect it for timing out or for
+ * being useless, which is how the eth protocol acts on a poor peer reputation. Peers we
+ * disconnect for a breach of protocol are forgotten, as are peers which haven't been seen for
+ * {@link #MAX_AGE}.
+ *
+ * <p>The store holds at most a fixed number of peers, the ones with the lowest score being evicted
+ * first. It is only written to disk by {@link #save()}.
+ */
+public class PeerStore implements DisconnectCallback {
+
+  private static final Logger LOG = LogManager.getLogger();
+
+  public static final int DEFAULT_CAPACITY = 128;
+  static final Duration STABLE_CONNECTION = Duration.ofMinutes(5);
+  static final Duration MAX_AGE = Duration.ofDays(7);
+  static final int MIN_SCORE = -3;
+  static final int MAX_SCORE = 10;
+
+  private static final Set<DisconnectReason> forgottenDisconnectReasons =
+      ImmutableSet.of(
+          DisconnectReason.BREACH_OF_PROTOCOL, DisconnectReason.INCOMPATIBLE_P2P_PROTOCOL_VERSION);
+
+  private static final Set<DisconnectReason> penalisedDisconnectReasons =
+      ImmutableSet.of(
+          DisconnectReason.TIMEOUT,
+          DisconnectReason.USELESS_PEER,
+          DisconnectReason.SUBPROTOCOL_TRIGGERED);
+
+  private static final Comparator<StoredPeer> BEST_FIRST =
+      Comparator.<StoredPeer>comparingInt(peer -> peer.score)
+          .thenComparingLong(peer -> peer.lastSeen)
+          .reversed();
+
+  private final Path path;
+  private final int capacity;
+  private final Clock clock;
+  private final Map<BytesValue, StoredPeer> peers = new HashMap<>();
+
+  @VisibleForTesting
+  PeerStore(final Path path, final int capacity, final Clock clock) {
+    this.path = path;
+    this.capacity = capacity;
+    this.clock = clock;
+  }
+
+  /**
+   * Creates a store backed by the given file, with the peers it already holds.
+   *
+   * <p>A missing or unreadable file results in an empty store.
+   *
+   * @param path the file the peers are kept in
+   * @return the peer store
+   */
+  public static PeerStore load(final Path path) {
+    return load(path, DEFAULT_CAPACITY, Clock.systemUTC());
+  }
+
+  @VisibleForTesting
+  static PeerStore load(final Path path, final int capacity, final Clock clock) {
+    final PeerStore store = new PeerStore(path, capacity, clock);
+    try {
+      store.read();
+    } catch (final NoSuchFileException e) {
+      LOG.debug("No stored peers found at {}", path);
+    } catch (final IOException e) {
+      LOG.warn("Unable to read stored peers from {}", path, e);
+    }
+    return store;
+  }
+
+  /**
+   * Records a newly established connection.
+   *
+   * @param connection the connection
+   */
+  public synchronized void onConnect(final PeerConnection connection) {
+    final Optional<Endpoint> endpoint = listeningEndpoint(connection);
+    if (!endpoint.isPresent()) {
+      return;
+    }
+    final BytesValue nodeId = connection.getPeer().getNodeId();
+    final long now = clock.millis();
+    final StoredPeer peer =
+        peers.computeIfAbsent(nodeId, id -> new StoredPeer(id, endpoint.get(), now, 0));
+    peer.endpoint = endpoint.get();
+    peer.lastSeen = now;
+    peer.connection = connection;
+    peer.connectedAt = now;
+    if (peers.size() > capacity) {
+      evictWorst();
+    }
+  }
+
+  @Override
+  public synchronized void onDisconnect(
+      final PeerConnection connection,
+      final DisconnectReason reason,
+      final boolean initiatedByPeer) {
+    final BytesValue nodeId = connection.getPeer().getNodeId();
+    final StoredPeer peer = peers.get(nodeId);
+    if (peer == null || peer.connection != connection) {
+      return;
+    }
+    final long now = clock.millis();
+    peer.score = peer.scoreAt(now);
+    peer.lastSeen = now;
+    peer.connection = null;
+
+    if (!initiatedByPeer && penalisedDisconnectReasons.contains(reason)) {
+      peer.score--;
+    }
+    if (peer.score < MIN_SCORE
+        || (!initiatedByPeer && forgottenDisconnectReasons.contains(reason))) {
+      peers.remove(nodeId);
+    }
+  }
+
+  /**
+   * Returns the stored peers we are not connected to, best first.
+   *
+   * @param limit the maximum number of peers to return
+   * @return the peers to dial
+   */
+  public synchronized List<Peer> getPeersToDial(final int limit) {
+    final long oldest = clock.millis() - MAX_AGE.toMillis();
+    return peers
+        .values()
+        .stream()
+        .filter(peer -> peer.connection == null && peer.lastSeen >= oldest)
+        .sorted(BEST_FIRST)
+        .limit(limit)
+        .map(peer -> new DefaultPeer(peer.nodeId, peer.endpoint))
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Returns the score of a stored peer, which is higher for peers which stayed connected for long
+   * and lower for peers which were unresponsive.
+   *
+   * @param nodeId the node id of the peer
+   * @return the score of the peer, or empty if it isn't stored
+   */
+  public synchronized OptionalInt getScore(final BytesValue nodeId) {
+    final StoredPeer peer = peers.get(nodeId);
+    return peer == null ? OptionalInt.empty() : OptionalInt.of(peer.score);
+  }
+
+  /**
+   * Writes the stored peers to disk, replacing what was previously written.
+   *
+   * <p>Connections which are still open are written as though they ended now, so a peer which
+   * stayed connected until the node shut down is credited for it.
+   */
+  public void save() {
+    final List<String> lines;
+    synchronized (this) {
+      final long now = clock.millis();
+      final long oldest = now - MAX_AGE.toMillis();
+      peers.values().removeIf(peer -> peer.connection == null && peer.lastSeen < oldest);
+      lines = new ArrayList<>(peers.size());
+      for (final StoredPeer peer : peers.values()) {
+        lines.add(
+            peer.connection != null
+                ? peer.encode(now, peer.scoreAt(now))
+                : peer.encode(peer.lastSeen, peer.score));
+      }
+    }
+    try {
+      final Path directory = path.toAbsolutePath().getParent();
+      Files.createDirectories(directory);
+      final Path tempFile = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+      try {
+        Files.write(tempFile, lines, StandardCharsets.UTF_8);
+        Files.move(tempFile, path, REPLACE_EXISTING, ATOMIC_MOVE);
+      } finally {
+        Files.deleteIfExists(tempFile);
+      }
+      LOG.trace("Stored {} peers to {}", lines.size(), path);
+    } catch (final IOException e) {
+      LOG.warn("Unable to store peers to {}", path, e);
+    }
+  }
+
+  /** @return the number of stored peers */
+  public synchronized int size() {
+    return peers.size();
+  }
+
+  private void read() throws IOException {
+    final long oldest = clock.millis() - MAX_AGE.toMillis();
+    for (final String line : Files.readAllLines(path, StandardCharsets.UTF_8)) {
+      if (line.trim().isEmpty()) {
+        continue;
+      }
+      try {
+        final StoredPeer peer = StoredPeer.decode(line);
+        if (peer.lastSeen >= oldest) {
+          peers.put(peer.nodeId, peer);
+        }
+      } catch (final IllegalArgumentException e) {
+        LOG.debug("Ignoring invalid stored peer: {}", line, e);
+      }
+    }
+    while (peers.size() > capacity) {
+      evictWorst();
+    }
+  }
+
+  private void evictWorst() {
+    peers
+        .values()
+        .stream()
+        .filter(peer -> peer.connection == null)
+        .max(BEST_FIRST)
+        .ifPresent(worst -> peers.remove(worst.nodeId));
+  }
+
+  private static Optional<Endpoint> listeningEndpoint(final PeerConnection connection) {
+    // Inbound connections come from an ephemeral port, the peer listens on the one it advertised.
+    final int port = connection.getPeer().getPort();
+    final SocketAddress remoteAddress = connection.getRemoteAddress();
+    if (port <= 0 || port > 65535 || !(remoteAddress instanceof InetSocketAddress)) {
+      return Optional.empty();
+    }
+    final InetAddress address = ((InetSocketAddress) remoteAddress).getAddress();
+    if (address == null) {
+      return Optional.empty();
+    }
+    return Optional.of(
+        new Endpoint(InetAddresses.toAddrString(address), port, OptionalInt.of(port)));
+  }
+
+  private static class StoredPeer {
+
+    private final BytesValue nodeId;
+    private Endpoint endpoint;
+    private long lastSeen;
+    private int score;
+
+    private PeerConnection connection;
+    private long connectedAt;
+
+    private StoredPeer(
+        final BytesValue nodeId, final Endpoint endpoint, final long lastSeen, final int score) {
+      this.nodeId = nodeId;
+      this.endpoint = endpoint;
+      this.lastSeen = lastSeen;
+      this.score = score;
+    }
+
+    /** Returns the score of the peer, crediting its current connection if it ended now. */
+    private int scoreAt(final long now) {
+      if (connection != null && now - connectedAt >= STABLE_CONNECTION.toMillis()) {
+        return Math.min(score + 1, MAX_SCORE);
+      }
+      return score;
+    }
+
+    private String encode(final long lastSeen, final int score) {
+      return String.join(
+          " ",
+          nodeId.toString(),
+          endpoint.getHost(),
+          Integer.toString(endpoint.getUdpPort()),
+          Integer.toString(endpoint.getTcpPort().orElse(endpoint.getUdpPort())),
+          Long.toString(lastSeen),
+          Integer.toString(score));
+    }
+
+    private static StoredPeer decode(final String line) {
+      final String[] fields = line.trim().split(" ");
+      if (fields.length != 6) {
+        throw new IllegalArgumentException("Expected 6 fields but got " + fields.length);
+      }
+      final BytesValue nodeId = BytesValue.fromHexString(fields[0]);
+      if (nodeId.size() != DefaultPeer.PEER_ID_SIZE) {
+        throw new IllegalArgumentException("Invalid node id size " + nodeId.size());
+      }
+      final Endpoint endpoint =
+          new Endpoint(
+              fields[1],
+              Integer.parseInt(fields[2]),
+              OptionalInt.of(Integer.parseInt(fields[3])));
+      return new StoredPeer(
+          nodeId, endpoint, Long.parseLong(fields[4]), Integer.parseInt(fields[5]));
+    }
+  }
+}
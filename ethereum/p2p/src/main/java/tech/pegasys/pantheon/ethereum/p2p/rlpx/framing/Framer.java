@@ -13,14 +13,13 @@
 package tech.pegasys.pantheon.ethereum.p2p.rlpx.framing;
 
 import static io.netty.buffer.ByteBufUtil.hexDump;
-import static io.netty.buffer.Unpooled.wrappedBuffer;
-import static org.bouncycastle.pqc.math.linearalgebra.ByteUtils.xor;
 
 import tech.pegasys.pantheon.ethereum.p2p.api.MessageData;
 import tech.pegasys.pantheon.ethereum.p2p.rlpx.handshake.HandshakeSecrets;
 import tech.pegasys.pantheon.ethereum.p2p.wire.RawMessage;
 import tech.pegasys.pantheon.ethereum.rlp.RLP;
 import tech.pegasys.pantheon.util.bytes.BytesValue;
+import tech.pegasys.pantheon.util.bytes.MutableBytesValue;
 
 import java.util.Arrays;
 
@@ -67,7 +66,7 @@ public class Framer {
           .extractArray();
 
   private final HandshakeSecrets secrets;
-  private static final SnappyCompressor compressor = new SnappyCompressor();
+  private final SnappyFrameCodec snappy;
   private final StreamCipher encryptor;
   private final StreamCipher decryptor;
   private final BlockCipher macEncryptor;
@@ -75,13 +74,30 @@ public class Framer {
   private int frameSize;
   private boolean compressionEnabled = false;
 
+  // Scratch space, only used while holding this framer's lock.
+  private final byte[] ingressHeader = new byte[LENGTH_FULL_HEADER];
+  private final byte[] ingressFrameMac = new byte[LENGTH_MAC];
+  private final byte[] egressHeader = new byte[LENGTH_HEADER_DATA];
+  private final byte[] macBlock = new byte[LENGTH_MAC];
+
   /**
    * Creates a new framer out of the handshake secrets derived during the cryptographic handshake.
    *
    * @param secrets The handshake secrets.
    */
   public Framer(final HandshakeSecrets secrets) {
+    this(secrets, SnappyFrameCodec.withoutMetrics());
+  }
+
+  /**
+   * Creates a new framer out of the handshake secrets derived during the cryptographic handshake.
+   *
+   * @param secrets The handshake secrets.
+   * @param snappy The codec compressing messages once compression is enabled.
+   */
+  public Framer(final HandshakeSecrets secrets, final SnappyFrameCodec snappy) {
     this.secrets = secrets;
+    this.snappy = snappy;
 
     final KeyParameter aesKey = new KeyParameter(secrets.getAesSecret());
     final KeyParameter macKey = new KeyParameter(secrets.getMacSecret());
@@ -142,7 +158,6 @@ public class Framer {
       }
       frameSize = processHeader(buf.readSlice(LENGTH_FULL_HEADER));
       headerProcessed = true;
-      buf.discardReadBytes();
     }
 
     final int size = frameSize + padding16(frameSize) + LENGTH_MAC;
@@ -151,7 +166,6 @@ public class Framer {
     }
 
     final MessageData msg = processFrame(buf.readSlice(size), frameSize);
-    buf.discardReadBytes();
     headerProcessed = false;
     return msg;
   }
@@ -172,45 +186,40 @@ public class Framer {
           "Expected %s bytes in header, got %s", LENGTH_FULL_HEADER, tainedHeader.readableBytes());
     }
 
-    // Decrypt the header.
-    final byte[] hCipher = new byte[LENGTH_HEADER_DATA];
-    final byte[] hMac = new byte[LENGTH_MAC];
-    tainedHeader.readBytes(hCipher).readBytes(hMac);
+    final byte[] h = ingressHeader;
+    tainedHeader.readBytes(h);
 
     // Header MAC validation.
-    byte[] expectedMac = new byte[16];
-    macEncryptor.processBlock(secrets.getIngressMac(), 0, expectedMac, 0);
-    expectedMac = secrets.updateIngress(xor(expectedMac, hCipher)).getIngressMac();
-    expectedMac = Arrays.copyOf(expectedMac, LENGTH_MAC);
-
-    validateMac(expectedMac, hMac);
+    macEncryptor.processBlock(secrets.getIngressMac(), 0, macBlock, 0);
+    xorInto(macBlock, h, 0);
+    secrets.updateIngress(macBlock, 0, LENGTH_MAC);
+    validateMac(secrets.getIngressMac(), h, LENGTH_HEADER_DATA);
 
     // Perform the header decryption.
-    decryptor.processBytes(hCipher, 0, hCipher.length, hCipher, 0);
-    final ByteBuf h = wrappedBuffer(hCipher);
+    decryptor.processBytes(h, 0, LENGTH_HEADER_DATA, h, 0);
 
     // Read the frame length.
-    final byte[] length = new byte[3];
-    h.readBytes(length);
-    int frameSize = length[0] & 0xff;
-    frameSize = (frameSize << 8) + (length[1] & 0xff);
-    frameSize = (frameSize << 8) + (length[2] & 0xff);
+    int frameSize = h[0] & 0xff;
+    frameSize = (frameSize << 8) + (h[1] & 0xff);
+    frameSize = (frameSize << 8) + (h[2] & 0xff);
 
     // Discard the header data (RLP): being set to fixed value 0xc28080 (list of two null
     // elements) by other clients.
-    final int headerDataLength = RLP.calculateSize(BytesValue.wrapBuffer(h.nioBuffer()));
-    h.skipBytes(headerDataLength);
+    final int headerDataLength =
+        RLP.calculateSize(
+            BytesValue.wrap(h, LENGTH_FRAME_SIZE, LENGTH_HEADER_DATA - LENGTH_FRAME_SIZE));
 
     // Discard padding in header (= zero-fill to 16-byte boundary).
-    h.skipBytes(padding16(LENGTH_FRAME_SIZE + headerDataLength));
-
-    if (h.readableBytes() != 0) {
+    final int remaining =
+        LENGTH_HEADER_DATA
+            - LENGTH_FRAME_SIZE
+            - headerDataLength
+            - padding16(LENGTH_FRAME_SIZE + headerDataLength);
+    if (remaining != 0) {
       throw error(
-          "Expected no more readable bytes while processing header, remaining: %s",
-          h.readableBytes());
+          "Expected no more readable bytes while processing header, remaining: %s", remaining);
     }
 
-    h.discardReadBytes();
     return frameSize;
   }
 
@@ -220,6 +229,10 @@ public class Framer {
    * <p>This method expects a well-formed frame, sized according to the length indicated in this
    * packet's header.
    *
+   * <p>The frame is copied out of the buffer once. Without compression, the message data is a view
+   * over that copy; with compression, the copy is a pooled scratch buffer and the message is
+   * decompressed straight into its own array.
+   *
    * @param f The buffer containing
    * @param frameSize The expected
    */
@@ -230,50 +243,72 @@ public class Framer {
       throw error("Expected %s bytes in header, got %s", expectedSize, f.readableBytes());
     }
 
-    final byte[] frameData = new byte[frameSize + pad];
-    final byte[] fMac = new byte[LENGTH_MAC];
-    f.readBytes(frameData).readBytes(fMac);
+    if (!compressionEnabled) {
+      final byte[] frameData = new byte[frameSize + pad];
+      final int id = decryptFrame(f, frameData, 0, frameData.length);
+      return new RawMessage(id, BytesValue.wrap(frameData, 1, frameSize - LENGTH_MESSAGE_ID));
+    }
 
-    // Validate the frame's MAC.
-    final byte[] fMacSeed = secrets.updateIngress(frameData).getIngressMac();
-    final byte[] fMacSeedEnc = new byte[16];
-    macEncryptor.processBlock(fMacSeed, 0, fMacSeedEnc, 0);
-    byte[] expectedMac = secrets.updateIngress(xor(fMacSeedEnc, fMacSeed)).getIngressMac();
-    expectedMac = Arrays.copyOf(expectedMac, LENGTH_MAC);
+    final ByteBuf scratch = f.alloc().heapBuffer(frameSize + pad);
+    try {
+      final byte[] frameData = scratch.array();
+      final int offset = scratch.arrayOffset();
+      final int id = decryptFrame(f, frameData, offset, frameSize + pad);
+
+      final BytesValue data =
+          snappy.decompress(
+              id,
+              frameData,
+              offset + LENGTH_MESSAGE_ID,
+              frameSize - LENGTH_MESSAGE_ID,
+              LENGTH_MAX_MESSAGE_FRAME);
+      return new RawMessage(id, data);
+    } finally {
+      scratch.release();
+    }
+  }
 
-    validateMac(fMac, expectedMac);
+  /**
+   * Reads the frame into the given array, validates its MAC and decrypts it in place.
+   *
+   * @return the id of the message in the frame
+   */
+  private int decryptFrame(
+      final ByteBuf f, final byte[] frameData, final int offset, final int length) {
+    f.readBytes(frameData, offset, length);
+
+    // Validate the frame's MAC.
+    final byte[] fMacSeed = secrets.updateIngress(frameData, offset, length).getIngressMac();
+    macEncryptor.processBlock(fMacSeed, 0, macBlock, 0);
+    xorInto(macBlock, fMacSeed, 0);
+    secrets.updateIngress(macBlock, 0, LENGTH_MAC);
+    f.readBytes(ingressFrameMac);
+    validateMac(secrets.getIngressMac(), ingressFrameMac, 0);
 
     // Decrypt frame data.
-    decryptor.processBytes(frameData, 0, frameData.length, frameData, 0);
-
-    // Read the id.
-    final BytesValue idbv = RLP.decodeOne(BytesValue.of(frameData[0]));
-    final int id = idbv.isZero() || idbv.size() == 0 ? 0 : idbv.get(0);
-
-    // Write message data to ByteBuf, decompressing as necessary
-    final BytesValue data;
-    if (compressionEnabled) {
-      final byte[] compressedMessageData = Arrays.copyOfRange(frameData, 1, frameData.length - pad);
-      final int uncompressedLength = compressor.uncompressedLength(compressedMessageData);
-      if (uncompressedLength >= LENGTH_MAX_MESSAGE_FRAME) {
-        throw error("Message size %s in excess of maximum length.", uncompressedLength);
-      }
-      final byte[] decompressedMessageData = compressor.decompress(compressedMessageData);
-      data = BytesValue.wrap(decompressedMessageData);
-    } else {
-      // Move data to a ByteBuf
-      final int messageLength = frameSize - LENGTH_MESSAGE_ID;
-      data = BytesValue.wrap(frameData, 1, messageLength);
-    }
+    decryptor.processBytes(frameData, offset, length, frameData, offset);
 
-    return new RawMessage(id, data);
+    // Read the id, a single RLP-encoded byte.
+    final int id = frameData[offset] & 0xff;
+    if (id == 0x80) {
+      return 0;
+    }
+    if (id > 0x80) {
+      throw error("Invalid message id in frame: 0x%s", Integer.toHexString(id));
+    }
+    return id;
   }
 
-  private void validateMac(final byte[] candidateMac, final byte[] expectedMac) {
-    if (!Arrays.equals(expectedMac, candidateMac)) {
+  private void validateMac(
+      final byte[] expectedMac, final byte[] candidate, final int candidateOffset) {
+    int diff = 0;
+    for (int i = 0; i < LENGTH_MAC; i++) {
+      diff |= expectedMac[i] ^ candidate[candidateOffset + i];
+    }
+    if (diff != 0) {
       throw error(
           "Frame MAC did not match expected MAC; expected: %s, received: %s",
-          hexDump(expectedMac), hexDump(candidateMac));
+          hexDump(expectedMac, 0, LENGTH_MAC), hexDump(candidate, candidateOffset, LENGTH_MAC));
     }
   }
 
@@ -287,59 +322,78 @@ public class Framer {
   public synchronized void frame(final MessageData message, final ByteBuf output) {
     Preconditions.checkArgument(
         message.getSize() < LENGTH_MAX_MESSAGE_FRAME, "Message size in excess of maximum length.");
-    // Compress message
-    if (compressionEnabled) {
-      // Extract data from message
-      // Compress data
-      final byte[] compressed = compressor.compress(message.getData().getArrayUnsafe());
-      // Construct new, compressed message
-      frameMessage(new RawMessage(message.getCode(), BytesValue.wrap(compressed)), output);
-    } else {
+    if (!compressionEnabled) {
       frameMessage(message, output);
+      return;
+    }
+
+    // Compress the message into a pooled scratch buffer and frame it from there.
+    final ByteBuf compressed =
+        snappy.compress(message.getCode(), message.getData(), output.alloc());
+    try {
+      frameMessage(
+          message.getCode(),
+          BytesValue.wrap(compressed.array(), compressed.arrayOffset(), compressed.readableBytes()),
+          output);
+    } finally {
+      compressed.release();
     }
   }
 
   @VisibleForTesting
   void frameMessage(final MessageData message, final ByteBuf buf) {
-    final int frameSize = message.getSize() + LENGTH_MESSAGE_ID;
+    frameMessage(message.getCode(), message.getData(), buf);
+  }
+
+  private void frameMessage(final int code, final BytesValue data, final ByteBuf buf) {
+    final int frameSize = data.size() + LENGTH_MESSAGE_ID;
     final int pad = padding16(frameSize);
 
-    final byte id = (byte) message.getCode();
+    final byte id = (byte) code;
 
     // Generate the header data.
-    final byte[] h = new byte[LENGTH_HEADER_DATA];
+    final byte[] h = egressHeader;
     h[0] = (byte) ((frameSize >> 16) & 0xff);
     h[1] = (byte) ((frameSize >> 8) & 0xff);
     h[2] = (byte) (frameSize & 0xff);
     System.arraycopy(PROTOCOL_HEADER, 0, h, LENGTH_FRAME_SIZE, PROTOCOL_HEADER.length);
-    Arrays.fill(h, LENGTH_FRAME_SIZE + PROTOCOL_HEADER.length, h.length - 1, (byte) 0x00);
+    Arrays.fill(h, LENGTH_FRAME_SIZE + PROTOCOL_HEADER.length, h.length, (byte) 0x00);
     encryptor.processBytes(h, 0, LENGTH_HEADER_DATA, h, 0);
 
     // Generate the header MAC.
-    byte[] hMac = Arrays.copyOf(secrets.getEgressMac(), LENGTH_MAC);
-    macEncryptor.processBlock(hMac, 0, hMac, 0);
-    hMac = secrets.updateEgress(xor(h, hMac)).getEgressMac();
-    hMac = Arrays.copyOf(hMac, LENGTH_MAC);
-    buf.writeBytes(h).writeBytes(hMac);
-
-    // Encrypt payload.
-    final byte[] f = new byte[frameSize + pad];
-
-    final BytesValue bv = id == 0 ? RLP.NULL : RLP.encodeOne(BytesValue.of(id));
-    assert bv.size() == 1;
-    f[0] = bv.get(0);
-
-    // Zero-padded to 16-byte boundary.
-    message.getData().copyTo(f, 0, 1);
-    encryptor.processBytes(f, 0, f.length, f, 0);
-
-    // Calculate the frame MAC.
-    final byte[] fMacSeed = Arrays.copyOf(secrets.updateEgress(f).getEgressMac(), LENGTH_MAC);
-    byte[] fMac = new byte[16];
-    macEncryptor.processBlock(fMacSeed, 0, fMac, 0);
-    fMac = Arrays.copyOf(secrets.updateEgress(xor(fMac, fMacSeed)).getEgressMac(), LENGTH_MAC);
-
-    buf.writeBytes(f).writeBytes(fMac);
+    macEncryptor.processBlock(secrets.getEgressMac(), 0, macBlock, 0);
+    xorInto(macBlock, h, 0);
+    final byte[] hMac = secrets.updateEgress(macBlock, 0, LENGTH_MAC).getEgressMac();
+    buf.writeBytes(h).writeBytes(hMac, 0, LENGTH_MAC);
+
+    // Encrypt the payload, zero-padded to 16-byte boundary, in a pooled scratch buffer.
+    final int length = frameSize + pad;
+    final ByteBuf scratch = buf.alloc().heapBuffer(length);
+    try {
+      final byte[] f = scratch.array();
+      final int offset = scratch.arrayOffset();
+      f[offset] = id == 0 ? (byte) 0x80 : id;
+      data.copyTo(MutableBytesValue.wrap(f, offset + LENGTH_MESSAGE_ID, data.size()));
+      Arrays.fill(f, offset + frameSize, offset + length, (byte) 0x00);
+      encryptor.processBytes(f, offset, length, f, offset);
+
+      // Calculate the frame MAC.
+      final byte[] fMacSeed = secrets.updateEgress(f, offset, length).getEgressMac();
+      macEncryptor.processBlock(fMacSeed, 0, macBlock, 0);
+      xorInto(macBlock, fMacSeed, 0);
+      final byte[] fMac = secrets.updateEgress(macBlock, 0, LENGTH_MAC).getEgressMac();
+
+      buf.writeBytes(f, offset, length).writeBytes(fMac, 0, LENGTH_MAC);
+    } finally {
+      scratch.release();
+    }
+  }
+
+  /** XORs the first {@link #LENGTH_MAC} bytes of {@code source} into {@code target}. */
+  private static void xorInto(final byte[] target, final byte[] source, final int sourceOffset) {
+    for (int i = 0; i < LENGTH_MAC; i++) {
+      target[i] ^= source[sourceOffset + i];
+    }
   }
 
   private static int padding16(final int size) {
@@ -34,6 +34,30 @@ public class SnappyCompressor {
     }
   }
 
+  /**
+   * Compresses a range of bytes into the provided array, which must have room for at least {@link
+   * #maxCompressedLength(int)} bytes from {@code outputOffset}.
+   *
+   * @return the length of the compressed data
+   */
+  public int compress(
+      final byte[] uncompressed,
+      final int offset,
+      final int length,
+      final byte[] output,
+      final int outputOffset) {
+    checkNotNull(uncompressed, "input data must not be null");
+    try {
+      return Snappy.compress(uncompressed, offset, length, output, outputOffset);
+    } catch (final IOException e) {
+      throw new FramingException("Snappy compression failed", e);
+    }
+  }
+
+  public int maxCompressedLength(final int length) {
+    return Snappy.maxCompressedLength(length);
+  }
+
   public byte[] decompress(final byte[] compressed) {
     checkNotNull(compressed, "input data must not be null");
     try {
@@ -43,6 +67,22 @@ public class SnappyCompressor {
     }
   }
 
+  /**
+   * Decompresses a range of bytes into the provided array, which must be large enough to hold
+   * {@link #uncompressedLength(byte[], int, int)} bytes.
+   *
+   * @return the length of the decompressed data
+   */
+  public int decompress(
+      final byte[] compressed, final int offset, final int length, final byte[] output) {
+    checkNotNull(compressed, "input data must not be null");
+    try {
+      return Snappy.uncompress(compressed, offset, length, output, 0);
+    } catch (final IOException e) {
+      throw new FramingException("Snappy decompression failed", e);
+    }
+  }
+
   public int uncompressedLength(final byte[] compressed) {
     checkNotNull(compressed, "input data must not be null");
     try {
@@ -51,4 +91,13 @@ public class SnappyCompressor {
       throw new FramingException("Snappy uncompressedLength failed", e);
     }
   }
+
+  public int uncompressedLength(final byte[] compressed, final int offset, final int length) {
+    checkNotNull(compressed, "input data must not be null");
+    try {
+      return Snappy.uncompressedLength(compressed, offset, length);
+    } catch (final IOException e) {
+      throw new FramingException("Snappy uncompressedLength failed", e);
+    }
+  }
 }
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.p2p.rlpx.framing;
+
+import tech.pegasys.pantheon.metrics.Counter;
+import tech.pegasys.pantheon.metrics.LabelledMetric;
+import tech.pegasys.pantheon.metrics.MetricCategory;
+import tech.pegasys.pantheon.metrics.MetricsSystem;
+import tech.pegasys.pantheon.metrics.OperationTimer;
+import tech.pegasys.pantheon.metrics.noop.NoOpMetricsSystem;
+import tech.pegasys.pantheon.util.bytes.BytesValue;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+
+/**
+ * Compresses and decompresses the payloads of devp2p v5 frames with Snappy.
+ *
+ * <p>Compressed payloads are written to buffers taken from the channel's pooled allocator, which
+ * keeps a cache of buffers for every I/O thread. The uncompressed length declared by a compressed
+ * payload is checked against the maximum message size before the payload is decompressed, so a
+ * peer can't make us allocate more than a frame can hold.
+ *
+ * <p>The sizes before and after compression, and the time spent in the codec, are recorded per
+ * message code. A single codec is shared by all the connections of a network.
+ */
+public class SnappyFrameCodec {
+
+  private static final String INBOUND = "inbound";
+  private static final String OUTBOUND = "outbound";
+  private static final String[] CODE_LABELS = new String[0x80];
+
+  static {
+    for (int code = 0; code < CODE_LABELS.length; code++) {
+      CODE_LABELS[code] = Integer.toString(code);
+    }
+  }
+
+  private static final SnappyFrameCodec NO_METRICS = new SnappyFrameCodec(new NoOpMetricsSystem());
+
+  private final SnappyCompressor compressor = new SnappyCompressor();
+  private final LabelledMetric<Counter> uncompressedBytes;
+  private final LabelledMetric<Counter> compressedBytes;
+  private final LabelledMetric<OperationTimer> codecTimer;
+
+  public SnappyFrameCodec(final MetricsSystem metricsSystem) {
+    uncompressedBytes =
+        metricsSystem.createLabelledCounter(
+            MetricCategory.NETWORK,
+            "p2p_snappy_uncompressed_bytes_total",
+            "Size of message payloads before compression or after decompression",
+            "direction",
+            "code");
+    compressedBytes =
+        metricsSystem.createLabelledCounter(
+            MetricCategory.NETWORK,
+            "p2p_snappy_compressed_bytes_total",
+            "Size of message payloads after compression or before decompression",
+            "direction",
+            "code");
+    codecTimer =
+        metricsSystem.createLabelledTimer(
+            MetricCategory.NETWORK,
+            "p2p_snappy_codec_time",
+            "Time spent compressing or decompressing a message payload",
+            "direction",
+            "code");
+  }
+
+  /** @return a codec which doesn't record any metrics */
+  public static SnappyFrameCodec withoutMetrics() {
+    return NO_METRICS;
+  }
+
+  /**
+   * Compresses the payload of a message.
+   *
+   * @param code the code of the message
+   * @param data the payload to compress
+   * @param allocator the allocator to take the output buffer from
+   * @return a buffer holding the compressed payload, which the caller must release
+   */
+  ByteBuf compress(final int code, final BytesValue data, final ByteBufAllocator allocator) {
+    final String codeLabel = codeLabel(code);
+    final OperationTimer.TimingContext timing = codecTimer.labels(OUTBOUND, codeLabel).startTimer();
+    final byte[] uncompressed = data.getArrayUnsafe();
+    final ByteBuf compressed =
+        allocator.heapBuffer(compressor.maxCompressedLength(uncompressed.length));
+    try {
+      final int compressedLength =
+          compressor.compress(
+              uncompressed, 0, uncompressed.length, compressed.array(), compressed.arrayOffset());
+      compressed.writerIndex(compressedLength);
+    } catch (final RuntimeException e) {
+      compressed.release();
+      throw e;
+    } finally {
+      timing.stopTimer();
+    }
+    uncompressedBytes.labels(OUTBOUND, codeLabel).inc(uncompressed.length);
+    compressedBytes.labels(OUTBOUND, codeLabel).inc(compressed.readableBytes());
+    return compressed;
+  }
+
+  /**
+   * Decompresses the payload of a message.
+   *
+   * @param code the code of the message
+   * @param compressed the array holding the compressed payload
+   * @param offset the offset of the payload in the array
+   * @param length the length of the compressed payload
+   * @param maxLength the length the uncompressed payload must be less than
+   * @return the uncompressed payload
+   * @throws FramingException if the payload is invalid or declares a length of {@code maxLength}
+   *     or more
+   */
+  BytesValue decompress(
+      final int code,
+      final byte[] compressed,
+      final int offset,
+      final int length,
+      final int maxLength) {
+    final String codeLabel = codeLabel(code);
+    final OperationTimer.TimingContext timing = codecTimer.labels(INBOUND, codeLabel).startTimer();
+    final byte[] data;
+    try {
+      final int uncompressedLength = compressor.uncompressedLength(compressed, offset, length);
+      if (uncompressedLength < 0 || uncompressedLength >= maxLength) {
+        throw new FramingException(
+            String.format("Message size %s in excess of maximum length.", uncompressedLength));
+      }
+      data = new byte[uncompressedLength];
+      compressor.decompress(compressed, offset, length, data);
+    } finally {
+      timing.stopTimer();
+    }
+    uncompressedBytes.labels(INBOUND, codeLabel).inc(data.length);
+    compressedBytes.labels(INBOUND, codeLabel).inc(length);
+    return BytesValue.wrap(data);
+  }
+
+  private static String codeLabel(final int code) {
+    return code >= 0 && code < CODE_LABELS.length ? CODE_LABELS[code] : Integer.toString(code);
+  }
+}
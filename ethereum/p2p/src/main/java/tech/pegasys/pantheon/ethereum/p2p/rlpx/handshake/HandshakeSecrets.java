@@ -71,7 +71,19 @@ public class HandshakeSecrets {
    * @return Returns this instance for fluent chaining.
    */
   public HandshakeSecrets updateEgress(final byte[] bytes) {
-    egressMac.update(bytes, 0, bytes.length);
+    return updateEgress(bytes, 0, bytes.length);
+  }
+
+  /**
+   * Updates the egress mac with a range of the provided bytes.
+   *
+   * @param bytes The bytes of the outgoing message.
+   * @param offset The offset of the range to update the mac with.
+   * @param length The length of the range to update the mac with.
+   * @return Returns this instance for fluent chaining.
+   */
+  public HandshakeSecrets updateEgress(final byte[] bytes, final int offset, final int length) {
+    egressMac.update(bytes, offset, length);
     return this;
   }
 
@@ -82,7 +94,19 @@ public class HandshakeSecrets {
    * @return Returns this instance for fluent chaining.
    */
   public HandshakeSecrets updateIngress(final byte[] bytes) {
-    ingressMac.update(bytes, 0, bytes.length);
+    return updateIngress(bytes, 0, bytes.length);
+  }
+
+  /**
+   * Updates the ingress mac with a range of the provided bytes.
+   *
+   * @param bytes The bytes of the incoming message.
+   * @param offset The offset of the range to update the mac with.
+   * @param length The length of the range to update the mac with.
+   * @return Returns this instance for fluent chaining.
+   */
+  public HandshakeSecrets updateIngress(final byte[] bytes, final int offset, final int length) {
+    ingressMac.update(bytes, offset, length);
     return this;
   }
 
@@ -0,0 +1,31 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.p2p.wire;
+
+/**
+ * The order in which messages waiting to be sent to a peer are written.
+ *
+ * <p>Messages of a higher priority are written before any message of a lower priority, regardless
+ * of the order they were sent in. When a peer falls behind, messages of the lowest priority are
+ * dropped first.
+ */
+public enum MessagePriority {
+  /** Wire protocol messages, consensus messages and block propagation. */
+  HIGH,
+
+  /** Requests and responses, such as those of a synchronizing node. */
+  NORMAL,
+
+  /** Best effort messages which may be dropped, such as transaction gossip. */
+  LOW
+}
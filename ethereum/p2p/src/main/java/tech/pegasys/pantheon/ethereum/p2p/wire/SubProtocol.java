@@ -50,4 +50,15 @@ public interface SubProtocol {
    *     it is not a valid in the protocol.
    */
   String messageName(int protocolVersion, int code);
+
+  /**
+   * Returns the priority with which a message is written to peers.
+   *
+   * @param protocolVersion The version of the protocol for the message code.
+   * @param code The message code.
+   * @return The priority of the message.
+   */
+  default MessagePriority messagePriority(final int protocolVersion, final int code) {
+    return MessagePriority.NORMAL;
+  }
 }
@@ -23,6 +23,7 @@ import tech.pegasys.pantheon.ethereum.p2p.peers.Endpoint;
 import tech.pegasys.pantheon.ethereum.p2p.peers.PeerBlacklist;
 import tech.pegasys.pantheon.ethereum.p2p.permissioning.NodeWhitelistController;
 import tech.pegasys.pantheon.ethereum.permissioning.PermissioningConfiguration;
+import tech.pegasys.pantheon.metrics.noop.NoOpMetricsSystem;
 import tech.pegasys.pantheon.util.bytes.BytesValue;
 
 import java.util.List;
@@ -135,7 +136,8 @@ public abstract class AbstractPeerDiscoveryTest {
             config,
             () -> true,
             blacklist,
-            new NodeWhitelistController(PermissioningConfiguration.createDefault()));
+            new NodeWhitelistController(PermissioningConfiguration.createDefault()),
+            new NoOpMetricsSystem());
     try {
       agent.start(BROADCAST_TCP_PORT).get(5, TimeUnit.SECONDS);
     } catch (final Exception ex) {
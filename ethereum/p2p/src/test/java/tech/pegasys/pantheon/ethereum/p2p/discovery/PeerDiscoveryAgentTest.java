@@ -31,6 +31,7 @@ import tech.pegasys.pantheon.ethereum.p2p.wire.Capability;
 import tech.pegasys.pantheon.ethereum.p2p.wire.PeerInfo;
 import tech.pegasys.pantheon.ethereum.p2p.wire.messages.DisconnectMessage.DisconnectReason;
 import tech.pegasys.pantheon.ethereum.permissioning.PermissioningConfiguration;
+import tech.pegasys.pantheon.metrics.noop.NoOpMetricsSystem;
 import tech.pegasys.pantheon.util.bytes.BytesValue;
 
 import java.net.SocketAddress;
@@ -142,7 +143,8 @@ public class PeerDiscoveryAgentTest extends AbstractPeerDiscoveryTest {
             DiscoveryConfiguration.create().setBindHost("127.0.0.1").setBindPort(0),
             () -> true,
             new PeerBlacklist(),
-            new NodeWhitelistController(PermissioningConfiguration.createDefault()));
+            new NodeWhitelistController(PermissioningConfiguration.createDefault()),
+            new NoOpMetricsSystem());
     peerDiscoveryAgent1.start(0).join();
     final DefaultPeer peer = peerDiscoveryAgent1.getAdvertisedPeer();
 
@@ -157,7 +159,8 @@ public class PeerDiscoveryAgentTest extends AbstractPeerDiscoveryTest {
                 .setBootstrapPeers(Lists.newArrayList(peer)),
             () -> true,
             new PeerBlacklist(),
-            new NodeWhitelistController(PermissioningConfiguration.createDefault()));
+            new NodeWhitelistController(PermissioningConfiguration.createDefault()),
+            new NoOpMetricsSystem());
     peerDiscoveryAgent2.start(0).join();
 
     assertThat(peerDiscoveryAgent2.getPeers().size()).isEqualTo(1);
@@ -24,6 +24,7 @@ import tech.pegasys.pantheon.ethereum.p2p.peers.Peer;
 import tech.pegasys.pantheon.ethereum.p2p.peers.PeerBlacklist;
 import tech.pegasys.pantheon.ethereum.p2p.permissioning.NodeWhitelistController;
 import tech.pegasys.pantheon.ethereum.permissioning.PermissioningConfiguration;
+import tech.pegasys.pantheon.metrics.noop.NoOpMetricsSystem;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -111,7 +112,8 @@ public class PeerDiscoveryObserversTest extends AbstractPeerDiscoveryTest {
             configWithRandomPorts().getDiscovery().setBootstrapPeers(peers2),
             () -> true,
             new PeerBlacklist(),
-            new NodeWhitelistController(PermissioningConfiguration.createDefault()));
+            new NodeWhitelistController(PermissioningConfiguration.createDefault()),
+            new NoOpMetricsSystem());
 
     // A queue for storing peer bonded events.
     final ArrayBlockingQueue<PeerBondedEvent> queue = new ArrayBlockingQueue<>(10);
@@ -163,7 +165,8 @@ public class PeerDiscoveryObserversTest extends AbstractPeerDiscoveryTest {
                 .setBootstrapPeers(Collections.singletonList(peer)),
             () -> true,
             new PeerBlacklist(),
-            new NodeWhitelistController(PermissioningConfiguration.createDefault()));
+            new NodeWhitelistController(PermissioningConfiguration.createDefault()),
+            new NoOpMetricsSystem());
 
     // Create 5 queues and subscribe them to peer bonded events.
     final List<ArrayBlockingQueue<PeerBondedEvent>> queues =
@@ -14,10 +14,18 @@ package tech.pegasys.pantheon.ethereum.p2p.discovery.internal;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import tech.pegasys.pantheon.crypto.Hash;
 import tech.pegasys.pantheon.ethereum.p2p.discovery.DiscoveryPeer;
+import tech.pegasys.pantheon.ethereum.p2p.discovery.PeerDiscoveryStatus;
 import tech.pegasys.pantheon.ethereum.p2p.discovery.PeerDiscoveryTestHelper;
 import tech.pegasys.pantheon.ethereum.p2p.discovery.internal.PeerTable.AddResult.Outcome;
 import tech.pegasys.pantheon.ethereum.p2p.peers.Peer;
+import tech.pegasys.pantheon.util.bytes.Bytes32;
+import tech.pegasys.pantheon.util.bytes.BytesValue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
 
 import org.junit.Test;
 
@@ -63,4 +71,53 @@ public class PeerTableTest {
               assertThat(result.getEvictionCandidate()).isNull();
             });
   }
+
+  @Test
+  public void evictPeer() {
+    final PeerTable table = new PeerTable(Peer.randomId(), 16);
+    final DiscoveryPeer peer = new DiscoveryPeer(Peer.randomId(), "127.0.0.1", 12345, 12345);
+
+    assertThat(table.tryAdd(peer).getOutcome()).isEqualTo(Outcome.ADDED);
+    assertThat(table.size()).isEqualTo(1);
+    assertThat(table.get(peer)).contains(peer);
+
+    assertThat(table.evict(peer)).isTrue();
+    assertThat(table.evict(peer)).isFalse();
+    assertThat(table.size()).isEqualTo(0);
+    assertThat(table.get(peer)).isEmpty();
+  }
+
+  @Test
+  public void nearestPeersAreTheClosestBondedPeers() {
+    final PeerTable table = new PeerTable(Peer.randomId(), 16);
+    final List<DiscoveryPeer> bonded = new ArrayList<>();
+    for (int i = 0; i < 500; i++) {
+      final DiscoveryPeer peer = new DiscoveryPeer(Peer.randomId(), "127.0.0.1", 12345, 12345);
+      if (i % 5 != 0) {
+        peer.setStatus(PeerDiscoveryStatus.BONDED);
+      }
+      if (table.tryAdd(peer).getOutcome() == Outcome.ADDED && i % 5 != 0) {
+        bonded.add(peer);
+      }
+    }
+
+    for (int i = 0; i < 20; i++) {
+      final BytesValue target = Peer.randomId();
+      final Bytes32 targetKeccak256 = Hash.keccak256(target);
+      final List<Integer> expectedDistances =
+          bonded
+              .stream()
+              .map(peer -> PeerDistanceCalculator.distance(peer.keccak256(), targetKeccak256))
+              .sorted()
+              .limit(16)
+              .collect(Collectors.toList());
+
+      final List<DiscoveryPeer> nearest = table.nearestPeers(target, 16);
+
+      assertThat(nearest).hasSize(16).allMatch(bonded::contains).doesNotHaveDuplicates();
+      assertThat(nearest)
+          .extracting(peer -> PeerDistanceCalculator.distance(peer.keccak256(), targetKeccak256))
+          .isEqualTo(expectedDistances);
+    }
+  }
 }
@@ -13,13 +13,25 @@
 package tech.pegasys.pantheon.ethereum.p2p.netty;
 
 import static java.util.Collections.emptyList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import tech.pegasys.pantheon.ethereum.p2p.api.PeerConnection.PeerNotConnected;
+import tech.pegasys.pantheon.ethereum.p2p.wire.Capability;
+import tech.pegasys.pantheon.ethereum.p2p.wire.MessagePriority;
 import tech.pegasys.pantheon.ethereum.p2p.wire.PeerInfo;
+import tech.pegasys.pantheon.ethereum.p2p.wire.RawMessage;
+import tech.pegasys.pantheon.ethereum.p2p.wire.SubProtocol;
 import tech.pegasys.pantheon.ethereum.p2p.wire.messages.DisconnectMessage.DisconnectReason;
 import tech.pegasys.pantheon.ethereum.p2p.wire.messages.HelloMessage;
+import tech.pegasys.pantheon.ethereum.p2p.wire.messages.PingMessage;
 import tech.pegasys.pantheon.metrics.noop.NoOpMetricsSystem;
 import tech.pegasys.pantheon.util.bytes.BytesValue;
 
@@ -30,6 +42,7 @@ import io.netty.channel.EventLoop;
 import org.assertj.core.api.Assertions;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 
 public class NettyPeerConnectionTest {
 
@@ -39,6 +52,8 @@ public class NettyPeerConnectionTest {
   private final EventLoop eventLoop = mock(EventLoop.class);
   private final CapabilityMultiplexer multiplexer = mock(CapabilityMultiplexer.class);
   private final Callbacks callbacks = mock(Callbacks.class);
+  private final SubProtocol subProtocol = mock(SubProtocol.class);
+  private final Capability capability = Capability.create("eth", 63);
   private final PeerInfo peerInfo = new PeerInfo(5, "foo", emptyList(), 0, BytesValue.of(1));
 
   private NettyPeerConnection connection;
@@ -48,9 +63,20 @@ public class NettyPeerConnectionTest {
     when(context.channel()).thenReturn(channel);
     when(channel.closeFuture()).thenReturn(closeFuture);
     when(channel.eventLoop()).thenReturn(eventLoop);
+    when(channel.isActive()).thenReturn(true);
+    when(multiplexer.subProtocol(capability)).thenReturn(subProtocol);
+    when(subProtocol.isValidMessageCode(eq(63), anyInt())).thenReturn(true);
+    when(subProtocol.messageName(eq(63), anyInt())).thenReturn("Message");
+    when(subProtocol.messagePriority(63, 1)).thenReturn(MessagePriority.NORMAL);
+    when(subProtocol.messagePriority(63, 2)).thenReturn(MessagePriority.LOW);
     connection =
         new NettyPeerConnection(
-            context, peerInfo, multiplexer, callbacks, NoOpMetricsSystem.NO_OP_LABELLED_COUNTER);
+            context,
+            peerInfo,
+            multiplexer,
+            callbacks,
+            NoOpMetricsSystem.NO_OP_LABELLED_COUNTER,
+            new OutboundMessageQueue.Factory(10, new NoOpMetricsSystem()));
   }
 
   @Test
@@ -59,4 +85,36 @@ public class NettyPeerConnectionTest {
     Assertions.assertThatThrownBy(() -> connection.send(null, HelloMessage.create(peerInfo)))
         .isInstanceOfAny(PeerNotConnected.class);
   }
+
+  @Test
+  public void shouldWriteQueuedMessagesByPriorityOnceWritable() throws PeerNotConnected {
+    final RawMessage gossip = new RawMessage(2, BytesValue.of(1, 2));
+    final RawMessage response = new RawMessage(1, BytesValue.of(1, 2));
+    connection.send(capability, gossip);
+    connection.send(capability, response);
+    connection.send(null, PingMessage.get());
+
+    connection.drain();
+    verify(channel, never()).write(any());
+
+    when(channel.isWritable()).thenReturn(true);
+    connection.drain();
+
+    final ArgumentCaptor<OutboundMessage> written = ArgumentCaptor.forClass(OutboundMessage.class);
+    verify(channel, times(3)).write(written.capture());
+    verify(channel).flush();
+    assertThat(written.getAllValues())
+        .extracting(OutboundMessage::getData)
+        .containsExactly(PingMessage.get(), response, gossip);
+  }
+
+  @Test
+  public void shouldDisconnectWhenOutboundQueueOverflows() throws PeerNotConnected {
+    connection.send(capability, new RawMessage(1, BytesValue.wrap(new byte[8])));
+    connection.send(capability, new RawMessage(2, BytesValue.wrap(new byte[8])));
+    verify(callbacks, never()).invokeDisconnect(connection, DisconnectReason.TIMEOUT, false);
+
+    connection.send(capability, new RawMessage(1, BytesValue.wrap(new byte[8])));
+    verify(callbacks).invokeDisconnect(connection, DisconnectReason.TIMEOUT, false);
+  }
 }
@@ -0,0 +1,194 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.p2p.netty;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import tech.pegasys.pantheon.ethereum.p2p.api.PeerConnection;
+import tech.pegasys.pantheon.ethereum.p2p.peers.DefaultPeer;
+import tech.pegasys.pantheon.ethereum.p2p.peers.Peer;
+import tech.pegasys.pantheon.metrics.noop.NoOpMetricsSystem;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class OutboundConnectionManagerTest {
+
+  private static final int TARGET_CONNECTIONS = 5;
+  private static final int MAX_CONCURRENT_DIALS = 2;
+
+  private final Map<Peer, CompletableFuture<PeerConnection>> dials = new LinkedHashMap<>();
+  private final Set<Peer> excluded = new HashSet<>();
+  private final Clock clock = mock(Clock.class);
+  private int connections = 0;
+  private int nextPort = 30303;
+  private OutboundConnectionManager manager;
+
+  @Before
+  public void setUp() {
+    when(clock.millis()).thenReturn(1_000_000L);
+    manager =
+        new OutboundConnectionManager(
+            peer -> {
+              final CompletableFuture<PeerConnection> dial = new CompletableFuture<>();
+              dials.put(peer, dial);
+              return dial;
+            },
+            peer -> !excluded.contains(peer),
+            () -> connections,
+            TARGET_CONNECTIONS,
+            MAX_CONCURRENT_DIALS,
+            clock,
+            new NoOpMetricsSystem());
+  }
+
+  @Test
+  public void limitsConcurrentDials() {
+    final Peer first = peer();
+    final Peer second = peer();
+    final Peer third = peer();
+    manager.addCandidate(first, 0);
+    manager.addCandidate(second, 0);
+    manager.addCandidate(third, 0);
+
+    assertThat(dials.keySet()).containsExactly(first, second);
+    assertThat(manager.candidateCount()).isEqualTo(1);
+
+    succeed(first);
+
+    assertThat(dials.keySet()).containsExactly(first, second, third);
+    assertThat(manager.dialsInProgress()).isEqualTo(2);
+  }
+
+  @Test
+  public void dialsPeersWithHighestPriorityFirst() {
+    manager.addCandidate(peer(), 0);
+    manager.addCandidate(peer(), 0);
+    final Peer low = peer();
+    final Peer high = peer();
+    manager.addCandidate(low, -1);
+    manager.addCandidate(high, 3);
+
+    fail(new ArrayList<>(dials.keySet()).get(0));
+
+    assertThat(new ArrayList<>(dials.keySet()).get(2)).isEqualTo(high);
+    assertThat(dials).doesNotContainKey(low);
+  }
+
+  @Test
+  public void stopsDialingAtTargetConnections() {
+    connections = TARGET_CONNECTIONS - 1;
+    manager.addCandidate(peer(), 0);
+    manager.addCandidate(peer(), 0);
+
+    assertThat(dials).hasSize(1);
+
+    connections = TARGET_CONNECTIONS - 2;
+    manager.dialCandidates();
+
+    assertThat(dials).hasSize(2);
+  }
+
+  @Test
+  public void skipsCandidatesWhichShouldNotBeDialed() {
+    final Peer connected = peer();
+    final Peer other = peer();
+    excluded.add(connected);
+    manager.addCandidate(connected, 1);
+    manager.addCandidate(other, 0);
+
+    assertThat(dials.keySet()).containsExactly(other);
+    assertThat(manager.candidateCount()).isEqualTo(0);
+  }
+
+  @Test
+  public void ignoresCandidatesAlreadyQueuedOrBeingDialed() {
+    final Peer peer = peer();
+    manager.addCandidate(peer, 0);
+    manager.addCandidate(peer, 0);
+
+    assertThat(dials).hasSize(1);
+    assertThat(manager.candidateCount()).isEqualTo(0);
+  }
+
+  @Test
+  public void backsOffFromPeersWhichFailed() {
+    final Peer peer = peer();
+    final long start = 1_000_000L;
+    manager.addCandidate(peer, 0);
+    fail(peer);
+    dials.clear();
+
+    manager.addCandidate(peer, 0);
+    assertThat(dials).isEmpty();
+
+    when(clock.millis())
+        .thenReturn(start + OutboundConnectionManager.INITIAL_BACKOFF.toMillis());
+    manager.addCandidate(peer, 0);
+    assertThat(dials).containsKey(peer);
+    fail(peer);
+    dials.clear();
+
+    // The delay doubles after the second failure.
+    final long secondFailure = start + OutboundConnectionManager.INITIAL_BACKOFF.toMillis();
+    when(clock.millis())
+        .thenReturn(secondFailure + OutboundConnectionManager.INITIAL_BACKOFF.toMillis());
+    manager.addCandidate(peer, 0);
+    assertThat(dials).isEmpty();
+
+    when(clock.millis())
+        .thenReturn(secondFailure + 2 * OutboundConnectionManager.INITIAL_BACKOFF.toMillis());
+    manager.addCandidate(peer, 0);
+    assertThat(dials).containsKey(peer);
+  }
+
+  @Test
+  public void successfulDialClearsFailures() {
+    final Peer peer = peer();
+    manager.addCandidate(peer, 0);
+    fail(peer);
+    when(clock.millis())
+        .thenReturn(1_000_000L + OutboundConnectionManager.INITIAL_BACKOFF.toMillis());
+    manager.addCandidate(peer, 0);
+    succeed(peer);
+    dials.clear();
+
+    manager.addCandidate(peer, 0);
+
+    assertThat(dials).containsKey(peer);
+  }
+
+  private void succeed(final Peer peer) {
+    connections++;
+    dials.get(peer).complete(mock(PeerConnection.class));
+  }
+
+  private void fail(final Peer peer) {
+    dials.get(peer).completeExceptionally(new IllegalStateException("Connection refused"));
+  }
+
+  private Peer peer() {
+    return new DefaultPeer(Peer.randomId(), "127.0.0.1", nextPort, nextPort++);
+  }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.p2p.netty;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import tech.pegasys.pantheon.ethereum.p2p.netty.OutboundMessageQueue.Result;
+import tech.pegasys.pantheon.ethereum.p2p.wire.MessagePriority;
+import tech.pegasys.pantheon.ethereum.p2p.wire.RawMessage;
+import tech.pegasys.pantheon.metrics.noop.NoOpMetricsSystem;
+import tech.pegasys.pantheon.util.bytes.BytesValue;
+
+import org.junit.Test;
+
+public class OutboundMessageQueueTest {
+
+  private final OutboundMessageQueue queue =
+      new OutboundMessageQueue.Factory(10, new NoOpMetricsSystem()).create();
+
+  @Test
+  public void takesMessagesByPriorityThenInOrder() {
+    final OutboundMessage low = message(1);
+    final OutboundMessage normal1 = message(1);
+    final OutboundMessage high = message(1);
+    final OutboundMessage normal2 = message(1);
+    queue.add(low, MessagePriority.LOW);
+    queue.add(normal1, MessagePriority.NORMAL);
+    queue.add(high, MessagePriority.HIGH);
+    queue.add(normal2, MessagePriority.NORMAL);
+
+    assertThat(queue.queuedBytes()).isEqualTo(4);
+    assertThat(queue.poll()).isSameAs(high);
+    assertThat(queue.poll()).isSameAs(normal1);
+    assertThat(queue.poll()).isSameAs(normal2);
+    assertThat(queue.poll()).isSameAs(low);
+    assertThat(queue.poll()).isNull();
+    assertThat(queue.queuedBytes()).isZero();
+  }
+
+  @Test
+  public void dropsLowPriorityMessagesWhichDoNotFit() {
+    assertThat(queue.add(message(8), MessagePriority.NORMAL)).isEqualTo(Result.QUEUED);
+    assertThat(queue.add(message(3), MessagePriority.LOW)).isEqualTo(Result.DROPPED);
+    assertThat(queue.add(message(2), MessagePriority.LOW)).isEqualTo(Result.QUEUED);
+    assertThat(queue.queuedBytes()).isEqualTo(10);
+  }
+
+  @Test
+  public void dropsQueuedLowPriorityMessagesToMakeRoom() {
+    final OutboundMessage gossip1 = message(4);
+    final OutboundMessage gossip2 = message(4);
+    final OutboundMessage block = message(5);
+    queue.add(gossip1, MessagePriority.LOW);
+    queue.add(gossip2, MessagePriority.LOW);
+
+    assertThat(queue.add(block, MessagePriority.HIGH)).isEqualTo(Result.QUEUED);
+
+    assertThat(queue.poll()).isSameAs(block);
+    assertThat(queue.poll()).isSameAs(gossip2);
+    assertThat(queue.poll()).isNull();
+  }
+
+  @Test
+  public void overflowsWhenOtherMessagesDoNotFit() {
+    queue.add(message(6), MessagePriority.NORMAL);
+
+    assertThat(queue.add(message(5), MessagePriority.HIGH)).isEqualTo(Result.OVERFLOW);
+    assertThat(queue.queuedBytes()).isEqualTo(6);
+  }
+
+  @Test
+  public void acceptsOversizedMessageWhenEmpty() {
+    assertThat(queue.add(message(20), MessagePriority.NORMAL)).isEqualTo(Result.QUEUED);
+    assertThat(queue.add(message(1), MessagePriority.NORMAL)).isEqualTo(Result.OVERFLOW);
+  }
+
+  @Test
+  public void clearDiscardsEverything() {
+    queue.add(message(2), MessagePriority.HIGH);
+    queue.add(message(2), MessagePriority.LOW);
+
+    queue.clear();
+
+    assertThat(queue.poll()).isNull();
+    assertThat(queue.queuedBytes()).isZero();
+  }
+
+  private static OutboundMessage message(final int size) {
+    return new OutboundMessage(null, new RawMessage(0, BytesValue.wrap(new byte[size])));
+  }
+}
@@ -0,0 +1,219 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.p2p.peers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import tech.pegasys.pantheon.ethereum.p2p.api.PeerConnection;
+import tech.pegasys.pantheon.ethereum.p2p.wire.PeerInfo;
+import tech.pegasys.pantheon.ethereum.p2p.wire.messages.DisconnectMessage.DisconnectReason;
+import tech.pegasys.pantheon.util.bytes.BytesValue;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class PeerStoreTest {
+
+  @Rule public final TemporaryFolder folder = new TemporaryFolder();
+
+  private final Clock clock = mock(Clock.class);
+  private Path path;
+  private int nextPort = 30303;
+
+  @Before
+  public void setUp() {
+    path = folder.getRoot().toPath().resolve("peers");
+    when(clock.millis()).thenReturn(1_000_000L);
+  }
+
+  @Test
+  public void recordsListeningEndpointOfConnectedPeer() {
+    final PeerStore store = PeerStore.load(path, 10, clock);
+    final PeerConnection connection = connection(30301);
+    final BytesValue nodeId = connection.getPeer().getNodeId();
+
+    store.onConnect(connection);
+    assertThat(store.getPeersToDial(10)).isEmpty();
+
+    store.onDisconnect(connection, DisconnectReason.REQUESTED, true);
+    assertThat(store.getPeersToDial(10))
+        .containsExactly(new DefaultPeer(nodeId, "127.0.0.1", 30301, 30301));
+  }
+
+  @Test
+  public void savedPeersAreLoadedAgain() {
+    final PeerStore store = PeerStore.load(path, 10, clock);
+    final PeerConnection first = connection(40000);
+    final PeerConnection second = connection(40001);
+    store.onConnect(first);
+    store.onConnect(second);
+    store.save();
+
+    final List<Peer> loaded = PeerStore.load(path, 10, clock).getPeersToDial(10);
+    assertThat(loaded)
+        .extracting(Peer::getId)
+        .containsExactlyInAnyOrder(first.getPeer().getNodeId(), second.getPeer().getNodeId());
+  }
+
+  @Test
+  public void stablePeersAreDialedFirst() {
+    final PeerStore store = PeerStore.load(path, 10, clock);
+    final PeerConnection shortLived = connection(40000);
+    final PeerConnection stable = connection(40001);
+    store.onConnect(shortLived);
+    store.onConnect(stable);
+
+    when(clock.millis()).thenReturn(1_000_000L + PeerStore.STABLE_CONNECTION.toMillis() - 1);
+    store.onDisconnect(shortLived, DisconnectReason.TOO_MANY_PEERS, true);
+    when(clock.millis()).thenReturn(1_000_000L + PeerStore.STABLE_CONNECTION.toMillis());
+    store.onDisconnect(stable, DisconnectReason.CLIENT_QUITTING, true);
+    // The short lived connection was seen more recently, so would come first on equal scores.
+    when(clock.millis()).thenReturn(1_000_000L + PeerStore.STABLE_CONNECTION.toMillis() * 2);
+    store.onConnect(shortLived);
+    store.onDisconnect(shortLived, DisconnectReason.TOO_MANY_PEERS, true);
+
+    assertThat(store.getPeersToDial(10))
+        .extracting(Peer::getId)
+        .containsExactly(stable.getPeer().getNodeId(), shortLived.getPeer().getNodeId());
+    assertThat(store.getPeersToDial(1))
+        .extracting(Peer::getId)
+        .containsExactly(stable.getPeer().getNodeId());
+    assertThat(store.getScore(stable.getPeer().getNodeId())).hasValue(1);
+    assertThat(store.getScore(shortLived.getPeer().getNodeId())).hasValue(0);
+    assertThat(store.getScore(Peer.randomId())).isEmpty();
+  }
+
+  @Test
+  public void stableConnectionsStillOpenWhenSavedAreCredited() {
+    final PeerStore store = PeerStore.load(path, 10, clock);
+    final PeerConnection stable = connection(40000);
+    final PeerConnection shortLived = connection(40001);
+    store.onConnect(stable);
+    when(clock.millis()).thenReturn(1_000_001L);
+    store.onConnect(shortLived);
+
+    when(clock.millis()).thenReturn(1_000_000L + PeerStore.STABLE_CONNECTION.toMillis());
+    store.save();
+    // Saving again doesn't credit the same connection twice.
+    store.save();
+
+    final PeerStore loaded = PeerStore.load(path, 10, clock);
+    assertThat(loaded.getScore(stable.getPeer().getNodeId())).hasValue(1);
+    assertThat(loaded.getScore(shortLived.getPeer().getNodeId())).hasValue(0);
+
+    store.onDisconnect(stable, DisconnectReason.CLIENT_QUITTING, true);
+    assertThat(store.getScore(stable.getPeer().getNodeId())).hasValue(1);
+  }
+
+  @Test
+  public void peersRepeatedlyDisconnectedForBeingUselessAreForgotten() {
+    final PeerStore store = PeerStore.load(path, 10, clock);
+    final PeerConnection connection = connection(40000);
+
+    for (int i = 0; i > PeerStore.MIN_SCORE; i--) {
+      store.onConnect(connection);
+      store.onDisconnect(connection, DisconnectReason.USELESS_PEER, false);
+      assertThat(store.size()).isEqualTo(1);
+    }
+    store.onConnect(connection);
+    store.onDisconnect(connection, DisconnectReason.USELESS_PEER, false);
+
+    assertThat(store.size()).isEqualTo(0);
+  }
+
+  @Test
+  public void peersDisconnectedForBreachOfProtocolAreForgotten() {
+    final PeerStore store = PeerStore.load(path, 10, clock);
+    final PeerConnection connection = connection(40000);
+
+    store.onConnect(connection);
+    store.onDisconnect(connection, DisconnectReason.BREACH_OF_PROTOCOL, false);
+
+    assertThat(store.size()).isEqualTo(0);
+  }
+
+  @Test
+  public void peersWhichDoNotListenAreNotRecorded() {
+    final PeerStore store = PeerStore.load(path, 10, clock);
+
+    store.onConnect(connection(0));
+
+    assertThat(store.size()).isEqualTo(0);
+  }
+
+  @Test
+  public void lowestScoredPeerIsEvictedWhenFull() {
+    final PeerStore store = PeerStore.load(path, 2, clock);
+    final PeerConnection penalised = connection(40000);
+    final PeerConnection first = connection(40001);
+    final PeerConnection second = connection(40002);
+    store.onConnect(penalised);
+    store.onDisconnect(penalised, DisconnectReason.TIMEOUT, false);
+    store.onConnect(first);
+    store.onDisconnect(first, DisconnectReason.REQUESTED, true);
+
+    store.onConnect(second);
+
+    assertThat(store.size()).isEqualTo(2);
+    store.onDisconnect(second, DisconnectReason.REQUESTED, true);
+    assertThat(store.getPeersToDial(10))
+        .extracting(Peer::getId)
+        .containsExactlyInAnyOrder(first.getPeer().getNodeId(), second.getPeer().getNodeId());
+  }
+
+  @Test
+  public void expiredAndInvalidPeersAreNotLoaded() throws IOException {
+    final PeerStore store = PeerStore.load(path, 10, clock);
+    final PeerConnection old = connection(40000);
+    store.onConnect(old);
+    store.onDisconnect(old, DisconnectReason.REQUESTED, true);
+    store.save();
+    Files.write(
+        path,
+        Collections.singletonList("not a peer"),
+        StandardCharsets.UTF_8,
+        StandardOpenOption.APPEND);
+
+    when(clock.millis()).thenReturn(1_000_001L + PeerStore.MAX_AGE.toMillis());
+    assertThat(PeerStore.load(path, 10, clock).size()).isEqualTo(0);
+  }
+
+  @Test
+  public void missingFileLoadsEmptyStore() {
+    assertThat(PeerStore.load(path, 10, clock).getPeersToDial(10)).isEmpty();
+  }
+
+  private PeerConnection connection(final int listeningPort) {
+    final PeerConnection connection = mock(PeerConnection.class);
+    final PeerInfo peerInfo =
+        new PeerInfo(5, "client", Collections.emptyList(), listeningPort, Peer.randomId());
+    when(connection.getPeer()).thenReturn(peerInfo);
+    when(connection.getRemoteAddress())
+        .thenReturn(new InetSocketAddress("127.0.0.1", nextPort++ + 10000));
+    return connection;
+  }
+}
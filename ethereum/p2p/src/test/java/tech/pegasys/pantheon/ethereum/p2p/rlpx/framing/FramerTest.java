@@ -30,6 +30,7 @@ import tech.pegasys.pantheon.ethereum.p2p.wire.messages.DisconnectMessage.Discon
 import tech.pegasys.pantheon.util.bytes.BytesValue;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
 
@@ -223,6 +224,42 @@ public class FramerTest {
     assertThatThrownBy(() -> receivingFramer.deframe(out)).isInstanceOf(FramingException.class);
   }
 
+  @Test
+  public void deframeWhatWasFramed() {
+    final Random random = new Random(1);
+    final byte[] aes = new byte[32];
+    final byte[] mac = new byte[32];
+    random.nextBytes(aes);
+    random.nextBytes(mac);
+
+    for (final boolean compression : new boolean[] {false, true}) {
+      // Fresh secrets have empty MACs, so the receiver's ingress matches the sender's egress.
+      final Framer sendingFramer = new Framer(new HandshakeSecrets(aes, mac, mac));
+      final Framer receivingFramer = new Framer(new HandshakeSecrets(aes, mac, mac));
+      if (compression) {
+        sendingFramer.enableCompression();
+        receivingFramer.enableCompression();
+      }
+
+      final List<MessageData> messages = new ArrayList<>();
+      final ByteBuf out = Unpooled.buffer();
+      for (int i = 0; i < 20; i++) {
+        final byte[] data = new byte[random.nextInt(2000)];
+        random.nextBytes(data);
+        final MessageData message = new RawMessage(i, BytesValue.wrap(data));
+        messages.add(message);
+        sendingFramer.frame(message, out);
+      }
+
+      for (final MessageData expected : messages) {
+        final MessageData actual = receivingFramer.deframe(out);
+        assertThat(actual.getCode()).isEqualTo(expected.getCode());
+        assertThat(actual.getData()).isEqualTo(expected.getData());
+      }
+      assertThat(out.isReadable()).isFalse();
+    }
+  }
+
   private HandshakeSecrets secretsFrom(final JsonNode td, final boolean swap) {
     final byte[] aes = decodeHexDump(td.get("aes_secret").asText());
     final byte[] mac = decodeHexDump(td.get("mac_secret").asText());
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.p2p.rlpx.framing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import tech.pegasys.pantheon.metrics.noop.NoOpMetricsSystem;
+import tech.pegasys.pantheon.util.bytes.BytesValue;
+
+import java.nio.charset.StandardCharsets;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import org.junit.Test;
+
+public class SnappyFrameCodecTest {
+
+  private final SnappyFrameCodec codec = new SnappyFrameCodec(new NoOpMetricsSystem());
+
+  @Test
+  public void roundTrip() {
+    final String text = "Uncompressed sample text for round-trip compression/decompression";
+    final BytesValue data =
+        BytesValue.wrap((text + text + text + text).getBytes(StandardCharsets.UTF_8));
+
+    final ByteBuf compressed = codec.compress(0x10, data, PooledByteBufAllocator.DEFAULT);
+    try {
+      assertThat(compressed.readableBytes()).isLessThan(data.size());
+      final BytesValue decompressed =
+          codec.decompress(
+              0x10,
+              compressed.array(),
+              compressed.arrayOffset(),
+              compressed.readableBytes(),
+              data.size() + 1);
+      assertThat(decompressed).isEqualTo(data);
+    } finally {
+      compressed.release();
+    }
+  }
+
+  @Test
+  public void rejectsPayloadDeclaringTooLargeALength() {
+    final BytesValue data = BytesValue.wrap(new byte[100]);
+
+    final ByteBuf compressed = codec.compress(0x10, data, PooledByteBufAllocator.DEFAULT);
+    try {
+      assertThatThrownBy(
+              () ->
+                  codec.decompress(
+                      0x10,
+                      compressed.array(),
+                      compressed.arrayOffset(),
+                      compressed.readableBytes(),
+                      100))
+          .isInstanceOf(FramingException.class)
+          .hasMessageContaining("in excess of maximum length");
+    } finally {
+      compressed.release();
+    }
+  }
+}
@@ -21,7 +21,7 @@ import java.util.Optional;
 class StoredNode<V> implements Node<V> {
   private final StoredNodeFactory<V> nodeFactory;
   private final Bytes32 hash;
-  private Node<V> loaded;
+  private volatile Node<V> loaded;
 
   StoredNode(final StoredNodeFactory<V> nodeFactory, final Bytes32 hash) {
     this.nodeFactory = nodeFactory;
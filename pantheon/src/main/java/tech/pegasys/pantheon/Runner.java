@@ -20,6 +20,7 @@ import tech.pegasys.pantheon.ethereum.p2p.NetworkRunner;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.nio.file.Path;
+import java.util.List;
 import java.util.Optional;
 import java.util.Properties;
 import java.util.concurrent.ExecutorService;
@@ -42,6 +43,7 @@ public class Runner implements AutoCloseable {
 
   private final Optional<JsonRpcHttpService> jsonRpc;
   private final Optional<WebSocketService> websocketRpc;
+  private final List<ExecutorService> queryExecutors;
 
   private final PantheonController<?> pantheonController;
   private final Path dataDir;
@@ -51,12 +53,14 @@ public class Runner implements AutoCloseable {
       final NetworkRunner networkRunner,
       final Optional<JsonRpcHttpService> jsonRpc,
       final Optional<WebSocketService> websocketRpc,
+      final List<ExecutorService> queryExecutors,
       final PantheonController<?> pantheonController,
       final Path dataDir) {
     this.vertx = vertx;
     this.networkRunner = networkRunner;
     this.jsonRpc = jsonRpc;
     this.websocketRpc = websocketRpc;
+    this.queryExecutors = queryExecutors;
     this.pantheonController = pantheonController;
     this.dataDir = dataDir;
   }
@@ -95,12 +99,25 @@ public class Runner implements AutoCloseable {
         try {
           vertx.close();
         } finally {
-          pantheonController.close();
+          try {
+            stopQueryExecutors();
+          } finally {
+            pantheonController.close();
+          }
         }
       }
     }
   }
 
+  private void stopQueryExecutors() throws InterruptedException {
+    // The log bloom indexer writes to the data directory, it has to be done before the databases
+    // are closed.
+    queryExecutors.forEach(ExecutorService::shutdown);
+    for (final ExecutorService executor : queryExecutors) {
+      executor.awaitTermination(Long.MAX_VALUE, TimeUnit.DAYS);
+    }
+  }
+
   private void writePantheonPortsToFile() {
     final Properties properties = new Properties();
     if (networkRunner.getNetwork().isListening()) {
@@ -19,16 +19,17 @@ import tech.pegasys.pantheon.ethereum.blockcreation.MiningCoordinator;
 import tech.pegasys.pantheon.ethereum.chain.Blockchain;
 import tech.pegasys.pantheon.ethereum.core.Synchronizer;
 import tech.pegasys.pantheon.ethereum.core.TransactionPool;
-import tech.pegasys.pantheon.ethereum.db.WorldStateArchive;
 import tech.pegasys.pantheon.ethereum.jsonrpc.JsonRpcConfiguration;
 import tech.pegasys.pantheon.ethereum.jsonrpc.JsonRpcHttpService;
 import tech.pegasys.pantheon.ethereum.jsonrpc.JsonRpcMethodsFactory;
 import tech.pegasys.pantheon.ethereum.jsonrpc.RpcApi;
+import tech.pegasys.pantheon.ethereum.jsonrpc.RpcMethodClass;
 import tech.pegasys.pantheon.ethereum.jsonrpc.internal.filter.FilterIdGenerator;
 import tech.pegasys.pantheon.ethereum.jsonrpc.internal.filter.FilterManager;
 import tech.pegasys.pantheon.ethereum.jsonrpc.internal.filter.FilterRepository;
 import tech.pegasys.pantheon.ethereum.jsonrpc.internal.methods.JsonRpcMethod;
 import tech.pegasys.pantheon.ethereum.jsonrpc.internal.queries.BlockchainQueries;
+import tech.pegasys.pantheon.ethereum.jsonrpc.internal.queries.LogBloomIndex;
 import tech.pegasys.pantheon.ethereum.jsonrpc.websocket.WebSocketConfiguration;
 import tech.pegasys.pantheon.ethereum.jsonrpc.websocket.WebSocketRequestHandler;
 import tech.pegasys.pantheon.ethereum.jsonrpc.websocket.WebSocketService;
@@ -48,6 +49,7 @@ import tech.pegasys.pantheon.ethereum.p2p.config.SubProtocolConfiguration;
 import tech.pegasys.pantheon.ethereum.p2p.discovery.internal.PeerRequirement;
 import tech.pegasys.pantheon.ethereum.p2p.netty.NettyP2PNetwork;
 import tech.pegasys.pantheon.ethereum.p2p.peers.PeerBlacklist;
+import tech.pegasys.pantheon.ethereum.p2p.peers.PeerStore;
 import tech.pegasys.pantheon.ethereum.p2p.permissioning.NodeWhitelistController;
 import tech.pegasys.pantheon.ethereum.p2p.wire.Capability;
 import tech.pegasys.pantheon.ethereum.p2p.wire.SubProtocol;
@@ -57,14 +59,21 @@ import tech.pegasys.pantheon.metrics.MetricsSystem;
 import tech.pegasys.pantheon.util.bytes.BytesValue;
 
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import io.vertx.core.Vertx;
 
 public class RunnerBuilder {
@@ -200,6 +209,8 @@ public class RunnerBuilder {
     NodeWhitelistController nodeWhitelistController =
         new NodeWhitelistController(permissioningConfiguration);
 
+    final PeerStore peerStore = PeerStore.load(dataDir.resolve(PantheonController.PEERS_PATH));
+
     final NetworkRunner networkRunner =
         NetworkRunner.builder()
             .protocolManagers(protocolManagers)
@@ -214,7 +225,8 @@ public class RunnerBuilder {
                         PeerRequirement.aggregateOf(protocolManagers),
                         peerBlacklist,
                         metricsSystem,
-                        nodeWhitelistController))
+                        nodeWhitelistController,
+                        Optional.of(peerStore)))
             .metricsSystem(metricsSystem)
             .build();
 
@@ -228,13 +240,32 @@ public class RunnerBuilder {
       transactionPool.setAccountWhitelist(accountWhitelistController);
     }
 
-    final FilterManager filterManager = createFilterManager(vertx, context, transactionPool);
+    final List<ExecutorService> queryExecutors = new ArrayList<>();
+    final BlockchainQueries blockchainQueries;
+    if (jsonRpcConfiguration.isEnabled() || webSocketConfiguration.isEnabled()) {
+      final ExecutorService logBloomIndexExecutor = createLogBloomIndexExecutor();
+      final ExecutorService logSearchExecutor = createLogSearchExecutor();
+      queryExecutors.add(logBloomIndexExecutor);
+      queryExecutors.add(logSearchExecutor);
+      blockchainQueries =
+          new BlockchainQueries(
+              context.getBlockchain(),
+              context.getWorldStateArchive(),
+              Optional.of(createLogBloomIndex(context.getBlockchain(), logBloomIndexExecutor)),
+              logSearchExecutor);
+    } else {
+      blockchainQueries =
+          new BlockchainQueries(context.getBlockchain(), context.getWorldStateArchive());
+    }
+
+    final FilterManager filterManager =
+        createFilterManager(vertx, blockchainQueries, transactionPool);
 
     Optional<JsonRpcHttpService> jsonRpcHttpService = Optional.empty();
     if (jsonRpcConfiguration.isEnabled()) {
       final Map<String, JsonRpcMethod> jsonRpcMethods =
           jsonRpcMethods(
-              context,
+              blockchainQueries,
               protocolSchedule,
               pantheonController,
               networkRunner,
@@ -255,7 +286,7 @@ public class RunnerBuilder {
     if (webSocketConfiguration.isEnabled()) {
       final Map<String, JsonRpcMethod> webSocketsJsonRpcMethods =
           jsonRpcMethods(
-              context,
+              blockchainQueries,
               protocolSchedule,
               pantheonController,
               networkRunner,
@@ -271,11 +302,9 @@ public class RunnerBuilder {
           createSubscriptionManager(
               vertx, transactionPool, webSocketConfiguration.getRefreshDelay());
 
-      createLogsSubscriptionService(
-          context.getBlockchain(), context.getWorldStateArchive(), subscriptionManager);
+      createLogsSubscriptionService(blockchainQueries, subscriptionManager);
 
-      createNewBlockHeadersSubscriptionService(
-          context.getBlockchain(), context.getWorldStateArchive(), subscriptionManager);
+      createNewBlockHeadersSubscriptionService(blockchainQueries, subscriptionManager);
 
       createSyncingSubscriptionService(synchronizer, subscriptionManager);
 
@@ -286,14 +315,52 @@ public class RunnerBuilder {
     }
 
     return new Runner(
-        vertx, networkRunner, jsonRpcHttpService, webSocketService, pantheonController, dataDir);
+        vertx,
+        networkRunner,
+        jsonRpcHttpService,
+        webSocketService,
+        queryExecutors,
+        pantheonController,
+        dataDir);
+  }
+
+  private LogBloomIndex createLogBloomIndex(
+      final Blockchain blockchain, final ExecutorService executor) {
+    final LogBloomIndex logBloomIndex =
+        new LogBloomIndex(
+            blockchain, dataDir.resolve(PantheonController.LOGS_BLOOM_INDEX_PATH), executor);
+    blockchain.observeBlockAdded(logBloomIndex);
+    return logBloomIndex;
+  }
+
+  private ExecutorService createLogBloomIndexExecutor() {
+    return Executors.newSingleThreadExecutor(
+        new ThreadFactoryBuilder().setDaemon(true).setNameFormat("log-bloom-indexer-%d").build());
+  }
+
+  /**
+   * Log searches run on a pool sized like the JSON-RPC tracing pool their requests are executed on.
+   * Once its queue is full, the requesting worker searches the remaining sections itself.
+   */
+  private ExecutorService createLogSearchExecutor() {
+    final int threads = jsonRpcConfiguration.getWorkerThreads(RpcMethodClass.TRACING);
+    return new ThreadPoolExecutor(
+        threads,
+        threads,
+        0L,
+        TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(jsonRpcConfiguration.getQueueCapacity(RpcMethodClass.TRACING)),
+        new ThreadFactoryBuilder().setDaemon(true).setNameFormat("jsonrpc-log-search-%d").build(),
+        new ThreadPoolExecutor.CallerRunsPolicy());
   }
 
   private FilterManager createFilterManager(
-      final Vertx vertx, final ProtocolContext<?> context, final TransactionPool transactionPool) {
+      final Vertx vertx,
+      final BlockchainQueries blockchainQueries,
+      final TransactionPool transactionPool) {
     final FilterManager filterManager =
         new FilterManager(
-            new BlockchainQueries(context.getBlockchain(), context.getWorldStateArchive()),
+            blockchainQueries,
             transactionPool,
             new FilterIdGenerator(),
             new FilterRepository());
@@ -302,7 +369,7 @@ public class RunnerBuilder {
   }
 
   private Map<String, JsonRpcMethod> jsonRpcMethods(
-      final ProtocolContext<?> context,
+      final BlockchainQueries blockchainQueries,
       final ProtocolSchedule<?> protocolSchedule,
       final PantheonController<?> pantheonController,
       final NetworkRunner networkRunner,
@@ -318,16 +385,15 @@ public class RunnerBuilder {
             .methods(
                 PantheonInfo.version(),
                 networkRunner.getNetwork(),
-                context.getBlockchain(),
-                context.getWorldStateArchive(),
+                blockchainQueries,
                 synchronizer,
-                transactionPool,
                 protocolSchedule,
+                filterManager,
+                transactionPool,
                 miningCoordinator,
                 metricsSystem,
                 supportedCapabilities,
-                jsonRpcApis,
-                filterManager);
+                jsonRpcApis);
     methods.putAll(pantheonController.getAdditionalJsonRpcMethods(jsonRpcApis));
     return methods;
   }
@@ -344,14 +410,11 @@ public class RunnerBuilder {
   }
 
   private void createLogsSubscriptionService(
-      final Blockchain blockchain,
-      final WorldStateArchive worldStateArchive,
-      final SubscriptionManager subscriptionManager) {
+      final BlockchainQueries blockchainQueries, final SubscriptionManager subscriptionManager) {
     final LogsSubscriptionService logsSubscriptionService =
-        new LogsSubscriptionService(
-            subscriptionManager, new BlockchainQueries(blockchain, worldStateArchive));
+        new LogsSubscriptionService(subscriptionManager, blockchainQueries);
 
-    blockchain.observeBlockAdded(logsSubscriptionService);
+    blockchainQueries.getBlockchain().observeBlockAdded(logsSubscriptionService);
   }
 
   private void createSyncingSubscriptionService(
@@ -360,14 +423,11 @@ public class RunnerBuilder {
   }
 
   private void createNewBlockHeadersSubscriptionService(
-      final Blockchain blockchain,
-      final WorldStateArchive worldStateArchive,
-      final SubscriptionManager subscriptionManager) {
+      final BlockchainQueries blockchainQueries, final SubscriptionManager subscriptionManager) {
     final NewBlockHeadersSubscriptionService newBlockHeadersSubscriptionService =
-        new NewBlockHeadersSubscriptionService(
-            subscriptionManager, new BlockchainQueries(blockchain, worldStateArchive));
+        new NewBlockHeadersSubscriptionService(subscriptionManager, blockchainQueries);
 
-    blockchain.observeBlockAdded(newBlockHeadersSubscriptionService);
+    blockchainQueries.getBlockchain().observeBlockAdded(newBlockHeadersSubscriptionService);
   }
 
   private WebSocketService createWebsocketService(
@@ -360,6 +360,22 @@ public class PantheonCommand implements DefaultCommandValues, Runnable {
   )
   private final Boolean isDevMode = false;
 
+  @Option(
+    names = {"--block-state-prefetch-enabled"},
+    description =
+        "set to load the accounts used by imported blocks on background threads while they are "
+            + "processed on Ethash networks (default: ${DEFAULT-VALUE})"
+  )
+  private final Boolean isBlockStatePrefetchEnabled = false;
+
+  @Option(
+    names = {"--parallel-transaction-processing-enabled"},
+    description =
+        "set to execute the transactions of imported blocks speculatively in parallel on Ethash "
+            + "networks (default: ${DEFAULT-VALUE})"
+  )
+  private final Boolean isParallelTransactionProcessingEnabled = false;
+
   @Option(
     names = {"--logging", "-l"},
     description = "Logging verbosity: OFF, FATAL, WARN, INFO, DEBUG, TRACE, ALL (default: INFO)."
@@ -543,6 +559,8 @@ public class PantheonCommand implements DefaultCommandValues, Runnable {
           .devMode(isDevMode)
           .nodePrivateKeyFile(getNodePrivateKeyFile())
           .metricsSystem(metricsSystem)
+          .parallelTransactionProcessingEnabled(isParallelTransactionProcessingEnabled)
+          .blockStatePrefetchEnabled(isBlockStatePrefetchEnabled)
           .build();
     } catch (final InvalidConfigurationException e) {
       throw new ExecutionException(new CommandLine(this), e.getMessage());
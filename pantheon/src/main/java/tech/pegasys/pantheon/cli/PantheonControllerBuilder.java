@@ -14,6 +14,7 @@ package tech.pegasys.pantheon.cli;
 
 import static tech.pegasys.pantheon.controller.KeyPairUtil.loadKeyPair;
 import static tech.pegasys.pantheon.controller.PantheonController.DATABASE_PATH;
+import static tech.pegasys.pantheon.controller.PantheonController.ETHASH_CACHE_PATH;
 
 import tech.pegasys.pantheon.config.GenesisConfigFile;
 import tech.pegasys.pantheon.controller.MainnetPantheonController;
@@ -22,6 +23,7 @@ import tech.pegasys.pantheon.crypto.SECP256K1.KeyPair;
 import tech.pegasys.pantheon.ethereum.core.MiningParameters;
 import tech.pegasys.pantheon.ethereum.development.DevelopmentProtocolSchedule;
 import tech.pegasys.pantheon.ethereum.eth.sync.SynchronizerConfiguration;
+import tech.pegasys.pantheon.ethereum.mainnet.EthHashCacheFactory;
 import tech.pegasys.pantheon.ethereum.storage.StorageProvider;
 import tech.pegasys.pantheon.ethereum.storage.keyvalue.RocksDbStorageProvider;
 import tech.pegasys.pantheon.metrics.MetricsSystem;
@@ -40,6 +42,8 @@ public class PantheonControllerBuilder {
   private boolean devMode;
   private File nodePrivateKeyFile;
   private MetricsSystem metricsSystem;
+  private boolean parallelTransactionProcessingEnabled;
+  private boolean blockStatePrefetchEnabled;
 
   public PantheonControllerBuilder synchronizerConfiguration(
       final SynchronizerConfiguration synchronizerConfiguration) {
@@ -82,6 +86,18 @@ public class PantheonControllerBuilder {
     return this;
   }
 
+  public PantheonControllerBuilder parallelTransactionProcessingEnabled(
+      final boolean parallelTransactionProcessingEnabled) {
+    this.parallelTransactionProcessingEnabled = parallelTransactionProcessingEnabled;
+    return this;
+  }
+
+  public PantheonControllerBuilder blockStatePrefetchEnabled(
+      final boolean blockStatePrefetchEnabled) {
+    this.blockStatePrefetchEnabled = blockStatePrefetchEnabled;
+    return this;
+  }
+
   public PantheonController<?> build() throws IOException {
     // instantiate a controller with mainnet config if no genesis file is defined
     // otherwise use the indicated genesis file
@@ -89,6 +105,7 @@ public class PantheonControllerBuilder {
 
     final StorageProvider storageProvider =
         RocksDbStorageProvider.create(homePath.resolve(DATABASE_PATH));
+    EthHashCacheFactory.getDefault().persistCachesIn(homePath.resolve(ETHASH_CACHE_PATH));
     if (devMode) {
       final GenesisConfigFile genesisConfig = GenesisConfigFile.development();
       return MainnetPantheonController.init(
@@ -110,7 +127,9 @@ public class PantheonControllerBuilder {
           ethNetworkConfig.getNetworkId(),
           miningParameters,
           nodeKeys,
-          metricsSystem);
+          metricsSystem,
+          parallelTransactionProcessingEnabled,
+          blockStatePrefetchEnabled);
     }
   }
 }
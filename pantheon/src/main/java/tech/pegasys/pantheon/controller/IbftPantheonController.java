@@ -164,7 +164,8 @@ public class IbftPantheonController implements PantheonController<IbftContext> {
             networkId,
             fastSyncEnabled,
             syncConfig.downloaderParallelism(),
-            syncConfig.transactionsParallelism());
+            syncConfig.transactionsParallelism(),
+            metricsSystem);
     final SubProtocol ethSubProtocol = EthProtocol.get();
 
     final SyncState syncState =
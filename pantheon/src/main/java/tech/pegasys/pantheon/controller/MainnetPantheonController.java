@@ -46,10 +46,12 @@ import tech.pegasys.pantheon.metrics.MetricsSystem;
 
 import java.io.IOException;
 import java.time.Clock;
+import java.util.Optional;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -94,6 +96,30 @@ public class MainnetPantheonController implements PantheonController<Void> {
       final MiningParameters miningParams,
       final KeyPair nodeKeys,
       final MetricsSystem metricsSystem) {
+    return init(
+        storageProvider,
+        genesisConfig,
+        protocolSchedule,
+        taintedSyncConfig,
+        miningParams,
+        nodeKeys,
+        metricsSystem,
+        Optional.empty());
+  }
+
+  /**
+   * Creates a controller that owns the executor its block processors run on, shutting it down when
+   * the controller is closed.
+   */
+  public static PantheonController<Void> init(
+      final StorageProvider storageProvider,
+      final GenesisConfigFile genesisConfig,
+      final ProtocolSchedule<Void> protocolSchedule,
+      final SynchronizerConfiguration taintedSyncConfig,
+      final MiningParameters miningParams,
+      final KeyPair nodeKeys,
+      final MetricsSystem metricsSystem,
+      final Optional<ExecutorService> blockProcessingExecutor) {
 
     final GenesisState genesisState = GenesisState.fromConfig(genesisConfig, protocolSchedule);
     final BlockchainStorage blockchainStorage =
@@ -119,7 +145,8 @@ public class MainnetPantheonController implements PantheonController<Void> {
                 .orElse(MainnetProtocolSchedule.DEFAULT_CHAIN_ID),
             fastSyncEnabled,
             syncConfig.downloaderParallelism(),
-            syncConfig.transactionsParallelism());
+            syncConfig.transactionsParallelism(),
+            metricsSystem);
     final SyncState syncState =
         new SyncState(
             protocolContext.getBlockchain(), ethProtocolManager.ethContext().getEthPeers());
@@ -173,6 +200,15 @@ public class MainnetPantheonController implements PantheonController<Void> {
           } catch (final InterruptedException e) {
             LOG.error("Failed to shutdown miner executor");
           }
+          blockProcessingExecutor.ifPresent(
+              blockExecutor -> {
+                blockExecutor.shutdownNow();
+                try {
+                  blockExecutor.awaitTermination(5, TimeUnit.SECONDS);
+                } catch (final InterruptedException e) {
+                  LOG.error("Failed to shutdown block processing executor");
+                }
+              });
           try {
             storageProvider.close();
           } catch (final IOException e) {
@@ -181,6 +217,21 @@ public class MainnetPantheonController implements PantheonController<Void> {
         });
   }
 
+  /**
+   * Creates the executor block processors run transactions on, with one thread per available
+   * processor.
+   *
+   * @return a new executor to pass to {@link #init} so that it is shut down with the controller
+   */
+  public static ExecutorService createBlockProcessingExecutor() {
+    return Executors.newFixedThreadPool(
+        Runtime.getRuntime().availableProcessors(),
+        new ThreadFactoryBuilder()
+            .setDaemon(true)
+            .setNameFormat(MainnetPantheonController.class.getSimpleName() + "-BlockProcessing-%d")
+            .build());
+  }
+
   @Override
   public ProtocolContext<Void> getProtocolContext() {
     return protocolContext;
@@ -25,7 +25,11 @@ import tech.pegasys.pantheon.ethereum.core.TransactionPool;
 import tech.pegasys.pantheon.ethereum.eth.sync.SynchronizerConfiguration;
 import tech.pegasys.pantheon.ethereum.jsonrpc.RpcApi;
 import tech.pegasys.pantheon.ethereum.jsonrpc.internal.methods.JsonRpcMethod;
+import tech.pegasys.pantheon.ethereum.mainnet.BlockStatePrefetcher;
+import tech.pegasys.pantheon.ethereum.mainnet.MainnetBlockProcessor;
 import tech.pegasys.pantheon.ethereum.mainnet.MainnetProtocolSchedule;
+import tech.pegasys.pantheon.ethereum.mainnet.ParallelMainnetBlockProcessor;
+import tech.pegasys.pantheon.ethereum.mainnet.ProtocolSpecBuilder.BlockProcessorBuilder;
 import tech.pegasys.pantheon.ethereum.mainnet.ProtocolSchedule;
 import tech.pegasys.pantheon.ethereum.p2p.config.SubProtocolConfiguration;
 import tech.pegasys.pantheon.ethereum.storage.StorageProvider;
@@ -34,10 +38,15 @@ import tech.pegasys.pantheon.metrics.MetricsSystem;
 import java.io.Closeable;
 import java.util.Collection;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
 
 public interface PantheonController<C> extends Closeable {
 
   String DATABASE_PATH = "database";
+  String ETHASH_CACHE_PATH = "ethash";
+  String LOGS_BLOOM_INDEX_PATH = "logs-bloom-index";
+  String PEERS_PATH = "peers";
 
   static PantheonController<?> fromConfig(
       final GenesisConfigFile genesisConfigFile,
@@ -48,10 +57,53 @@ public interface PantheonController<C> extends Closeable {
       final MiningParameters miningParameters,
       final KeyPair nodeKeys,
       final MetricsSystem metricsSystem) {
+    return fromConfig(
+        genesisConfigFile,
+        syncConfig,
+        storageProvider,
+        ottomanTestnetOperation,
+        networkId,
+        miningParameters,
+        nodeKeys,
+        metricsSystem,
+        false,
+        false);
+  }
+
+  static PantheonController<?> fromConfig(
+      final GenesisConfigFile genesisConfigFile,
+      final SynchronizerConfiguration syncConfig,
+      final StorageProvider storageProvider,
+      final boolean ottomanTestnetOperation,
+      final int networkId,
+      final MiningParameters miningParameters,
+      final KeyPair nodeKeys,
+      final MetricsSystem metricsSystem,
+      final boolean parallelTransactionProcessingEnabled,
+      final boolean blockStatePrefetchEnabled) {
 
     final GenesisConfigOptions configOptions = genesisConfigFile.getConfigOptions();
 
-    if (configOptions.isEthHash()) {
+    if (configOptions.isEthHash()
+        && (parallelTransactionProcessingEnabled || blockStatePrefetchEnabled)) {
+      final ExecutorService blockProcessingExecutor =
+          MainnetPantheonController.createBlockProcessingExecutor();
+      // Speculative execution loads the state of every transaction itself, so prefetching is only
+      // needed by the serial block processor.
+      final BlockProcessorBuilder blockProcessorBuilder =
+          parallelTransactionProcessingEnabled
+              ? ParallelMainnetBlockProcessor.builder(blockProcessingExecutor)
+              : MainnetBlockProcessor.builder(new BlockStatePrefetcher(blockProcessingExecutor));
+      return MainnetPantheonController.init(
+          storageProvider,
+          genesisConfigFile,
+          MainnetProtocolSchedule.fromConfig(configOptions, blockProcessorBuilder),
+          syncConfig,
+          miningParameters,
+          nodeKeys,
+          metricsSystem,
+          Optional.of(blockProcessingExecutor));
+    } else if (configOptions.isEthHash()) {
       return MainnetPantheonController.init(
           storageProvider,
           genesisConfigFile,
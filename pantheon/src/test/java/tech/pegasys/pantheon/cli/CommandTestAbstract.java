@@ -88,6 +88,10 @@ public abstract class CommandTestAbstract {
     when(mockControllerBuilder.devMode(anyBoolean())).thenReturn(mockControllerBuilder);
     when(mockControllerBuilder.nodePrivateKeyFile(any())).thenReturn(mockControllerBuilder);
     when(mockControllerBuilder.metricsSystem(any())).thenReturn(mockControllerBuilder);
+    when(mockControllerBuilder.parallelTransactionProcessingEnabled(anyBoolean()))
+        .thenReturn(mockControllerBuilder);
+    when(mockControllerBuilder.blockStatePrefetchEnabled(anyBoolean()))
+        .thenReturn(mockControllerBuilder);
 
     when(mockSyncConfBuilder.build()).thenReturn(mockSyncConf);
   }
@@ -170,6 +170,8 @@ public class PantheonCommandTest extends CommandTestAbstract {
     verify(mockControllerBuilder).miningParameters(miningArg.capture());
     verify(mockControllerBuilder).devMode(eq(false));
     verify(mockControllerBuilder).nodePrivateKeyFile(isNotNull());
+    verify(mockControllerBuilder).parallelTransactionProcessingEnabled(eq(false));
+    verify(mockControllerBuilder).blockStatePrefetchEnabled(eq(false));
     verify(mockControllerBuilder).build();
 
     verify(mockSyncConfBuilder).syncMode(ArgumentMatchers.eq(SyncMode.FULL));
@@ -1071,6 +1073,28 @@ public class PantheonCommandTest extends CommandTestAbstract {
     assertThat(commandErrorOutput.toString()).isEmpty();
   }
 
+  @Test
+  public void blockStatePrefetchOptionMustBeUsed() throws Exception {
+    parseCommand("--block-state-prefetch-enabled");
+
+    verify(mockControllerBuilder).blockStatePrefetchEnabled(eq(true));
+    verify(mockControllerBuilder).build();
+
+    assertThat(commandOutput.toString()).isEmpty();
+    assertThat(commandErrorOutput.toString()).isEmpty();
+  }
+
+  @Test
+  public void parallelTransactionProcessingOptionMustBeUsed() throws Exception {
+    parseCommand("--parallel-transaction-processing-enabled");
+
+    verify(mockControllerBuilder).parallelTransactionProcessingEnabled(eq(true));
+    verify(mockControllerBuilder).build();
+
+    assertThat(commandOutput.toString()).isEmpty();
+    assertThat(commandErrorOutput.toString()).isEmpty();
+  }
+
   @Test
   public void rinkebyValuesAreUsed() throws Exception {
     parseCommand("--rinkeby");